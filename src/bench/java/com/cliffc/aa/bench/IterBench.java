@@ -0,0 +1,85 @@
+package com.cliffc.aa.bench;
+
+import com.cliffc.aa.CompileStats;
+import com.cliffc.aa.Exec;
+import com.cliffc.aa.TypeEnv;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+// GVN worklist benchmark: compile a corpus and report GVNGCM.iter iterations
+// against the no-progress ones, per program and in total.  The worklists pop
+// in a pseudo-random order fixed when they are built; a priority order was
+// tried and changed the Combo answers, so there is no schedule to vary.
+//
+// The built-in corpus is the TestParse programs which compile cleanly.  Files
+// on the command line replace it, one program per line.  One throwaway compile
+// first takes the primitives' start-up work out of the counts.
+//
+// Usage: IterBench [file ...]
+//
+// Run without -ea; Combo has O(n^2) asserts.  A failed compile leaves the
+// shared graph unusable, so the bench stops there.
+public abstract class IterBench {
+  static final String[] CORPUS = new String[] {
+    "1", "1+2", "1+2 * 3+4 *5", "{5}()", "{ x -> ( 3, x )}", "{ z -> ((z 0), (z \"abc\")) }",
+    "{ g -> f = { ignore -> g }; (f 3, f \"abc\")}", "{x:flt y:int -> x+y}", "{ f -> (f f) }",
+    "{ f -> ({ x -> (f (x x))} { x -> (f (x x))})}", "-1", "!1", "1-2", "1+2*3", "1  < 2",
+    "1  <=2", "1  > 2", "1  >=2", "1  ==2", "1  !=2", "1.2< 2", "1.2<=2", "1.2> 2", "1.2>=2",
+    "1.2==2", "1.2!=2", " 1+2 * 3+4 *5", "(1+2)*(3+4)*5", "-1-2*3-4*5", "1&3|1&2", "1.2+3.4",
+    "1+2.3", "math.pi", "1._+_._(2)", "1._-_._(2)", "1.-_._()", "1._+_._(2 * 3) ",
+    "(1 + 2 * 3)._+_._(4 * 5 + 6) ", "(1;2 )", "(1;2;)", "1._+_._(2;3)", "-1== -1", "0== !!1",
+    "2==-1", "-1==--1", "-1==---1", "x=1", "x=y=1", "x=2; y=x+1; x*y", "1+(x=2*3)+x*x", "x:=1;x++",
+    "x:=1;x++;x", "x:=1;x++ + x--", "x++", "x++;x", "0 && 0", "0 && 2", "0 || 0", "0 || 2",
+    "1 || 2", "x:=y:=0; z=x++ && y++;(x,y,z)", "{x:int -> x&1}", "x=3; andx={y -> x & y}; andx(2)",
+    "x=3; and2={x -> x & 2}; and2(x)", "mul3={x -> y=3; x*y}; mul3(2)",
+    "x=3; addx={y -> x+y}; addx(2)", "x=3; mul2={x -> x*2}; mul2(2.1)",
+    "x=3; mul2={x -> x*2}; mul2(2.1)+mul2(x)", "sq={x -> x*x}; sq 2.1",
+    "fact = { x -> x <= 1 ? x : x*fact(x-1) }; fact(3)",
+    "fib = { x -> x <= 1 ? 1 : fib(x-1)+fib(x-2) }; fib(4)",
+    "f0 = { x -> x ? 1+(f0(x-1)) : 0 }; f0(2)",
+    "fact = { x -> x <= 1 ? x : x*fact(x-1) }; (fact(0),fact(1),fact(2))",
+    "is_even = { n -> n ? is_odd(n-1) : 1}; is_odd = {n -> n ? is_even(n-1) : 0}; is_even(4)",
+    "is_even = { n -> n ? is_odd(n-1) : 1}; is_odd = {n -> n ? is_even(n-1) : 0}; is_even(99)",
+    "(math.rand(1) ? 2._+_ : 2._*_) ._ (3)", "(math.rand(1) ? 2._+_._ : 2._*_._)(3)",
+    "f = g = {-> 3}; f() == g();", "-1:int", "(1+2.3):flt", "x:int = 1", "x:flt = 1",
+    "(0,\"abc\")", "(1,\"abc\").0", "(1,\"abc\").1", "math.rand(1)?0:\"abc\"", "x:=1",
+    "x:=0; a=x; x:=1; b=x; x:=2; (a,b,x)", "math.rand(1)?(x=4):(x=3);x",
+    "math.rand(1)?(x:=4):(x:=3);x", "math.rand(1)?(x:=4):(x:=3);x:=x+1",
+    "cnt:=0; incA={cnt++}; incA();incA()+cnt", "\"Hello, world\"", "math.rand(1)?1:\"a\"", "(1,2)",
+    "{ g -> (g,3)}", "{ g -> f = { ignore -> g }; ( f(3), f(\"abc\"))}", "id={x->x};id(1)",
+    "{x->x}(3.14)", "fun={ g -> f={x -> g}; (f 3,f 1)}",
+    "fun={ g -> f={x -> g}; (f 3,f 1)}; (fun \"abc\",fun 3.14)", "x={x -> x x}",
+    "x={x -> x x}; x({y->y})"
+  };
+
+  public static void main( String[] args ) throws IOException {
+    List<String> progs = new ArrayList<>();
+    for( String arg : args )
+      for( String s : Files.readAllLines(Path.of(arg)) )
+        if( !s.isBlank() ) progs.add(s);
+    if( progs.isEmpty() ) progs = List.of(CORPUS);
+
+    Exec.file("warmup","1",0,true,true).close();
+    System.out.println("   iters    noops  noop%  program");
+    long titer=0, tnoop=0, t0=System.currentTimeMillis();
+    for( String prog : progs ) {
+      CompileStats stats;
+      try( TypeEnv te = Exec.file("bench",prog,0,true,true) ) {
+        stats = te.stats();
+      } catch( Throwable t ) {
+        System.out.println("Failed on \""+prog+"\": "+t);
+        return;
+      }
+      row(stats._gvn_iter,stats._gvn_noop,prog);
+      titer += stats._gvn_iter;  tnoop += stats._gvn_noop;
+    }
+    row(titer,tnoop,"total, "+progs.size()+" programs in "+(System.currentTimeMillis()-t0)+" msec");
+  }
+  private static void row( long iter, long noop, String label ) {
+    System.out.println(String.format("%8d %8d  %4.1f%%  %s",iter,noop,100.0*noop/Math.max(1,iter),label));
+  }
+}
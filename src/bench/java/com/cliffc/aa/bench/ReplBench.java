@@ -0,0 +1,55 @@
+package com.cliffc.aa.bench;
+
+import com.cliffc.aa.REPL;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.Arrays;
+
+// REPL latency benchmark: feed a session of N lines through the REPL and
+// report the per-line latency distribution, per B lines and overall.  Even
+// lines define a new variable, and odd lines read the one just defined.  Each
+// line recompiles the session so far, so expect latency to grow with the line
+// number.
+//
+// Usage: ReplBench [-n 1000] [-b 100]
+//
+// Run without -ea; Combo has O(n^2) asserts.
+public abstract class ReplBench {
+  public static void main( String[] args ) {
+    int N=1000, B=100;
+    for( int i=0; i<args.length; i++ ) {
+      switch( args[i] ) {
+      case "-n": N = Integer.parseInt(args[++i]); break;
+      case "-b": B = Integer.parseInt(args[++i]); break;
+      default: throw new IllegalArgumentException("Unknown arg "+args[i]);
+      }
+    }
+    long[] ns = new long[N];
+    PrintStream out = System.out;
+    System.setOut(new PrintStream(OutputStream.nullOutputStream())); // Mute the REPL
+    try {
+      String prog = "";
+      for( int i=0; i<N; i++ ) {
+        String line = (i&1)==0 ? "x"+i+"="+i : "x"+(i-1);
+        long t0 = System.nanoTime();
+        String prog2 = REPL.go_one(prog,line);
+        ns[i] = System.nanoTime()-t0;
+        if( prog2==prog ) throw new IllegalStateException("Line "+i+" failed: "+line);
+        prog = prog2;
+      }
+    } finally {
+      System.setOut(out);
+    }
+    System.out.println("lines       p50     p90     p99     max (usec)");
+    for( int i=0; i<N; i+=B )
+      latency(String.format("%4d-%-4d",i,Math.min(i+B,N)-1),Arrays.copyOfRange(ns,i,Math.min(i+B,N)));
+    latency("all      ",ns);
+  }
+  private static void latency( String label, long[] ns ) {
+    long[] s = ns.clone();
+    Arrays.sort(s);
+    System.out.println(String.format("%s %7d %7d %7d %7d",label,
+                                     s[s.length*50/100]/1000,s[s.length*90/100]/1000,s[s.length*99/100]/1000,s[s.length-1]/1000));
+  }
+}
@@ -0,0 +1,188 @@
+package com.cliffc.aa.bench;
+
+import com.cliffc.aa.Exec;
+import com.cliffc.aa.HM.HMSession;
+import com.cliffc.aa.tvar.TV3;
+import com.cliffc.aa.util.SB;
+
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+// Scaling benchmark: generate programs from a few parametric families at
+// growing sizes, type each one with the standalone HM engine and with the full
+// AA compiler (parse, Combo, GVN), and report time, allocation and unify
+// counts as CSV.  Plot ms (or unifies) against n; a family whose cost grows
+// faster than n log n has regressed.
+//
+// Families, sized in terms of 'n':
+//   let    - a chain of n dependent lets: x1 = x0-1; x2 = x1-1; ...
+//   poly   - n nested polymorphic identities, each calling the last, used at
+//            both an int and a string
+//   struct - a struct of n lambda fields, with each field loaded and called
+//   list   - a list literal n deep through a recursive map, a deep
+//            recursive type
+//   expo   - Mairson's let-nesting: x1 = (x0,x0); x2 = (x1,x1); ...  The
+//            type doubles every let, so the nesting depth is log2(n); n is
+//            the size of the expanded type.
+//
+// Usage: Scaling [-n 10,100,...] [-ms budget] [-o out.csv] [-e hm|aa] [-f family,...]
+//
+// Each run is in a fresh JVM with the same JVM flags: a failed AA compile
+// leaves the shared graph unusable, and runs should not see each other's
+// interned types anyway.  A family stops growing once one run goes over the
+// per-run budget (default 10sec).  Run without -ea; HM and Combo have O(n^2)
+// asserts.  Deep programs parse recursively, so give a large stack (-Xss).
+// Failures, including StackOverflowError, are recorded in the status column.
+public abstract class Scaling {
+  static final String[] FAMILIES = new String[]{"let","poly","struct","list","expo"};
+  static final String[] ENGINES  = new String[]{"hm","aa"};
+
+  public static void main( String[] args ) throws IOException, InterruptedException {
+    int[] sizes = new int[]{10,100,1000,10000,100000};
+    long budget = 10000;
+    String out = null;
+    String[] engines = ENGINES, families = FAMILIES;
+    for( int i=0; i<args.length; i++ ) {
+      switch( args[i] ) {
+      case "-n" : sizes = Arrays.stream(args[++i].split(",")).mapToInt(Integer::parseInt).toArray(); break;
+      case "-ms": budget = Long.parseLong(args[++i]); break;
+      case "-o" : out = args[++i]; break;
+      case "-e" : engines  = args[++i].split(","); break;
+      case "-f" : families = args[++i].split(","); break;
+      case "-one": System.out.println(run(args[i+1],args[i+2],Integer.parseInt(args[i+3]))); return;
+      default: throw new IllegalArgumentException("Unknown arg "+args[i]);
+      }
+    }
+
+    ArrayList<String> rows = new ArrayList<>();
+    rows.add("engine,family,n,chars,ms,alloc_bytes,unifies,fresh_unifies,status");
+    System.out.println(rows.get(0));
+    for( String engine : engines )
+      for( String family : families )
+        for( int n : sizes ) {
+          String row = fork(engine,family,n);
+          rows.add(row);
+          System.out.println(row);
+          if( Long.parseLong(row.split(",")[4]) > budget ) break;
+        }
+
+    if( out!=null )
+      try( PrintWriter pw = new PrintWriter(new FileWriter(out)) ) {
+        for( String row : rows ) pw.println(row);
+      }
+  }
+
+  // Run one program in a child JVM
+  static String fork( String engine, String family, int n ) throws IOException, InterruptedException {
+    ArrayList<String> cmd = new ArrayList<>();
+    cmd.add(System.getProperty("java.home")+File.separator+"bin"+File.separator+"java");
+    cmd.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+    cmd.addAll(Arrays.asList("-cp",System.getProperty("java.class.path"),Scaling.class.getName(),"-one",engine,family,Integer.toString(n)));
+    Process p = new ProcessBuilder(cmd).redirectErrorStream(true).start();
+    String row = null, line;
+    try( BufferedReader br = new BufferedReader(new InputStreamReader(p.getInputStream())) ) {
+      while( (line = br.readLine()) != null )
+        if( line.startsWith(engine+","+family+",") ) row = line;
+    }
+    int rc = p.waitFor();
+    // Died without a row; usually out of memory
+    return row!=null ? row : engine+","+family+","+n+",0,0,0,0,0,exit"+rc;
+  }
+
+  // One program, one engine, one CSV row
+  static String run( String engine, String family, int n ) {
+    boolean hm = engine.equals("hm");
+    String prog = hm ? hm(family,n) : aa(family,n);
+    com.sun.management.ThreadMXBean mx = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+    long tid = Thread.currentThread().getId();
+    HMSession ses = hm ? new HMSession() : null;
+    String status = "ok";
+    long u0 = TV3.UNIFY_CNT, f0 = TV3.FRESH_CNT;
+    long b0 = mx.getThreadAllocatedBytes(tid);
+    long t0 = System.nanoTime();
+    try {
+      if( hm ) ses.hm(prog,0,true,true);
+      else     Exec.file("scaling",prog,0,true,true).close();
+    } catch( Throwable t ) {
+      status = t.getClass().getSimpleName();
+    }
+    long ms = (System.nanoTime()-t0)/1000000;
+    long bs = mx.getThreadAllocatedBytes(tid)-b0;
+    long us = hm ? ses._unify_cnt : TV3.UNIFY_CNT-u0;
+    long fs = hm ? ses._fresh_cnt : TV3.FRESH_CNT-f0;
+    if( hm ) ses.close();
+    return engine+","+family+","+n+","+prog.length()+","+ms+","+bs+","+us+","+fs+","+status;
+  }
+
+  static int log2( int n ) { return 31-Integer.numberOfLeadingZeros(Math.max(n,2)); }
+
+  // Program in the HM core syntax
+  static String hm( String family, int n ) {
+    SB sb = new SB();
+    switch( family ) {
+    case "let":
+      sb.p("x0 = 1; ");
+      for( int i=1; i<=n; i++ ) sb.p("x").p(i).p(" = (dec x").p(i-1).p("); ");
+      return sb.p("x").p(n).toString();
+    case "poly":
+      sb.p("id0 = { x -> x }; ");
+      for( int i=1; i<=n; i++ ) sb.p("id").p(i).p(" = { x -> (id").p(i-1).p(" x) }; ");
+      return sb.p("(pair (id").p(n).p(" 3) (id").p(n).p(" \"abc\"))").toString();
+    case "struct":
+      sb.p("s = @{ ");
+      for( int i=0; i<n; i++ ) sb.p("f").p(i).p(i%2==0 ? " = { x -> x }; " : " = { x -> (pair x x) }; ");
+      sb.p("}; ");
+      for( int i=0; i<n; i++ ) sb.p("r").p(i).p(" = (s.f").p(i).p(i%2==0 ? " 3); " : " \"abc\"); ");
+      return sb.p("(pair r0 r").p(n-1).p(")").toString();
+    case "list":
+      sb.p("map = { fun lst -> (if lst @{ val = (fun lst.val); next = (map fun lst.next) } 0) }; ");
+      sb.p("(map { x -> (i* x x) } ");
+      for( int i=0; i<n; i++ ) sb.p("@{ val = ").p(i).p("; next = ");
+      sb.p("0");
+      for( int i=0; i<n; i++ ) sb.p(" }");
+      return sb.p(")").toString();
+    case "expo":
+      sb.p("x0 = { z -> z }; ");
+      int d = log2(n);
+      for( int i=1; i<=d; i++ ) sb.p("x").p(i).p(" = (pair x").p(i-1).p(" x").p(i-1).p("); ");
+      return sb.p("x").p(d).toString();
+    default: throw new IllegalArgumentException("Unknown family "+family);
+    }
+  }
+
+  // Program in the AA surface syntax
+  static String aa( String family, int n ) {
+    SB sb = new SB();
+    switch( family ) {
+    case "let":
+      sb.p("x0 = 1; ");
+      for( int i=1; i<=n; i++ ) sb.p("x").p(i).p(" = x").p(i-1).p("-1; ");
+      return sb.p("x").p(n).toString();
+    case "poly":
+      sb.p("id0 = { x -> x }; ");
+      for( int i=1; i<=n; i++ ) sb.p("id").p(i).p(" = { x -> id").p(i-1).p("(x) }; ");
+      return sb.p("(id").p(n).p("(3), id").p(n).p("(\"abc\"))").toString();
+    case "struct":
+      sb.p("s = @{ ");
+      for( int i=0; i<n; i++ ) sb.p("f").p(i).p(i%2==0 ? " = { x -> x }; " : " = { x -> (x,x) }; ");
+      sb.p("}; ");
+      for( int i=0; i<n; i++ ) sb.p("r").p(i).p(" = s.f").p(i).p(i%2==0 ? "(3); " : "(\"abc\"); ");
+      return sb.p("(r0, r").p(n-1).p(")").toString();
+    case "list":
+      sb.p("map = { fun lst -> lst ? @{ val = fun(lst.val); next = map(fun,lst.next) } : 0 }; ");
+      sb.p("map({ x -> x*x }, ");
+      for( int i=0; i<n; i++ ) sb.p("@{ val = ").p(i).p("; next = ");
+      sb.p("0");
+      for( int i=0; i<n; i++ ) sb.p(" }");
+      return sb.p(")").toString();
+    case "expo":
+      sb.p("x0 = { z -> z }; ");
+      int d = log2(n);
+      for( int i=1; i<=d; i++ ) sb.p("x").p(i).p(" = (x").p(i-1).p(", x").p(i-1).p("); ");
+      return sb.p("x").p(d).toString();
+    default: throw new IllegalArgumentException("Unknown family "+family);
+    }
+  }
+}
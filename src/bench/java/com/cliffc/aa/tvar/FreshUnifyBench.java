@@ -0,0 +1,42 @@
+package com.cliffc.aa.tvar;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.cliffc.aa.AA.ARG_IDX;
+
+// JMH benchmark for fresh-unify of deep polymorphic lambdas against a
+// same-shaped RHS; the walk visits every node and changes nothing.  Scores
+// are per walk; run with "-prof gc" for the bytes allocated per walk.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations=3, time=1)
+@Measurement(iterations=5, time=1)
+@Fork(value=1, jvmArgsAppend={"--enable-preview","-Xss64m"})
+public class FreshUnifyBench {
+  @Param({"10","100","1000"})
+  int _depth;
+  TV3 _lhs, _rhs;
+
+  @Setup(Level.Trial) public void setup() {
+    _lhs = deep(_depth,new TVLeaf());
+    _rhs = deep(_depth,new TVLeaf());
+  }
+
+  @Benchmark
+  public boolean fresh_unify() {
+    boolean progress = _lhs.fresh_unify(_rhs,null,false);
+    assert !progress;
+    return progress;
+  }
+
+  // Nested polymorphic lambdas: { D A -> { D A -> ... } }, 'A' shared by all
+  // levels.
+  static TV3 deep( int d, TV3 a ) {
+    TVLambda lam = new TVLambda(ARG_IDX+1,new TVLeaf(),d==0 ? a : deep(d-1,a));
+    lam._args[ARG_IDX] = a;
+    return lam;
+  }
+}
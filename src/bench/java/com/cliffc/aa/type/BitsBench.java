@@ -0,0 +1,56 @@
+package com.cliffc.aa.type;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// JMH benchmarks for small alias sets over a large split tree: meets of
+// sets and of their duals, parent tests and overlaps, with 10K and 100K
+// aliases split off in a random tree.  Each op does one pass over PAIRS
+// pairs drawn from 256 sets of 2-4 aliases; scores are per pair.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations=3, time=1)
+@Measurement(iterations=5, time=1)
+@Fork(value=1, jvmArgsAppend={"--enable-preview"})
+public class BitsBench {
+  static final int PAIRS = 1<<16;
+
+  @Param({"10000","100000"})
+  int _aliases;
+  int[] _as;                    // Split aliases
+  BitsAlias[] _lo, _hi;         // Small sets and their duals
+
+  @Setup(Level.Trial) public void setup() {
+    Random R = new Random(1);
+    _as = new int[_aliases];
+    for( int i=0; i<_aliases; i++ )
+      _as[i] = BitsAlias.new_alias(i<8 ? BitsAlias.INTX : _as[R.nextInt(i)]);
+    _lo = new BitsAlias[256];  _hi = new BitsAlias[256];
+    for( int i=0; i<_lo.length; i++ ) {
+      int[] xs = new int[2+R.nextInt(3)];
+      for( int j=0; j<xs.length; j++ ) xs[j] = _as[R.nextInt(_aliases)];
+      _hi[i] = (_lo[i] = BitsAlias.make0(xs)).dual();
+    }
+  }
+
+  @Benchmark @OperationsPerInvocation(PAIRS)
+  public void meet( Blackhole bh ) {
+    for( int i=0; i<PAIRS; i++ ) bh.consume(_lo[i&255].meet(_lo[(i>>8)&255]));
+  }
+  @Benchmark @OperationsPerInvocation(PAIRS)
+  public void join( Blackhole bh ) {
+    for( int i=0; i<PAIRS; i++ ) bh.consume(_hi[i&255].meet(_hi[(i>>8)&255]));
+  }
+  @Benchmark @OperationsPerInvocation(PAIRS)
+  public void test_recur( Blackhole bh ) {
+    for( int i=0; i<PAIRS; i++ ) bh.consume(_lo[i&255].test_recur(_as[(int)((i*7919L)%_aliases)]));
+  }
+  @Benchmark @OperationsPerInvocation(PAIRS)
+  public void overlaps( Blackhole bh ) {
+    for( int i=0; i<PAIRS; i++ ) bh.consume(_lo[i&255].overlaps(_lo[(i>>8)&255]));
+  }
+}
@@ -0,0 +1,55 @@
+package com.cliffc.aa.type;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// JMH benchmark for Cyclic.install on cyclic struct graphs of 10 to 10000
+// structs.  Graphs are binary heaps whose leaves point back to the root;
+// walks recurse, so a long ring would run too deep.  Values by heap level
+// minimize to one struct per level; distinct values do not minimize at all.
+//
+// Each op installs one fresh graph; building it is not timed, but "-prof gc"
+// allocation counts include it.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations=3, time=1)
+@Measurement(iterations=5, time=1)
+@Fork(value=1, jvmArgsAppend={"--enable-preview","-Xss64m"})
+public class CyclicBench {
+  @Param({"10","100","1000","10000"})
+  int _structs;
+  @Param({"false","true"})
+  boolean _distinct;
+  int _alias;
+  TypeStruct _ts;
+
+  @Setup(Level.Trial) public void setup() {
+    Object dummy0 = TypeMemPtr.DISPLAY_PTR; // Must <clinit> out of RECURSIVE_MEET
+    _alias = BitsAlias.new_alias(BitsAlias.ALLX);
+  }
+  @Setup(Level.Invocation) public void build() { _ts = heap(_alias,_structs,_distinct); }
+
+  @Benchmark
+  public Type install() { return Cyclic.install(_ts); }
+
+  // Struct i is @{l=*[alias]->struct 2i+1; r=*[alias]->struct 2i+2; v=...},
+  // with children past the end pointing to the root.
+  static TypeStruct heap( int alias, int n, boolean distinct ) {
+    Type.recursive_meet(1);
+    TypeFld[] ls = new TypeFld[n], rs = new TypeFld[n];
+    TypeStruct[] ts = new TypeStruct[n];
+    for( int i=0; i<n; i++ ) {
+      int v = distinct ? i : 31-Integer.numberOfLeadingZeros(i+1);
+      ts[i] = TypeStruct.malloc(false,"",Type.ALL,TypeFlds.ts(ls[i] = TypeFld.malloc("l"),rs[i] = TypeFld.malloc("r")));
+      ts[i].add_fld(TypeFld.make("v",TypeInt.con(v)));
+    }
+    for( int i=0; i<n; i++ ) {
+      ls[i].setX(TypeMemPtr.make(alias,ts[2*i+1<n ? 2*i+1 : 0]));
+      rs[i].setX(TypeMemPtr.make(alias,ts[2*i+2<n ? 2*i+2 : 0]));
+    }
+    Type.recursive_meet(-1);
+    return ts[0];
+  }
+}
@@ -0,0 +1,180 @@
+package com.cliffc.aa.type;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// JMH benchmarks for the hot lattice operations.  Pairs are drawn from
+// Type.ALL_TYPES plus a few cyclic structs, with a fixed seed so runs compare.
+//
+// Each op does one pass over PAIRS pairs; scores are per pair.  "Warm" ops
+// keep the meet/join/isa caches from earlier iterations, the common case in
+// a long compile.  "Cold" ops clear the caches before every pass, so each
+// pair computes its meet from scratch.  Run with "-prof gc" for allocation
+// rates; see the Makefile bench target.
+//
+// In the type package to reach Cyclic.install and the struct mallocs.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations=3, time=1)
+@Measurement(iterations=5, time=1)
+@Fork(value=1, jvmArgsAppend={"--enable-preview","-Xss64m"})
+public class LatticeBench {
+  static final int PAIRS = 1024;
+
+  // Cyclic and self-referential types, after TestType.testValueOf.  Aliases
+  // A0-A2 and fidx F0 are made fresh in setup.
+  static final String[] CYCLIC = new String[]{
+    "PA:*[A1]@{_; add=[F0]{any,4 -> PA }; i=int64}",
+    "PA:*[A2]@{_; n1=*[A1]@{_; n1=PA; FB:v1=7}; FB}",
+    "*[A2](_, 0=PA:*[A1](_, *[A0]@{_; x=nScalar}, nScalar), 1=PA)",
+    "@{FA:head=*[A1]@{_; FA}?}",
+  };
+  // Flat types to parse
+  static final String[] FLAT = new String[]{
+    "Scalar", "nScalar", "~_0Scalar", "int64", "nint8", "3.14", "flt32",
+    "%[4][]?", "*[17](_, 1, ~Scalar)", "[23]{any,3 -> *[7](3, Scalar) }",
+    "{Ctrl,[[_all_]],int64,int64}",
+  };
+
+  Type[] _as, _bs;              // Random pairs over all types
+  Type[] _sas, _sbs;            // Random pairs over structs and cyclic types
+  TypeMem _mem;
+  TypeMemPtr[] _ptrs;
+  TypeStruct[] _objs;
+  BitsAlias[] _stas;
+  int[] _aliases;
+  String[] _cyclic;
+
+  @Setup(Level.Trial) public void setup() {
+    Random R = new Random(12345);
+    Type[] ts = Type.ALL_TYPES().asAry();
+    _as = new Type[PAIRS];  _bs = new Type[PAIRS];
+    for( int i=0; i<PAIRS; i++ ) {
+      _as[i] = ts[R.nextInt(ts.length)];
+      _bs[i] = ts[R.nextInt(ts.length)];
+    }
+
+    // Structs: the test structs plus the cyclic types
+    _cyclic = new String[CYCLIC.length];
+    int a0 = BitsAlias.new_alias(BitsAlias.ALLX), a1 = BitsAlias.new_alias(a0), a2 = BitsAlias.new_alias(a0);
+    int f0 = BitsFun.new_fidx();
+    for( int i=0; i<CYCLIC.length; i++ )
+      _cyclic[i] = CYCLIC[i].replace("A0",""+a0).replace("A1",""+a1).replace("A2",""+a2).replace("F0",""+f0);
+    Type[] ss = new Type[TypeStruct.TYPES.length*2+CYCLIC.length*2];
+    int len=0;
+    for( TypeStruct s : TypeStruct.TYPES ) { ss[len++] = s; ss[len++] = s.dual(); }
+    for( String s : _cyclic ) { Type t = Type.valueOf(s); ss[len++] = t; ss[len++] = t.dual(); }
+    _sas = new Type[PAIRS];  _sbs = new Type[PAIRS];
+    for( int i=0; i<PAIRS; i++ ) {
+      _sas[i] = ss[R.nextInt(len)];
+      _sbs[i] = ss[R.nextInt(len)];
+    }
+
+    // Memory over a small alias tree, as in TestType
+    int m0 = BitsAlias.ALLX;
+    int m1 = BitsAlias.new_alias(m0);
+    int m2 = BitsAlias.new_alias(m1);
+    int m3 = BitsAlias.new_alias(m0);
+    _aliases = new int[]{m0,m1,m2,m3};
+    TypeStruct[] tos = new TypeStruct[m3+1];
+    tos[m0] = TypeStruct.ISUSED;
+    tos[m1] = TypeStruct.POINT;
+    tos[m2] = TypeStruct.NAMEPT;
+    tos[m3] = TypeStruct.A;
+    _mem = TypeMem.make0(tos);
+    _ptrs = new TypeMemPtr[PAIRS];
+    for( int i=0; i<PAIRS; i++ ) {
+      BitsAlias bs = BitsAlias.make0(_aliases[R.nextInt(4)]);
+      if( R.nextBoolean() ) bs = bs.set(_aliases[R.nextInt(4)]);
+      _ptrs[i] = TypeMemPtr.make(R.nextInt(4)==0,bs,TypeStruct.ISUSED);
+    }
+    // Stores go to the leaf aliases, and never store a copy of the parent
+    _objs = new TypeStruct[]{TypeStruct.NAMEPT,TypeStruct.A,TypeStruct.C0,TypeStruct.D1};
+    _stas = new BitsAlias[PAIRS];
+    for( int i=0; i<PAIRS; i++ )
+      _stas[i] = R.nextInt(4)==0 ? BitsAlias.make0(m2,m3) : BitsAlias.make0(R.nextBoolean() ? m2 : m3);
+  }
+
+  // Empty meet, join and isa caches before every pass
+  @State(Scope.Thread)
+  public static class Cold {
+    @Setup(Level.Invocation) public void clear() {
+      for( TypeCache tc : Type.caches() ) tc.clear();
+    }
+  }
+
+  @Benchmark @OperationsPerInvocation(PAIRS)
+  public void meet_warm( Blackhole bh ) {
+    for( int i=0; i<PAIRS; i++ ) bh.consume(_as[i].meet(_bs[i]));
+  }
+  @Benchmark @OperationsPerInvocation(PAIRS)
+  public void meet_cold( Cold cold, Blackhole bh ) {
+    for( int i=0; i<PAIRS; i++ ) bh.consume(_as[i].meet(_bs[i]));
+  }
+  @Benchmark @OperationsPerInvocation(PAIRS)
+  public void join_warm( Blackhole bh ) {
+    for( int i=0; i<PAIRS; i++ ) bh.consume(_as[i].join(_bs[i]));
+  }
+  @Benchmark @OperationsPerInvocation(PAIRS)
+  public void join_cold( Cold cold, Blackhole bh ) {
+    for( int i=0; i<PAIRS; i++ ) bh.consume(_as[i].join(_bs[i]));
+  }
+  @Benchmark @OperationsPerInvocation(PAIRS)
+  public void isa_warm( Blackhole bh ) {
+    for( int i=0; i<PAIRS; i++ ) bh.consume(_as[i].isa(_bs[i]));
+  }
+  @Benchmark @OperationsPerInvocation(PAIRS)
+  public void dual( Blackhole bh ) {
+    for( int i=0; i<PAIRS; i++ ) bh.consume(_as[i].dual());
+  }
+
+  // Struct meets, field-by-field and through cycles
+  @Benchmark @OperationsPerInvocation(PAIRS)
+  public void struct_meet_warm( Blackhole bh ) {
+    for( int i=0; i<PAIRS; i++ ) bh.consume(_sas[i].meet(_sbs[i]));
+  }
+  @Benchmark @OperationsPerInvocation(PAIRS)
+  public void struct_meet_cold( Cold cold, Blackhole bh ) {
+    for( int i=0; i<PAIRS; i++ ) bh.consume(_sas[i].meet(_sbs[i]));
+  }
+
+  // Memory loads over 1-2 aliases and their kids, and stores
+  @Benchmark @OperationsPerInvocation(PAIRS)
+  public void mem_ld( Blackhole bh ) {
+    for( int i=0; i<PAIRS; i++ ) bh.consume(_mem.ld(_ptrs[i]));
+  }
+  @Benchmark @OperationsPerInvocation(PAIRS)
+  public void mem_st( Blackhole bh ) {
+    TypeMem mem = _mem;
+    for( int i=0; i<PAIRS; i++ )
+      mem = mem.update(_stas[i],_objs[i%_objs.length],_stas[i].abit()!=-1);
+    bh.consume(mem);
+  }
+
+  // Build a self-cycle @{n=*[alias]@{...}; v=int64} and install it.  All but
+  // the first install find the prior copy, the common case in a compile.
+  @Benchmark
+  public Type cyclic_install() {
+    TypeFld fldv = TypeFld.make("v",TypeInt.INT64);
+    Type.recursive_meet(1);
+    TypeFld fldn = TypeFld.malloc("n");
+    TypeStruct ts = TypeStruct.malloc_test("",fldn,fldv);
+    fldn.setX(TypeMemPtr.make(_aliases[1],ts));
+    Type.recursive_meet(-1);
+    return Cyclic.install(ts);
+  }
+
+  @Benchmark @OperationsPerInvocation(11)
+  public void value_of_flat( Blackhole bh ) {
+    for( String s : FLAT ) bh.consume(Type.valueOf(s));
+  }
+  // Parse plus Cyclic.install
+  @Benchmark @OperationsPerInvocation(4)
+  public void value_of_cyclic( Blackhole bh ) {
+    for( String s : _cyclic ) bh.consume(Type.valueOf(s));
+  }
+}
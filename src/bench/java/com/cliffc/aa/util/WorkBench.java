@@ -0,0 +1,66 @@
+package com.cliffc.aa.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+// JMH benchmark for Work membership: add/on/pop churn with the dense
+// uid-indexed bitmap, against the prior sparse representation (an Ary plus a
+// hashed BitSetSparse), over uid ranges of 10K to 1M.  Scores are per op.
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations=3, time=1)
+@Measurement(iterations=5, time=1)
+@Fork(value=1, jvmArgsAppend={"--enable-preview"})
+public class WorkBench {
+  static final int OPS = 1<<20;
+  private record X(int _uid) implements IntSupplier { public int getAsInt() { return _uid; } }
+
+  @Param({"10000","100000","1000000"})
+  int _uids;
+  X[] _xs;                      // Ops draw from these, with a fixed seed
+  int[] _draws;
+
+  @Setup(Level.Trial) public void setup() {
+    _xs = new X[_uids];
+    for( int i=0; i<_uids; i++ ) _xs[i] = new X(i);
+    Random R = new Random(1);
+    _draws = new int[OPS];
+    for( int i=0; i<OPS; i++ ) _draws[i] = R.nextInt(_uids);
+  }
+
+  @Benchmark @OperationsPerInvocation(OPS)
+  public long dense() {
+    Work<X> work = new Work<>(123);
+    long sum=0;
+    for( int i=0; i<OPS; i++ ) {
+      X x = _xs[_draws[i]];
+      if( (i&1)==0 ) work.add(x);
+      else if( work.on(x) ) sum++;
+      if( (i&3)==3 ) work.pop();
+    }
+    return sum;
+  }
+
+  // The prior Work representation: Ary plus a NonBlockingHashMapLong set
+  @Benchmark @OperationsPerInvocation(OPS)
+  public long sparse() {
+    Ary<X> ary = new Ary<>(new X[1],0);
+    BitSetSparse set = new BitSetSparse();
+    long sum=0;
+    int idx=0;
+    for( int i=0; i<OPS; i++ ) {
+      X x = _xs[_draws[i]];
+      if( (i&1)==0 ) { if( !set.tset(x._uid) ) ary.push(x); }
+      else if( set.test(x._uid) ) sum++;
+      if( (i&3)==3 && ary._len>0 ) {
+        idx = (idx+123)&((1<<30)-1);
+        set.clr(ary.del(idx%ary._len)._uid);
+      }
+    }
+    return sum;
+  }
+}
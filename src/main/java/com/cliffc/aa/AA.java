@@ -15,10 +15,6 @@ public abstract class AA {
   public static final int REZ_IDX=2; // Result from returns, same as DSP_IDX
   public static final int ARG_IDX=3; // Start of user-visible args
 
-  public static int RSEED;              // Global random seed for worklist draws
-  public static boolean DO_GCP, DO_HMT; // Global type-precision controllers
-  public static boolean LIFTING = true; // Global type-phase
-
 
   private static final AbstractBuildVersion ABV;
   static {
@@ -32,13 +28,31 @@ public abstract class AA {
   }
   public static void main( String[] args ) {
     System.out.println(ABV.toString());
+    // Leading "-stats" also prints the compile stats as JSON, and "-prof"
+    // prints the per-opcode optimizer profile
+    boolean stats=false;
+    int i=0;
+    for( ; i<args.length && args[i].startsWith("-"); i++ )
+      switch( args[i] ) {
+      case "-stats": stats = true; break;
+      case "-prof" : OptProf.ON = true; break;
+      default: throw new IllegalArgumentException("Unknown flag "+args[i]);
+      }
+    args = java.util.Arrays.copyOfRange(args,i,args.length);
     // Command line program
     if( args.length > 0 ) {
-      TypeEnv te = Exec.go(Env.TOP,"args",String.join(" ",args),1,true,true);
-      if( te._errs!=null ) System.out.println(te._errs);
-      else {
-        System.out.println(te._hmt.toString());
-        System.out.println(te._tmem.sharptr(te._t).toString());
+      try( CompilerContext ctx = new CompilerContext(1,true,true) ) {
+        ctx.enter();
+        try {
+          TypeEnv te = Exec.go(ctx,"args",String.join(" ",args));
+          if( te._errs!=null ) System.out.println(te._errs);
+          else {
+            System.out.println(te._hmt.toString());
+            System.out.println(te._tmem.sharptr(te._t).toString());
+          }
+          if( stats ) System.out.println(te._stats.toJSON());
+          if( OptProf.ON ) System.out.println(OptProf.report());
+        } finally { ctx.exit(); }
       }
     } else {
       REPL.go();
@@ -58,10 +72,8 @@ public abstract class AA {
   public static int UID=-1;     // Used to breakpoint on a named Node creation
 
   // assert AA.once_per() || ...expensive;
-  private static int ASSERT_CNT;
   public static boolean once_per() { return once_per(8); }
   public static boolean once_per(int log) {
-    return (ASSERT_CNT++ & ((1L<<(log-1))-1))!=0;
+    return (CompilerContext.cur()._assert_cnt++ & ((1L<<(log-1))-1))!=0;
   }
-  static void reset() { ASSERT_CNT=0; }
 }
@@ -130,12 +130,17 @@ public abstract class Combo {
   // After Combo has run, the Call Graph is built.  All Calls are wired and all
   // Rets explicitly know their callers.  Several approximations are waiting
   // for Combo to start or finish.
-  public static boolean pre   () { return  AA.LIFTING && !HM_FREEZE; }
-  public static boolean during() { return !AA.LIFTING              ; }
-  public static boolean post  () { return  AA.LIFTING &&  HM_FREEZE; }
-
-  public static void opto() {
+  public static boolean pre   () { return  CompilerContext.cur()._lifting && !HM_FREEZE; }
+  public static boolean during() { return !CompilerContext.cur()._lifting              ; }
+  public static boolean post  () { return  CompilerContext.cur()._lifting &&  HM_FREEZE; }
+
+  public static void opto() { opto(null); }
+  // Optionally timing each pass into stats
+  public static void opto( CompileStats stats ) {
+    if( stats!=null ) stats.phase(CompileStats.COMBO_INIT);
     Env.GVN.work_clear();       // Will be used as a worklist
+    StoreNode.skip_reset();     // Types reset, alias sets grow
+    CallEpiNode.wire_reset();   // Types reset, wiring checks redone
 
     // Set all values to ANY and lives to DEAD, their most optimistic types.
     // Set all type-vars to Leafs.
@@ -153,29 +158,39 @@ public abstract class Combo {
     int work_cnt=0;
 
     // Pass 1: Everything starts high/top/leaf and falls; escaping function args are assumed high
-    work_cnt += main_work_loop(1);
+    work_cnt += pass(1,stats);
 
     // Pass 2: Potential new Leafs quit lifting GCP in Apply
     add_new_leaf_work();
     assert Env.ROOT.more_work(false)==0;
-    work_cnt += main_work_loop(2);
+    work_cnt += pass(2,stats);
 
     // Pass 3: Unresolved Fields are ambiguous; propagate errors
     HM_AMBI = true;
     add_ambi_work();
     assert Env.ROOT.more_work(false)==0;
-    work_cnt += main_work_loop(3);
+    work_cnt += pass(3,stats);
     
     // Pass 4: H-M types freeze, escaping function args are assumed called with lowest H-M compatible
     // GCP types continue to run downhill.
     HM_FREEZE = true;
     add_freeze_work();
     assert Env.ROOT.more_work(false)==0;
-    work_cnt += main_work_loop(4);
+    work_cnt += pass(4,stats);
+
+    WORK_TOT += work_cnt;
 
     // Take advantage of results
+    if( stats!=null ) stats.phase(CompileStats.WALK_OPT);
     Env.ROOT.walk_opt(new VBitSet());
   }
+  private static int pass( int pass, CompileStats stats ) {
+    if( stats==null ) return main_work_loop(pass);
+    stats.phase(CompileStats.COMBO1+pass-1);
+    return stats._work[pass] = main_work_loop(pass);
+  }
+  // Total main_work_loop iterations across all compilations since startup
+  static long WORK_TOT;
 
   static int main_work_loop( int pass ) {
 
@@ -186,6 +201,7 @@ public abstract class Combo {
     Node n;
     while( (n=Env.GVN.pop_flow()) != null ) {
       cnt++; assert cnt < 10000; // Infinite loop check
+      if( OptProf.ON ) { prof_step(n); continue; }
       Type told = n._val;
 
       // Forwards flow
@@ -199,12 +215,7 @@ public abstract class Combo {
 
       // During Combo value flow, the exact fcn pointers appear,
       // and we require wiring to make these edges explicit.
-      if( told != n._val ) {
-        for( Node use : n._uses )
-          if( use instanceof CallEpiNode cepi ) cepi.check_and_wire(true);
-        if( n instanceof CallEpiNode cepi ) cepi.check_and_wire(true);
-        if( n instanceof CallNode call ) call.check_global();
-      }
+      if( told != n._val ) wire(n);
       
       // Very expensive assert: everything that can make progress is on worklist
       //assert Env.ROOT.more_work(false)==0;
@@ -212,6 +223,29 @@ public abstract class Combo {
     return cnt;
   }
 
+  // One main_work_loop step, timing each part for OptProf
+  private static void prof_step( Node n ) {
+    Type told = n._val;
+    long t0 = System.nanoTime();
+    boolean p = n.combo_forwards();
+    long t1 = System.nanoTime();
+    OptProf.record(n,OptProf.C_VALUE,p,t1-t0);
+    p = n.combo_backwards();
+    long t2 = System.nanoTime();
+    OptProf.record(n,OptProf.C_LIVE,p,t2-t1);
+    p = n.combo_unify();
+    OptProf.record(n,OptProf.C_UNIFY,p,System.nanoTime()-t2);
+    if( told != n._val ) wire(n);
+  }
+
+  // Exact fcn pointers appearing require wiring the call graph.
+  private static void wire( Node n ) {
+    for( Node use : n._uses )
+      if( use instanceof CallEpiNode cepi ) cepi.check_and_wire(true);
+    if( n instanceof CallEpiNode cepi ) cepi.check_and_wire(true);
+    if( n instanceof CallNode call ) call.check_global();
+  }
+
   private static void add_new_leaf_work() { }
   private static void add_ambi_work() {
     for( Resolvable fld : TVField.FIELDS.values() )
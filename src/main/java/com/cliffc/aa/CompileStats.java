@@ -0,0 +1,107 @@
+package com.cliffc.aa;
+
+import com.cliffc.aa.node.Node;
+import com.cliffc.aa.type.Cyclic;
+import com.cliffc.aa.type.Type;
+import com.cliffc.aa.type.TypeCache;
+import com.cliffc.aa.util.SB;
+
+import java.lang.management.ManagementFactory;
+
+/** an implementation of language AA
+ */
+
+// Where one compilation spent its time: wall time and allocated bytes per
+// phase, Combo work per pass, GVN iterations, the final Node counts by opcode,
+// and the lattice intern table and meet cache state.  Gathered by Exec.go on
+// every compile, returned in the TypeEnv, and printed as JSON by "AA -stats".
+//
+// Allocations are counted on the compiling thread only.  Cache hit and miss
+// counts are global, so compilations on other threads at the same time are
+// counted here as well.
+public class CompileStats {
+  public static final int PARSE=0, COMBO_INIT=1, COMBO1=2, COMBO2=3, COMBO3=4, COMBO4=5, WALK_OPT=6, GVN=7;
+  static final String[] PHASES = new String[]{"parse","combo_init","combo1","combo2","combo3","combo4","walk_opt","gvn"};
+
+  public final long[] _ns    = new long[PHASES.length]; // Wall time per phase
+  public final long[] _bytes = new long[PHASES.length]; // Allocated bytes per phase
+  public final int [] _work  = new int [5]; // Combo main_work_loop iterations, by pass 1-4
+  public int _gvn_iter, _gvn_noop;          // GVN iterations and no-progress iterations
+  public int _body_hit, _body_miss;         // FunNode body summaries reused and redone, for inlining
+  public int[] _nodes;                      // Reachable Nodes by opcode, at the end
+  public int _intern_size, _intern_cap;     // Type intern table
+  public long _cyclic_cnt, _cyclic_ms;      // Cyclic installs
+  private final long[] _hits0, _misses0;    // Cache counts at the start
+  public final long[] _hits, _misses;       // Cache counts during this compile
+
+  private static final com.sun.management.ThreadMXBean MX = (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+  private int _phase=-1;
+  private long _t0, _b0, _cyc_cnt0, _cyc_ms0;
+
+  public CompileStats() {
+    TypeCache[] tcs = Type.caches();
+    _hits0 = new long[tcs.length];  _misses0 = new long[tcs.length];
+    _hits  = new long[tcs.length];  _misses  = new long[tcs.length];
+    for( int i=0; i<tcs.length; i++ ) { _hits0[i] = tcs[i]._hits; _misses0[i] = tcs[i]._misses; }
+    _cyc_cnt0 = Cyclic.install_cnt();
+    _cyc_ms0  = Cyclic.install_ms ();
+  }
+
+  private static long bytes() { return MX.getThreadAllocatedBytes(Thread.currentThread().getId()); }
+
+  // End the current phase, if any, and start the next
+  public void phase( int phase ) {
+    long t = System.nanoTime(), b = bytes();
+    if( _phase != -1 ) { _ns[_phase] += t-_t0;  _bytes[_phase] += b-_b0; }
+    _phase = phase;  _t0 = t;  _b0 = b;
+  }
+
+  // End the last phase, and gather the end-of-compile counts
+  void done() {
+    phase(-1);
+    _gvn_iter = CompilerContext.cur()._iter_cnt;
+    _gvn_noop = CompilerContext.cur()._iter_noop;
+    _body_hit  = CompilerContext.cur()._body_hit ;
+    _body_miss = CompilerContext.cur()._body_miss;
+    _nodes = Node.op_counts(Env.ROOT);
+    _intern_size = Type.intern_size();
+    _intern_cap  = Type.intern_capacity();
+    TypeCache[] tcs = Type.caches();
+    for( int i=0; i<tcs.length; i++ ) {
+      _hits  [i] = tcs[i]._hits  -_hits0  [i];
+      _misses[i] = tcs[i]._misses-_misses0[i];
+    }
+    _cyclic_cnt = Cyclic.install_cnt()-_cyc_cnt0;
+    _cyclic_ms  = Cyclic.install_ms ()-_cyc_ms0 ;
+  }
+
+  public long total_ns() { long sum=0; for( long ns : _ns ) sum += ns; return sum; }
+
+  public String toJSON() {
+    SB sb = new SB().p("{").nl().ii(1);
+    sb.ip("\"total_ms\": ").p(total_ns()/1e6).p(",").nl();
+    sb.ip("\"phases\": {").nl().ii(1);
+    for( int i=0; i<PHASES.length; i++ )
+      sb.ip("\"").p(PHASES[i]).p("\": {\"ms\": ").p(_ns[i]/1e6).p(", \"bytes\": ").p(_bytes[i]).p("},").nl();
+    sb.unchar(1+System.lineSeparator().length()).nl().di(1).ip("},").nl();
+    sb.ip("\"combo_work\": [").p(_work[1]).p(", ").p(_work[2]).p(", ").p(_work[3]).p(", ").p(_work[4]).p("],").nl();
+    sb.ip("\"gvn_iter\": ").p(_gvn_iter).p(", \"gvn_noop\": ").p(_gvn_noop).p(",").nl();
+    sb.ip("\"inline_body\": {\"hits\": ").p(_body_hit).p(", \"misses\": ").p(_body_miss).p("},").nl();
+    sb.ip("\"nodes\": {");
+    for( int op=1; op<_nodes.length; op++ )
+      if( _nodes[op]>0 ) sb.p("\"").p(Node.op_str(op)).p("\": ").p(_nodes[op]).p(", ");
+    sb.unchar(2).p("},").nl();
+    sb.ip("\"intern\": {\"size\": ").p(_intern_size).p(", \"capacity\": ").p(_intern_cap).p("},").nl();
+    sb.ip("\"cyclic_installs\": {\"count\": ").p(_cyclic_cnt).p(", \"ms\": ").p(_cyclic_ms).p("},").nl();
+    sb.ip("\"caches\": {").nl().ii(1);
+    TypeCache[] tcs = Type.caches();
+    for( int i=0; i<tcs.length; i++ ) {
+      long n = _hits[i]+_misses[i];
+      sb.ip("\"").p(tcs[i]._name).p("\": {\"hits\": ").p(_hits[i]).p(", \"misses\": ").p(_misses[i])
+        .p(", \"hit_rate\": ").p(n==0 ? 0.0 : (double)_hits[i]/n).p("}").p(i<tcs.length-1 ? "," : "").nl();
+    }
+    sb.di(1).ip("}").nl();
+    return sb.di(1).p("}").toString();
+  }
+  @Override public String toString() { return toJSON(); }
+}
@@ -0,0 +1,74 @@
+package com.cliffc.aa;
+
+import com.cliffc.aa.type.Type;
+
+import java.lang.ref.Cleaner;
+import java.util.concurrent.locks.ReentrantLock;
+
+/** an implementation of language AA
+ */
+
+// The state of one compilation: its options, its type-phase, its counters and
+// its file-level scope while compiling.  Threaded through Exec; code deep in
+// the graph finds it with cur().
+//
+// This is not isolation.  The primitives, the Node graph under Env.ROOT and
+// the GVN tables stay process-wide statics, shared by every compilation in a
+// JVM, and GRAPH is one global mutex over them.  enter() takes it, exit()
+// releases it, and Env.top_reset returns the graph to the shared primitive
+// state for the next holder.  Compilations on many threads run one at a time.
+// Only the lattice is thread-safe, so Types made by one compilation are shared
+// by all.
+//
+// An open context holds its result Types (see Type.hold): young Types are only
+// reclaimed when nothing else holds any.  Close a context when done with its
+// results; one dropped without a close is released once it is collected.
+public class CompilerContext implements AutoCloseable {
+  private static final ReentrantLock GRAPH = new ReentrantLock();
+
+  // Outside of any compilation: building the primitives, and hand-built test
+  // graphs.  Holds no Types.
+  private static final CompilerContext NONE = new CompilerContext();
+  // The context holding the graph, or NONE.  Only changed under the GRAPH
+  // lock, and only read by graph code, which runs under the same lock.
+  private static CompilerContext CUR = NONE;
+  public static CompilerContext cur() { return CUR; }
+
+  public final int _rseed;                // Random seed for worklist draws
+  public final boolean _do_gcp, _do_hmt;  // Type-precision controllers
+  public boolean _lifting = true;         // Type-phase; false while Combo runs
+  int _iter_cnt, _iter_noop;              // GVN iterations and no-progress iterations
+  public int _body_hit, _body_miss;       // FunNode body summaries reused and redone
+  int _assert_cnt;                        // For AA.once_per
+  CompileStats _stats;                    // Phase times and counts, from Exec.go
+  Env _file;                    // File-level scope, while compiling
+  private final Cleaner.Cleanable _hold; // Released once, by close or when collected
+
+  public CompilerContext( int rseed, boolean do_gcp, boolean do_hmt ) {
+    _rseed = rseed;
+    _do_gcp = do_gcp;
+    _do_hmt = do_hmt;
+    _hold = Type.hold(this);
+  }
+  private CompilerContext() { _rseed = 0; _do_gcp = _do_hmt = false; _hold = null; }
+  @Override public void close() { _hold.clean(); }
+
+  // Take the shared graph, waiting for any other compilation to finish, and
+  // make this the current context.
+  public CompilerContext enter() {
+    GRAPH.lock();
+    CUR = this;
+    return this;
+  }
+
+  // Release the shared graph.  Caller has already reset it, or is leaving
+  // it for a debugger.
+  public void exit() {
+    assert GRAPH.isHeldByCurrentThread() && CUR==this;
+    _file = null;
+    CUR = NONE;
+    GRAPH.unlock();
+  }
+
+  public Env file() { return _file; }
+}
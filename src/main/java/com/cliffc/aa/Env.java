@@ -2,6 +2,7 @@ package com.cliffc.aa;
 
 import com.cliffc.aa.node.*;
 import com.cliffc.aa.tvar.TV3;
+import com.cliffc.aa.tvar.UQNodes;
 import com.cliffc.aa.type.*;
 import com.cliffc.aa.util.NonBlockingHashMap;
 import com.cliffc.aa.util.VBitSet;
@@ -170,7 +171,7 @@ public class Env implements AutoCloseable {
                        fidxs,   // Escaping FIDXS
                        aliases, // Escaping ALIASES
                        mem instanceof TypeMem ? (TypeMem)mem : mem.oob(TypeMem.ALLMEM),
-                       AA.DO_HMT && rez.has_tvar() ? rez.tvar() : null,
+                       CompilerContext.cur()._do_hmt && rez.has_tvar() ? rez.tvar() : null,
                        errs0.isEmpty() ? null : errs0);
   }
 
@@ -209,6 +210,7 @@ public class Env implements AutoCloseable {
     Node.init0(); // Record end of primitives
     GVN.init0();
     FunNode.init0();
+    Type     .init0();  // Before the Bits, as it makes permanent types
     BitsAlias.init0();
     BitsFun  .init0();
     BitsRPC  .init0();
@@ -229,15 +231,24 @@ public class Env implements AutoCloseable {
     GVN.iter();                 // Clean out any dead; reset prim types
     for( Node n : Node.VALS.keySet() ) // Assert no leftover bits from the prior compilation
       assert n._uid < Node._INIT0_CNT; //
-    AA.reset();
     Node      .reset_to_init0();
     CallNode  .reset_to_init0();
     GVN       .reset_to_init0();
     FunNode   .reset_to_init0();
     NewNode   .reset_to_init0();
-    BitsAlias .reset_to_init0();
-    BitsFun   .reset_to_init0();
+    BitsAlias .reset_unshared(); // Not while HM sessions have bits in use
+    BitsFun   .reset_unshared();
     BitsRPC   .reset_to_init0();
+    UQNodes   .reset_to_init0();
+    assert no_young(KEEP_ALIVE,new VBitSet()); // Young types can be reclaimed
+  }
+  // No surviving Node refers to a young Type
+  private static boolean no_young( Node n, VBitSet visit ) {
+    if( n==null || visit.tset(n._uid) ) return true;
+    if( n._val.is_young() || n._live.is_young() ) return false;
+    for( Node def : n._defs ) if( !no_young(def,visit) ) return false;
+    for( Node use : n._uses ) if( !no_young(use,visit) ) return false;
+    return true;
   }
 
   // Return Scope for a name, so can be used to determine e.g. mutability
@@ -1,5 +1,7 @@
 package com.cliffc.aa;
 
+import com.cliffc.aa.type.Type;
+
 import static com.cliffc.aa.AA.*;
 
 /** an implementation of language AA
@@ -9,25 +11,46 @@ import static com.cliffc.aa.AA.*;
 
 public abstract class Exec {
   // Parse and type a file-level string.  Reset back to Env.<clinit> when done.
-  // Suitable for repeated tests
+  // Suitable for repeated tests.  The result holds its own context open, so
+  // its Types stay valid until the result is closed.
   public static TypeEnv file( String src, String str, int rseed, boolean do_gcp, boolean do_hmt ) { // Execute string
+    CompilerContext ctx = new CompilerContext(rseed,do_gcp,do_hmt);
+    try {
+      TypeEnv te = file(ctx,src,str);
+      te._ctx = ctx;
+      return te;
+    } catch( RuntimeException | Error e ) {
+      ctx.close();
+      throw e;
+    }
+  }
+  // Safe to call from many threads at once; compilations take turns with the
+  // shared graph.
+  public static TypeEnv file( CompilerContext ctx, String src, String str ) {
+    ctx.enter();
+    try {
+      // Drop types from prior compilations, whose results are no longer in
+      // use.  Other open contexts and HM sessions may still be using theirs.
+      Type.reclaim_held(false);
 
-    TypeEnv te = go(Env.TOP,src,str,rseed,do_gcp,do_hmt);
+      TypeEnv te = go(ctx,src,str);
 
-    // Kill, cleanup and reset for another parse
-    Env.top_reset();            // Hard reset
+      // Kill, cleanup and reset for another parse
+      Env.top_reset();          // Hard reset
 
-    return te;
+      return te;
+    } finally {
+      ctx.exit();
+    }
   }
 
   // Parse and type a string.  Can be nested.  In theory, will be eval() someday.
   // In theory, can keep the result node and promote them for the REPL.
-  public static TypeEnv go( Env top, String src, String str, int rseed, boolean do_gcp, boolean do_hmt ) { // Execute string
-    AA.RSEED = rseed;
-    AA.DO_GCP = do_gcp;
-    AA.DO_HMT = do_hmt;
-    AA.LIFTING = true;
-    Env e = Env.FILE = new Env(top,null,0,top._scope.ctrl(),top._scope.mem(),top._scope.ptr(), null);
+  // Caller has entered the context.
+  public static TypeEnv go( CompilerContext ctx, String src, String str ) { // Execute string
+    CompileStats stats = ctx._stats = new CompileStats();
+    stats.phase(CompileStats.PARSE);
+    Env e = open(ctx);
     // Parse a program
     ErrMsg err = new Parse(src,false,e,str).prog();
 
@@ -39,17 +62,26 @@ public abstract class Exec {
     Env.GVN.add_flow_uses(Env.ROOT);
     e.close();      // No more fields added to the parse scope
 
-    AA.LIFTING = false;
-    Combo.opto(); // Global Constant Propagation and Hindley-Milner Typing
+    ctx._lifting = false;
+    Combo.opto(stats); // Global Constant Propagation and Hindley-Milner Typing
 
-    AA.LIFTING = true;
+    ctx._lifting = true;
+    stats.phase(CompileStats.GVN);
     Env.GVN.iter(); // Re-check all ideal calls now that types have been maximally lifted
 
     Env.FILE=null;
 
-    return e.gather_errors(err);  // Gather errors and/or program typing
+    stats.done();
+    TypeEnv te = e.gather_errors(err);  // Gather errors and/or program typing
+    te._stats = stats;
+    return te;
   }
 
+  // Open a file-level Env under the shared primitive scope
+  private static Env open( CompilerContext ctx ) {
+    Env top = Env.TOP;
+    return ctx._file = Env.FILE = new Env(top,null,0,top._scope.ctrl(),top._scope.mem(),top._scope.ptr(), null);
+  }
 
   public static String dump() { return Env.ROOT.dumprpo(false,false,false); } // Debugging hook
 }
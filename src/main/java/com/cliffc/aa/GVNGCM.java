@@ -85,7 +85,6 @@ public class GVNGCM {
     _work_mono  .clear();
     _work_grow  .clear();
     _work_inline.clear();
-    ITER_CNT = ITER_CNT_NOOP = 0;
   }
   void work_clear() { _work_flow.clear(); _work_dead.clear(); _work_reduce.clear(); }
 
@@ -123,35 +122,38 @@ public class GVNGCM {
   
   // During start-up, ~2000 total iterations, something like 95% of which are
   // no-ops.  Also, about 500 nodes for primitives, and each hits flow, reduce,
-  // mono and grow worklists (so 4 times) for no-progress.
-  static int ITER_CNT;
-  static int ITER_CNT_NOOP;
+  // mono and grow worklists (so 4 times) for no-progress.  Counted per
+  // compilation in the CompilerContext.
 
   // Top-level iter clean-out.  Does everything it can, empties all queues and
   // aggressively checks no-more-progress.
   public void iter() {
-    int cnt = ITER_CNT;
+    CompilerContext ctx = CompilerContext.cur();
+    int cnt = ctx._iter_cnt;
     assert AA.once_per() || Env.ROOT.more_work(true) == 0; // Initial conditions are correct
     //assert Env.ROOT.no_more_ideal(); // Has side-effects of putting things on worklist
     while( true ) {
       cnt++; assert cnt < 15000; // Catch infinite ideal-loops
       Node n, m;
+      int kind;
+      long t0 = OptProf.ON ? System.nanoTime() : 0;
       if( false ) ;
-      else if( (n=_work_dead  .pop())!=null ) m = n._uses._len == 0 ? n.kill() : null;
-      else if( (n=_work_flow  .pop())!=null ) m = n.do_flow  ();
-      else if( (n=_work_reduce.pop())!=null ) m = n.do_reduce();
-      else if( (n=_work_mono  .pop())!=null ) m = n.do_mono  ();
-      else if( (n=_work_grow  .pop())!=null ) m = n.do_grow  ();
-      else if( (n=_work_inline.pop())!=null ) m = ((FunNode)n).ideal_inline(false);
+      else if( (n=_work_dead  .pop())!=null ) { kind=OptProf.DEAD  ; m = n._uses._len == 0 ? n.kill() : null; }
+      else if( (n=_work_flow  .pop())!=null ) { kind=OptProf.FLOW  ; m = n.do_flow  (); }
+      else if( (n=_work_reduce.pop())!=null ) { kind=OptProf.REDUCE; m = n.do_reduce(); }
+      else if( (n=_work_mono  .pop())!=null ) { kind=OptProf.MONO  ; m = n.do_mono  (); }
+      else if( (n=_work_grow  .pop())!=null ) { kind=OptProf.GROW  ; m = n.do_grow  (); }
+      else if( (n=_work_inline.pop())!=null ) { kind=OptProf.INLINE; m = ((FunNode)n).ideal_inline(false); }
       else break;
-      if( m == null ) ITER_CNT_NOOP++;     // No progress profiling
+      if( OptProf.ON ) OptProf.record(n,kind,m!=null,System.nanoTime()-t0);
+      if( m == null ) ctx._iter_noop++;    // No progress profiling
       else n.deps_work_clear();            // Progress; deps on worklist
       //assert Env.ROOT.more_work(true) == 0;
       //assert Env.ROOT.no_more_ideal();
     }
     assert AA.once_per() || Env.ROOT.more_work(true)==0;
     //assert Env.ROOT == null || Env.ROOT.no_more_ideal(); // Has side effects of putting things on worklist
-    ITER_CNT=cnt;
+    ctx._iter_cnt=cnt;
   }
 
   // Did a bulk not-monotonic update.  Forcibly update the entire region at
@@ -137,11 +137,6 @@ BNF for the "core AA" pretty-printed types:
 */
 
 public class HM {
-  // Mapping from primitive name to PrimSyn
-  static final HashMap<String,PrimSyn> PRIMSYNS = new HashMap<>();
-  // Mapping from alias#s to either Struct, Pair or Triple
-  static final Ary<Alloc> ALIASES = new Ary<>(Alloc.class);
-
   static {
     BitsAlias.init0();
     BitsFun.init0();
@@ -151,135 +146,21 @@ public class HM {
     for( int i=0; i<10; i++ ) BitsFun.new_fidx(BitsFun.EXTX);
   }
 
-  static boolean DO_HM ;        // Do Hindley-Milner typing
-  static boolean DO_GCP;        // Do forwards-flow Global Constant Propagation typing
-
-  static Work<Syntax> WORK;
-
-  static boolean HM_NEW_LEAF;   // After 1st pass, potential HM new leafs will no longer lift Apply results
-  static boolean HM_AMBI;       // After 2nd pass, unresolved Fields are ambiguous
-  static boolean HM_FREEZE;     // After 3rd pass, HM types are frozen but GCP types continue to fall
-
-  static Root ROOT;
-
   static final String RET = " ret";
 
-  public static Root hm( String sprog, int rseed, boolean do_hm, boolean do_gcp ) {
-    Type.RECURSIVE_MEET=0;      // Reset between failed tests
-    DO_HM  = do_hm ;
-    DO_GCP = do_gcp;
-
-    // Initialize the primitives
-    for( PrimSyn prim : new PrimSyn[]{ new If(), new Pair(), new EQ(), new EQ0(), new IMul(), new FMul(), new I2F(), new Add(), new Dec(), new IRand(), new Str(), new Triple(), new Factor(), new IsEmpty(), new NotNil()} )
-      PRIMSYNS.put(prim.name(),prim);
-    new EXTStruct(T2.make_str(TypeMemPtr.STRPTR),TypeMemPtr.STR_ALIAS,null);
-
-    // Parse
-    Root prog = ROOT = parse( sprog );
-
-    // Pass 0: Prep for SSA; pre-gather all the (unique) ids
-    Work<Syntax> work = WORK = new Work<>(rseed);
-    prog.prep_tree(null,null,work);
-
-    // Pass 1: Everything starts high/top/leaf and falls; escaping function args are assumed high
-    HM_NEW_LEAF=false;
-    HM_AMBI   = false;
-    HM_FREEZE = false;
-    main_work_loop(prog,work,1);
-
-    // Pass 2: Potential new Leafs quit lifting GCP in Apply
-    HM_NEW_LEAF = true;
-    prog.add_new_leaf_work(work);
-    assert prog.more_work(work);
-    main_work_loop(prog,work,2);
-
-    // Pass 3: Unresolved Fields are ambiguous; propagate errors
-    HM_AMBI = true;
-    prog.add_ambi_work(work);
-    assert prog.more_work(work);
-    main_work_loop(prog,work,3);
-    
-    // Pass 4: H-M types freeze, escaping function args are assumed called with lowest H-M compatible
-    // GCP types continue to run downhill.
-    HM_FREEZE = true;
-    prog.add_freeze_work(work);
-    assert prog.more_work(work);
-    main_work_loop(prog,work,4);
-
-    // Error propagation, no types change.
-    assert prog.more_work(work);
-    pass_err(prog);
-
-    return prog;
-  }
-
-  static void main_work_loop( Root prog, Work<Syntax> work, int pass ) {
+  // The typing session current on this thread
+  static HMSession S() { return HMSession.CUR.get(); }
 
-    int cnt=0;
-    while( work.len()>0 ) {     // While work
-      cnt++; assert cnt<10000;  // Check for infinite loops
-      Syntax syn = work.pop();  // Get work
-
-      // Do Hindley-Milner work always, to set unresolved Field labels
-      {
-        T2 old = syn._hmt;      // Old value for progress assert
-        if( syn.hm(work) ) {
-          assert syn.debug_find()==old.debug_find(); // monotonic: unifying with the result is no-progress
-          syn.add_hm_work(work);// Push affected neighbors on worklist
-        }
-      }
-      // Do Global Constant Propagation work
-      if( DO_GCP ) {
-        Type old = syn._flow;
-        Type t = syn.val(work);
-        if( t!=old ) {           // Progress
-          assert old.isa(t);     // Monotonic falling
-          syn._flow = t;         // Update type
-          // Push affected neighbors on worklist
-          if( syn._par!=null ) syn._par.add_val_work(syn,work);
-          else                 prog    .add_val_work(old,work);
-        }
-      }
-
-      // VERY EXPENSIVE ASSERT: O(n^2).  Every Syntax that makes progress is on the worklist
-      //assert prog.more_work(work);
-      //if( !work.on(prog) && prog._flow instanceof TypeTuple tt ) {
-      //  BitsAlias aliases = Root.EXT_ALIASES;
-      //  BitsFun   fidxs   = Root.EXT_FIDXS  ;
-      //  prog.escapes(tt.at(0),work);
-      //  assert aliases==Root.EXT_ALIASES && fidxs==Root.EXT_FIDXS;
-      //}
-    }
+  public static Root hm( String sprog, int rseed, boolean do_hm, boolean do_gcp ) {
+    return S().hm(sprog,rseed,do_hm,do_gcp);
   }
 
-  static void pass_err( Root prog ) {
-    prog.visit( syn -> {
-        T2 self = syn.find();
-        // Nil check on fields
-        if( syn instanceof Field fld ) {
-          T2 ptr = fld._ptr.find();
-          if( ptr.is_nil() || ptr._may_nil )
-            self._err = "May be nil when loading field "+fld._id;
-
-          // Expand "Missing field" error with the full pointer type
-          if( self._err!=null && self._err.startsWith("Missing field") ) {
-            T2 rec=null, bad=null;
-            // If the ptr is a full struct, then do not re-print the missing
-            // field when printing the ptr type.
-            boolean miss2 = ptr.is_ptr() && ((rec=ptr.arg("*"))!=null ) && rec.is_obj();
-            if( miss2 )  bad = rec._args.remove(fld._id); // Remove bad field
-            self._err = miss_fld(fld._id)+" in "+ptr.p();
-            if( miss2 )  rec._args.put(fld._id,bad); // Put it back after printing
-          }
-        }
-        return null;
-      }, (a,b)->null);
-  }
   static String miss_fld(String id) { return ("Missing field "+id).intern(); }
-  
 
-  // Reset global statics between tests.  Tests fail leaving wreckage and
-  // broken statics in their wake... and then the next test attempts to start.
+  // Reset between tests: restart the lattice alias and fidx numbering, and
+  // start a new session on this thread.  Tests fail leaving wreckage and
+  // broken state in their wake... and then the next test attempts to start.
+  // Not while other sessions are typing.
   static void reset() {
     //System.out.println("Type.INTERN reprobes");
     //AryInt rps = Type.reprobes();
@@ -290,152 +171,7 @@ public class HM {
     //System.out.println("Accesses: "+cnt+", total reprobes: "+sum+", size: "+Type.intern_size()+", cap: "+Type.intern_capacity());
     BitsAlias.reset_to_init0();
     BitsFun.reset_to_init0();
-    Lambda.FUNS.clear();
-    Field.reset();
-    Root.reset();
-    PRIMSYNS.clear();
-    ALIASES.clear();
-    Syntax.reset();
-    T2.reset();
-  }
-
-  // ---------------------------------------------------------------------
-  // Program text for parsing
-  private static int X;
-  private static byte[] BUF;
-  @Override public String toString() { return str(); }
-  static String str() { return new String(BUF,X,BUF.length-X); }
-  static Root parse( String s ) {
-    X = 0;
-    BUF = s.getBytes();
-    Syntax prog = fterm();
-    if( skipWS() != -1 ) throw unimpl("Junk at end of program: " + new String(BUF, X, BUF.length - X));
-    // Inject IF at root
-    return new Root(prog);
-  }
-  static Syntax term() {
-    if( skipWS()==-1 ) return null;
-    if( isDigit(BUF[X]) ) return number();
-    if( BUF[X]=='"' ) return string();
-
-    if( BUF[X]=='(' ) {         // Parse an Apply
-      X++;                      // Skip paren
-      Syntax fun = fterm();
-      Ary<Syntax> args = new Ary<>(new Syntax[1],0);
-      while( skipWS()!= ')' && X<BUF.length ) args.push(fterm());
-      require(')');
-      // Guarding if-nil test inserts an upcast.  This is a syntactic transform only.
-      if( fun instanceof If &&
-          args.at(0) instanceof Ident id )
-        args.set(1,new Apply(new Lambda(args.at(1), id._name), // Apply always resolves
-                             new Apply(new NotNil(),new Ident(id._name))));
-      return new Apply(fun, args.asAry());
-    }
-
-    if( BUF[X]=='{' ) {         // Lambda of 1 or 2 args
-      X++;                      // Skip paren
-      Ary<String> args = new Ary<>(new String[1],0);
-      while( skipWS()!='-' ) args.push(id());
-      require();
-      Syntax body = fterm();
-      require('}');
-      return new Lambda(body, args.asAry());
-    }
-    // Let or Id
-    if( isAlpha0(BUF[X]) ) {
-      String id = id();
-      if( skipWS()!='=' ) {
-        PrimSyn prim = PRIMSYNS.get(id); // No shadowing primitives or this lookup returns the prim instead of the shadow
-        return prim==null ? new Ident(id) : prim.make(); // Make a prim copy with fresh HM variables
-      }
-      // Let expression; "id = term(); term..."
-      X++;                      // Skip '='
-      Syntax def = fterm();
-      require(';');
-      return new Let(id,def,fterm());
-    }
-
-    // Structure
-    if( BUF[X]=='@' ) {
-      X++;
-      require('{');
-      Ary<String>  ids = new Ary<>(String.class);
-      Ary<Syntax> flds = new Ary<>(Syntax.class);
-      while( skipWS()!='}' && X < BUF.length ) {
-        String id = require('=',id());
-        Syntax fld = fterm();
-        if( fld==null ) throw unimpl("Missing term for field "+id);
-        ids .push( id);
-        flds.push(fld);
-        if( skipWS()==';' ) X++;
-      }
-      require('}');
-      return new Struct(true,ids.asAry(),flds.asAry());
-    }
-
-    throw unimpl("Unknown syntax");
-  }
-  // Parse a term with an optional following field.
-  private static Syntax fterm() {
-    Syntax term=term();
-    while( true ) {
-      if( term==null || skipWS()!='.' ) return term;
-      X++;
-      term = new Field(id(),term);
-    }
-  }
-  private static final SB ID = new SB();
-  private static String id() {
-    ID.clear();
-    while( X<BUF.length && isAlpha1(BUF[X]) )
-      ID.p((char)BUF[X++]);
-    String s = ID.toString().intern();
-    if( s.length()==0 ) throw unimpl("Missing id");
-    if( Util.eq(s,"_") ) return null; // Field is inferred
-    return s;
-  }
-  private static Syntax number() {
-    if( BUF[X]=='0' && (BUF[X+1]!='.' || !isDigit(BUF[X+2])) )
-      { X++; return new Con(TypeNil.NIL); }
-    int sum=0;
-    while( X<BUF.length && isDigit(BUF[X]) )
-      sum = sum*10+BUF[X++]-'0';
-    if( X>= BUF.length || BUF[X]!='.' )
-      return new Con(TypeInt.con(sum));
-    // Ambiguous '.' in: 2.3 vs 2.x (field load from a number)
-    if( X+1<BUF.length && isAlpha0(BUF[X+1]) )
-      return new Con(TypeInt.con(sum));
-    X++;
-    float f = (float)sum;
-    f = f + (BUF[X++]-'0')/10.0f;
-    require('f');
-    return new Con(TypeFlt.con(f));
-  }
-  private static Syntax string() {
-    int start = ++X;
-    while( X<BUF.length && BUF[X]!='"' ) X++;
-    return require('"', new Con(TypeMemPtr.make_str(new String(BUF,start,X-start).intern())));
-  }
-  private static byte skipWS() {
-    while(true) {
-      if( X == BUF.length ) return -1;
-      if( X+1<BUF.length && BUF[X]=='/' && BUF[X+1]=='/' )
-        while( BUF[X]!='\n' ) X++;
-      if( !isWS(BUF[X]) ) return BUF[X];
-      X++;
-    }
-  }
-  private static boolean isWS    (byte c) { return c == ' ' || c == '\t' || c == '\n' || c == '\r'; }
-  private static boolean isDigit (byte c) { return '0' <= c && c <= '9'; }
-  private static boolean isAlpha0(byte c) { return ('a'<=c && c <= 'z') || ('A'<=c && c <= 'Z') || (c=='_') || (c=='*') || (c=='?') || (c=='+'); }
-  private static boolean isAlpha1(byte c) { return isAlpha0(c) || ('0'<=c && c <= '9') || (c=='/'); }
-  private static void require(char c) { if( skipWS()!=c ) throw unimpl("Missing '"+c+"'"); X++; }
-  private static <T> T require(char c, T t) { require(c); return t; }
-  private static void require() {
-    skipWS();
-    if( X+2 >= BUF.length || BUF[X]!= '-' || BUF[X+1]!= '>' )
-      throw unimpl("Missing '->'");
-    X+=2;
+    new HMSession();
   }
 
   // ---------------------------------------------------------------------
@@ -472,8 +208,7 @@ public class HM {
 
   // ---------------------------------------------------------------------
   static abstract class Syntax implements IntSupplier {
-    private static int CNT=1;
-    final int _uid=CNT++;
+    final int _uid=S()._syn_cnt++;
     @Override public int getAsInt() { return _uid; }
     Syntax() { this(TypeNil.XSCALAR); }
     Syntax(Type init_t) { _flow=init_t; }
@@ -522,9 +257,9 @@ public class HM {
     // Giant Assert: True if OK; all Syntaxs off worklist do not make progress
     abstract boolean more_work(Work<Syntax> work);
     final boolean more_work_impl(Work<Syntax> work) {
-      if( (!work.on(this) || HM_FREEZE) && hm(null) ) // Anymore HM work?
+      if( (!work.on(this) || S()._hm_freeze) && hm(null) ) // Anymore HM work?
         return false;           // Found HM work not on worklist or when frozen
-      if( DO_GCP ) {            // Doing GCP AND
+      if( S()._do_gcp ) {            // Doing GCP AND
         Type t = val(null);
         assert _flow.isa(t);    // Flow is not monotonically falling
         if( !work.on(this) && _flow!=t ) // Flow progress not on worklist
@@ -544,14 +279,13 @@ public class HM {
     }
     final SB p0(SB sb, VBitSet visit, VBitSet dups) {
       p1(sb.i(),dups).p('#').p(_uid);
-      if( DO_HM  ) _hmt .str(sb.p(", HMT="), visit,dups,true);
-      if( DO_GCP ) _flow.str(sb.p(", GCP="), true, false );
+      if( S()._do_hm  ) _hmt .str(sb.p(", HMT="), visit,dups,true);
+      if( S()._do_gcp ) _flow.str(sb.p(", GCP="), true, false );
       sb.nl();
       return p2(sb.ii(2),visit,dups).di(2);
     }
     abstract SB p1(SB sb, VBitSet dups); // Self short print
     abstract SB p2(SB sb, VBitSet visit, VBitSet dups); // Recursion print
-    static void reset() { CNT=1; }
     // Utility to find a specific T2 uid
     T2 find( int uid ) {
       return visit( syn -> syn.debug_find().find(uid),
@@ -598,7 +332,7 @@ public class HM {
 
 
   static class Ident extends Syntax {
-    private String _name;       // The identifier name
+    String _name;               // The identifier name
     private Syntax _def;        // Cached syntax defining point
     private int _idx;           // Index in Lambda (which arg of many), or < 0 for Let
     private T2 _idt;            // Cached type var for the name in scope
@@ -639,8 +373,8 @@ public class HM {
             Root.ext_fidxs().test(lam._fidx) ) {// defining Lambda escaped
           // This argument is HM typed as a function or struct, so can be
           // called with any compatible external function or struct.
-          if( t2.is_fun() && !lam.extsetf(_idx) ) { new EXTLambda(t2,work); work.addAll(Root.EXT_DEPS); }
-          if( t2.is_ptr() && !lam.extsetp(_idx) ) { new EXTStruct(t2,work); work.addAll(Root.EXT_DEPS); }
+          if( t2.is_fun() && !lam.extsetf(_idx) ) { new EXTLambda(t2,work); work.addAll(S()._ext_deps); }
+          if( t2.is_ptr() && !lam.extsetp(_idx) ) { new EXTStruct(t2,work); work.addAll(S()._ext_deps); }
         }
 
         // Meet args across all Applys/Calls.
@@ -679,8 +413,6 @@ public class HM {
 
 
   static class Lambda extends Syntax implements Func {
-    // Map from FIDXs to Lambdas
-    static final NonBlockingHashMapLong<Func> FUNS = new NonBlockingHashMapLong<>();
     final String[] _args;       // Lambda argument names
     Syntax _body;               // Lambda body
     final T2[]      _targs;     // HM argument types
@@ -692,10 +424,9 @@ public class HM {
     final Ary<Apply> _applys;   // Applys using this Lambda
     static final String[] ARGNAMES = new String[]{" x"," y"," z"};
 
-    static private int xfidx;
-
-    Lambda(Syntax body, String... args) {
-      super(TypeFunPtr.makex(false,BitsFun.make0(xfidx=BitsFun.new_fidx()),args.length+DSP_IDX,Type.ANY,TypeNil.XSCALAR));
+    Lambda(Syntax body, String... args) { this(S().new_fidx(BitsFun.INTX),body,args); }
+    private Lambda(int fidx, Syntax body, String[] args) {
+      super(TypeFunPtr.makex(false,BitsFun.make0(fidx),args.length+DSP_IDX,Type.ANY,TypeNil.XSCALAR));
       _args=args;
       _body=body;
       // Type variables for all arguments
@@ -711,8 +442,8 @@ public class HM {
       _refs = new Ident[args.length][];
       _applys = new Ary<>(Apply.class);
       // A unique FIDX for this Lambda
-      _fidx = xfidx;
-      FUNS.put(_fidx,this);
+      _fidx = fidx;
+      S()._funs.put(_fidx,this);
     }
     @Override SB str(SB sb) {
       sb.p("{ ");
@@ -723,8 +454,8 @@ public class HM {
       sb.p("{ ");
       for( int i=0; i<_args.length; i++ ) {
         sb.p(_args[i]);
-        if( DO_HM  ) _targs[i].str(sb.p(", HMT=" ),new VBitSet(),dups,true);
-        if( DO_GCP ) sb.p(", GCP=").p(_types[i]);
+        if( S()._do_hm  ) _targs[i].str(sb.p(", HMT=" ),new VBitSet(),dups,true);
+        if( S()._do_gcp ) sb.p(", GCP=").p(_types[i]);
         sb.nl().i().p("  ");
       }
       return sb.p(" -> ... } ");
@@ -787,7 +518,7 @@ public class HM {
       // Changing _types in Pair or Triple might escape the result
       if( this instanceof Alloc alloc && Root.ext_aliases().test(alloc.alias()) &&
           (mt instanceof TypeMemPtr || mt instanceof TypeFunPtr) )
-        work.add(ROOT);
+        work.add(S()._root);
       // Changing _types in Pair or Triple updates referring fields
       if( this instanceof Alloc alloc )
         work.addAll(alloc.rflds());
@@ -993,7 +724,7 @@ public class HM {
         arg_meet(tfp,work);
 
       // Attempt to lift the result, based on HM types.
-      Type lifted = DO_HM
+      Type lifted = S()._do_hm
         ? do_apply_lift(find(),tfp, work==null)
         : tfp._ret;
       assert _flow.isa(lifted); // Monotonic...
@@ -1003,7 +734,7 @@ public class HM {
     void arg_meet(TypeFunPtr tfp, Work<Syntax> work) {
       assert !tfp.above_center();
       for( int fidx : tfp.fidxs() ) {
-        Func func = Lambda.FUNS.get(fidx);
+        Func func = S()._funs.get(fidx);
         func.apply_push(this,work);      // External functions gather escaping arguments
         if( func instanceof Lambda lam ) // Filter out external lambdas
           for( int i=0; i<_args.length; i++ ) {
@@ -1018,7 +749,7 @@ public class HM {
     // Gate around apply_lift.  Assert monotonic lifting and apply the lift.
     Type do_apply_lift(T2 rezt2, TypeFunPtr tfp, boolean test) {
       Type ret = tfp._ret;
-      if( !DO_HM ) return ret;
+      if( !S()._do_hm ) return ret;
       if( ret==TypeNil.XSCALAR ) return ret; // Nothing to lift
       if( rezt2.is_err() )       return ret; // Do not lift errors
       Type lift = hm_apply_lift(rezt2, tfp, test);
@@ -1035,17 +766,17 @@ public class HM {
     Type hm_apply_lift(T2 rezt2, TypeFunPtr tfp, boolean test) {
       // Walk the input types, finding all the Leafs.  Repeats of the same Leaf
       // has its flow Types MEETed.
-      T2.T2_MAY_NEW_LEAF.clear(); // Assume new leafs can appear
-      T2.T2MAP.clear();
+      S()._t2_may_new_leaf.clear(); // Assume new leafs can appear
+      S()._t2map.clear();
       for( Syntax arg : _args ) {
-        T2.WDUPS.clear(true);
+        S()._wdups.clear(true);
         arg.find().walk_types_in(arg._flow, true);
       }
       // Then walk the output types, building a corresponding flow Type, but
       // matching against input Leafs.  If HM_FREEZE Leafs must match
       // exactly, replacing the input flow Type with the corresponding flow
       // Type.  If !HM_FREEZE, replace with a join of flow types.
-      T2.WDUPS.clear(true);
+      S()._wdups.clear(true);
       return rezt2.walk_types_out(tfp._ret, this, test);
     }
 
@@ -1054,7 +785,7 @@ public class HM {
       // push self, because the changed-functions' FIDXS might need to notice new Call Graph edge.
       if( child==_fun ) { work.add(this); return; }
 
-      if( DO_HM ) work.add(this); // Child input fell, parent may lift less
+      if( S()._do_hm ) work.add(this); // Child input fell, parent may lift less
 
       // Overloads mean any function anywhere might sharpen an Apply
       if( child instanceof Lambda lam )
@@ -1069,7 +800,7 @@ public class HM {
       // visit all Lambdas; meet the child flow into the Lambda arg#
       if( argn != -1 && !tfp.is_full() )
         for( int fidx : tfp.fidxs() )
-          if( Lambda.FUNS.get(fidx) instanceof Lambda lam )
+          if( S()._funs.get(fidx) instanceof Lambda lam )
             work.add(lam.refs(argn));
     }
 
@@ -1106,34 +837,15 @@ public class HM {
   //     external_args = (External prog_result);
   //   }
   static class Root extends Apply {
-    private static BitsAlias EXT_ALIASES = BitsAlias.EMPTY;
-    private static BitsFun   EXT_FIDXS   = BitsFun  .EMPTY;
-    private static final Work<Syntax> NEW_LEAF_DEPS = new Work<>();
-    private static final Work<Syntax> FREEZE_DEPS = new Work<>();
-    private static final Work<Syntax> EXT_DEPS = new Work<>();
-    static final Ary<EXTLambda> EXTS = new Ary<>(EXTLambda.class);
-    static void reset() {
-      EXT_ALIASES = BitsAlias.EMPTY;
-      EXT_FIDXS = BitsFun.EMPTY;
-      NEW_LEAF_DEPS.clear();
-      FREEZE_DEPS.clear();
-      EXT_DEPS.clear();
-      EXTS.clear();
-      // Default, external 1,2,3 arg functions
-      EXTS.push(null);
-      EXTS.push(new EXTLambda(T2.make_fun(T2.make_leaf()),null));
-      EXTS.push(new EXTLambda(T2.make_fun(T2.make_leaf(),T2.make_leaf()),null));
-      EXTS.push(new EXTLambda(T2.make_fun(T2.make_leaf(),T2.make_leaf(),T2.make_leaf()),null));
-    }
-    public static BitsAlias ext_aliases() { return EXT_ALIASES; }
-    public static BitsFun   ext_fidxs  () { return EXT_FIDXS  ; }
+    public static BitsAlias ext_aliases() { return S()._ext_aliases; }
+    public static BitsFun   ext_fidxs  () { return S()._ext_fidxs  ; }
     private static <B extends Bits<B>> B add_ext( int x, Work<Syntax> work, B b ) {
       if( b.test(x) ) return b;
-      if( work!=null ) work.add(ROOT);
+      if( work!=null ) work.add(S()._root);
       return b.set(x);
     }
-    static void add_ext_alias(int alias, Work<Syntax> work) { assert alias!=1; EXT_ALIASES = add_ext(alias,work,EXT_ALIASES); }
-    static void add_ext_fidx (int fidx , Work<Syntax> work) { EXT_FIDXS   = add_ext(fidx ,work,EXT_FIDXS  ); }
+    static void add_ext_alias(int alias, Work<Syntax> work) { assert alias!=1; S()._ext_aliases = add_ext(alias,work,S()._ext_aliases); }
+    static void add_ext_fidx (int fidx , Work<Syntax> work) { S()._ext_fidxs   = add_ext(fidx ,work,S()._ext_fidxs  ); }
 
     public Root(Syntax body) { super(Type.ANY,body); }
     @Override boolean hm(final Work<Syntax> work) {
@@ -1148,8 +860,8 @@ public class HM {
 
       if( work!=null )
         escapes(_fun._flow,work);
-      TypeMemPtr tmp = TypeMemPtr.make(false,EXT_ALIASES,TypeStruct.ISUSED);
-      TypeFunPtr tfp = TypeFunPtr.make(EXT_FIDXS,1);
+      TypeMemPtr tmp = TypeMemPtr.make(false,S()._ext_aliases,TypeStruct.ISUSED);
+      TypeFunPtr tfp = TypeFunPtr.make(S()._ext_fidxs,1);
       return TypeTuple.make(_fun._flow,tmp,tfp);
     }
     @Override void add_val_work( Syntax child, @NotNull Work<Syntax> work) { work.add(this); }
@@ -1158,17 +870,17 @@ public class HM {
     void add_val_work( Type old, @NotNull Work<Syntax> work) {
       BitsAlias old_aliases = old instanceof TypeTuple tup ? ((TypeMemPtr)tup.at(1))._aliases : BitsAlias.EMPTY;
       BitsFun   old_fidxs   = old instanceof TypeTuple tup ? ((TypeFunPtr)tup.at(2)).fidxs()  : BitsFun  .EMPTY;
-      for( int alias : EXT_ALIASES )
+      for( int alias : S()._ext_aliases )
         if( !old_aliases.test(alias) &&
-            ALIASES.at(alias) instanceof Syntax syn )
+            S()._aliases.at(alias) instanceof Syntax syn )
           work.add(syn);
 
-      for( int fidx : EXT_FIDXS )
+      for( int fidx : S()._ext_fidxs )
         if( !old_fidxs.test(fidx) &&
-            Lambda.FUNS.get(fidx) instanceof Syntax syn )
+            S()._funs.get(fidx) instanceof Syntax syn )
           work.add(syn);
       // Revisit fields depending on escaped values
-      work.addAll(EXT_DEPS);
+      work.addAll(S()._ext_deps);
     }
 
     Type flow_type() { return sharpen(((TypeTuple)_flow)._ts[0]); }
@@ -1181,12 +893,12 @@ public class HM {
     }
 
     void add_new_leaf_work(Work<Syntax> work) {
-      work.addAll(NEW_LEAF_DEPS);
-      NEW_LEAF_DEPS.clear();
+      work.addAll(S()._new_leaf_deps);
+      S()._new_leaf_deps.clear();
     }
 
     void add_ambi_work(Work<Syntax> work) {
-      for( Field fld : Field.FIELDS.values() )
+      for( Field fld : S()._fields.values() )
         if( Field.is_resolving(fld._id) ) {
           fld.find().unify_errs("Unresolved field "+fld._id,work);
           fld.find().clr_cp(work);
@@ -1199,27 +911,27 @@ public class HM {
     void add_freeze_work(Work<Syntax> work) {
       // Freezing HM; all escaped function arguments get called with the most
       // conservative args compatible with their HM types.
-      for( int fidx : EXT_FIDXS ) {
-        if( Lambda.FUNS.get(fidx) instanceof Lambda lam ) {
+      for( int fidx : S()._ext_fidxs ) {
+        if( S()._funs.get(fidx) instanceof Lambda lam ) {
           for( int i=0; i<lam.nargs(); i++ )
             work.add(lam.refs(i));
         }
       }
 
       // All Applys that are lifting with HM, now lift less.
-      if( DO_HM )
-        for( Func func : Lambda.FUNS.values() )
+      if( S()._do_hm )
+        for( Func func : S()._funs.values() )
           if( func instanceof Lambda lam )
             work.addAll(lam._applys);
 
-      work.addAll(FREEZE_DEPS);
-      FREEZE_DEPS.clear();
+      work.addAll(S()._freeze_deps);
+      S()._freeze_deps.clear();
     }
 
     static BitsAlias matching_escaped_aliases(T2 t2) {
       BitsAlias aliases = BitsAlias.EMPTY;
-      for( int alias : EXT_ALIASES )
-        if( t2.trial_unify_ok(ALIASES.at(alias).t2(),false) )
+      for( int alias : S()._ext_aliases )
+        if( t2.trial_unify_ok(S()._aliases.at(alias).t2(),false) )
           aliases = aliases.set(alias); // Compatible escaping alias
       return aliases;
     }
@@ -1228,14 +940,14 @@ public class HM {
       assert t2.is_fun();
       BitsFun fidxs = BitsFun.EMPTY;
       // Always poison the BitsFun with a FIDX which always has clr_cp/!_is_copy.
-      EXTLambda elam = Root.EXTS.atX(t2.nargs());
+      EXTLambda elam = S()._exts.atX(t2.nargs());
       if( elam==null ) throw unimpl();
       fidxs = fidxs.set(elam._fidx);
       // Cannot ask for trial_unify_ok until HM_FREEZE, because trials can fail
       // over time which runs the result backwards in GCP.
-      if( HM_FREEZE )
-        for( int fidx : EXT_FIDXS ) {
-          Func fun = Lambda.FUNS.get(fidx);
+      if( S()._hm_freeze )
+        for( int fidx : S()._ext_fidxs ) {
+          Func fun = S()._funs.get(fidx);
           // Dunno (yet), since trial_unify_ok can pass, then filter as HM proceeds
           if( t2.trial_unify_ok(fun.as_fun(),false) )
             fidxs = fidxs.set(fidx); // Compatible escaping fidx
@@ -1246,18 +958,17 @@ public class HM {
     // Escape all Root results.  Escaping functions are called with the most
     // conservative HM-compatible arguments.  Escaping Structs are recursively
     // escaped, and can appear as input arguments.
-    private static final VBitSet ESCP = new VBitSet(), ESCF = new VBitSet();
     private void escapes(Type t, Work<Syntax> work) {
-      ESCP.clear();  ESCF.clear();
+      S()._escp.clear();  S()._escf.clear();
       _escapes(t,work);
     }
     private void _escapes(Type t, Work<Syntax> work) {
       if( t instanceof TypeMemPtr tmp ) {
         // Add to the set of escaped structures
         for( int alias : tmp._aliases ) {
-          if( ESCP.tset(alias) ) continue;
+          if( S()._escp.tset(alias) ) continue;
           add_ext_alias(alias,work);
-          Alloc a = ALIASES.at(alias);
+          Alloc a = S()._aliases.at(alias);
           _escapes(a.tmp()._obj,work);
         }
       }
@@ -1265,7 +976,7 @@ public class HM {
         for( TypeFld fld : ts )
           if( !Util.eq(fld._fld,"^") )
             _escapes(fld._t,work);
-      if( t instanceof TypeFunPtr tfp && !ESCF.tset(tfp._uid) ) {
+      if( t instanceof TypeFunPtr tfp && !S()._escf.tset(tfp._uid) ) {
         // Walk all escaped function args, and call them (like an external
         // Apply might) with the most conservative flow arguments possible.
         // Escaping overloads only count after freezing.
@@ -1277,8 +988,8 @@ public class HM {
     }
 
     private void do_fidx( int fidx, Work<Syntax> work ) {
-      if( ESCF.tset(fidx) ) return; // Been there, done that
-      if( Lambda.FUNS.get(fidx) instanceof Lambda lam )
+      if( S()._escf.tset(fidx) ) return; // Been there, done that
+      if( S()._funs.get(fidx) instanceof Lambda lam )
         lam.apply_push(this,work);
       add_ext_fidx(fidx,work);
     }
@@ -1291,19 +1002,19 @@ public class HM {
   static class EXTStruct implements Alloc {
     final int _alias;
     T2 _t2;
-    EXTStruct(T2 t2, Work<Syntax> work) { this(t2,BitsAlias.new_alias(BitsAlias.EXTX),work); }
+    EXTStruct(T2 t2, Work<Syntax> work) { this(t2,S().new_alias(BitsAlias.EXTX),work); }
     EXTStruct(T2 t2, int alias, Work<Syntax> work) {
       assert t2.is_ptr();
       _t2 = t2;
       _alias = alias;
-      ALIASES.setX(alias,this);
+      S()._aliases.setX(alias,this);
       Root.add_ext_alias(alias,work);
     }
     @Override public String toString() { return "["+_alias+"]"+_t2; }
     @Override public T2 t2() { return (_t2 = _t2.find()); }
     @Override public int alias() { return _alias; }
     @Override public TypeMemPtr tmp() {
-      Type t = _t2.as_flow(null,HM_FREEZE);
+      Type t = _t2.as_flow(null,S()._hm_freeze);
       // Can be Scalar if the T2 type is_err
       return t instanceof TypeMemPtr tmp ? tmp : t.oob(TypeMemPtr.ISUSED);
     }
@@ -1311,7 +1022,7 @@ public class HM {
     @Override public Type fld(String id, Syntax fld) {
       T2 tfld = t2().get("*").arg(id);
       if( tfld==null ) return null;
-      Root.FREEZE_DEPS.add(fld); // Depends on HM_FREEZE
+      S()._freeze_deps.add(fld); // Depends on HM_FREEZE
       return tfld.as_flow(fld,false);
     }
     @Override public Ary<Syntax> rflds() { return null; }
@@ -1326,8 +1037,8 @@ public class HM {
     EXTLambda(T2 t2, Work<Syntax> work) {
       assert t2.is_fun();
       _t2 = t2;
-      _fidx = BitsFun.new_fidx(BitsFun.EXTX);
-      Lambda.FUNS.put(_fidx,this);
+      _fidx = S().new_fidx(BitsFun.EXTX);
+      S()._funs.put(_fidx,this);
       Root.add_ext_fidx(_fidx,work);
     }
     @Override public String toString() { return "ext lambda"; }
@@ -1338,30 +1049,28 @@ public class HM {
       // all these args escape
       if( work!=null )
         for( Syntax syn : aply._args )
-          ROOT.escapes(syn._flow,work);
+          S()._root.escapes(syn._flow,work);
     }
   }
 
 
   // Expand functions to full signatures, recursively.
   // Used by testing.
-  private static final VBitSet ADD_SIG = new VBitSet();
-  private static TypeMem ASIG_MEM;
   static Type sharpen(Type t) {
-    ADD_SIG.clear();
-    TypeStruct[] ts = new TypeStruct[ALIASES._len];
+    S()._add_sig.clear();
+    TypeStruct[] ts = new TypeStruct[S()._aliases._len];
     ts[1] = TypeStruct.ISUSED;
-    for( int i=2; i<ALIASES._len; i++ ) {
-      Alloc a = ALIASES.at(i);
+    for( int i=2; i<S()._aliases._len; i++ ) {
+      Alloc a = S()._aliases.at(i);
       if( a!= null ) ts[i] = a.tmp()._obj;
     }
-    ASIG_MEM = TypeMem.make0(ts);
+    S()._asig_mem = TypeMem.make0(ts);
     return add_sig(t);
   }
   private static Type add_sig(Type t) {
-    if( ADD_SIG.tset(t._uid) ) return t;
+    if( S()._add_sig.tset(t._uid) ) return t;
     if( t instanceof TypeMemPtr tmp )
-      return tmp.is_str() ? t : ASIG_MEM.sharpen(tmp); // Special string hack
+      return tmp.is_str() ? t : S()._asig_mem.sharpen(tmp); // Special string hack
     if( t instanceof TypeFunPtr fun )
       return fun.make_from(fun.dsp(),add_sig(fun._ret));
     return t;
@@ -1383,8 +1092,8 @@ public class HM {
       _ids=ids;
       _flds=flds;
       // Make a TMP
-      _alias = user ? BitsAlias.new_alias(BitsAlias.INTX) : -1;
-      if( user ) ALIASES.setX(_alias,this);
+      _alias = user ? S().new_alias(BitsAlias.INTX) : -1;
+      if( user ) S()._aliases.setX(_alias,this);
     }
     @Override SB str(SB sb) {
       sb.p("@{");
@@ -1441,7 +1150,7 @@ public class HM {
     @Override void add_val_work(Syntax child, @NotNull Work<Syntax> work) {
       work.addAll(_rflds);
       // Set a field in an escaped structure, need to re-compute escapes
-      if( Root.ext_aliases().test(_alias) ) work.add(ROOT);
+      if( Root.ext_aliases().test(_alias) ) work.add(S()._root);
     }
 
     @Override public Type meet() {
@@ -1489,14 +1198,12 @@ public class HM {
   // Field lookup in a Struct or Overload.
   // Does Overload field resolution on overloads.
   static class Field extends Syntax {
-    private static final HashMap<String,Field> FIELDS = new HashMap<>();
-    static void reset() { FIELDS.clear(); }
     
     String _id;
     final Syntax _ptr;
     Field( String id, Syntax str ) {
       _ptr = str;
-      if( id==null ) FIELDS.put(id=("&"+_uid).intern(),this);
+      if( id==null ) S()._fields.put(id=("&"+_uid).intern(),this);
       _id=id; 
     }
     @Override SB str(SB sb) {   return  _ptr.str(sb).p(".").p(is_resolving() ? "_" : _id); }
@@ -1573,10 +1280,10 @@ public class HM {
       assert !tmp._aliases.test(BitsAlias.ALLX);
       for( int alias : tmp._aliases ) {
         if( alias==0 ) continue; // May be nil error
-        Alloc alloc = ALIASES.at(alias);
+        Alloc alloc = S()._aliases.at(alias);
         if( is_resolving() ) {  // Field is resolving an overload
           // Still resolving, use the join of fields.
-          afld = HM_AMBI ? alloc.meet() : alloc.join();
+          afld = S()._hm_ambi ? alloc.meet() : alloc.join();
         } else {
           // Get field to meet
           afld = alloc.fld(_id,this);
@@ -1598,8 +1305,8 @@ public class HM {
       T2 t2fld = t2rec.arg(_id);
       // Field from wrong alias (ignore/XSCALAR should not affect GCP field type),
       if( t2fld==null ) {
-        if( !HM_FREEZE ) Root.FREEZE_DEPS.add(this); // Revisit when HM_FREEZE flips
-        return TypeNil.SCALAR.oob(!HM_FREEZE);
+        if( !S()._hm_freeze ) S()._freeze_deps.add(this); // Revisit when HM_FREEZE flips
+        return TypeNil.SCALAR.oob(!S()._hm_freeze);
       }
       // HMT tells us the field is missing
       assert t2fld.is_err();
@@ -1619,7 +1326,7 @@ public class HM {
       boolean progress = false;
       for( String key : obj._args.keySet() ) {
         if( !is_resolving(key) ) continue;
-        Field fld = FIELDS.get(key);
+        Field fld = S()._fields.get(key);
         if( fld.is_resolving() ) {
           if( !obj.is_open() ) // More fields possible, so trial_resolve cannot be tried
             progress |= trial_resolve(key,obj.arg(key),obj,obj,work); // Attempt resolve
@@ -1637,7 +1344,7 @@ public class HM {
     }
     
     // Attempts resolve a field; if so updates 'obj' accordingly.
-    static boolean trial_resolve(String key, T2 pat, T2 lhs, T2 rhs, Work<Syntax> work) { return FIELDS.get(key).trial_resolve(pat,lhs, rhs, work); }
+    static boolean trial_resolve(String key, T2 pat, T2 lhs, T2 rhs, Work<Syntax> work) { return S()._fields.get(key).trial_resolve(pat,lhs, rhs, work); }
     boolean trial_resolve(T2 pat, T2 lhs, T2 rhs, Work<Syntax> work) {
       assert lhs.is_obj() && rhs.is_obj() && !rhs.is_open() && is_resolving();
 
@@ -1736,8 +1443,8 @@ public class HM {
       sb.p(name()).p("={ ").nl().i().p("  ");
       for( int i=0; i<_args.length; i++ ) {
         sb.p(_args[i]);
-        if( DO_HM  ) _targs[i].str(sb.p(", HMT=" ),new VBitSet(),dups,true);
-        if( DO_GCP ) sb.p(", GCP=").p(_types[i]);
+        if( S()._do_hm  ) _targs[i].str(sb.p(", HMT=" ),new VBitSet(),dups,true);
+        if( S()._do_gcp ) sb.p(", GCP=").p(_types[i]);
         sb.nl().i().p("  ");
       }
       return sb.unchar(2).p("} ");
@@ -1752,14 +1459,14 @@ public class HM {
     final int _alias;
     final Ary<Syntax> _rflds = new Ary<>(Syntax.class);
     @Override String name() { return "pair"; }
-    static private T2 var1,var2;
-    public Pair() {
+    public Pair() { this(T2.make_leaf(),T2.make_leaf()); }
+    private Pair(T2 var1, T2 var2) {
       super(FLDS,
-            var1=T2.make_leaf(),
-            var2=T2.make_leaf(),
+            var1,
+            var2,
             T2.make_ptr(T2.make_open_struct(FLDS,new T2[]{var1,var2})));
-      _alias = BitsAlias.new_alias(BitsAlias.INTX);
-      ALIASES.setX(_alias,this);
+      _alias = S().new_alias(BitsAlias.INTX);
+      S()._aliases.setX(_alias,this);
     }
     @Override public T2 t2() { return find().get(RET); }
     @Override public int alias() { return _alias; }
@@ -1791,15 +1498,15 @@ public class HM {
     final int _alias;
     final Ary<Syntax> _rflds = new Ary<>(Syntax.class);
     @Override String name() { return "triple"; }
-    static private T2 var1,var2,var3;
-    public Triple() {
+    public Triple() { this(T2.make_leaf(),T2.make_leaf(),T2.make_leaf()); }
+    private Triple(T2 var1, T2 var2, T2 var3) {
       super(FLDS,
-            var1=T2.make_leaf(),
-            var2=T2.make_leaf(),
-            var3=T2.make_leaf(),
+            var1,
+            var2,
+            var3,
             T2.make_ptr(T2.make_open_struct(FLDS,new T2[]{var1,var2,var3})));
-      _alias = BitsAlias.new_alias(BitsAlias.INTX);
-      ALIASES.setX(_alias,this);
+      _alias = S().new_alias(BitsAlias.INTX);
+      S()._aliases.setX(_alias,this);
     }
     @Override public T2 t2() { return find().get(RET); }
     @Override public int alias() { return _alias; }
@@ -1835,7 +1542,7 @@ public class HM {
     @Override boolean hm(Work<Syntax> work) {
       T2 rez = find().arg(RET);
       // GCP helps HM: do not unify dead control paths
-      if( DO_GCP ) {            // Doing GCP during HM
+      if( S()._do_gcp ) {            // Doing GCP during HM
         Type pred = _types[0];
         if( pred instanceof TypeNil tn ) {
           if( tn._nil ) return !tn._sub && rez.unify(targ(2), work);
@@ -1865,9 +1572,9 @@ public class HM {
   // EQ
   static class EQ extends PrimSyn {
     @Override String name() { return "eq"; }
-    static private T2 var1;
-    public EQ() {
-      super(IDS[2],var1=T2.make_leaf(),var1,BOOL());
+    public EQ() { this(T2.make_leaf()); }
+    private EQ(T2 var1) {
+      super(IDS[2],var1,var1,BOOL());
       _hmt.arg(RET)._is_copy = false;
     }
     @Override PrimSyn make() { return new EQ(); }
@@ -2141,8 +1848,7 @@ public class HM {
   // simple concrete base type, or a sharable leaf.  Unify is structural, and
   // where not unifyable the union is replaced with an Error.
   static class T2 {
-    private static int CNT=1;
-    final int _uid=CNT++;
+    final int _uid=S()._t2_cnt++;
 
     // Structural parts to unify with, or null.
     // If Leaf   , then null and _tflow is null.
@@ -2409,23 +2115,22 @@ public class HM {
     // Worse-case arguments that the Root/Universe can call with.  Must be
     // compatible with HM type.  Called once shallow when HM_FREEZE is set.
     // Called once deep to make a final report
-    static final NonBlockingHashMapLong<Type> ADUPS = new NonBlockingHashMapLong<>();
     Type as_flow(Syntax syn, boolean deep) {
-      assert ADUPS.isEmpty();
+      assert S()._adups.isEmpty();
       Type t = _as_flow(syn,deep);
-      ADUPS.clear();
+      S()._adups.clear();
       return t;
     }
     Type _as_flow(Syntax syn, boolean deep) {
       assert !unified();
       if( is_err() ) return TypeNil.SCALAR;
       if( is_leaf() ) {
-        if( HM_FREEZE ) return TypeNil.SCALAR;
-        return (DO_HM || !_use_nil) ? TypeNil.XSCALAR : TypeNil.AND_XSCALAR;
+        if( S()._hm_freeze ) return TypeNil.SCALAR;
+        return (S()._do_hm || !_use_nil) ? TypeNil.XSCALAR : TypeNil.AND_XSCALAR;
       }
       if( is_base() ) return _tflow;
       if( is_ptr() ) {
-        if( !deep ) Root.EXT_DEPS.add(syn); // Result depends on escapes
+        if( !deep ) S()._ext_deps.add(syn); // Result depends on escapes
         // all escaping aliases that are compatible
         BitsAlias aliases = Root.matching_escaped_aliases(this);
         TypeStruct tstr = deep ? (TypeStruct)arg("*")._as_flow(syn,deep) : TypeStruct.ISUSED;
@@ -2434,35 +2139,35 @@ public class HM {
       if( is_nil() )
         return arg("?")._as_flow(syn,deep).meet(TypeNil.AND_XSCALAR);
       if( is_fun() ) {
-        if( !deep ) Root.EXT_DEPS.add(syn); // Result depends on escapes
+        if( !deep ) S()._ext_deps.add(syn); // Result depends on escapes
         // all escaping fidxs that are compatible
         BitsFun fidxs = Root.matching_escaped_fidxs(this);
         if( _may_nil ) fidxs = fidxs.set(0);
         if( _use_nil ) throw unimpl();
-        Type tfun = ADUPS.get(_uid);
+        Type tfun = S()._adups.get(_uid);
         if( tfun != null ) return tfun;  // TODO: Returning recursive flow-type functions
-        ADUPS.put(_uid, TypeNil.XSCALAR);
+        S()._adups.put(_uid, TypeNil.XSCALAR);
         Type rez = arg(RET)._as_flow(syn,deep);
         return TypeFunPtr.makex(false,fidxs,size()-1+DSP_IDX,Type.ANY,rez);
       }
       if( is_obj() ) {
-        TypeStruct tstr = (TypeStruct)ADUPS.get(_uid);
+        TypeStruct tstr = (TypeStruct)S()._adups.get(_uid);
         if( tstr==null ) {
           // Returning a high version of struct
-          Type.RECURSIVE_MEET++;
+          Type.recursive_meet(1);
           tstr = TypeStruct.malloc(false,"",Type.ALL.oob(is_open()),TypeFlds.get(0));
           if( _args!=null ) {
             for( String fld : _args.keySet() )
               if( fld.endsWith(":") ) tstr._clz = fld; // Move a nomative tag into the clz field
               else tstr.add_fld(TypeFld.malloc(fld));
-            ADUPS.put(_uid,tstr); // Stop cycles
+            S()._adups.put(_uid,tstr); // Stop cycles
             for( String id : _args.keySet() )
               if( !Util.eq(id,tstr._clz) )
                 tstr.get(id).setX(arg(id)._as_flow(syn,deep)); // Recursive
           }
           // update root args of an open HM struct, needs a type-flow type
           // that allows fields to be added
-          if( --Type.RECURSIVE_MEET == 0 )
+          if( Type.recursive_meet(-1) == 0 )
             // Shrink / remove cycle dups.  Might make new (smaller)
             // TypeStructs, so keep RECURSIVE_MEET enabled.
             tstr = Cyclic.install(tstr);
@@ -2610,12 +2315,12 @@ public class HM {
     // If work is null, does not actually change anything, just reports progress.
     // If work and change, unifies 'this' into 'that' (changing both), and
     // updates the worklist.
-    static private final HashMap<Long,T2> DUPS = new HashMap<>();
     boolean unify( T2 that, Work<Syntax> work ) {
       if( this==that ) return false;
-      assert DUPS.isEmpty();
+      S()._unify_cnt++;
+      assert S()._dups.isEmpty();
       boolean progress = _unify(that,work);
-      DUPS.clear();
+      S()._dups.clear();
       return progress;
     }
 
@@ -2645,10 +2350,10 @@ public class HM {
 
       // Cycle check
       long luid = dbl_uid(that);    // long-unique-id formed from this and that
-      T2 rez = DUPS.get(luid);
+      T2 rez = S()._dups.get(luid);
       assert rez==null || rez==that;
       if( rez!=null ) return progress; // Been there, done that
-      DUPS.put(luid,that);          // Close cycles
+      S()._dups.put(luid,that);          // Close cycles
 
       if( work==null ) return true; // Here we definitely make progress; bail out early if just testing
 
@@ -2717,14 +2422,14 @@ public class HM {
     // the same as calling 'fresh' then 'unify', without the clone of 'this'.
     // Returns progress.
     // If work is null, we are testing only and make no changes.
-    static private final IdentityHashMap<T2,T2> VARS = new IdentityHashMap<>();
     // Outer version, wraps a VARS check around other work
     boolean fresh_unify(T2 that, VStack nongen, Work<Syntax> work) {
-      assert VARS.isEmpty() && DUPS.isEmpty();
-      int old = CNT;
+      S()._fresh_cnt++;
+      assert S()._vars.isEmpty() && S()._dups.isEmpty();
+      int old = S()._t2_cnt;
       boolean progress = _fresh_unify(that,nongen,work);
-      VARS.clear();  DUPS.clear();
-      if( work==null && old!=CNT )
+      S()._vars.clear();  S()._dups.clear();
+      if( work==null && old!=S()._t2_cnt )
         throw unimpl("busted, made T2s but just testing");
       return progress;
     }
@@ -2734,7 +2439,7 @@ public class HM {
       assert !unified() && !that.unified();
 
       // Check for cycles
-      T2 prior = VARS.get(this);
+      T2 prior = S()._vars.get(this);
       if( prior!=null )                        // Been there, done that
         return prior.find()._unify(that,work); // Also, 'prior' needs unification with 'that'
       // Check for equals
@@ -2800,7 +2505,7 @@ public class HM {
       // Structural recursion unification, lazy on LHS
       return fresh_unify_flds(this,that,nongen,work,progress);
     }
-    private boolean vput(T2 that, boolean progress) { VARS.put(this,that); return progress; }
+    private boolean vput(T2 that, boolean progress) { S()._vars.put(this,that); return progress; }
 
     private static boolean fresh_unify_flds(T2 thsi, T2 that, VStack nongen, Work<Syntax> work, boolean progress) {
       assert !thsi.unified() && !that.unified();
@@ -2819,7 +2524,7 @@ public class HM {
           // Attempt a fresh cross-T2 resolve
           if( rhs==null && Field.is_resolving(key) ) {
             if( that.is_open() ) continue;  // Open RHS allows more fields which might add choices
-            Field fld = Field.FIELDS.get(key);
+            Field fld = S()._fields.get(key);
             if( !fld.trial_resolve(lhs,thsi,that,work) ) continue;
             if( work==null ) return true;
             progress = true;
@@ -2868,27 +2573,27 @@ public class HM {
 
     // Return a fresh copy of 'this'
     T2 fresh() {
-      assert VARS.isEmpty();
+      assert S()._vars.isEmpty();
       T2 rez = _fresh(null);
-      VARS.clear();
+      S()._vars.clear();
       return rez;
     }
     private T2 _fresh(VStack nongen) {
       assert !unified();
-      T2 rez = VARS.get(this);
+      T2 rez = S()._vars.get(this);
       if( rez!=null ) return rez.find(); // Been there, done that
       // Unlike the original algorithm, to handle cycles here we stop making a
       // copy if it appears at this level in the nongen set.  Otherwise, we'd
       // clone it down to the leaves - and keep all the nongen leaves.
       // Stopping here preserves the cyclic structure instead of unrolling it.
       if( nongen_in(nongen) ) {
-        VARS.put(this,this);
+        S()._vars.put(this,this);
         return this;
       }
 
       // Structure is deep-replicated
       T2 t = copy();
-      VARS.put(this,t);         // Stop cyclic structure looping
+      S()._vars.put(this,t);         // Stop cyclic structure looping
       if( _args!=null )
         for( String key : _args.keySet() )
           t._args.put(key, arg(key)._fresh(nongen));
@@ -2898,15 +2603,14 @@ public class HM {
 
     // Do a trial unification between this and that.  Report back if any error
     // happens.  No change to either side, this is a trial only.
-    private static final NonBlockingHashMapLong<T2> TDUPS = new NonBlockingHashMapLong<>();
     private boolean trial_unify_ok(T2 that, boolean extras) {
-      TDUPS.clear();
+      S()._tdups.clear();
       return _trial_unify_ok(that, extras);
     }
     private boolean _trial_unify_ok(T2 that, boolean extras) {
       assert !unified() && !that.unified();
       long duid = dbl_uid(that._uid);
-      if( TDUPS.putIfAbsent(duid,this)!=null )
+      if( S()._tdups.putIfAbsent(duid,this)!=null )
         return true;                    // Visit only once, and assume will resolve
       if( this==that )     return true; // No error
       if( this.is_leaf() ) return true; // No error
@@ -2947,11 +2651,10 @@ public class HM {
     }
 
     // -----------------
-    private static final VBitSet ODUPS = new VBitSet();
 
     boolean nongen_in(VStack vs) {
       if( vs==null ) return false;
-      ODUPS.clear();
+      S()._odups.clear();
       for( T2 t2 : vs )
         if( _occurs_in_type(t2) )
           return true;
@@ -2962,7 +2665,7 @@ public class HM {
     boolean _occurs_in_type(T2 x) {
       assert !unified() && !x.unified();
       if( x==this ) return true;
-      if( ODUPS.tset(x._uid) ) return false; // Been there, done that
+      if( S()._odups.tset(x._uid) ) return false; // Been there, done that
       if( x._args!=null )
         for( String key : x._args.keySet() )
           if( _occurs_in_type(x.arg(key)) )
@@ -2972,9 +2675,6 @@ public class HM {
 
     // -----------------
     // T2MAP allows cycle_equals, not identity equals
-    static private final IdentityHashMap<T2,Type> T2MAP = new IdentityHashMap<>();
-    static private final Ary<T2> T2_MAY_NEW_LEAF = new Ary<T2>(T2.class);
-    static final NonBlockingHashMapLong<Type> WDUPS = new NonBlockingHashMapLong<>();
 
     // Lift the flow of an Apply, according to its inputs.  This is to
     // help preserve flow precision across polymorphic calls, where the input
@@ -2989,10 +2689,10 @@ public class HM {
       assert !unified();
       if( is_err() ) return;
       long duid = dbl_uid(t._uid);
-      if( WDUPS.putIfAbsent(duid,TypeStruct.ISUSED)!=null ) return;
+      if( S()._wdups.putIfAbsent(duid,TypeStruct.ISUSED)!=null ) return;
 
       // Free variables keep the input flow type.
-      if( is_leaf() ) T2_MAY_NEW_LEAF.add(this);   // Might expand to a new leaf later
+      if( is_leaf() ) S()._t2_may_new_leaf.add(this);   // Might expand to a new leaf later
 
       // Pointers recurse on their object
       if( is_ptr() ) {
@@ -3016,11 +2716,11 @@ public class HM {
         for( String id : _args.keySet() )
           if( !id.endsWith(":") ) // No lifting from class args
             arg(id).walk_types_in(at_fld(t, id), make_map);
-        if( is_open() ) T2_MAY_NEW_LEAF.add(this); // Can add a new leaf later
+        if( is_open() ) S()._t2_may_new_leaf.add(this); // Can add a new leaf later
       }
 
       if( !is_obj() && make_map )
-        T2MAP.merge(this, t, Type::meet);
+        S()._t2map.merge(this, t, Type::meet);
     }
 
     private static Type at_fld(Type t, String id) { // TODO: FAILURE TO SHARPEN
@@ -3041,15 +2741,15 @@ public class HM {
       // we saw an input leaf, which might later expand into new leafs (since
       // no HM_FREEZE) and new leafs can lift (since !HM_NEW_LEAF).
       if( _is_copy && !is_obj() ) {
-        if( !HM_NEW_LEAF && !T2.T2_MAY_NEW_LEAF.isEmpty() ) {
-          for( T2 t2 : T2.T2_MAY_NEW_LEAF )
+        if( !S()._hm_new_leaf && !S()._t2_may_new_leaf.isEmpty() ) {
+          for( T2 t2 : S()._t2_may_new_leaf )
             t2.push_update(apply);
-          Root.NEW_LEAF_DEPS.add(apply);
+          S()._new_leaf_deps.add(apply);
           return TypeNil.XSCALAR;  // Future arg leaf can expand into anything, and lift result
         }
     
         // Check for a direct hit
-        Type tmap = T2MAP.get(this);
+        Type tmap = S()._t2map.get(this);
         if( tmap!=null ) {
           push_update(apply);   // If is_copy falls, then widen applies and needs a revisit
           return tmap.join(t);  // While a copy, can return the direct hit
@@ -3057,10 +2757,10 @@ public class HM {
 
         // Until we freeze, check for "may unify in the future".  For all successful      
         // trials, join all results since we might unify with any of them.
-        if( !HM_FREEZE && !HM_NEW_LEAF) {
+        if( !S()._hm_freeze && !S()._hm_new_leaf) {
           // Join against everything in the arg input map that might unify
           Type tj = Type.ALL;
-          for( T2 t2 : T2.T2MAP.keySet() ) {
+          for( T2 t2 : S()._t2map.keySet() ) {
             // Test unification.  Specifically allow extra fields, and these can
             // be removed over time, which will later allow a unification.
             // E.g. unify @{ a=V123; nope=V456 } and @{ a=V789 } would otherwise
@@ -3068,9 +2768,9 @@ public class HM {
             // might later be removed (e.g. by normal unifying these two types)
             // so allow for it now.          
             if( t2.trial_unify_ok(this,true) )
-              tj = tj.join(T2.T2MAP.get(t2));
+              tj = tj.join(S()._t2map.get(t2));
             t2.push_update(apply); // If t2 loses is_copy, need to recheck here
-            Root.NEW_LEAF_DEPS.add(apply);
+            S()._new_leaf_deps.add(apply);
           }
           if( tj != Type.ALL ) // Some trial succeeds, use this result "as if" we got a direct hit
             return tj.join(t); // Return join, so the old_lift keeps lifting
@@ -3107,10 +2807,10 @@ public class HM {
 
       if( is_fun() ) {          // Walk returns not arguments
         Type tret = t instanceof TypeFunPtr tfp ? tfp._ret  : t.oob(TypeNil.SCALAR);
-        if( WDUPS.get(_uid)!=null ) return t;
-        WDUPS.put(_uid,t);
+        if( S()._wdups.get(_uid)!=null ) return t;
+        S()._wdups.put(_uid,t);
         Type trlift = arg(RET).walk_types_out(tret, apply, test);
-        WDUPS.remove(_uid);
+        S()._wdups.remove(_uid);
         return t instanceof TypeFunPtr tfp
           ? tfp.make_from(Type.ANY,trlift)
           : TypeFunPtr.makex(t.above_center(),(t.above_center() ? BitsFun.EMPTY : BitsFun.NALL),size()-1+DSP_IDX, Type.ANY, trlift);
@@ -3135,12 +2835,11 @@ public class HM {
     // might be fresh-unified with some other function.  Push the application
     // down the function parts; if any changes the fresh-application may make
     // progress.
-    static final VBitSet UPDATE_VISIT = new VBitSet();
     void push_update( Ary<Syntax> as ) { if( as != null ) for( Syntax a : as ) push_update(a); }
-    T2 push_update( Syntax a) { UPDATE_VISIT.clear(); push_update_impl(a); return this; }
+    T2 push_update( Syntax a) { S()._update_visit.clear(); push_update_impl(a); return this; }
     private void push_update_impl(Syntax a) {
       assert !unified();
-      if( UPDATE_VISIT.tset(_uid) ) return;
+      if( S()._update_visit.tset(_uid) ) return;
       if( _deps==null ) _deps = new Ary<>(Syntax.class);
       if( _deps.find(a)==-1 ) _deps.push(a);
       if( _args != null )
@@ -3149,14 +2848,14 @@ public class HM {
     }
 
     // Recursively add-deps to worklist
-    void add_deps_work( Work<Syntax> work ) { UPDATE_VISIT.clear(); add_deps_work_impl(work); }
+    void add_deps_work( Work<Syntax> work ) { S()._update_visit.clear(); add_deps_work_impl(work); }
     private void add_deps_work_impl( Work<Syntax> work ) {
       work.addAll(_deps);
       if( _deps!=null )
         for( Syntax syn : _deps )
           if( syn._par instanceof Lambda lam )
             work.addAll(lam._applys);
-      if( UPDATE_VISIT.tset(_uid) ) return;
+      if( S()._update_visit.tset(_uid) ) return;
       if( _args != null )
         for( T2 t2 : _args.values() )
           t2.add_deps_work_impl(work);
@@ -3192,9 +2891,7 @@ public class HM {
     }
 
     @Override public String toString() { return str(new SB(), new VBitSet(), get_dups(), true ).toString(); }
-    public String p() { VCNT=0; VNAMES.clear(); return str(new SB(), new VBitSet(), get_dups(), false ).toString(); }
-    private static int VCNT;
-    private static final NonBlockingHashMapLong<String> VNAMES = new NonBlockingHashMapLong<>();
+    public String p() { S()._vcnt=0; S()._vnames.clear(); return str(new SB(), new VBitSet(), get_dups(), false ).toString(); }
 
 
     // Fancy print for Debuggers - includes explicit U-F re-direction.
@@ -3301,8 +2998,8 @@ public class HM {
     // "X123" for unified but not collapsed tvars.
     private void vname( SB sb, boolean debug) {
       final boolean vuid = debug && (unified()||is_leaf());
-      sb.p(VNAMES.computeIfAbsent((long) _uid,
-                                  (k -> (vuid ? ((is_leaf() ? "V" : "X") + k) : ((++VCNT) - 1 + 'A' < 'V' ? ("" + (char) ('A' + VCNT - 1)) : ("V" + VCNT))))));
+      sb.p(S()._vnames.computeIfAbsent((long) _uid,
+                                  (k -> (vuid ? ((is_leaf() ? "V" : "X") + k) : ((++S()._vcnt) - 1 + 'A' < 'V' ? ("" + (char) ('A' + S()._vcnt - 1)) : ("V" + S()._vcnt))))));
     }
     private boolean is_tup() { return _args==null || _args.isEmpty() || _args.containsKey("0"); }
     private Collection<String> sorted_flds() { return new TreeMap<>(_args).keySet(); }
@@ -3319,6 +3016,5 @@ public class HM {
           return arg;
       return null;
     }
-    static void reset() { CNT=0; DUPS.clear(); VARS.clear(); ODUPS.clear(); ADUPS.clear(); UPDATE_VISIT.clear(); }
   }
 }
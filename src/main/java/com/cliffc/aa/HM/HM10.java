@@ -112,7 +112,7 @@ public class HM10 {
   static boolean HM_FREEZE;
   static boolean ROOT_FREEZE;
   public static Root hm( String sprog, int rseed, boolean do_hm, boolean do_gcp ) {
-    Type.RECURSIVE_MEET=0;      // Reset between failed tests
+    Type.recursive_meet_reset();      // Reset between failed tests
     DO_HM  = do_hm ;
     DO_GCP = do_gcp;
 
@@ -1641,7 +1641,7 @@ public class HM10 {
         if( tstr==null ) {
           // Returning a high version of struct
           if( !ROOT_FREEZE ) return TypeNil.XNSCALR;
-          Type.RECURSIVE_MEET++;
+          Type.recursive_meet(1);
           //tstr = TypeStruct.malloc("",Type.ALL).add_fld(TypeFld.NO_DISP);
           //if( _args!=null )
           //  for( String id : _args.keySet() )
@@ -2189,7 +2189,7 @@ public class HM10 {
         if( ts0.above_center() )  return TypeNil.SCALAR;
         TypeStruct ts = WDUPS.get(_uid);
         if( ts != null ) return t; // Recursive, stop cycles
-        Type.RECURSIVE_MEET++;
+        Type.recursive_meet(1);
         ts = TypeStruct.malloc(false,"",Type.ALL,TypeFlds.EMPTY);
 
         // Add fields.  Common to both are easy, and will be walked (recursive,
@@ -2221,7 +2221,7 @@ public class HM10 {
             if( get(fld._fld)==null )       // Solo in GCP
               ts.get(fld._fld).setX( jt );
         // Close off the recursion
-        if( --Type.RECURSIVE_MEET == 0 )
+        if( Type.recursive_meet(-1) == 0 )
           ts = Cyclic.install(ts);
         return tmp.make_from(ts);
       }
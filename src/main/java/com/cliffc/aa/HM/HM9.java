@@ -1402,7 +1402,7 @@ public class HM9 {
       if( is_struct() ) {
         TypeStruct tstr = ADUPS.get(_uid);
         if( tstr==null ) {
-          Type.RECURSIVE_MEET++;
+          Type.recursive_meet(1);
           //TypeFld[] ts = TypeFlds.get(_ids.length+1);
           //ts[0] = TypeFld.NO_DISP;
           //for( int i=0; i<_ids.length; i++ )
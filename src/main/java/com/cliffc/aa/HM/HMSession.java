@@ -0,0 +1,382 @@
+package com.cliffc.aa.HM;
+
+import com.cliffc.aa.HM.HM.*;
+import com.cliffc.aa.type.*;
+import com.cliffc.aa.util.*;
+
+import java.lang.ref.Cleaner;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+
+import static com.cliffc.aa.AA.unimpl;
+
+// One HM typing session: the program text, its Syntax tree and T2s, the
+// worklist, and every table the typing passes use.  Sessions share nothing
+// but the lattice, so many programs (or many seeds of one program) can be
+// typed at once, one session per thread.
+//
+// The HM code finds its session through HM.S(), which is the session current
+// on this thread: the one made (or last entered) here.  Make, run and read a
+// session on one thread, or enter() it first.
+//
+// Alias and fidx numbers come from the shared lattice trees, which lock
+// around split and free.  Sessions typed at the same time draw interleaved
+// numbers, so printed types can differ from a serial run in those numbers
+// only.  A session records the numbers it draws and close() returns them to
+// the trees, so close a session only once its types are no longer read.
+// While any session is open, aa compilations do not chop the trees back, nor
+// reclaim Types (see Type.hold).  A session dropped without a close is
+// released once it is collected.
+// HM.reset() restarts the numbering, and is only for serial use.
+public class HMSession implements AutoCloseable {
+  static final ThreadLocal<HMSession> CUR = ThreadLocal.withInitial(HMSession::new);
+  private static final Cleaner CLEANER = Cleaner.create();
+
+  // Options for the current run
+  boolean _do_hm ;              // Do Hindley-Milner typing
+  boolean _do_gcp;              // Do forwards-flow Global Constant Propagation typing
+
+  Work<Syntax> _work;
+
+  boolean _hm_new_leaf;         // After 1st pass, potential HM new leafs will no longer lift Apply results
+  boolean _hm_ambi;             // After 2nd pass, unresolved Fields are ambiguous
+  boolean _hm_freeze;           // After 3rd pass, HM types are frozen but GCP types continue to fall
+
+  Root _root;
+
+  // Mapping from primitive name to PrimSyn
+  final HashMap<String,PrimSyn> _primsyns = new HashMap<>();
+  // Mapping from alias#s to either Struct, Pair or Triple
+  final Ary<Alloc> _aliases = new Ary<>(Alloc.class);
+
+  // Syntax
+  int _syn_cnt=1;
+  // Map from FIDXs to Lambdas
+  final NonBlockingHashMapLong<Func> _funs = new NonBlockingHashMapLong<>();
+  // Unresolved Field labels
+  final HashMap<String,Field> _fields = new HashMap<>();
+
+  // Root escapes
+  BitsAlias _ext_aliases = BitsAlias.EMPTY;
+  BitsFun   _ext_fidxs   = BitsFun  .EMPTY;
+  final Work<Syntax> _new_leaf_deps = new Work<>();
+  final Work<Syntax> _freeze_deps = new Work<>();
+  final Work<Syntax> _ext_deps = new Work<>();
+  final Ary<EXTLambda> _exts = new Ary<>(EXTLambda.class);
+  final VBitSet _escp = new VBitSet(), _escf = new VBitSet();
+  final VBitSet _add_sig = new VBitSet();
+  TypeMem _asig_mem;
+
+  // T2
+  int _t2_cnt;
+  final NonBlockingHashMapLong<Type> _adups = new NonBlockingHashMapLong<>();
+  final HashMap<Long,T2> _dups = new HashMap<>();
+  final IdentityHashMap<T2,T2> _vars = new IdentityHashMap<>();
+  final NonBlockingHashMapLong<T2> _tdups = new NonBlockingHashMapLong<>();
+  final VBitSet _odups = new VBitSet();
+  final IdentityHashMap<T2,Type> _t2map = new IdentityHashMap<>();
+  final Ary<T2> _t2_may_new_leaf = new Ary<>(T2.class);
+  final NonBlockingHashMapLong<Type> _wdups = new NonBlockingHashMapLong<>();
+  final VBitSet _update_visit = new VBitSet();
+  int _vcnt;
+  final NonBlockingHashMapLong<String> _vnames = new NonBlockingHashMapLong<>();
+
+  // Top-level unify and fresh-unify calls, for benchmarks
+  public long _unify_cnt, _fresh_cnt;
+
+  // Alias and fidx numbers drawn by this session, freed on close
+  private final AryInt _my_aliases = new AryInt(), _my_fidxs = new AryInt();
+  // Shares the trees and holds young Types until cleaned, once
+  private final Cleaner.Cleanable _share = share(this), _hold = Type.hold(this);
+
+  // A new session, current on this thread
+  public HMSession() {
+    enter();
+    // Default, external 1,2,3 arg functions
+    _exts.push(null);
+    _exts.push(new EXTLambda(T2.make_fun(T2.make_leaf()),null));
+    _exts.push(new EXTLambda(T2.make_fun(T2.make_leaf(),T2.make_leaf()),null));
+    _exts.push(new EXTLambda(T2.make_fun(T2.make_leaf(),T2.make_leaf(),T2.make_leaf()),null));
+  }
+
+  private static Cleaner.Cleanable share( HMSession ses ) {
+    BitsAlias.share();
+    BitsFun  .share();
+    return CLEANER.register(ses,HMSession::unshare);
+  }
+  private static void unshare() {
+    BitsAlias.unshare();
+    BitsFun  .unshare();
+  }
+
+  // Make this session current on this thread
+  public HMSession enter() { CUR.set(this); return this; }
+
+  // New alias and fidx numbers, recorded for close()
+  int new_alias( int par ) { int a = BitsAlias.new_alias(par); _my_aliases.push(a); return a; }
+  int new_fidx ( int par ) { int f = BitsFun  .new_fidx (par); _my_fidxs  .push(f); return f; }
+
+  // Return this session's alias and fidx numbers to the lattice trees,
+  // youngest first.  Types made by this session must not be used after.
+  @Override public void close() {
+    for( int i=_my_aliases._len-1; i>=0; i-- ) BitsAlias.free(_my_aliases.at(i));
+    for( int i=_my_fidxs  ._len-1; i>=0; i-- ) BitsFun  .free(_my_fidxs  .at(i));
+    _my_aliases.clear();
+    _my_fidxs  .clear();
+    _share.clean();
+    _hold .clean();
+    if( CUR.get()==this ) CUR.remove();
+  }
+
+  public Root hm( String sprog, int rseed, boolean do_hm, boolean do_gcp ) {
+    enter();
+    Type.recursive_meet_reset();      // Reset between failed tests
+    _do_hm  = do_hm ;
+    _do_gcp = do_gcp;
+
+    // Initialize the primitives
+    for( PrimSyn prim : new PrimSyn[]{ new If(), new Pair(), new EQ(), new EQ0(), new IMul(), new FMul(), new I2F(), new Add(), new Dec(), new IRand(), new Str(), new Triple(), new Factor(), new IsEmpty(), new NotNil()} )
+      _primsyns.put(prim.name(),prim);
+    new EXTStruct(T2.make_str(TypeMemPtr.STRPTR),TypeMemPtr.STR_ALIAS,null);
+
+    // Parse
+    Root prog = _root = parse( sprog );
+
+    // Pass 0: Prep for SSA; pre-gather all the (unique) ids
+    Work<Syntax> work = _work = new Work<>(rseed);
+    prog.prep_tree(null,null,work);
+
+    // Pass 1: Everything starts high/top/leaf and falls; escaping function args are assumed high
+    _hm_new_leaf=false;
+    _hm_ambi   = false;
+    _hm_freeze = false;
+    main_work_loop(prog,work,1);
+
+    // Pass 2: Potential new Leafs quit lifting GCP in Apply
+    _hm_new_leaf = true;
+    prog.add_new_leaf_work(work);
+    assert prog.more_work(work);
+    main_work_loop(prog,work,2);
+
+    // Pass 3: Unresolved Fields are ambiguous; propagate errors
+    _hm_ambi = true;
+    prog.add_ambi_work(work);
+    assert prog.more_work(work);
+    main_work_loop(prog,work,3);
+
+    // Pass 4: H-M types freeze, escaping function args are assumed called with lowest H-M compatible
+    // GCP types continue to run downhill.
+    _hm_freeze = true;
+    prog.add_freeze_work(work);
+    assert prog.more_work(work);
+    main_work_loop(prog,work,4);
+
+    // Error propagation, no types change.
+    assert prog.more_work(work);
+    pass_err(prog);
+
+    return prog;
+  }
+
+  void main_work_loop( Root prog, Work<Syntax> work, int pass ) {
+
+    int cnt=0;
+    while( work.len()>0 ) {     // While work
+      cnt++; assert cnt<10000;  // Check for infinite loops
+      Syntax syn = work.pop();  // Get work
+
+      // Do Hindley-Milner work always, to set unresolved Field labels
+      {
+        T2 old = syn._hmt;      // Old value for progress assert
+        if( syn.hm(work) ) {
+          assert syn.debug_find()==old.debug_find(); // monotonic: unifying with the result is no-progress
+          syn.add_hm_work(work);// Push affected neighbors on worklist
+        }
+      }
+      // Do Global Constant Propagation work
+      if( _do_gcp ) {
+        Type old = syn._flow;
+        Type t = syn.val(work);
+        if( t!=old ) {           // Progress
+          assert old.isa(t);     // Monotonic falling
+          syn._flow = t;         // Update type
+          // Push affected neighbors on worklist
+          if( syn._par!=null ) syn._par.add_val_work(syn,work);
+          else                 prog    .add_val_work(old,work);
+        }
+      }
+
+      // VERY EXPENSIVE ASSERT: O(n^2).  Every Syntax that makes progress is on the worklist
+      //assert prog.more_work(work);
+      //if( !work.on(prog) && prog._flow instanceof TypeTuple tt ) {
+      //  BitsAlias aliases = _ext_aliases;
+      //  BitsFun   fidxs   = _ext_fidxs  ;
+      //  prog.escapes(tt.at(0),work);
+      //  assert aliases==_ext_aliases && fidxs==_ext_fidxs;
+      //}
+    }
+  }
+
+  static void pass_err( Root prog ) {
+    prog.visit( syn -> {
+        T2 self = syn.find();
+        // Nil check on fields
+        if( syn instanceof Field fld ) {
+          T2 ptr = fld._ptr.find();
+          if( ptr.is_nil() || ptr._may_nil )
+            self._err = "May be nil when loading field "+fld._id;
+
+          // Expand "Missing field" error with the full pointer type
+          if( self._err!=null && self._err.startsWith("Missing field") ) {
+            T2 rec=null, bad=null;
+            // If the ptr is a full struct, then do not re-print the missing
+            // field when printing the ptr type.
+            boolean miss2 = ptr.is_ptr() && ((rec=ptr.arg("*"))!=null ) && rec.is_obj();
+            if( miss2 )  bad = rec._args.remove(fld._id); // Remove bad field
+            self._err = HM.miss_fld(fld._id)+" in "+ptr.p();
+            if( miss2 )  rec._args.put(fld._id,bad); // Put it back after printing
+          }
+        }
+        return null;
+      }, (a,b)->null);
+  }
+
+  // ---------------------------------------------------------------------
+  // Program text for parsing
+  private int _x;
+  private byte[] _buf;
+  @Override public String toString() { return str(); }
+  String str() { return _buf==null ? "" : new String(_buf,_x,_buf.length-_x); }
+  Root parse( String s ) {
+    _x = 0;
+    _buf = s.getBytes();
+    Syntax prog = fterm();
+    if( skipWS() != -1 ) throw unimpl("Junk at end of program: " + new String(_buf, _x, _buf.length - _x));
+    // Inject IF at root
+    return new Root(prog);
+  }
+  Syntax term() {
+    if( skipWS()==-1 ) return null;
+    if( isDigit(_buf[_x]) ) return number();
+    if( _buf[_x]=='"' ) return string();
+
+    if( _buf[_x]=='(' ) {       // Parse an Apply
+      _x++;                     // Skip paren
+      Syntax fun = fterm();
+      Ary<Syntax> args = new Ary<>(new Syntax[1],0);
+      while( skipWS()!= ')' && _x<_buf.length ) args.push(fterm());
+      require(')');
+      // Guarding if-nil test inserts an upcast.  This is a syntactic transform only.
+      if( fun instanceof If &&
+          args.at(0) instanceof Ident id )
+        args.set(1,new Apply(new Lambda(args.at(1), id._name), // Apply always resolves
+                             new Apply(new NotNil(),new Ident(id._name))));
+      return new Apply(fun, args.asAry());
+    }
+
+    if( _buf[_x]=='{' ) {       // Lambda of 1 or 2 args
+      _x++;                     // Skip paren
+      Ary<String> args = new Ary<>(new String[1],0);
+      while( skipWS()!='-' ) args.push(id());
+      require();
+      Syntax body = fterm();
+      require('}');
+      return new Lambda(body, args.asAry());
+    }
+    // Let or Id
+    if( isAlpha0(_buf[_x]) ) {
+      String id = id();
+      if( skipWS()!='=' ) {
+        PrimSyn prim = _primsyns.get(id); // No shadowing primitives or this lookup returns the prim instead of the shadow
+        return prim==null ? new Ident(id) : prim.make(); // Make a prim copy with fresh HM variables
+      }
+      // Let expression; "id = term(); term..."
+      _x++;                     // Skip '='
+      Syntax def = fterm();
+      require(';');
+      return new Let(id,def,fterm());
+    }
+
+    // Structure
+    if( _buf[_x]=='@' ) {
+      _x++;
+      require('{');
+      Ary<String>  ids = new Ary<>(String.class);
+      Ary<Syntax> flds = new Ary<>(Syntax.class);
+      while( skipWS()!='}' && _x < _buf.length ) {
+        String id = require('=',id());
+        Syntax fld = fterm();
+        if( fld==null ) throw unimpl("Missing term for field "+id);
+        ids .push( id);
+        flds.push(fld);
+        if( skipWS()==';' ) _x++;
+      }
+      require('}');
+      return new Struct(true,ids.asAry(),flds.asAry());
+    }
+
+    throw unimpl("Unknown syntax");
+  }
+  // Parse a term with an optional following field.
+  private Syntax fterm() {
+    Syntax term=term();
+    while( true ) {
+      if( term==null || skipWS()!='.' ) return term;
+      _x++;
+      term = new Field(id(),term);
+    }
+  }
+  private final SB _id = new SB();
+  private String id() {
+    _id.clear();
+    while( _x<_buf.length && isAlpha1(_buf[_x]) )
+      _id.p((char)_buf[_x++]);
+    String s = _id.toString().intern();
+    if( s.length()==0 ) throw unimpl("Missing id");
+    if( Util.eq(s,"_") ) return null; // Field is inferred
+    return s;
+  }
+  private Syntax number() {
+    if( _buf[_x]=='0' && (_buf[_x+1]!='.' || !isDigit(_buf[_x+2])) )
+      { _x++; return new Con(TypeNil.NIL); }
+    int sum=0;
+    while( _x<_buf.length && isDigit(_buf[_x]) )
+      sum = sum*10+_buf[_x++]-'0';
+    if( _x>= _buf.length || _buf[_x]!='.' )
+      return new Con(TypeInt.con(sum));
+    // Ambiguous '.' in: 2.3 vs 2.x (field load from a number)
+    if( _x+1<_buf.length && isAlpha0(_buf[_x+1]) )
+      return new Con(TypeInt.con(sum));
+    _x++;
+    float f = (float)sum;
+    f = f + (_buf[_x++]-'0')/10.0f;
+    require('f');
+    return new Con(TypeFlt.con(f));
+  }
+  private Syntax string() {
+    int start = ++_x;
+    while( _x<_buf.length && _buf[_x]!='"' ) _x++;
+    return require('"', new Con(TypeMemPtr.make_str(new String(_buf,start,_x-start).intern())));
+  }
+  private byte skipWS() {
+    while(true) {
+      if( _x == _buf.length ) return -1;
+      if( _x+1<_buf.length && _buf[_x]=='/' && _buf[_x+1]=='/' )
+        while( _buf[_x]!='\n' ) _x++;
+      if( !isWS(_buf[_x]) ) return _buf[_x];
+      _x++;
+    }
+  }
+  private static boolean isWS    (byte c) { return c == ' ' || c == '\t' || c == '\n' || c == '\r'; }
+  private static boolean isDigit (byte c) { return '0' <= c && c <= '9'; }
+  private static boolean isAlpha0(byte c) { return ('a'<=c && c <= 'z') || ('A'<=c && c <= 'Z') || (c=='_') || (c=='*') || (c=='?') || (c=='+'); }
+  private static boolean isAlpha1(byte c) { return isAlpha0(c) || ('0'<=c && c <= '9') || (c=='/'); }
+  private void require(char c) { if( skipWS()!=c ) throw unimpl("Missing '"+c+"'"); _x++; }
+  private <T> T require(char c, T t) { require(c); return t; }
+  private void require() {
+    skipWS();
+    if( _x+2 >= _buf.length || _buf[_x]!= '-' || _buf[_x+1]!= '>' )
+      throw unimpl("Missing '->'");
+    _x+=2;
+  }
+}
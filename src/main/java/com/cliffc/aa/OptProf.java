@@ -0,0 +1,70 @@
+package com.cliffc.aa;
+
+import com.cliffc.aa.node.Node;
+import com.cliffc.aa.util.ConcurrentAutoTable;
+import com.cliffc.aa.util.SB;
+
+import java.util.Arrays;
+
+/** an implementation of language AA
+ */
+
+// Per-opcode optimizer profile.  For each Node opcode and each kind of work,
+// counts how often a Node was taken off a worklist, how often that made
+// progress, and the time spent.
+//
+// The GVN kinds are the GVNGCM.iter worklists: dead (kill), flow (value and
+// live), reduce (constant, CSE and ideal_reduce), mono (ideal_mono), grow
+// (ideal_grow) and inline (ideal_inline).  The Combo kinds split one
+// main_work_loop step into its forwards value, backwards live and H-M unify
+// parts.
+//
+// Off by default; when off the cost is a static read per worklist pop.
+// Counters are striped, so parallel passes can share them.
+public abstract class OptProf {
+  public static boolean ON;
+
+  public static final int DEAD=0, FLOW=1, REDUCE=2, MONO=3, GROW=4, INLINE=5, C_VALUE=6, C_LIVE=7, C_UNIFY=8;
+  static final String[] KINDS = new String[]{"dead","flow","reduce","mono","grow","inline","combo.value","combo.live","combo.unify"};
+
+  // Indexed by [op*KINDS.length+kind]
+  private static final ConcurrentAutoTable[] POPS  = cats();
+  private static final ConcurrentAutoTable[] PROGS = cats();
+  private static final ConcurrentAutoTable[] NANOS = cats();
+  private static ConcurrentAutoTable[] cats() {
+    ConcurrentAutoTable[] cats = new ConcurrentAutoTable[Node.OP_MAX*KINDS.length];
+    for( int i=0; i<cats.length; i++ ) cats[i] = new ConcurrentAutoTable();
+    return cats;
+  }
+
+  public static void record( Node n, int kind, boolean progress, long ns ) {
+    int x = n._op*KINDS.length+kind;
+    POPS[x].increment();
+    if( progress ) PROGS[x].increment();
+    NANOS[x].add(ns);
+  }
+
+  public static void reset() {
+    for( int i=0; i<POPS.length; i++ ) { POPS[i].set(0); PROGS[i].set(0); NANOS[i].set(0); }
+  }
+
+  // Report, most time first
+  public static String report() {
+    Integer[] xs = new Integer[POPS.length];
+    long[] ns = new long[POPS.length];
+    long tot=0;
+    for( int i=0; i<xs.length; i++ ) { xs[i]=i; tot += (ns[i] = NANOS[i].get()); }
+    Arrays.sort(xs,(a,b) -> Long.compare(ns[b],ns[a]));
+    SB sb = new SB().p(String.format("%-10s %-12s %9s %9s %6s %9s %7s %6s",
+                                     "op","kind","pops","progress","hit%","msec","ns/pop","time%")).nl();
+    for( int x : xs ) {
+      long pops = POPS[x].get();
+      if( pops==0 ) continue;
+      long progs = PROGS[x].get();
+      sb.p(String.format("%-10s %-12s %9d %9d %5.1f%% %9.3f %7d %5.1f%%",
+                         Node.op_str(x/KINDS.length),KINDS[x%KINDS.length],pops,progs,
+                         100.0*progs/pops,ns[x]/1e6,ns[x]/pops,100.0*ns[x]/Math.max(1,tot))).nl();
+    }
+    return sb.toString();
+  }
+}
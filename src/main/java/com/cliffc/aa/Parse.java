@@ -1675,7 +1675,7 @@ public class Parse implements Comparable<Parse> {
     // find line end
     int b=_x;
     while( b < _buf.length && _buf[b] != '\n' ) b++;
-    if( b < _buf.length ) b--; // do not include trailing \n or \n\r
+    if( b > a && _buf[b-1]=='\r' ) b--; // do not include trailing \r\n
     // Find line number.  Bin-search returns the insertion-point, which is the NEXT
     // line unless _x is exactly a line start.
     int line = _lines.binary_search(_x); // Find zero-based line insertion point
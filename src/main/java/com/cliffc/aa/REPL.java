@@ -1,14 +1,21 @@
 package com.cliffc.aa;
 
-import com.cliffc.aa.AA.*;
-import com.cliffc.aa.type.*;
-import com.cliffc.aa.util.*;
-
 import java.util.Scanner;
 
 /** an implementation of language AA
  */
 
+// Each line is compiled together with the lines accepted so far, as one
+// program in a fresh file-level Env nested under the primitives.  A line
+// which compiles cleanly is promoted into the accepted program; a line with
+// errors is reported and dropped, leaving nothing behind.  The value printed
+// is the program result after Combo and the post-Combo GVN, as from
+// Exec.file.
+//
+// The graph is not kept between lines.  The post-Combo types cannot take
+// more parsing, and Combo over a file scope still open for more lines does
+// not reach the closed program's answer.  So the cost of a line grows with
+// the session.
 public abstract class REPL {
   public static final String prompt="> ";
   public static String go( ) {
@@ -25,22 +32,20 @@ public abstract class REPL {
     System.out.flush();
   }
 
-  static String go_one( String prog, String line ) {
-    //String prog2 = prog+line+";"+System.lineSeparator();
-    //TypeEnv te = Exec.go(Env.file_scope(Env.top_scope()),"stdin",prog2);
-    //if( te._errs == null ) {
-    //  Type t = te._t;
-    //  if( t instanceof TypeMemPtr )
-    //    t = te._tmem.ld((TypeMemPtr)t); // Peek thru pointer
-    //  SB sb = t.str(new SB(),new VBitSet(),te._tmem,false); // Print what we see, with memory
-    //  System.out.println( sb.toString() );
-    //  prog = prog2;
-    //} else
-    //  System.out.print( te._errs.get(0) );
-    //System.out.print(prompt);
-    //System.out.flush();
-    //return prog;
-    throw AA.unimpl();
+  // Compile the accepted program plus one more line.  Returns the program so
+  // far, with the line if it had no errors.
+  public static String go_one( String prog, String line ) {
+    String prog2 = prog+line+";"+System.lineSeparator();
+    try( TypeEnv te = Exec.file("stdin",prog2,0,true,true) ) {
+      if( te._errs == null ) {
+        System.out.println(te._tmem.sharptr(te._t));
+        prog = prog2;
+      } else
+        System.out.print(te._errs.get(0));
+    }
+    System.out.print(prompt);
+    System.out.flush();
+    return prog;
   }
 
 }
@@ -17,7 +17,7 @@ public class CRProjNode extends CEProjNode {
     if( is_prim() ) return Type.CTRL; // Primitives never die
     // Before Combo runs, calls might yet wire.  The default path cannot die
     // until wiring is done.
-    if( AA.LIFTING && !Combo.HM_FREEZE ) return Type.CTRL;
+    if( CompilerContext.cur()._lifting && !Combo.HM_FREEZE ) return Type.CTRL;
     // During or Post-Combo, compute liveness from Root value
     BitsFun rfidxs = root().rfidxs();
     if( rfidxs.above_center() ) return Type.XCTRL;
@@ -1,10 +1,11 @@
 package com.cliffc.aa.node;
 
-import com.cliffc.aa.AA;
 import com.cliffc.aa.Combo;
+import com.cliffc.aa.CompilerContext;
 import com.cliffc.aa.Env;
 import com.cliffc.aa.tvar.*;
 import com.cliffc.aa.type.*;
+import com.cliffc.aa.util.VBitSet;
 
 import static com.cliffc.aa.AA.*;
 import static com.cliffc.aa.Env.GVN;
@@ -54,7 +55,7 @@ public final class CallEpiNode extends Node {
     if( fidxs.above_center() ) return true; // No path is taken
     if( fidxs==BitsFun.NALL ) return false; // Some unknown path is unwired
     // Post-combo, was all wired but some dead paths may have been removed.
-    //if( AA.LIFTING && Combo.HM_FREEZE ) return true;
+    //if( CompilerContext.cur()._lifting && Combo.HM_FREEZE ) return true;
     int ncall=0;
     for( int i=0; i<nwired(); i++ )
       if( fidxs.test(wired(i)._fidx) ) // Verify each fidx is wired
@@ -214,6 +215,18 @@ public final class CallEpiNode extends Node {
     return null;
   }
 
+  // Combo wiring memo.  Combo calls check_and_wire on every value change of
+  // a Call or of any wired Ret, but only the Call type matters.  During one
+  // Combo run the graph shape is fixed except for wiring, and types only
+  // fall.  So a Call type already checked has nothing new to wire, and once
+  // the Call executes a fidx is settled when first checked: it is wired, or
+  // it fails the argument checks for good.  Only new fidxs are checked.
+  static int WIRE_EPOCH;        // Bumped at the start of each Combo run
+  private int _wire_epoch;
+  private Type _wire_tcall;     // Last Call type checked
+  private VBitSet _wire_done;   // Settled fidxs
+  public static void wire_reset() { WIRE_EPOCH++; }
+
   // Used during GCP and Ideal calls to see if wiring is possible.
   // Return true if a new edge is wired
   public boolean check_and_wire(boolean is_combo) {
@@ -227,10 +240,23 @@ public final class CallEpiNode extends Node {
       return false;
     }
     if( tfp.above_center() )  return false; // Still choices to be made during GCP.
+    VBitSet done = null;
+    if( is_combo ) {
+      if( _wire_epoch != WIRE_EPOCH ) {
+        _wire_epoch = WIRE_EPOCH;
+        _wire_tcall = null;
+        if( _wire_done!=null ) _wire_done.clear();
+      }
+      if( tcall == _wire_tcall ) return false; // Nothing new to wire
+      _wire_tcall = tcall;
+      if( CallNode.tctl((TypeTuple)tcall) == Type.CTRL ) // Executing, so fidx checks are final
+        done = _wire_done==null ? (_wire_done = new VBitSet()) : _wire_done;
+    }
 
     // Check all fidxs for being wirable
     boolean progress = false;
     for( int fidx : tfp.fidxs() ) { // For all fidxs
+      if( done!=null && done.tset(fidx) ) continue; // Settled before
       if( BitsFun.is_parent(fidx) ) continue; // Do not wire parents, as they will eventually settle out
       RetNode ret = RetNode.get(fidx);        // Lookup, even if not wired
       if( ret==null || ret.is_copy() ) continue; // Dead or RootNode.EXT_FIDX
@@ -350,7 +376,7 @@ public final class CallEpiNode extends Node {
     // and GCP flow type in parallel and create a mapping.  Then walk the
     // output HM type and CCP flow type in parallel, and join output CCP types
     // with the matching input CCP type.
-    if( false && AA.DO_HMT )
+    if( false && CompilerContext.cur()._do_hmt )
       trez = hm_apply_lift(tvar(),trez);
 
     return TypeTuple.make(Type.CTRL,tmem,trez);
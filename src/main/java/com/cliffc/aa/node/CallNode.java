@@ -326,7 +326,7 @@ public class CallNode extends Node {
     // dead inputs to resolve a call!  The call input *must* have some uses
     // which distinguish which function to call.  Cannot flip this during
     // Combo, as will break monotonicity.
-    if( !LIFTING ) return Type.ALL;
+    if( !CompilerContext.cur()._lifting ) return Type.ALL;
     
     // Check that all fidxs are wired.  If not wired, a future wired fidx might
     // use the call input.  Post-Combo, all was wired, but dead Calls might be
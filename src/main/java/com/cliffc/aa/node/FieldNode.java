@@ -82,8 +82,9 @@ public class FieldNode extends Node implements Resolvable {
       tstr = t;                 // Value direct from input
     }
     // Hit on a field
-    if( tstr instanceof TypeStruct ts && ts.find(_fld)!= -1 )
-      return ts.at(_fld).join(TypeNil.SCALAR).meet(TypeNil.XSCALAR);
+    int idx;
+    if( tstr instanceof TypeStruct ts && (idx=ts.find(_fld))!= -1 )
+      return ts.at(idx).join(TypeNil.SCALAR).meet(TypeNil.XSCALAR);
     return (tstr==null ? t : tstr).oob(TypeNil.SCALAR);
   }
 
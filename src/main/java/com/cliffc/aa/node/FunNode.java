@@ -1,5 +1,6 @@
 package com.cliffc.aa.node;
 
+import com.cliffc.aa.CompilerContext;
 import com.cliffc.aa.Env;
 import com.cliffc.aa.GVNGCM;
 import com.cliffc.aa.tvar.TV3;
@@ -69,6 +70,20 @@ public class FunNode extends RegionNode {
   private byte _cnt_size_inlines; // Count of size-based inlines; prevents infinite unrolling via inlining
   public static int _must_inline; // Used for asserts
 
+  // Body summary for ideal_inline: the body, whether it is small enough to
+  // inline, and its If count.  Depends only on the graph shape, so it is kept
+  // until an edit touches a Node the body walk reached (see Node._body_fun).
+  // Caller constant profiles depend on types, and are recomputed per decision
+  // in O(callers).
+  Ary<Node> _body;              // Null if not summarized, or edited since
+  private boolean _body_small;  // Opcode histogram within the inline limits
+  private int _body_ifs;        // If count, compared against constant args
+
+  // Size-split specializations of this function, by the argument signature of
+  // the split path.  A later caller with the same signature is rewired to a
+  // live specialization instead of cloning the body again.
+  private HashMap<TypeTuple,RetNode> _specs;
+
   // Used to make the primitives at boot time.  Note the empty displays: in
   // theory Primitives should get the top-level primitives-display, but in
   // practice most primitives neither read nor write their own scope.
@@ -145,10 +160,16 @@ public class FunNode extends RegionNode {
     }
 
     // Look for appropriate type-specialize callers
-    Ary<Node> body = find_body(ret);
+    CompilerContext ctx = CompilerContext.cur();
+    if( _body==null ) { summarize(ret); ctx._body_miss++; }
+    else ctx._body_hit++;
+    Ary<Node> body = _body;
     // Large code-expansion allowed; can inline for other reasons
     int path = split_size(body,parms); // Forcible size-splitting first path
     if( path == -1 ) return null;
+    TypeTuple sig = signature(parms,path);
+    if( respecialize(sig,path) ) { assert !check_progress; return this; }
+    _body = null;               // Splitting, so the body changes
     if( !is_prim() ) {
       if( _cnt_size_inlines >= 10 ) return null;
       _cnt_size_inlines++; // Disallow infinite size-inlining of recursive non-primitives
@@ -164,11 +185,42 @@ public class FunNode extends RegionNode {
     // Split the callers according to the new 'fun'.
     FunNode fun = make_new_fun(ret, path);
     split_callers(ret,fun,body,path);
+    if( _specs==null ) _specs = new HashMap<>();
+    _specs.put(sig,fun.ret());
     assert Env.ROOT.more_work(true)==0; // Initial conditions are correct
     //assert Env.ROOT.no_more_ideal();
     return this;
   }
 
+  // Argument signature of a caller path: the actual types of all Parms except
+  // the RPC, which differs per caller.
+  private static TypeTuple signature( ParmNode[] parms, int path ) {
+    Type[] ts = Types.get(parms.length-1);
+    for( int j=1; j<parms.length; j++ )
+      ts[j-1] = parms[j]==null ? Type.ANY : parms[j].val(path);
+    return TypeTuple.make(ts);
+  }
+
+  // Rewire the caller on path to a live specialization with the same
+  // signature.  The Call gets the specialization's FunPtr; the CallEpi then
+  // unwires this function and wires the specialization.
+  private boolean respecialize( TypeTuple sig, int path ) {
+    RetNode sret = _specs==null ? null : _specs.get(sig);
+    if( sret==null ) return false;
+    FunPtrNode sfptr = sret.is_dead() || sret.is_copy() ? null : sret.fun().fptr();
+    if( sfptr==null || sret.fun().is_dead() || sret.fun()._fidx != sret._fidx ) {
+      _specs.remove(sig);       // Inlined or dead
+      return false;
+    }
+    CallNode call = (CallNode)in(path).in(0);
+    TypeFunPtr ofptr = (TypeFunPtr)fptr()._val;
+    call.set_fdx(sfptr);
+    call.set_ttfp(ofptr.make_from(BitsFun.make0(sret._fidx)));
+    Env.GVN.add_flow(call);
+    Env.GVN.add_reduce(call.cepi());
+    return true;
+  }
+
   @Override void unwire(int idx) {
     Node ctl = in(idx);
     if( !(ctl instanceof ConNode) ) {
@@ -199,7 +251,7 @@ public class FunNode extends RegionNode {
 
 
   // Return the function body.
-  private Ary<Node> find_body( RetNode ret ) {
+  private Ary<Node> find_body( RetNode ret, Ary<Node> fwd ) {
     // Find the function body.  Do a forwards walk first, stopping at the
     // obvious function exit.  If function does not expose its display then
     // this is the complete function body with nothing extra walked.  If it has
@@ -225,6 +277,7 @@ public class FunNode extends RegionNode {
       // Adding the reached FunPtrs here clones them, making new FunPtrs using
       // either the old or new display.
       if( freached.tset(n._uid) ) continue; // Already visited?
+      fwd.push(n);
       if( op == OP_RET ) continue;          // End of this function
       if( n instanceof ProjNode && n.in(0) instanceof CallNode ) continue; // Wired call; all projs lead to other functions
       work.addAll(n._uses);   // Visit all uses
@@ -253,37 +306,27 @@ public class FunNode extends RegionNode {
     return body;
   }
 
-  // Split a single-use copy (e.g. fully inline) if the function is "small
-  // enough".  Include anything with just a handful of primitives, or a single
-  // call, possible with a single if.  Disallow functions returning a new
-  // allocation & making other (possibly recursive) calls: the recursive-loop
-  // prevents lifting the allocations from the default parent to either child
-  // without a full GCP pass - which means we split_size but then cannot inline
-  // in CEPI because the Ret memory type will never lift to the default memory.
-  private int split_size( Ary<Node> body, Node[] parms ) {
-    if( _defs._len <= 1 ) return -1; // No need to split callers if only 1
-    boolean self_recursive=false;
-
-    // Count function body size.  Requires walking the function body and
-    // counting opcodes.  Some opcodes are ignored, because they manage
-    // dependencies but make no code.
-    int call_indirect=0; // Count of calls to e.g. loads/args/parms
+  // Gather the body, and count its opcodes.  Some opcodes are ignored,
+  // because they manage dependencies but make no code.
+  void summarize( RetNode ret ) {
+    Ary<Node> fwd = new Ary<>(new Node[1],0);
+    Ary<Node> body = find_body(ret,fwd);
     int[] cnts = new int[OP_MAX];
     for( Node n : body ) {
       int op = n._op;           // opcode
-      if( n instanceof CallNode call ) {     // Call-of-primitive?
-        Node fdx = call.fdx();
-        //if( !(fdx._val instanceof TypeFunPtr tfp) ) { // Calling an unknown function, await GCP
-        //  fdx.deps_add(this);
-        //  return -1; 
-        //}
-        //if( tfp.test(_fidx) ) self_recursive = true; // May be self-recursive
-        //if( fdx instanceof FunPtrNode fpn ) {
-        //  if( fpn.ret().rez() instanceof PrimNode )
-        //    op = OP_PRIM;       // Treat as primitive for inlining purposes
-        //} else
-        //  call_indirect++;
-      }
+      //if( n instanceof CallNode call ) {     // Call-of-primitive?
+      //  Node fdx = call.fdx();
+      //  if( !(fdx._val instanceof TypeFunPtr tfp) ) { // Calling an unknown function, await GCP
+      //    fdx.deps_add(this);
+      //    return -1;
+      //  }
+      //  if( tfp.test(_fidx) ) self_recursive = true; // May be self-recursive
+      //  if( fdx instanceof FunPtrNode fpn ) {
+      //    if( fpn.ret().rez() instanceof PrimNode )
+      //      op = OP_PRIM;       // Treat as primitive for inlining purposes
+      //  } else
+      //    call_indirect++;
+      //}
       cnts[op]++;               // Histogram ops
     }
     assert cnts[OP_FUN]==1 && cnts[OP_RET]==1;
@@ -293,16 +336,47 @@ public class FunNode extends RegionNode {
     // Specifically ignoring constants, parms, phis, RPCs, types,
     // unresolved, and casts.  These all track & control values, but actually
     // do not generate any code.
-    if( cnts[OP_CALL] > 2 || // Careful inlining more calls; leads to exponential growth
-        cnts[OP_LOAD] > 4 ||
-        cnts[OP_STORE]> 2 ||
-        cnts[OP_PRIM] > 6 ||   // Allow small-ish primitive counts to inline
-        cnts[OP_NEW]>2 ||      // Display and return is OK
-        (cnts[OP_NEW]>1 && self_recursive)
-        //|| call_indirect > 0
-        )
-      return -1;
+    _body_small = !(cnts[OP_CALL] > 2 || // Careful inlining more calls; leads to exponential growth
+                    cnts[OP_LOAD] > 4 ||
+                    cnts[OP_STORE]> 2 ||
+                    cnts[OP_PRIM] > 6 ||   // Allow small-ish primitive counts to inline
+                    cnts[OP_NEW]>2 );      // Display and return is OK
+    _body_ifs = cnts[OP_IF];
+    _body = body;
+    // Mark the forwards walk, so edits to it drop the summary.  The body is
+    // the backwards walk trimmed to these, so any edge joining or leaving it
+    // changes the uses of a marked Node.  A Node in another function's
+    // summary is taken over, dropping that one.
+    for( Node n : fwd ) {
+      if( n._body_fun!=null && n._body_fun!=this ) n._body_fun.drop_body();
+      n._body_fun = this;
+    }
+  }
+  // Use edits on a marked Node.  Both walks stop at the RetNode, so its uses
+  // (e.g. wired CallEpis) do not change the body.
+  void body_use_edit( Node n ) { if( n._op!=OP_RET ) drop_body(); }
+  void drop_body() { _body = null; }
+  // Def edits on a marked Node.  The walk stops depend on defs (a Parm's
+  // FunNode, a Proj's Call), so these drop the summary; except for the caller
+  // paths into this FunNode and its Parms, as from wiring a call.  A caller
+  // path that joins the body is forwards reached, so its uses change.
+  void body_def_edit( Node n ) {
+    if( n!=this && !(n instanceof ParmNode && n.in(0)==this) )
+      drop_body();
+  }
 
+  // Split a single-use copy (e.g. fully inline) if the function is "small
+  // enough".  Include anything with just a handful of primitives, or a single
+  // call, possible with a single if.  Disallow functions returning a new
+  // allocation & making other (possibly recursive) calls: the recursive-loop
+  // prevents lifting the allocations from the default parent to either child
+  // without a full GCP pass - which means we split_size but then cannot inline
+  // in CEPI because the Ret memory type will never lift to the default memory.
+  private int split_size( Ary<Node> body, Node[] parms ) {
+    if( _defs._len <= 1 ) return -1; // No need to split callers if only 1
+    boolean self_recursive=false;
+    // Function body size, from the summary
+    if( !_body_small ) return -1;
     if( self_recursive ) return -1; // Await GCP & call-graph discovery before inlining self-recursive functions
 
     // Pick which input to inline.  Only based on having some constant inputs
@@ -335,7 +409,7 @@ public class FunNode extends RegionNode {
     if( m == -1 )               // No paths are not in-error? (All paths have an error-parm)
       return -1;                // No inline
 
-    if( cnts[OP_IF] > 1+mncons) // Allow some trivial filtering to inline
+    if( _body_ifs > 1+mncons)   // Allow some trivial filtering to inline
       return -1;
 
     return m;                   // Return path to split on
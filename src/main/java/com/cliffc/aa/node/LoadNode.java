@@ -4,12 +4,15 @@ import com.cliffc.aa.Env;
 import com.cliffc.aa.Parse;
 import com.cliffc.aa.tvar.*;
 import com.cliffc.aa.type.*;
+import com.cliffc.aa.util.Ary;
+import org.jetbrains.annotations.NotNull;
 
 import static com.cliffc.aa.AA.*;
 
 // Load a struct from memory.  Does it's own nil-check testing.
 public class LoadNode extends Node {
   private final Parse _bad;
+  BitsAlias _esc_stall;         // Aliases stalled at a Call on Root escapes, or null
 
   public LoadNode( Node mem, Node adr, Parse bad ) {
     super(OP_LOAD,null,mem,adr);
@@ -19,6 +22,12 @@ public class LoadNode extends Node {
   Node mem() { return in(MEM_IDX); }
   Node adr() { return in(DSP_IDX); }
   private Node set_mem(Node a) { return set_def(MEM_IDX,a); }
+
+  @Override public @NotNull LoadNode copy( boolean copy_edges) {
+    LoadNode ld = (LoadNode)super.copy(copy_edges);
+    ld._esc_stall = null;
+    return ld;
+  }
   //public TypeFld find(TypeStruct ts) { return ts.get(_fld); }
 
   @Override public Type value() {
@@ -144,23 +153,30 @@ public class LoadNode extends Node {
 
   // Find a matching prior Store - matching address.
   // Returns null if highest available memory does not match address.
+  private static final Ary<StoreNode> SKIPS = new Ary<>(new StoreNode[1],0);
   static Node find_previous_struct(Node ldst, Node mem, Node adr, BitsAlias aliases ) {
     if( mem==null ) return null;
     // Walk up the memory chain looking for an exact matching Store or New
     int cnt=0;
     while(true) {
-      cnt++; assert cnt < 100; // Infinite loop?
-      if( mem instanceof StoreNode st ) {
+      cnt++; assert cnt < 100000; // Infinite loop?
+      if( mem instanceof StoreNode ) {
+        // Skip runs of disjoint unrelated Stores along this alias chain,
+        // compressing the path for the next walk.
+        SKIPS.clear();
+        while( mem instanceof StoreNode st ) {
+          cnt++; assert cnt < 100000; // Infinite loop?
+          Node skip = st.skip(aliases);
+          if( skip != null ) mem = skip; // Prior walk skipped this run
+          else if( st.disjoint(adr,aliases) ) { SKIPS.push(st); mem = st.mem(); } // Advance past
+          else break;
+        }
+        for( StoreNode st : SKIPS ) st.set_skip(aliases,mem);
+        if( !(mem instanceof StoreNode st) ) continue;
         if( st.adr()==adr ) return st.err(true)== null ? st : null; // Exact matching store
-        if( mem == st.mem() ) return null; // Parallel unrelated stores
-        // Wrong address.  Look for no-overlap in aliases
-        Type tst = st.adr()._val;
-        if( !(tst instanceof TypeMemPtr tmp) ) return null; // Store has weird address
-        BitsAlias st_alias = tmp._aliases;
-        if( aliases.join(st_alias) != BitsAlias.EMPTY )
-          return null;        // Aliases not disjoint, might overlap but wrong address
-        // Disjoint unrelated store.
-        mem = st.mem(); // Advance past
+        // Parallel unrelated stores, weird address, or aliases not disjoint,
+        // might overlap but wrong address
+        return null;
 
       //} else if( mem instanceof MemPrimNode.LValueWrite ) {
       //  // Array stores and field loads never alias
@@ -182,7 +198,7 @@ public class LoadNode extends Node {
             BitsAlias esc_aliases = Env.ROOT.ralias();
             // Collides, might be use/def by call
             if( aliases.overlaps(esc_aliases) ) {
-              Env.ROOT.deps_add(ldst); // Revisit if fewer escapes
+              if( ldst instanceof LoadNode ld ) Env.ROOT.alias_deps_add(ld,aliases); // Revisit if fewer escapes
               return null;
             }
             // Peek through call
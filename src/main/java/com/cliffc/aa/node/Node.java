@@ -48,7 +48,7 @@ public abstract class Node implements Cloneable, IntSupplier {
   static final byte OP_STRUCT =31;
   static final byte OP_TYPE   =32;
   static final byte OP_VAL    =33;
-  static final byte OP_MAX    =34;
+  public static final byte OP_MAX=34;
 
   private static final String[] STRS = new String[] { null, "BindFP", "Call", "CallEpi", "Cast", "Con", "ConType", "CProj", "Err", "Field", "Fresh", "FP2DSP", "ForwardRef", "Fun", "FunPtr", "If", "Join", "Keep", "Load", "New", "Parm", "Phi", "Prim", "Proj", "Region", "Return", "Root", "Scope","SetFld","Split", "Store", "Struct", "Type", "Val" };
   static { assert STRS.length==OP_MAX; }
@@ -73,10 +73,15 @@ public abstract class Node implements Cloneable, IntSupplier {
   // "eval" as user state carries on.
   public static void reset_to_init0() {
     CNT = _INIT0_CNT;
+    StoreNode.skip_reset();
   }
 
 
   public int _uid;      // Unique ID, will have gaps, used to give a dense numbering to nodes
+  // The FunNode whose cached body summary walked this Node, if any.  Edits to
+  // this Node's uses or defs drop that summary.
+  FunNode _body_fun;
+  static void use_edit( Node n ) { if( n!=null && n._body_fun!=null ) n._body_fun.body_use_edit(n); }
   public final byte _op;// Opcode (besides the object class), used to avoid v-calls in some places
   public boolean _elock;// Edge-lock: cannot modify edges because messes up hashCode & GVN
   public Type _val;     // Value; starts at ALL and lifts towards ANY.
@@ -124,6 +129,8 @@ public abstract class Node implements Cloneable, IntSupplier {
   // Edge lock check, or anything that changes the hash
   public void unelock() {
     assert check_vals();        // elock & VALs match
+    if( _body_fun!=null ) _body_fun.body_def_edit(this);
+    if( _op==OP_STORE ) StoreNode.skip_reset(); // Memory chains changing
     if( _elock ) {              // Edge-locked
       _elock=false;             // Unlock
       Node x = VALS.remove(this);
@@ -151,27 +158,27 @@ public abstract class Node implements Cloneable, IntSupplier {
   }
 
   // Add def/use edge
-  public Node add_def(Node n) { unelock(); _defs.add(n); if( n!=null ) n._uses.add(this); return this; }
+  public Node add_def(Node n) { unelock(); _defs.add(n); if( n!=null ) { n._uses.add(this); use_edit(n); } return this; }
   // Replace def/use edge
   public Node set_def( int idx, Node n ) {
     unelock();
     Node old = _defs.at(idx);  // Get old value
     // Add edge to new guy before deleting old, in case old goes dead and
     // recursively makes new guy go dead also
-    if( (_defs._es[idx] = n) != null ) n._uses.add(this);
+    if( (_defs._es[idx] = n) != null ) { n._uses.add(this); use_edit(n); }
     return unuse(old);
   }
 
   public void replace(Node old, Node nnn) { unelock(); _defs.replace(old,nnn); }
 
-  public Node insert (int idx, Node n) { unelock(); _defs.insert(idx,n); if( n!=null ) n._uses.add(this); return this; }
+  public Node insert (int idx, Node n) { unelock(); _defs.insert(idx,n); if( n!=null ) { n._uses.add(this); use_edit(n); } return this; }
   // Return Node at idx, withOUT auto-deleting it, even if this is the last
   // use.  Used by the parser to retrieve final Nodes from tmp holders.  Does
   // NOT preserve order.
   public Node del( int idx ) {
     unelock();
     Node n = _defs.del(idx);
-    if( n != null ) n._uses.del(this);
+    if( n != null ) { n._uses.del(this); use_edit(n); }
     return n;
   }
   public Node pop( ) { unelock(); Node n = _defs.pop(); unuse(n); return n; }
@@ -181,6 +188,7 @@ public abstract class Node implements Cloneable, IntSupplier {
   private Node unuse( Node old ) {
     if( old == null ) return this;
     old._uses.del(this);
+    use_edit(old);
     // Either last use of old & goes dead, or at least 1 fewer uses & changes liveness
     Env.GVN.add_unuse(old);
     return this;
@@ -192,6 +200,8 @@ public abstract class Node implements Cloneable, IntSupplier {
   // unification.
   public void insert( Node nnn ) {
     if( _uses._len>0 ) unelock(); // Hacking edges
+    use_edit(this);
+    use_edit(nnn);
     while( _uses._len > 0 ) {
       Node u = _uses.del(0);  // Old use
       u.replace(this,nnn);    // was this now nnn
@@ -211,6 +221,7 @@ public abstract class Node implements Cloneable, IntSupplier {
   public Node kill( ) {
     if( is_dead() ) return null;
     assert _uses._len==0;
+    if( _body_fun!=null ) _body_fun.drop_body();
     deps_work_clear();          // Put dependents on worklist
     // Similar to unelock(), except do not put on any worklist
     if( _elock ) { _elock = false; Node x = VALS.remove(this); assert x == this; }
@@ -262,7 +273,7 @@ public abstract class Node implements Cloneable, IntSupplier {
     _defs = new Ary<>(defs);
     _uses = new Ary<>(new Node[1],0);
     _deps = null;
-    for( Node def : defs ) if( def != null ) def._uses.add(this);
+    for( Node def : defs ) if( def != null ) { def._uses.add(this); use_edit(def); }
     _val  = _live = Type.ALL;
     _tvar = null;
   }
@@ -279,6 +290,7 @@ public abstract class Node implements Cloneable, IntSupplier {
       n._defs = new Ary<>(new Node[1],0); // New empty defs
       n._uses = new Ary<>(new Node[1],0); // New empty uses
       n._elock=false;           // Not in GVN
+      n._body_fun=null;         // In no summary
       if( copy_edges )
         for( Node def : _defs )
           n.add_def(def);
@@ -447,6 +459,22 @@ public abstract class Node implements Cloneable, IntSupplier {
     if( !is_multi_tail() ) nodes.push(this);
   }
 
+  // Count Nodes reachable from root by opcode, for compile stats
+  public static int[] op_counts( Node root ) {
+    int[] cnts = new int[OP_MAX];
+    Ary<Node> work = new Ary<>(new Node[1],0);
+    VBitSet visit = new VBitSet();
+    work.push(root);  visit.set(root._uid);
+    while( !work.isEmpty() ) {
+      Node n = work.pop();
+      cnts[n._op]++;
+      for( Node def : n._defs ) if( def!=null && !visit.tset(def._uid) ) work.push(def);
+      for( Node use : n._uses ) if(              !visit.tset(use._uid) ) work.push(use);
+    }
+    return cnts;
+  }
+  public static String op_str( int op ) { return STRS[op]; }
+
   // Utility during debugging to find a reachable Node by _uid
   public  Node find( int uid ) { return find(uid,new VBitSet()); }
   private Node find( int uid, VBitSet bs ) {
@@ -544,47 +572,49 @@ public abstract class Node implements Cloneable, IntSupplier {
   public boolean unify_proj( ProjNode proj, boolean test ) { throw unimpl(); }
 
   // Do One Step of forwards-dataflow analysis.  Assert monotonic progress.
-  // If progressed, add neighbors on worklist.
-  public void combo_forwards() {
+  // If progressed, add neighbors on worklist.  True if progress.
+  public boolean combo_forwards() {
     Type oval = _val;           // Old local type
     Type nval = value();        // New type
-    if( oval == nval ) return;  // No progress
+    if( oval == nval ) return false; // No progress
     assert oval.isa(nval);      // Monotonic
     _val = nval;                // Record progress
     add_flow_uses();            // Classic forwards flow on change.
     deps_work_clear();          // Any extra flow changes
+    return true;
   }
 
   // Do One Step of backwards-dataflow analysis.  Assert monotonic progress.
-  // If progressed, add neighbors on worklist.
-  public void combo_backwards() {
+  // If progressed, add neighbors on worklist.  True if progress.
+  public boolean combo_backwards() {
     Type oliv = _live;
     Type nliv = live();
     // TODO: If use._value >= constant, force live-use to ANY.
     // Not done for ITER, because replace-with constant happens anyways.
-    if( oliv == nliv ) return;  // No progress
+    if( oliv == nliv ) return false; // No progress
     assert oliv.isa(nliv);      // Monotonic
     _live = nliv;               // Record progress
     add_flow_defs();            // Classic reverse flow on change.
     deps_work_clear();          // Any extra flow changes
+    return true;
   }
 
   // Do One Step of Hindley-Milner unification.  Assert monotonic progress.
-  // If progressed, add neighbors on worklist.
-  public void combo_unify() {
+  // If progressed, add neighbors on worklist.  True if progress.
+  public boolean combo_unify() {
     TV3 old = _tvar;
-    if( old==null ) return;
-    if( _val == Type.ANY ) { /*tvar().deps_add_deep(this); */ return; } // No HM progress on untyped code
+    if( old==null ) return false;
+    if( _val == Type.ANY ) { /*tvar().deps_add_deep(this); */ return false; } // No HM progress on untyped code
     if( _live== Type.ANY && !has_call_use() ) // No HM progress on dead code
-      return;
-    if( unify(false) ) {
-      assert !_tvar.find().unify(old.find(),true);// monotonic: unifying with the result is no-progress
-      TV3.do_delay_fresh();
-      TV3.do_delay_resolve();
-      // HM changes; push related neighbors
-      for( Node def : _defs ) if( def!=null && def.has_tvar() ) def.add_flow();
-      for( Node use : _uses ) if(              use.has_tvar() ) use.add_flow();
-    }
+      return false;
+    if( !unify(false) ) return false;
+    assert !_tvar.find().unify(old.find(),true);// monotonic: unifying with the result is no-progress
+    TV3.do_delay_fresh();
+    TV3.do_delay_resolve();
+    // HM changes; push related neighbors
+    for( Node def : _defs ) if( def!=null && def.has_tvar() ) def.add_flow();
+    for( Node use : _uses ) if(              use.has_tvar() ) use.add_flow();
+    return true;
   }
   private boolean has_call_use() { for( Node use : _uses ) if( use._op==OP_CALL ) return true; return false; }
 
@@ -761,6 +791,8 @@ public abstract class Node implements Cloneable, IntSupplier {
     _tvar = null;               // Clear TV3 for next go
     _elock = false;             // Clear elock if reset_to_init0
     _deps = null;               // No deps
+    if( _body_fun!=null ) _body_fun.drop_body(); // No body summary
+    _body_fun = null;
     walk_reset0();              // Special reset
 
     // Remove non-prim inputs to a prim.  Skips all asserts and worklists.
@@ -772,7 +804,7 @@ public abstract class Node implements Cloneable, IntSupplier {
       if( !(c = _uses.at(i)).is_prim() ) {
         while( c.len() > 0 ) {
           Node x = c._defs.pop();
-          if( x!=null ) x._uses.del(c);
+          if( x!=null ) { x._uses.del(c); use_edit(x); }
         }
         i--;
       }
@@ -840,7 +872,7 @@ public abstract class Node implements Cloneable, IntSupplier {
             ? nval.isa(oval) && nliv.isa(oliv)
             : oval.isa(nval) && oliv.isa(nliv)) )
         errs += _report_bug("Monotonicity bug");
-      if( !Env.GVN.on_flow(this) && (lifting || AA.DO_GCP) )
+      if( !Env.GVN.on_flow(this) && (lifting || CompilerContext.cur()._do_gcp) )
         errs += _report_bug("Progress bug");
     }
     // Check for HMT progress
@@ -69,23 +69,28 @@ public class RootNode extends Node {
     tmem = tmem.set(BitsAlias.EXTX,TypeStruct.ISUSED);
     tmem = tmem.set(BitsAlias.STRX,TypeMemPtr.STRPTR._obj);
     
-    // Reset for walking
-    // Walk, finding escaped aliases and fidxs
-    escapes_reset(tmem);
-    escapes(trez);
-    // Walk the global Calls also
+    // Escape roots: the result and the global Call args
+    ROOTS.clear();
+    ROOTS.push(trez);
     for( int i=ARG_IDX; i<len(); i++ ) {
       CallNode call = (CallNode)in(i);
       for( int j=DSP_IDX; j<call.nargs(); j++ )
-        escapes(call.val(j));
+        ROOTS.push(call.val(j));
     }
+    // Walk, finding escaped aliases and fidxs.  Extend the prior walk with
+    // just the new roots if it still holds, else walk from scratch.
+    int r = escapes_reuse(tmem) ? ESC_ROOTS._len : 0;
+    if( r==0 ) { escapes_reset(tmem); ESC_ROOTS.clear(); }
+    for( ; r<ROOTS._len; r++ )
+      escapes(ESC_ROOTS.push(ROOTS.at(r)));
+    TypeNil esc = escapes_get();
 
     // Roots value is all reachable alias memory shapes, plus all reachable
     // (escaped) aliases and functions.
     return TypeTuple.make(Type.CTRL,
                           EXT_MEM,
                           trez,
-                          escapes_get());
+                          esc);
   }
 
   // Escape all Root results.  Escaping functions are called with the most
@@ -97,18 +102,51 @@ public class RootNode extends Node {
   // include new escaping functions, which bring in new memory state.
 
   // This cycle fcn->mem->ptr->struct->fcn requires a worklist algo.
-  
+
+  // The walk state is kept between calls.  Root re-flows mostly see the same
+  // memory and escaped function returns, with the same or more roots; then
+  // only the new roots are walked.  The walk is order dependent, so the prior
+  // roots must be a prefix of the current roots for the result to match a
+  // fresh walk.
+
   private static final VBitSet VISIT = new VBitSet();
   private static final AryInt ALIASES = new AryInt();
   // Results computed here, and modified at each call.
   private static BitsAlias EXT_ALIASES;
   private static BitsFun   EXT_FIDXS  ;
           static TypeMem   EXT_MEM    ;
+  // Inputs to the kept walk
+  private static final Ary<Type> ROOTS = new Ary<>(new Type[1],0);
+  private static final Ary<Type> ESC_ROOTS = new Ary<>(new Type[1],0);
+  private static final Ary<RetNode> ESC_RETS = new Ary<>(new RetNode[1],0);
+  private static final Ary<Type> ESC_RVALS = new Ary<>(new Type[1],0);
+  private static TypeMem   ESC_MEM;
+  private static BitsAlias ESC_KILLS;
+
+  // True if the kept walk still holds: same memory and kills, the same
+  // escaped function returns, and the prior roots a prefix of the current.
+  private static boolean escapes_reuse(TypeMem tmem) {
+    if( tmem != ESC_MEM || KILL_ALIASES != ESC_KILLS ) return false;
+    if( ESC_ROOTS._len > ROOTS._len ) return false;
+    for( int i=0; i<ESC_ROOTS._len; i++ )
+      if( ESC_ROOTS.at(i) != ROOTS.at(i) ) return false;
+    for( int i=0; i<ESC_RETS._len; i++ ) {
+      RetNode ret = ESC_RETS.at(i);
+      if( ret.is_dead() || ret._val != ESC_RVALS.at(i) || RetNode.FUNS.atX(ret._fidx) != ret )
+        return false;
+    }
+    for( RetNode ret : ESC_RETS ) ret.deps_add(Env.ROOT);
+    return true;
+  }
 
   // Called before computing to reset state
   private static void escapes_reset(TypeMem tmem) {
     VISIT.clear();
     ALIASES.clear();
+    ESC_RETS.clear();
+    ESC_RVALS.clear();
+    ESC_MEM = tmem;
+    ESC_KILLS = KILL_ALIASES;
     EXT_ALIASES = BitsAlias.EMPTY;
     EXT_FIDXS   = BitsFun  .EMPTY;
     EXT_MEM = tmem;
@@ -150,8 +188,12 @@ public class RootNode extends Node {
         if( !EXT_FIDXS.test(fidx) ) { // Never seen before escape
           EXT_FIDXS = EXT_FIDXS.set(fidx);
           RetNode ret = RetNode.get(fidx);
-          if( ret != null && ret._val instanceof TypeTuple rtup ) {
+          if( ret != null ) {
             ret.deps_add(Env.ROOT);
+            ESC_RETS.push(ret);
+            ESC_RVALS.push(ret._val);
+          }
+          if( ret != null && ret._val instanceof TypeTuple rtup ) {
             TypeMem tmem2 = (TypeMem)rtup.at(MEM_IDX).meet(EXT_MEM);
             for( int xalias : EXT_ALIASES )
               if( EXT_MEM.at(xalias) != tmem2.at(xalias) &&
@@ -172,6 +214,29 @@ public class RootNode extends Node {
         _escapes(fld._access== TypeFld.Access.Final ? fld._t : TypeNil.SCALAR);
   }
 
+  // Loads stalled at a Call because their aliases overlap the escaped
+  // aliases; each keeps its aliases in LoadNode._esc_stall, which also marks
+  // it as listed.  Woken when a Root value change stops the overlap, instead
+  // of on every Root change.  Cleared per compilation in reset().
+  final Ary<LoadNode> _stalled = new Ary<>(new LoadNode[1],0);
+  void alias_deps_add( LoadNode ld, BitsAlias aliases ) {
+    if( ld._esc_stall==null ) _stalled.push(ld);
+    ld._esc_stall = aliases;
+  }
+  // Root value changed, on the worklist path: wake the stalled Loads
+  @Override public void add_flow_uses() {
+    super.add_flow_uses();
+    BitsAlias esc = ralias();
+    for( int i=_stalled._len-1; i>=0; i-- ) {
+      LoadNode ld = _stalled.at(i);
+      if( ld.is_dead() || !ld._esc_stall.overlaps(esc) ) {
+        _stalled.del(i);
+        ld._esc_stall = null;
+        if( !ld.is_dead() ) Env.GVN.add_reduce(ld.add_flow());
+      }
+    }
+  }
+
   // Given a TV3, mimic a matching flow Type from all possible escaping
   // aliases.  Escaped functions might be called with these aliases.
   public BitsAlias matching_escaped_aliases(TV3 tv3, Node dep) {
@@ -305,5 +370,11 @@ public class RootNode extends Node {
     KILL_ALIASES = BitsAlias.EMPTY;
     CACHE_DEF_MEM = TypeMem.ALLMEM;
     PROGRESS.clear();
+    ESC_MEM = null;
+    ESC_ROOTS.clear();
+    ESC_RETS.clear();
+    ESC_RVALS.clear();
+    for( LoadNode ld : _stalled ) ld._esc_stall = null;
+    _stalled.clear();
   }
 }
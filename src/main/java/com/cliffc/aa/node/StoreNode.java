@@ -7,6 +7,8 @@ import com.cliffc.aa.tvar.TV3;
 import com.cliffc.aa.tvar.TVLeaf;
 import com.cliffc.aa.tvar.TVPtr;
 import com.cliffc.aa.type.*;
+import com.cliffc.aa.util.Ary;
+import org.jetbrains.annotations.NotNull;
 
 import static com.cliffc.aa.AA.unimpl;
 
@@ -26,6 +28,46 @@ public class StoreNode extends Node {
   Node adr() { return in(2); }
   Node rez() { return in(3); }
 
+  // Per-alias memory chains.  For a Load's alias set, the first memory Node at
+  // or above this Store which is not a Store to disjoint aliases: the next
+  // Node on that alias set's memory chain.  Filled in by Load walks with path
+  // compression, so repeat walks skip runs of unrelated Stores in one step.
+  //
+  // Valid while SKIP_EPOCH is unchanged.  It is bumped when any Store's edges
+  // change and when Combo resets types.  Otherwise types only lift, and
+  // disjoint aliases stay disjoint.
+  static int SKIP_EPOCH;
+  private int _skip_epoch;
+  private Ary<BitsAlias> _skip_aliases;
+  private Ary<Node> _skip_mems;
+  Node skip( BitsAlias aliases ) {
+    if( _skip_aliases==null || _skip_epoch!=SKIP_EPOCH ) return null;
+    int idx = _skip_aliases.find(aliases);
+    return idx==-1 ? null : _skip_mems.at(idx);
+  }
+  void set_skip( BitsAlias aliases, Node mem ) {
+    if( _skip_aliases==null || _skip_epoch!=SKIP_EPOCH ) {
+      _skip_aliases = new Ary<>(new BitsAlias[1],0);
+      _skip_mems    = new Ary<>(new Node     [1],0);
+      _skip_epoch   = SKIP_EPOCH;
+    }
+    _skip_aliases.push(aliases);
+    _skip_mems   .push(mem);
+  }
+  public static void skip_reset() { SKIP_EPOCH++; }
+  // True if a Load from adr and aliases can bypass this Store
+  boolean disjoint( Node adr, BitsAlias aliases ) {
+    if( adr()==adr || mem()==this ) return false; // Exact match, or dead self-cycle
+    // Wrong address.  Look for no-overlap in aliases
+    return adr()._val instanceof TypeMemPtr tmp && aliases.join(tmp._aliases) == BitsAlias.EMPTY;
+  }
+
+  @Override public @NotNull StoreNode copy( boolean copy_edges) {
+    StoreNode st = (StoreNode)super.copy(copy_edges);
+    st._skip_aliases = null;  st._skip_mems = null;
+    return st;
+  }
+
   @Override public Type value() {
     Node mem = mem(), adr = adr(), rez = rez();
     Type tmem = mem._val;
@@ -5,6 +5,8 @@ import com.cliffc.aa.Parse;
 import com.cliffc.aa.tvar.*;
 import com.cliffc.aa.type.*;
 import com.cliffc.aa.util.Ary;
+import com.cliffc.aa.util.AryInt;
+import com.cliffc.aa.util.Labels;
 import com.cliffc.aa.util.SB;
 import com.cliffc.aa.util.Util;
 
@@ -62,6 +64,9 @@ public class StructNode extends Node {
   // Order is IGNORED for H-M purposes.
   // Only modify if !_closed
   private final Ary<String> _flds;
+  private final AryInt _ids;    // Label ids, 1-to-1 with _flds
+  private int[] _index;         // Label id to field index for wide structs; built on first lookup
+  private int[] _order;         // Field indices in alpha order; built on first value() call
 
   // R/W vs Read-only status of fields
   // Only modify if !_closed
@@ -84,6 +89,7 @@ public class StructNode extends Node {
     _clz = clz;
     _def = def;
     _flds = new Ary<>(new String[1],0);
+    _ids = new AryInt();
     _accesses = new Ary<>(new TypeFld.Access[1],0);
     _paren_start = paren_start;
     _fld_starts = new Ary<>(new Parse[1],0);
@@ -115,7 +121,15 @@ public class StructNode extends Node {
   }
 
   // String-to-node-index
-  public int find(String name) { return _flds.find(name); }
+  public int find(String name) {
+    return _flds._len <= Labels.WIDE ? _flds.find(name) : find_id(Labels.find(name));
+  }
+  // Label-id-to-node-index
+  public int find_id(int id) {
+    if( _flds._len <= Labels.WIDE ) return _ids.find(id);
+    if( _index==null ) _index = Labels.index(_ids._es,_ids._len);
+    return Labels.find(_index,id);
+  }
   // String-to-Node
   public Node in(String name) { return in(find(name)); } // Error if not found
   // String-to-field access enum
@@ -150,6 +164,8 @@ public class StructNode extends Node {
     assert !_closed;
     add_def(val);               // Node in node array
     _flds.push(fld);            // Field name
+    _ids.push(Labels.id(fld));  // Field label id
+    _index = _order = null;     // Field set changed
     _accesses.push(access);     // Access rights to field
     _fld_starts.push(badt);     // Parser offset for errors
     add_flow();
@@ -198,20 +214,31 @@ public class StructNode extends Node {
     Node c;
     while( !(c=_defs.last()).is_prim() ) {
       _flds.pop();
+      _ids.pop();
+      _index = _order = null;
       _accesses.pop();
       _fld_starts.pop();
       _defs.pop();
       c._uses.del(this);
+      use_edit(c);
     }
   }
   
   // Gather inputs into a TypeStruct.
   @Override public Type value() {
     assert _defs._len==_flds.len();
+    if( _order==null ) {        // Sort field indices once, not on every call
+      Integer[] is = new Integer[_flds.len()];
+      for( int i=0; i<is.length; i++ ) is[i] = i;
+      Arrays.sort(is,(i0,i1) -> _flds.at(i0).compareTo(_flds.at(i1)));
+      _order = new int[is.length];
+      for( int i=0; i<is.length; i++ ) _order[i] = is[i];
+    }
     TypeFld[] flds = TypeFlds.get(_flds.len());
-    for( int i=0; i<_flds.len(); i++ )
-      flds[i] = TypeFld.make(_flds.at(i),val(i),_accesses.at(i));
-    Arrays.sort(flds,(tf0,tf1) -> tf0._fld.compareTo(tf1._fld));
+    for( int i=0; i<_order.length; i++ ) {
+      int j = _order[i];
+      flds[i] = TypeFld.make(_flds.at(j),val(j),_accesses.at(j));
+    }
     return TypeStruct.make_flds(_clz,_def,flds);
   }
 
@@ -220,10 +247,9 @@ public class StructNode extends Node {
     if( !(_live instanceof TypeStruct ts) ) return _live;
     // TODO:
     int idx = _defs.find(def);        // Get Node index
-    String fld = _flds.at(idx);       // Get field name
-    // Use name lookup to get liveness for that field
-    TypeFld lfld = ts.get(fld);       // Liveness for this field name
-    Type live = lfld==null ? ts.oob() : lfld._t.oob();
+    // Use label lookup to get liveness for that field
+    int lidx = ts.find_id(_ids.at(idx)); // Liveness for this field label
+    Type live = lidx==-1 ? ts.oob() : ts.at(lidx).oob();
     // Stacked overloads in struct
     if( def instanceof StructNode ) return live.oob(TypeStruct.ISUSED);
     return live;
@@ -263,7 +289,7 @@ public class StructNode extends Node {
       // Unify existing fields.  Ignore extras on either side.
       TVStruct rec = tvar().as_struct();      
       for( int i=0; i<len(); i++ ) {
-        TV3 fld = rec.arg(_flds.at(i)); // Field lookup by string
+        TV3 fld = rec.arg_id(_ids.at(i)); // Field lookup by label
         if( fld!=null ) progress |= fld.unify(tvar(i),test);
         if( test && progress ) return true;
       }
@@ -275,10 +301,10 @@ public class StructNode extends Node {
       TVStruct clz = clzz.clz();
       TVStruct rec = clzz.rhs().as_struct();
       for( int i=0; i<len(); i++ ) {
-        String label = _flds.at(i);
-        TV3 fld = clz.arg(label); // Field lookup by string
+        int label = _ids.at(i);
+        TV3 fld = clz.arg_id(label); // Field lookup by label
         if( fld==null ) {
-          fld = rec.arg(label);
+          fld = rec.arg_id(label);
           if( fld==null ) continue; // Missing field
         }
         progress |= fld.unify(tvar(i),test);
@@ -7,7 +7,6 @@ import com.cliffc.aa.node.PrimNode;
 import com.cliffc.aa.type.*;
 import com.cliffc.aa.util.*;
 
-import java.util.IdentityHashMap;
 
 import static com.cliffc.aa.AA.unimpl;
 
@@ -57,6 +56,9 @@ abstract public class TV3 implements Cloneable {
   // leader, but pointing to a chain leading to a leader.  Rolled up to point
   // to the leader in many, many places.  Classic U-F cost model.
   TV3 _uf;
+  // Union-by-rank: upper bound on the height of the U-F tree under a leader.
+  // Only meaningful in leaders; fits in the object padding.
+  byte _rank;
 
   // Outgoing edges for structural recursion.
   TV3[] _args;
@@ -75,6 +77,16 @@ abstract public class TV3 implements Cloneable {
 
   // Errors other than structural unify errors.
   public Ary<String> _errs;
+
+  // Per-walk visit marks.  Each walk bumps an epoch counter; a mark is live
+  // only while its stamp matches, so nothing is cleared between walks.
+  // Unify, fresh-unify and trial walks never nest, and share EPOCH; flow
+  // walks can nest trials, and use AEPOCH.
+  private static int EPOCH, AEPOCH;
+  private static boolean WALKING; // Asserts no nested unify walks
+  private int _vstamp;  private TV3 _vmap;  // Fresh: 'this' maps to '_vmap'
+  private int _dstamp;  private TV3 _dpair; // Unify: ('this',_dpair) visited
+  private int _astamp;                      // as_flow visited
   
   //
   TV3() { this(true,(TV3[])null); }
@@ -178,6 +190,8 @@ abstract public class TV3 implements Cloneable {
     that._deps_work_clear();
     // Actually make "this" into a "that"
     _uf = that;                 // U-F union
+    if( _rank >= that._rank )   // Union-by-rank; forced directions still bound the rank
+      that._rank = (byte)Math.min(_rank+1,Byte.MAX_VALUE);
     return true;
   }
 
@@ -202,14 +216,31 @@ abstract public class TV3 implements Cloneable {
 
   // Supports iso-recursive types, nilable, overload field resolution, and the
   // normal HM structural recursion.
-  static private final NonBlockingHashMapLong<TV3> DUPS = new NonBlockingHashMapLong<>();
+  // Top-level unify and fresh-unify calls, never reset; for benchmarks
+  public static long UNIFY_CNT, FRESH_CNT;
   public boolean unify( TV3 that, boolean test ) {
     if( this==that ) return false;
-    assert DUPS.isEmpty();
+    UNIFY_CNT++;
+    open_walk();
     boolean progress = _unify(that,test);
-    DUPS.clear();
+    close_walk();
     return progress;
   }
+
+  private static void open_walk() { assert !WALKING; WALKING = true; EPOCH++; }
+  private static void close_walk() {
+    WALKING = false;
+    if( !DUPS.isEmpty() ) DUPS.clear();
+  }
+
+  // Mark the ('this','that') pair visited; false if already visited.  The
+  // first partner lives in a side slot; the rare 'this' paired with a second
+  // 'that' in the same walk spills to DUPS.
+  static private final NonBlockingHashMapLong<TV3> DUPS = new NonBlockingHashMapLong<>();
+  private boolean dup_mark( TV3 that ) {
+    if( _dstamp != EPOCH ) { _dstamp = EPOCH; _dpair = that; return true; }
+    return _dpair != that && DUPS.putIfAbsent(dbl_uid(that),that)==null;
+  }
   
   // Structural unification, 'this' into 'that'.  No change if just testing and
   // returns a progress flag.  If updating, both 'this' and 'that' are the same
@@ -235,30 +266,32 @@ abstract public class TV3 implements Cloneable {
     }
 
     // Cycle check
-    long luid = dbl_uid(that);    // long-unique-id formed from this and that
-    TV3 rez = DUPS.get(luid);
-    if( rez==that ) return false; // Been there, done that
-    assert rez==null;
-    DUPS.put(luid,that);        // Close cycles
-    
-    
+    if( !dup_mark(that) ) return false; // Been there, done that
+
     if( test ) return true;     // Always progress from here
-    // Same classes.   Swap to keep uid low.
+    // Same classes.  Fold the lower rank into the higher to keep U-F trees
+    // shallow; ties (and all leafs) keep the low uid.
     // Do subclass unification.
-    if( _uid > that._uid ) { this._unify_impl(that);  find().union(that.find()); }
+    if( into(that) ) { this._unify_impl(that);  find().union(that.find()); }
     else                   { that._unify_impl(this);  that.find().union(find()); }
     return true;
   }
 
+  // True if 'this' should fold into 'that', for unions free to pick a side
+  private boolean into( TV3 that ) {
+    if( this instanceof TVLeaf || _rank==that._rank ) return _uid > that._uid;
+    return _rank < that._rank;
+  }
+
   // Must always return true; used in flow-coding in many places
   abstract boolean _unify_impl(TV3 that);
 
   // Make this tvar an error
   public boolean unify_err(boolean test) {
     if( test ) return true;
-    assert DUPS.isEmpty();
+    open_walk();
     new TVErr()._unify_err(this);
-    DUPS.clear();
+    close_walk();
     return true;
   }
 
@@ -273,15 +306,16 @@ abstract public class TV3 implements Cloneable {
   // Make a (lazy) fresh copy of 'this' and unify it with 'that'.  This is
   // the same as calling 'fresh' then 'unify', without the clone of 'this'.
   // Returns progress.
-  static private final IdentityHashMap<TV3,TV3> VARS = new IdentityHashMap<>();
   static private DelayFresh ROOT;
 
   public boolean fresh_unify( TV3 that, TV3[] nongen, boolean test ) {
     if( this==that ) return false;
-    assert VARS.isEmpty() && DUPS.isEmpty() && ROOT==null;
+    FRESH_CNT++;
+    assert ROOT==null;
+    open_walk();
     ROOT = new DelayFresh(this,that,nongen);
     boolean progress = _fresh_unify(that,test);
-    VARS.clear();  DUPS.clear();
+    close_walk();
     ROOT=null;
     return progress;
   }
@@ -291,7 +325,7 @@ abstract public class TV3 implements Cloneable {
     assert !unified() && !that.unified();
 
     // Check for cycles
-    TV3 prior = VARS.get(this);
+    TV3 prior = vget();
     if( prior!=null )                        // Been there, done that
       return prior.find()._unify(that,test); // Also, 'prior' needs unification with 'that'
     
@@ -299,7 +333,7 @@ abstract public class TV3 implements Cloneable {
     // not a fresh-unify.
     if( nongen_in() ) return vput(that,_unify(that,test));
 
-    // LHS leaf, RHS is unchanged but goes in the VARS
+    // LHS leaf, RHS is unchanged but goes in the map
     if( this instanceof TVLeaf ) {
       // Record that the LHS is Fresh'd against the RHS.  If the LHS changes in
       // the future, we'll need to re-Fresh agains the RHS.
@@ -365,7 +399,9 @@ abstract public class TV3 implements Cloneable {
     return progress;
   }
 
-  private boolean vput(TV3 that, boolean progress) { VARS.put(this,that); return progress; }
+  // Fresh map, live for the current walk only
+  private TV3 vget() { return _vstamp==EPOCH ? _vmap : null; }
+  private boolean vput(TV3 that, boolean progress) { _vstamp = EPOCH; _vmap = that; return progress; }
   
   // This is fresh, and neither is a TVErr.
   boolean _fresh_unify_err(TV3 that, boolean test) {
@@ -382,23 +418,23 @@ abstract public class TV3 implements Cloneable {
   // -----------------
   // Return a fresh copy of 'this'
   TV3 fresh() {
-    assert VARS.isEmpty();
     assert ROOT==null;
+    open_walk();
     TV3 rez = _fresh();
-    VARS.clear();
+    close_walk();
     return rez;
   }
   
   TV3 _fresh() {
     assert !unified();
-    TV3 rez = VARS.get(this);
+    TV3 rez = vget();
     if( rez!=null ) return rez.find(); // Been there, done that
     // Unlike the original algorithm, to handle cycles here we stop making a
     // copy if it appears at this level in the nongen set.  Otherwise, we'd
     // clone it down to the leaves - and keep all the nongen leaves.
     // Stopping here preserves the cyclic structure instead of unrolling it.
     if( nongen_in() ) {
-      VARS.put(this,this);
+      vput(this,false);
       return this;
     }
     
@@ -408,7 +444,7 @@ abstract public class TV3 implements Cloneable {
     // nested ones tho, will need a new fresh-deps from old to new
     TV3 t = copy();
     if( this instanceof TVLeaf ) add_delay_fresh(); // Related via fresh, so track updates
-    VARS.put(this,t);           // Stop cyclic structure looping
+    vput(t,false);              // Stop cyclic structure looping
     if( _args!=null )
       for( int i=0; i<t.len(); i++ )
         if( _args[i]!=null )
@@ -451,16 +487,16 @@ abstract public class TV3 implements Cloneable {
   // Do a trial unification between this and that.
   // Report back false if any error happens, or true if no error.
   // No change to either side, this is a trial only.
-  private static final NonBlockingHashMapLong<TV3> TDUPS = new NonBlockingHashMapLong<>();
   public boolean trial_unify_ok(TV3 that, boolean extras) {
-    TDUPS.clear();
-    return _trial_unify_ok(that, extras);
+    open_walk();
+    boolean ok = _trial_unify_ok(that, extras);
+    close_walk();
+    return ok;
   }
   boolean _trial_unify_ok(TV3 that, boolean extras) {
     if( this==that )             return true; // No error
     assert !unified() && !that.unified();
-    long duid = dbl_uid(that._uid);
-    if( TDUPS.putIfAbsent(duid,this)!=null )
+    if( !dup_mark(that) )
       return true;              // Visit only once, and assume will resolve
     if( this instanceof TVLeaf leaf ) return Resolvable.add_pat_leaf(leaf); // No error
     if( that instanceof TVLeaf ) return true; // No error
@@ -632,11 +668,16 @@ abstract public class TV3 implements Cloneable {
   }
 
   // Convert a TV3 to a flow Type
-  static final NonBlockingHashMapLong<Type> ADUPS = new NonBlockingHashMapLong<>();
   public Type as_flow( Node dep ) {
-    ADUPS.clear();
+    AEPOCH++;
     return _as_flow(dep);
   }
+  // Mark visited in this as_flow walk; true if already visited
+  boolean as_flow_visit() {
+    if( _astamp==AEPOCH ) return true;
+    _astamp = AEPOCH;
+    return false;
+  }
   abstract Type _as_flow( Node dep );
 
   // -----------------
@@ -733,6 +774,9 @@ abstract public class TV3 implements Cloneable {
       TV3 tv3 = (TV3)clone();
       tv3._uid = CNT++;
       tv3._args = _args==null ? null : _args.clone();
+      tv3._rank = 0;            // New singleton set
+      tv3._vstamp = tv3._dstamp = tv3._astamp = 0; // Not visited
+      tv3._vmap = tv3._dpair = null;
       // Do not copy the incremental delay_fresh
       tv3._delay_fresh = null;
       return tv3;
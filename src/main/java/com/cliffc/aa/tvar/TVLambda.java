@@ -69,9 +69,7 @@ public class TVLambda extends TV3 {
     BitsFun fidxs = Env.ROOT.matching_escaped_fidxs(this,dep);
     if( _may_nil ) fidxs = fidxs.set(0);
     if( _use_nil ) throw unimpl();
-    Type tfun = ADUPS.get(_uid);
-    if( tfun != null ) return tfun;  // TODO: Returning recursive flow-type functions
-    ADUPS.put(_uid, TypeNil.XSCALAR);
+    if( as_flow_visit() ) return TypeNil.XSCALAR; // TODO: Returning recursive flow-type functions
     Type dsp = nargs() > DSP_IDX ? dsp()._as_flow(dep) : Type.ALL;
     Type rez = ret()._as_flow(dep);
     return TypeFunPtr.makex(false,fidxs,nargs(),dsp,rez);
@@ -1,7 +1,7 @@
 package com.cliffc.aa.tvar;
 
-import com.cliffc.aa.AA;
 import com.cliffc.aa.Combo;
+import com.cliffc.aa.CompilerContext;
 import com.cliffc.aa.Env;
 import com.cliffc.aa.node.Node;
 import com.cliffc.aa.type.Type;
@@ -43,7 +43,7 @@ public class TVLeaf extends TV3 {
   @Override Type _as_flow( Node dep ) {
     if( Combo.HM_FREEZE ) return Env.ROOT.ext_scalar(dep);
     Combo.add_freeze_dep(dep);
-    return (AA.DO_HMT || !_use_nil) ? TypeNil.XSCALAR : TypeNil.AND_XSCALAR;
+    return (CompilerContext.cur()._do_hmt || !_use_nil) ? TypeNil.XSCALAR : TypeNil.AND_XSCALAR;
   }
 
   // -------------------------------------------------------------
@@ -24,6 +24,8 @@ public class TVStruct extends TV3 {
   // The set of field labels, 1-to-1 with TV3 field contents.
   // Most field operations are UNORDERED, so we generally need to search the fields by string
   private String[] _flds;       // Field labels
+  private int[] _ids;           // Label ids, 1-to-1 with _flds
+  private int[] _index;         // Label id to field index for wide structs; built on first lookup
   // Fields are pinned in this TVStruct, or UNPINNED and can unify on the RHS of a TVClz
   private boolean[] _pins;      // 
 
@@ -37,6 +39,8 @@ public class TVStruct extends TV3 {
   public TVStruct( boolean is_copy, String[] flds, boolean[] pins, TV3[] tvs, boolean open ) {
     super(is_copy,tvs);
     _flds = flds;
+    _ids = new int[flds.length];
+    for( int i=0; i<flds.length; i++ ) _ids[i] = Labels.id(flds[i]);
     _pins = pins;
     _open = open;
     _max = flds.length;
@@ -45,7 +49,7 @@ public class TVStruct extends TV3 {
 
   // Used during cyclic construction
   public void set_pin_fld(int i, TV3 fld) { _args[i] = fld; _pins[i] = true; }
-  public boolean is_pinned(String fld) { return _pins[Util.find(_flds,fld)]; }
+  public boolean is_pinned(String fld) { return _pins[idx(fld)]; }
   private static boolean[] pins( String[] flds ) {
     boolean[] pins = new boolean[flds.length];
     for( int i=0; i<flds.length; i++ )
@@ -58,10 +62,13 @@ public class TVStruct extends TV3 {
       int len=1;
       while( len<=_max ) len<<=1;
       _flds = Arrays.copyOf(_flds,len);
+      _ids  = Arrays.copyOf(_ids ,len);
       _pins = Arrays.copyOf(_pins,len);
       _args = Arrays.copyOf(_args,len);
     }
     _flds[_max] = fld;
+    _ids [_max] = Labels.id(fld);
+    _index = null;
     _args[_max] = tvf;
     _pins[_max] = pinned;
     _max++;
@@ -75,6 +82,8 @@ public class TVStruct extends TV3 {
     _args[idx] = _args[_max-1];
     _pins[idx] = _pins[_max-1];
     _flds[idx] = _flds[_max-1];
+    _ids [idx] = _ids [_max-1];
+    _index = null;
     _max--;
     // Changed struct shape, move delayed-fresh updates to now
     move_delay_fresh();
@@ -82,7 +91,7 @@ public class TVStruct extends TV3 {
   }
   // Remove field; true if something got removed
   boolean del_fld(String fld) {
-    int idx = Util.find(_flds,fld);
+    int idx = idx(fld);
     return idx != -1 && del_fld(idx);
   }
   
@@ -93,16 +102,50 @@ public class TVStruct extends TV3 {
   // Return the TV3 for field 'fld' or null if missing
   public TV3 arg(String fld) {
     assert !unified();
-    int i = Util.find(_flds,fld);
+    int i = idx(fld);
+    return i>=0 ? arg(i) : null;
+  }
+  // Return the TV3 for the field with label 'id' or null if missing
+  public TV3 arg_id(int id) {
+    assert !unified();
+    int i = idx(id);
     return i>=0 ? arg(i) : null;
   }
   
   // Return the TV3 for field 'fld' or null if missing, with OUT rollups
   public TV3 debug_arg(String fld) {
-    int i = Util.find(_flds,fld);
+    int i = idx(fld);
     return i>=0 ? debug_arg(i) : null;
   }
 
+  // Index of field 'fld', or -1
+  private int idx( String fld ) {
+    if( _max > Labels.WIDE ) return idx(Labels.find(fld));
+    for( int i=0; i<_max; i++ )
+      if( Util.eq(_flds[i],fld) )
+        return i;
+    return -1;
+  }
+  // Index of the field with label 'id', or -1
+  private int idx( int id ) {
+    if( _max <= Labels.WIDE ) {
+      for( int i=0; i<_max; i++ )
+        if( _ids[i]==id )
+          return i;
+      return -1;
+    }
+    if( _index==null ) _index = Labels.index(_ids,_max);
+    int i = Labels.find(_index,id);
+    return i!=-1 && _ids[i]==id ? i : -1;
+  }
+
+  // Copies share the label arrays, but not the index
+  @Override public TVStruct copy() {
+    TVStruct ts = (TVStruct)super.copy();
+    ts._index = null;
+    return ts;
+  }
+
   public boolean is_open() { return _open; }
   // Close if open
   public void close() {
@@ -120,7 +163,7 @@ public class TVStruct extends TV3 {
       if( test && progress ) return true;
       if( Util.eq(skip,_flds[i]) ) continue; // Skip field
       TV3 lhs = arg(i);
-      TV3 rhs = that.arg(_flds[i]); // Match by field name, not position
+      TV3 rhs = that.arg_id(_ids[i]); // Match by field name, not position
       progress |= rhs==null ? _miss_fld(that,i,lhs,test) : lhs.unify(rhs,test);
     }
     return progress;
@@ -153,7 +196,7 @@ public class TVStruct extends TV3 {
       TV3 fthis = thsi.arg(i);       // Field of this      
       String key = thsi._flds[i];
       boolean pinned = thsi._pins[i];
-      int ti = Util.find(that._flds,key);
+      int ti = that.idx(thsi._ids[i]);
       if( ti == -1 ) {          // Missing field in that
         //if( Resolvable.is_resolving(key) ) continue; // Do not add or remove until resolved
         if( open || Resolvable.is_resolving(key) )
@@ -173,7 +216,7 @@ public class TVStruct extends TV3 {
     // Fields on the RHS are aligned with the LHS also
     for( int i=0; i<that._max; i++ ) {
       String key = that._flds[i];
-      if( thsi.arg(key)==null ) {                    // Missing field in this
+      if( thsi.arg_id(that._ids[i])==null ) {        // Missing field in this
         if( Resolvable.is_resolving(key) ) continue; // Do not remove until resolved
         if( is_open() ) thsi.add_fld(key,that._pins[i],that.arg(i)); // Add to LHS
         else thsi.del_fld(key); // Drop from RHS
@@ -192,7 +235,7 @@ public class TVStruct extends TV3 {
 
     for( int i=0; i<_max; i++ ) {
       TV3 lhs = arg(i);
-      int ti = Util.find(that._flds,_flds[i]);
+      int ti = that.idx(_ids[i]);
       if( ti == -1 ) {          // Missing in RHS
         if( is_open() || that.is_open() ) {
           if( test ) return true; // Will definitely make progress
@@ -218,7 +261,7 @@ public class TVStruct extends TV3 {
     if( _max != that._max || missing )
       for( int i=0; i<that._max; i++ ) {
         if( Resolvable.is_resolving(that._flds[i]) ) continue;
-        TV3 lhs = arg(that._flds[i]); // Lookup vis field name
+        TV3 lhs = arg_id(that._ids[i]); // Lookup vis field name
         if( lhs==null ) {
           if( test ) return true;
           progress |= that.del_fld(i--);
@@ -263,7 +306,7 @@ public class TVStruct extends TV3 {
     TVStruct that = (TVStruct)tv3; // Invariant when called
     for( int i=0; i<_max; i++ ) {
       TV3 lhs = arg(i);
-      TV3 rhs = that.arg(_flds[i]); // RHS lookup by field name
+      TV3 rhs = that.arg_id(_ids[i]); // RHS lookup by field name
       if( lhs!=rhs && rhs!=null && !lhs._trial_unify_ok(rhs,extras) )
         return false;           // Child fails to unify
     }
@@ -276,7 +319,7 @@ public class TVStruct extends TV3 {
   private boolean mismatched_child(TVStruct that ) {
     for( int i=0; i<_max; i++ )
       if( !Resolvable.is_resolving(_flds[i]) &&
-          that.arg(_flds[i])==null ) // And missing key in RHS
+          that.arg_id(_ids[i])==null ) // And missing key in RHS
         return false;          // Trial unification failed
     return true;
   }
@@ -304,9 +347,9 @@ public class TVStruct extends TV3 {
   
   // -------------------------------------------------------------
   @Override Type _as_flow( Node dep ) { throw unimpl(); }  
-  public boolean is_int_clz() { return  Util.find(_flds,"!_" ) >= 0; }
-  public boolean is_flt_clz() { return  Util.find(_flds,"sin") >= 0; }
-  public boolean is_str_clz() { return  Util.find(_flds,"#_" ) >= 0; }
+  public boolean is_int_clz() { return  idx("!_" ) >= 0; }
+  public boolean is_flt_clz() { return  idx("sin") >= 0; }
+  public boolean is_str_clz() { return  idx("#_" ) >= 0; }
 
   
   @Override SB _str_impl(SB sb, VBitSet visit, VBitSet dups, boolean debug) {
@@ -24,6 +24,22 @@ public class UQNodes extends NonBlockingHashMapLong<Node> {
     return uqset;
   }
 
+  // Drop sets holding Nodes from a prior compilation.  Rebuilds the table,
+  // as removing leaves the keys behind.
+  public static void reset_to_init0() {
+    Ary<UQNodes> olds = new Ary<>(new UQNodes[1],0);
+    for( UQNodes uq : UQSETS.keySet() )
+      if( uq.is_init0() ) olds.push(uq);
+    UQSETS.clear();
+    for( UQNodes uq : olds ) UQSETS.put(uq,uq);
+  }
+  private boolean is_init0() {
+    for( Node n : values() )
+      if( n.is_dead() || n._uid >= Node._INIT0_CNT )
+        return false;
+    return true;
+  }
+
   // Make a unique set of 1 node
   public static UQNodes make( Node tn ) {
     assert !tn.is_dead();
@@ -0,0 +1,188 @@
+package com.cliffc.aa.type;
+
+import java.util.function.UnaryOperator;
+
+// Persistent map from alias# to TypeStruct, backing TypeMem.
+//
+// A 32-way radix trie over the alias number.  Immutable; an update copies
+// only the O(log aliases) nodes on the path to the key and shares the rest,
+// so memories that differ in a few aliases share most of their structure.
+// Empty subtrees are null and the root depth follows the largest key, so
+// equal maps always have equal shapes.  Nodes lazily cache a hash of their
+// contents.
+final class AliasTrie {
+  static final int BITS=5, WIDTH=1<<BITS, MASK=WIDTH-1;
+  static final AliasTrie EMPTY = new AliasTrie(0,0,null);
+
+  final int _len;               // One past the largest key; 0 if empty
+  final int _shift;             // Key bits below the root node
+  private final Node _root;
+
+  private static final class Node {
+    final Object[] _a;          // TypeStructs in leaves, Nodes above
+    private long _hash;         // Lazily computed
+    Node( Object[] a ) { _a = a; }
+    long hash( int shift ) {
+      if( _hash!=0 ) return _hash;
+      long h = shift;
+      for( int j=0; j<WIDTH; j++ ) {
+        Object x = _a[j];
+        if( x==null ) continue;
+        long c = shift==0 ? ((TypeStruct)x)._hash : ((Node)x).hash(shift-BITS);
+        h = (h*31+j)*0x9E3779B97F4A7C15L + c;
+      }
+      return _hash = (h==0 ? 0xcafebabeL : h);
+    }
+  }
+
+  private AliasTrie( int len, int shift, Node root ) { _len=len; _shift=shift; _root=root; }
+
+  // Shift of a root node able to hold key 'k'
+  private static int shift_for( int k ) {
+    int s=0;
+    while( (k>>>(s+BITS)) != 0 ) s += BITS;
+    return s;
+  }
+
+  TypeStruct get( int i ) {
+    if( i >= _len ) return null;
+    Node n = _root;
+    for( int s=_shift; s>0; s-=BITS )
+      if( (n = (Node)n._a[(i>>>s)&MASK]) == null )
+        return null;
+    return (TypeStruct)n._a[i&MASK];
+  }
+
+  // Return a map with key 'i' set to 'v'; null removes the key.
+  AliasTrie set( int i, TypeStruct v ) {
+    if( get(i)==v ) return this;
+    if( i >= _len ) {           // Grow; 'v' is not null
+      int shift = shift_for(i);
+      return new AliasTrie(i+1,shift,_set(lift(shift),shift,i,v));
+    }
+    Node root = _set(_root,_shift,i,v);
+    return i==_len-1 && v==null ? trim(root,_shift) : new AliasTrie(_len,_shift,root);
+  }
+  private static Node _set( Node n, int shift, int i, TypeStruct v ) {
+    Object[] a = n==null ? new Object[WIDTH] : n._a.clone();
+    int j = (i>>>shift)&MASK;
+    a[j] = shift==0 ? v : _set((Node)a[j],shift-BITS,i,v);
+    for( Object x : a ) if( x!=null ) return new Node(a);
+    return null;                // All empty
+  }
+
+  // Root wrapped in single-child nodes up to 'shift'
+  private Node lift( int shift ) {
+    Node r = _root;
+    for( int s=_shift; s<shift && r!=null; s+=BITS ) {
+      Object[] a = new Object[WIDTH];
+      a[0] = r;
+      r = new Node(a);
+    }
+    return r;
+  }
+
+  // Canonical map from a root: peel single-child roots, find the last key
+  private static AliasTrie trim( Node root, int shift ) {
+    while( root!=null && shift>0 && last(root)==0 ) {
+      root = (Node)root._a[0];
+      shift -= BITS;
+    }
+    if( root==null ) return EMPTY;
+    int len=0;
+    Node n = root;
+    for( int s=shift; ; s-=BITS ) {
+      int j = last(n);
+      len += j<<s;
+      if( s==0 ) break;
+      n = (Node)n._a[j];
+    }
+    return new AliasTrie(len+1,shift,root);
+  }
+  private static int last( Node n ) {
+    int j=MASK;
+    while( n._a[j]==null ) j--;
+    return j;
+  }
+
+  // Smallest key >= i, or -1.  Skips empty subtrees.
+  int next( int i ) { return i >= _len ? -1 : _next(_root,_shift,0,Math.max(i,0)); }
+  private static int _next( Node n, int shift, int base, int i ) {
+    for( int j = i<=base ? 0 : (i-base)>>>shift; j<WIDTH; j++ ) {
+      Object x = n._a[j];
+      if( x==null ) continue;
+      int b = base + (j<<shift);
+      if( shift==0 ) return b;
+      int k = _next((Node)x,shift-BITS,b,i);
+      if( k != -1 ) return k;
+    }
+    return -1;
+  }
+
+  // Apply 'f' to every value.  Unchanged subtrees are shared; returns this
+  // if nothing changed.  'f' never returns null.
+  AliasTrie map( UnaryOperator<TypeStruct> f ) {
+    Node root = _map(_root,_shift,f);
+    return root==_root ? this : new AliasTrie(_len,_shift,root);
+  }
+  private static Node _map( Node n, int shift, UnaryOperator<TypeStruct> f ) {
+    if( n==null ) return null;
+    Object[] a = null;
+    for( int j=0; j<WIDTH; j++ ) {
+      Object x = n._a[j];
+      if( x==null ) continue;
+      Object y = shift==0 ? f.apply((TypeStruct)x) : _map((Node)x,shift-BITS,f);
+      assert y!=null;
+      if( y!=x ) {
+        if( a==null ) a = n._a.clone();
+        a[j] = y;
+      }
+    }
+    return a==null ? n : new Node(a);
+  }
+
+  // Merge two maps.  Computes 'f' for every key present in either; keys in
+  // neither stay empty.  If 'share', identical subtrees are taken as-is
+  // without calling 'f'.  Results equal to a subtree of 'a' reuse it.
+  interface Merge { TypeStruct apply( int key ); }
+  static AliasTrie merge( AliasTrie a, AliasTrie b, boolean share, Merge f ) {
+    int shift = Math.max(a._shift,b._shift);
+    return trim(_merge(a.lift(shift),b.lift(shift),shift,0,share,f),shift);
+  }
+  private static Node _merge( Node na, Node nb, int shift, int base, boolean share, Merge f ) {
+    if( na==null && nb==null ) return null;
+    if( na==nb && share ) return na;
+    Object[] a = new Object[WIDTH];
+    boolean any=false, same = na!=null;
+    for( int j=0; j<WIDTH; j++ ) {
+      Object x = na==null ? null : na._a[j];
+      Object y = nb==null ? null : nb._a[j];
+      int b = base + (j<<shift);
+      Object z = shift==0
+        ? (x==null && y==null ? null : f.apply(b))
+        : _merge((Node)x,(Node)y,shift-BITS,b,share,f);
+      a[j] = z;
+      any  |= z!=null;
+      same &= z==x;
+    }
+    return same ? na : (any ? new Node(a) : null);
+  }
+
+  long hash() { return _root==null ? 0 : _root.hash(_shift); }
+
+  // Same keys mapping to the same ('==') values
+  static boolean eq( AliasTrie a, AliasTrie b ) {
+    return a._len==b._len && _eq(a._root,b._root,a._shift);
+  }
+  private static boolean _eq( Node n1, Node n2, int shift ) {
+    if( n1==n2 ) return true;
+    if( n1==null || n2==null ) return false;
+    for( int j=0; j<WIDTH; j++ ) {
+      Object x = n1._a[j], y = n2._a[j];
+      if( x==y ) continue;
+      if( shift==0 || x==null || y==null || !_eq((Node)x,(Node)y,shift-BITS) )
+        return false;
+    }
+    return true;
+  }
+}
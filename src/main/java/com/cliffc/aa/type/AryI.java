@@ -6,6 +6,9 @@ import java.util.Arrays;
 // Class to make hashcons generic [].  Array.equals is now pointer equality.  Bug
 // to change after interning, but the Java type system does not let me easily
 // enforce this.
+//
+// The entry points are called on the one master instance per subclass, and
+// lock it, so many threads may intern arrays at once.
 public abstract class AryI<T> {
 
   abstract Ary<AryI<T>> clinit();
@@ -21,10 +24,13 @@ public abstract class AryI<T> {
   // Make a AryI to handle a T[] of length 'len'
   private AryI<T> tary( int len) {
     AryI<T> tary = ARYS.atX(len);
-    return tary==null ? ARYS.setX(len,make_holder(len)) : tary;
+    if( tary!=null ) return tary;
+    tary = ARYS.setX(len,make_holder(len));
+    tary._init0 = _init0;
+    return tary;
   }
 
-  private static final Key K = new Key(null,0);
+  private final Key K = new Key(null,0); // Lookup key, per-length
 
   // Wrapper to customize array.equals
   private static class Key {
@@ -47,8 +53,11 @@ public abstract class AryI<T> {
   }
 
   private final int _len;       // Length of arrays being handled
-  private final IHashMap _intern = new IHashMap();
+  private IHashMap _intern = new IHashMap();
   private final Ary<T[]> _free = new Ary<>(make_arys(1),0);
+  // Arrays interned after init0 are young, and dropped by reclaim
+  private boolean _init0;
+  private final Ary<Key> _young = new Ary<>(new Key[1],0);
   AryI( int len ) { _len=len; }
   // No internal checks now, appears to be fairly healthy
   private AryI<T> check() { return this; }
@@ -68,7 +77,8 @@ public abstract class AryI<T> {
       if( k2._ts!=ts ) _free.push(ts);
       return (T[])k2._ts;
     }
-    _intern.put(new Key(ts,K._hash));
+    Key k = _intern.put(new Key(ts,K._hash));
+    if( _init0 ) _young.push(k);
     return ts;
   }
   private boolean interned_(T[] ts) {
@@ -78,27 +88,43 @@ public abstract class AryI<T> {
     return k2!=null && k2._ts==ts;
   }
 
-  final T[] _get(int len) { return tary(len).check().get(); }
-  final void _free(T[] ts) { tary(ts.length)._free.push(ts); }
-  final T[] _hash_cons(T[] ts) { return tary(ts.length).check().hash_cons_(ts); }
-  final boolean _interned(T[] ts) { return tary(ts.length).interned_ (ts); }
+  final void _init0() {
+    _init0 = true;
+    for( AryI<T> tary : ARYS ) if( tary!=null ) tary._init0 = true;
+  }
+  final void _reclaim() {
+    for( AryI<T> tary : ARYS )
+      if( tary!=null && !tary._young.isEmpty() ) {
+        for( Key k : tary._young ) tary._intern.remove(k);
+        tary._young.clear();
+        // Rebuild, as removing leaves tombstones behind
+        IHashMap intern = new IHashMap();
+        for( Object k : tary._intern.keySet() ) intern.put(k);
+        tary._intern = intern;
+      }
+  }
+
+  final synchronized T[] _get(int len) { return tary(len).check().get(); }
+  final synchronized void _free(T[] ts) { tary(ts.length)._free.push(ts); }
+  final synchronized T[] _hash_cons(T[] ts) { return tary(ts.length).check().hash_cons_(ts); }
+  final synchronized boolean _interned(T[] ts) { return tary(ts.length).interned_ (ts); }
   // Why is this API not auto-interning?  Because it is used to make cyclic
   // types in TStructs, which means the fields will change over
   // time... until the intern point.
-  final T[] _ts(T t0) {
+  final synchronized T[] _ts(T t0) {
     AryI<T> t1 = tary(1).check();
     T[] ts = t1.get();
     ts[0] = t0;
     return ts;
   }
-  final T[] _ts(T t0, T t1) {
+  final synchronized T[] _ts(T t0, T t1) {
     AryI<T> t2 = tary(2).check();
     T[] ts = t2.get();
     ts[0] = t0;
     ts[1] = t1;
     return ts;
   }
-  final T[] _ts(T t0, T t1, T t2) {
+  final synchronized T[] _ts(T t0, T t1, T t2) {
     AryI<T> t3 = tary(3).check();
     T[] ts = t3.get();
     ts[0] = t0;
@@ -106,7 +132,7 @@ public abstract class AryI<T> {
     ts[2] = t2;
     return ts;
   }
-  final T[] _ts(T t0, T t1, T t2, T t3) {
+  final synchronized T[] _ts(T t0, T t1, T t2, T t3) {
     AryI<T> t4 = tary(4).check();
     T[] ts = t4.get();
     ts[0] = t0;
@@ -115,7 +141,7 @@ public abstract class AryI<T> {
     ts[3] = t3;
     return ts;
   }
-  final T[] _ts(T t0, T t1, T t2, T t3, T t4) {
+  final synchronized T[] _ts(T t0, T t1, T t2, T t3, T t4) {
     AryI<T> t5 = tary(5).check();
     T[] ts = t5.get();
     ts[0] = t0;
@@ -125,7 +151,7 @@ public abstract class AryI<T> {
     ts[4] = t4;
     return ts;
   }
-  final T[] _ts(T t0, T t1, T t2, T t3, T t4, T t5) {
+  final synchronized T[] _ts(T t0, T t1, T t2, T t3, T t4, T t5) {
     AryI<T> t6 = tary(6).check();
     T[] ts = t6.get();
     ts[0] = t0;
@@ -139,14 +165,14 @@ public abstract class AryI<T> {
 
   // Result not interned; suitable for direct hacking.
   // Original assumed in-use, not freed.
-  final T[] _clone(T[] ts) {
+  final synchronized T[] _clone(T[] ts) {
     T[] ts2 = tary(ts.length).check().get();
     System.arraycopy(ts,0,ts2,0,ts.length);
     return ts2;
   }
   // Result not interned; suitable for direct hacking.
   // Original assumed in-use, not freed.
-  final T[] _copyOf(T[] ts, int len) {
+  final synchronized T[] _copyOf(T[] ts, int len) {
     T[] ts2 = tary(len).check().get();
     int minlen = Math.min(len,ts.length);
     System.arraycopy(ts,0,ts2,0,minlen);
@@ -81,39 +81,52 @@ import java.lang.Long;
 public abstract class Bits<B extends Bits<B>> implements Iterable<Integer>, Comparable<Bits> {
   // Holds a set of bits meet'd together, or join'd together, along
   // with a single bit choice.
-  // If _bits is NULL and _con is 0, this is the EMPTY state.
-  // If _bits is NULL, then _con is a single bit and is +/- for meet/join.
-  // If _bits is not-null, then _con is +1 for meet, and -1 for join.
+  // If _bits and _elems are NULL and _con is 0, this is the EMPTY state.
+  // If _bits and _elems are NULL, then _con is a single bit and is +/- for meet/join.
+  // Otherwise exactly one of _bits or _elems is not-null, and _con is +1 for
+  // meet, and -1 for join.  Sets with few bits spread over a wide range use
+  // _elems, a sorted array of bit numbers; all others use a _bits vector.
   // The NIL bit has both meet & join flavors, required for a lattice.
-  long[] _bits;   // Bits set or null for a single bit
+  long[] _bits;   // Bits set or null
+  int[] _elems;   // Sorted bit numbers or null
   int _con;       // value of single bit
   public int _hash;// Pre-computed hashcode
   // Intern: lookup and return an existing Bits or install in hashmap and
   // return a new Bits.  Overridden in subclasses to make type-specific Bits.
-  abstract B make_impl(int con, long[] bits );
+  abstract B make_impl(int con, long[] bits, int[] elems );
   abstract Tree<B> tree();
   public abstract B ALL();
   public abstract B ANY();
   public abstract B EMPTY();
 
   // Common init
-  void init(int con, long[] bits ) {
+  void init(int con, long[] bits, int[] elems ) {
     _con = con;
     _bits=bits;
-    Util.add_hash(_con);
-    if( _bits != null ) for( long l : _bits ) Util.add_hash(l);
-    long hash = Util.get_hash();
+    _elems=elems;
+    Util.Hasher h = new Util.Hasher().add(_con);
+    if( _bits  != null ) for( long l : _bits  ) h.add(l);
+    if( _elems != null ) for( int  e : _elems ) h.add(e);
+    long hash = h.get();
     _hash = (int)((hash>>32)+hash);
     if( _hash==0 ) _hash=1;
     assert check();
   }
   private boolean check() {
-    if( _bits==null ) return true;  // Must be a single bit#
+    if( !multi() ) return true;  // Must be a single bit#
     if( _con != 1 && _con != -1 ) return false;
-    if( _bits.length==0 ) return false;  // Empty bits replaced by a con
-    if( _bits.length==1 && _bits[0]== 0 ) return false; // NO bits is bad, use EMPTY instead
-    if( _bits[_bits.length-1]==0 ) return false; // Array is "tight"
-    if( _bits.length==1 && _bits[0]==1 ) return true; // NIL
+    if( _elems!=null ) {
+      if( _bits!=null || _elems.length<2 ) return false;
+      for( int i=1; i<_elems.length; i++ )
+        if( _elems[i-1] >= _elems[i] ) return false; // Sorted, no dups
+      if( !sparse(_elems.length,max()) ) return false; // Only one encoding
+    } else {
+      if( _bits.length==0 ) return false;  // Empty bits replaced by a con
+      if( _bits.length==1 && _bits[0]== 0 ) return false; // NO bits is bad, use EMPTY instead
+      if( _bits[_bits.length-1]==0 ) return false; // Array is "tight"
+      if( _bits.length==1 && _bits[0]==1 ) return true; // NIL
+      if( sparse(bitCount(),max()) ) return false; // Only one encoding
+    }
     // No set bit has a parent bit set, because the parent overrides
     Tree<B> tree = tree();
     for( int i : this )
@@ -121,7 +134,7 @@ public abstract class Bits<B extends Bits<B>> implements Iterable<Integer>, Comp
         if( test(i) )
           return false;
     // For efficiency, 1 bit set uses 'con' instead of 'bits'
-    return check_multi_bits(_bits); // Found multiple bits
+    return _elems!=null || check_multi_bits(_bits); // Found multiple bits
   }
   private static boolean check_multi_bits( long[] bits) {
     int len = bits.length;
@@ -131,10 +144,18 @@ public abstract class Bits<B extends Bits<B>> implements Iterable<Integer>, Comp
     for( int i=0; i<len-1; i++ ) if( bits[i] != 0 ) return true;
     return false;                // Found a single bit in last word
   }
+  // A sorted array is smaller than a bit vector
+  private static boolean sparse( int cnt, int max ) { return cnt*32 < max; }
+  // More than a single bit
+  boolean multi() { return _bits!=null || _elems!=null; }
   public int bitCount() {
+    if( _elems!=null ) return _elems.length;
     if( _bits==null ) return _con==0 ? 0 : 1;
+    return bitCount(_bits);
+  }
+  private static int bitCount( long[] bits ) {
     int sum=0;
-    for( long b : _bits )
+    for( long b : bits )
       sum += Long.bitCount(b);
     return sum;
   }
@@ -143,28 +164,24 @@ public abstract class Bits<B extends Bits<B>> implements Iterable<Integer>, Comp
     if( this==o ) return true;
     if( !(o instanceof Bits bs) ) return false;
     if( _con != bs._con || _hash != bs._hash ) return false;
-    if( _bits == bs._bits ) return true;
-    if( _bits ==null || bs._bits==null ) return false;
-    if( _bits.length != bs._bits.length ) return false;
-    for( int i=0; i<_bits.length; i++ )
-      if( _bits[i]!=bs._bits[i] ) return false;
-    return true;
+    return Arrays.equals(_bits,bs._bits) && Arrays.equals(_elems,bs._elems);
   }
   @Override public int compareTo(@NotNull Bits b) {
     if( this==b ) return 0;     // Interning works
-    if(   _bits==null ) throw com.cliffc.aa.AA.unimpl();
-    if( b._bits==null ) throw com.cliffc.aa.AA.unimpl();
+    if( !  multi() ) throw com.cliffc.aa.AA.unimpl();
+    if( !b.multi() ) throw com.cliffc.aa.AA.unimpl();
     if( _con != b._con ) return _con - b._con; // join is always LT meet
-    for( int i=0; i<_bits.length; i++ ) {
-      if( i>=b._bits.length ) return -1; // Tied, up to LHS is shorter, so lessor
-      if( _bits[i]!=b._bits[i] )
-        return Long.compare(_bits[i],b._bits[i]);
+    long[] bits0 = dense(), bits1 = b.dense();
+    for( int i=0; i<bits0.length; i++ ) {
+      if( i>=bits1.length ) return -1; // Tied, up to LHS is shorter, so lessor
+      if( bits0[i]!=bits1[i] )
+        return Long.compare(bits0[i],bits1[i]);
     }
     throw com.cliffc.aa.AA.unimpl(); // Should not reach here
   }
   @Override public String toString() { return str(new SB()).toString(); }
   public SB str(SB sb) {
-    if( _bits==null ) {
+    if( !multi() ) {
       if( _con== 0 ) return sb.p("[]"); // EMPTY
       if( _con== 1 ) return sb.p("[nALL]");
       if( _con==-1 ) return sb.p("[nANY]");
@@ -173,8 +190,8 @@ public abstract class Bits<B extends Bits<B>> implements Iterable<Integer>, Comp
     sb.p('[');
     if( above_center() ) sb.p('~');
     char sep = above_center()?'+':',';
-    if( test(_bits,1) ) {
-      if( test(_bits,0) ) sb.p('0').p(sep);
+    if( test(1) ) {
+      if( test(0) ) sb.p('0').p(sep);
       return sb.p(above_center() ? "ANY]" : "ALL]");
     }
     for( Integer idx : this ) sb.p(idx).p(sep);
@@ -186,83 +203,132 @@ public abstract class Bits<B extends Bits<B>> implements Iterable<Integer>, Comp
   private B make( boolean any, long[] bits ) {
     // If a 'parent' bit is set, then no need to have any child bits set.
     Tree<B> tree = tree();
-    // TODO: Run this loop backwards, avoids most tree-walks; lowers O(n log n) to O(n).
-    for( int i=0; i<bits.length; i++ ) { // For all words
-      long l = bits[i];
-      if( l!=0 ) {
-        for( int j=0; j<64; j++ ) // For all bits in word
-          if( (mask(j)&l) != 0 ) {
-            int par = (i<<6)+j; // Kid index
-            while( (par = tree.parent(par)) != 0 ) // Walk parent chain
-              if( test(bits,par) )                 // If parent set
-                { bits[i]&=~mask(j); break; }      // then clear kid
-          }
+    for( int i=0; i<bits.length; i++ ) // For all words
+      for( long l = bits[i]; l!=0; l &= l-1 ) { // For all set bits in word
+        int kid = (i<<6)+Long.numberOfTrailingZeros(l), par = kid;
+        while( (par = tree.parent(par)) != 0 ) // Walk parent chain
+          if( test(bits,par) )                 // If parent set
+            { and(bits,kid); break; }          // then clear kid
       }
-    }
 
     // Remove any trailing empty words
     int len = bits.length;
     while( len > 1 && bits[len-1]==0 ) len--;
     if( bits.length != len ) bits = Arrays.copyOf(bits,len);
 
-    // Check for a single bit or NO bits
-    if( check_multi_bits(bits) ) return make_impl(any ? -1 : 1,bits);
-    // Special check for +/-0
-    if( len==1 && bits[0]==1 ) return make_impl(any ? -1 : 1,bits);
     // Empty is self-dual, ignores 'any'
-    if( len==1 && bits[0]==0 ) return make_impl(0,null);
+    if( len==1 && bits[0]==0 ) return make_impl(0,null,null);
+    int cnt = bitCount(bits);
+    int max = 63 - Long.numberOfLeadingZeros(bits[len-1]) + ((len-1)<<6);
+    // Special check for +/-0
+    if( cnt==1 && max==0 ) return make_impl(any ? -1 : 1,bits,null);
     // Single bit
-    int bnum0 = 63 - Long.numberOfLeadingZeros(bits[len-1]);
-    int bnum = bnum0 + ((len-1)<<6);
-    if( any ) bnum = -bnum;
-    return make_impl(bnum,null);
+    if( cnt==1 ) return make_impl(any ? -max : max,null,null);
+    if( !sparse(cnt,max) ) return make_impl(any ? -1 : 1,bits,null);
+    int[] es = new int[cnt];
+    for( int i=0, k=0; i<len; i++ )
+      for( long l = bits[i]; l!=0; l &= l-1 )
+        es[k++] = (i<<6)+Long.numberOfTrailingZeros(l);
+    return make_impl(any ? -1 : 1,null,es);
+  }
+  // Constructor taking the first 'len' of a sorted array of unique bits,
+  // which it may modify.  Canonicalizes and picks the encoding.
+  private B make( boolean any, int[] es, int len ) {
+    // If a 'parent' bit is set, then no need to have any child bits set.
+    // Parents are smaller numbers, so are already in es[0..k).  Few bits
+    // check each other; many bits walk the parent chain.
+    Tree<B> tree = tree();
+    int k=0;
+    for( int i=0; i<len; i++ ) {
+      int kid = es[i], par = kid;
+      if( len <= 8 ) {
+        boolean kid_of=false;
+        for( int j=0; j<k && !kid_of; j++ )
+          kid_of = es[j]!=0 && tree.is_parent(es[j],kid);
+        if( !kid_of ) es[k++] = kid;
+      } else {
+        while( (par = tree.parent(par)) != 0 && Arrays.binarySearch(es,0,k,par) < 0 ) ;
+        if( par==0 ) es[k++] = kid;
+      }
+    }
+    return encode(any,es,k);
+  }
+  // Pick the encoding for 'len' sorted, unique, canonical bits
+  private B encode( boolean any, int[] es, int len ) {
+    if( len==0 ) return make_impl(0,null,null); // Empty is self-dual, ignores 'any'
+    int max = es[len-1];
+    if( len==1 && max!=0 ) return make_impl(any ? -max : max,null,null); // Single bit
+    if( sparse(len,max) )
+      return make_impl(any ? -1 : 1,null,len==es.length ? es : Arrays.copyOf(es,len));
+    long[] bits = bits(max);
+    for( int i=0; i<len; i++ ) or(bits,es[i]);
+    return make_impl(any ? -1 : 1,bits,null);
   }
   // Constructor taking a single bit
-  final B make( int bit ) { return bit==0 ? make_impl(1,new long[]{1}) : make_impl(bit,null); }
+  final B make( int bit ) { return bit==0 ? make_impl(1,new long[]{1},null) : make_impl(bit,null,null); }
   // Constructor taking an array of bits
   public final B make( int... bits ) {
-    int max= 0;                // Find max bit
-    for( int bit : bits ) max=Math.max(max,bit);
-    long[] ls = bits(max);  // Big enuf bits
-    for( int bit : bits ) or(ls,bit);
-    return make(false,ls);
+    int[] es = bits.clone();
+    Arrays.sort(es);
+    return make(false,es,uniq(es,es.length));
+  }
+  // Remove dups from a sorted array, returning the new length
+  private static int uniq( int[] es, int len ) {
+    int k=0;
+    for( int i=0; i<len; i++ )
+      if( k==0 || es[k-1]!=es[i] )
+        es[k++] = es[i];
+    return k;
   }
 
   private static int  idx (long i) { return (int)(i>>6); }
   private static long mask(long i) { return 1L<<(i&63); }
 
-  public int getbit() { assert _bits==null && _con!=0; return _con; }
-  public int abit() { return _bits==null&&_con!=0 ? _con : -1; }
+  public int getbit() { assert !multi() && _con!=0; return _con; }
+  public int abit() { return !multi()&&_con!=0 ? _con : -1; }
   public boolean above_center() { return _con<0; }
   // Only empty and nil.  Other bits represent sets (possibly unsplit).
   public boolean is_con() { return is_nil() || is_empty(); }
-  public boolean is_empty() { return _bits==null && _con==0; }
+  public boolean is_empty() { return !multi() && _con==0; }
   public boolean is_nil() { return _bits!=null && _bits.length==1 && _bits[0]==1; }
   // Add a low nil.
   @SuppressWarnings("unchecked")
   public B meet_nil() {
     if( above_center() ) return make(0); // Crossing the centerline, drop all above bits, just [0]
     if( test(0) ) return (B)this;// Already has nil
-    long[] bs = _bits;
-    if( bs==null )              // Is a single compressed bit
-      or(bs = bits(Math.abs(_con)),Math.abs(_con)); // Decompress single bit into array
-    else bs = _bits.clone();    // Make a private set
-    bs[0] |= 1;                 // Set nil
-    return make(false,bs);      // It's below center now, even if the original was above
+    if( _bits!=null ) {
+      long[] bs = _bits.clone();// Make a private set
+      bs[0] |= 1;               // Set nil
+      return make(false,bs);    // It's below center now, even if the original was above
+    }
+    int[] es0 = elems(), es = new int[es0.length+1];
+    System.arraycopy(es0,0,es,1,es0.length); // Nil sorts first
+    return encode(false,es,es.length);
   }
 
   // Test a specific bit is set or clear on a given bits
   private static boolean test(long[] bits, int i) { return idx(i) < bits.length && (bits[idx(i)]&mask(i))!=0; }
   // Test a specific bit is set or clear on this Bits
   public boolean test(int i) {
+    if( _elems!=null ) return Arrays.binarySearch(_elems,i) >= 0;
     if( _bits==null ) return i!=0 && i==Math.abs(_con);
     int idx = idx(i);
     return idx < _bits.length && test(_bits, i);
   }
   // Test if this bit, or any parent of this bit, is set
   public boolean test_recur( int i ) {
-    if( test(i) ) return true;
     Tree<B> tree = tree();
+    // Few bits: ask the tree if any is a parent
+    if( _bits==null ) {
+      if( _elems==null ) return _con!=0 && tree.is_parent(Math.abs(_con),i);
+      if( _elems.length <= 8 ) {
+        for( int e : _elems )
+          if( e==i || (e!=0 && tree.is_parent(e,i)) )
+            return true;
+        return false;
+      }
+    }
+    if( test(i) ) return true;
     while( (i = tree.parent(i)) != 0 )
       if( test(i) )
         return true;
@@ -275,20 +341,16 @@ public abstract class Bits<B extends Bits<B>> implements Iterable<Integer>, Comp
   // nil-choice (might be a must-nil but not a choice-nil), so can return this.
   @SuppressWarnings("unchecked")
   B not_nil() {
-    if( !above_center() || _bits == null ) return (B)this;  // Some constant not-nil
-    if( !test(_bits,0) ) return (B)this; // No nil choice
-    long[] bs = _bits.clone();           // Keep all other bits
-    and(bs,0);                           // remove nil choice
-    return make(true,bs);                // Choices without nil
+    if( !above_center() || !multi() ) return (B)this;  // Some constant not-nil
+    if( !test(0) ) return (B)this; // No nil choice
+    return without(0);             // Choices without nil
   }
   // Remove the named bit, but otherwise preserve the type
   @SuppressWarnings("unchecked")
   public B clear(int bit) {
     if( !test(bit) ) return (B)this;
-    if( _bits == null ) return EMPTY();
-    long[] bs = _bits.clone();
-    and(bs,bit);
-    return make(_con==-1,bs);
+    if( !multi() ) return EMPTY();
+    return without(bit);
   }
   // Add the named bit, but otherwise preserve the type
   @SuppressWarnings("unchecked")
@@ -302,19 +364,46 @@ public abstract class Bits<B extends Bits<B>> implements Iterable<Integer>, Comp
   // Remove the nil bit, but otherwise preserve the type
   @SuppressWarnings("unchecked")
   public B strip_nil() {
-    if( _bits == null ) return (B)this; // Should not be a nil to remove
-    if( (_bits[0] &1)==0 ) return (B) this; // No nil
-    long[] bs = _bits.clone();
-    bs[0] &= ~1;                // Strip nil
-    return make(_con==-1,bs);
+    if( !multi() ) return (B)this; // Should not be a nil to remove
+    if( !test(0) ) return (B)this; // No nil
+    return without(0);
+  }
+  // Remove a set bit from a multi-bit set
+  private B without( int bit ) {
+    if( _bits!=null ) {
+      long[] bs = _bits.clone();
+      and(bs,bit);
+      return make(_con==-1,bs);
+    }
+    int[] es = new int[_elems.length-1];
+    int k=0;
+    for( int e : _elems ) if( e!=bit ) es[k++] = e;
+    return encode(_con==-1,es,k);
   }
 
   private static void or ( long[] bits, long con ) { bits[idx(con)] |=  mask(con); }
   private static void and( long[] bits, long con ) { bits[idx(con)] &= ~mask(con); }
   private static long[] bits( int b ) { return new long[idx(b)+1]; }
   public int max( ) {
+    if( _elems!=null ) return _elems[_elems.length-1];
     return _bits==null ? Math.abs(_con) : (63 - Long.numberOfLeadingZeros(_bits[_bits.length-1]))+((_bits.length-1)<<6);
   }
+  // Bits as a sorted array; not to be modified
+  int[] elems() {
+    if( _elems!=null ) return _elems;
+    if( _bits==null ) return _con==0 ? new int[0] : new int[]{Math.abs(_con)};
+    int[] es = new int[bitCount()];
+    int k=0;
+    for( int i : this ) es[k++] = i;
+    return es;
+  }
+  // Bits as a bit vector; not to be modified
+  long[] dense() {
+    if( _bits!=null ) return _bits;
+    long[] bs = bits(max());
+    for( int i : this ) or(bs,i);
+    return bs;
+  }
 
   // Meet is more complex than the obvious AND/OR over bits.  There's a bit of
   // prefix logic to remove common cases (meet with ANY/ALL/NIL), and a final
@@ -324,6 +413,8 @@ public abstract class Bits<B extends Bits<B>> implements Iterable<Integer>, Comp
   // AS-IF: For any given set-bit, we "unpack" it, setting every child bit.  We
   // then do the proper AND/OR operation on the bits, followed by a re-pack.
   //
+  // Sorted arrays and single bits skip the expansion: a union merges the
+  // arrays, and an intersection keeps the bits the other side covers.
 
   @SuppressWarnings("unchecked")
   public B meet( final B bs ) {
@@ -339,19 +430,40 @@ public abstract class Bits<B extends Bits<B>> implements Iterable<Integer>, Comp
     if( is_empty() ) return bs.above_center() ? (B)this : bs;
     if( bs.is_empty() ) return above_center() ? bs : (B)this;
 
-    long[] bits0 = _bits, bits1 = bs._bits;
-    int con0 = Math.abs(_con), con1 = Math.abs(bs._con);
-
-    // Expand any single bits
-    if( bits0==null ) or(bits0=bits(con0), con0);
-    if( bits1==null ) or(bits1=bits(con1), con1);
-    con0 =    _con < 0 ? -1 : 1;
-    con1 = bs._con < 0 ? -1 : 1;
+    boolean any0 = _con < 0, any1 = bs._con < 0;
+    // Mixed meet/join.  Toss away the join, keep only the meet bits.
+    if( any0 != any1 ) return above_center() ? bs : (B)this;
+
+    // Small sets
+    if( _bits==null && bs._bits==null ) {
+      int[] es0 = elems(), es1 = bs.elems(), es = new int[es0.length+es1.length];
+      int k=0;
+      if( !any0 ) {             // Both meets?  Merge sorted arrays
+        int i=0, j=0;
+        while( i<es0.length && j<es1.length ) {
+          int e0 = es0[i], e1 = es1[j];
+          es[k++] = Math.min(e0,e1);
+          if( e0<=e1 ) i++;
+          if( e1<=e0 ) j++;
+        }
+        while( i<es0.length ) es[k++] = es0[i++];
+        while( j<es1.length ) es[k++] = es1[j++];
+        return make(false,es,k); // This will remove parent/child dups
+      }
+      // Both joins?  Keep bits covered by the other side.  Nil is not part
+      // of the parent tree, and is kept only if in both.
+      for( int e : es0 ) if( bs.test_recur(e) ) es[k++] = e;
+      for( int e : es1 ) if(    test_recur(e) ) es[k++] = e;
+      Arrays.sort(es,0,k);
+      return encode(true,es,uniq(es,k));
+    }
 
+    // Expand into bit vectors
+    long[] bits0 = dense(), bits1 = bs.dense();
     // Bigger in bits0
-    if( bits0.length < bits1.length ) { long[] tmp=bits0; bits0=bits1; bits1=tmp; int t=con0; con0=con1; con1=t; }
+    if( bits0.length < bits1.length ) { long[] tmp=bits0; bits0=bits1; bits1=tmp; }
     // Both meets?  Set-union
-    if( con0 == 1 && con1 == 1 ) {
+    if( !any0 ) {
       long[] bits = bits0.clone();        // Clone larger
       for( int i=0; i<bits1.length; i++ ) // OR in smaller bits
         bits[i] |= bits1[i];
@@ -360,18 +472,13 @@ public abstract class Bits<B extends Bits<B>> implements Iterable<Integer>, Comp
 
     // Both joins?  Set-intersection
     Tree<B> tree = tree();
-    if( con0 == -1 && con1 == -1 ) {
-      long[] bits = new long[bits0.length];// Result array
-      join(tree,bits0,bits1,bits);         // Merge left into right
-      join(tree,bits1,bits0,bits);         // Merge right into left
-      // Nil is not part of the parent tree, so needs to be set explicitly
-      if( (bits0[0]&1)==1 && (bits1[0]&1)==1 )  bits[0]|=1;
-      // Just the intersection, which may be empty.
-      return make(true,bits);
-    }
-
-    // Mixed meet/join.  Toss away the join, keep only the meet bits.
-    return above_center() ? bs : (B)this;
+    long[] bits = new long[bits0.length];// Result array
+    join(tree,bits0,bits1,bits);         // Merge left into right
+    join(tree,bits1,bits0,bits);         // Merge right into left
+    // Nil is not part of the parent tree, so needs to be set explicitly
+    if( (bits0[0]&1)==1 && (bits1[0]&1)==1 )  bits[0]|=1;
+    // Just the intersection, which may be empty.
+    return make(true,bits);
   }
 
   // Virtually expand all bits in both arrays to cover all children,
@@ -379,44 +486,38 @@ public abstract class Bits<B extends Bits<B>> implements Iterable<Integer>, Comp
   // to keep from doing the full expansion costs.
   private static void join( Tree tree, long[] bits0, long[] bits1, long[] bits2 ) {
     // If a 'parent' bit is set, then no need to have any child bits set.
-    for( int i=0; i<bits0.length; i++ ) { // For all words
-      long l = bits0[i];
-      if( l!=0 ) {
-        // TODO: Use Long.numberOfTrailingZeros (or LeadingZeros probably) to
-        // do this only once-per-set-bit.
-        for( int j=0; j<64; j++ ) // For all bits in word
-          if( (mask(j)&l) != 0 ) {
-            for( int par = (i<<6)+j; par!=0; par = tree.parent(par) ) // Walk parent chain
-              if( test(bits1,par) )                // If parent set
-                { bits2[i]|=mask(j); break; }      // then set kid
-          }
+    for( int i=0; i<bits0.length; i++ ) // For all words
+      for( long l = bits0[i]; l!=0; l &= l-1 ) { // For all set bits in word
+        int kid = (i<<6)+Long.numberOfTrailingZeros(l);
+        for( int par = kid; par!=0; par = tree.parent(par) ) // Walk parent chain
+          if( test(bits1,par) )                // If parent set
+            { or(bits2,kid); break; }          // then set kid
       }
-    }
   }
 
   // Constants are self-dual; classes just flip the meet/join bit.
   @SuppressWarnings("unchecked")
-  public B dual() { return make_impl(-_con,_bits); }
+  public B dual() { return make_impl(-_con,_bits,_elems); }
   // join is defined in terms of meet and dual
   public Bits<B> join(Bits<B> bs) { return dual().meet(bs.dual()).dual(); }
   // Note no special nil handling; both sides need to either handle nil or not
   public boolean isa(B bs) { return meet(bs) == bs; }
 
+  // Remove bits covered by 'bs'.  Canonical sets have no kids of a set bit,
+  // so only the set bits themselves can be removed.
   public Bits<B> subtract(Bits<B> bs) {
     Bits<B> bs0 = this;
     for( int alias : this )
-      for( int kid=alias; kid!=0; kid = tree().next_kid(alias,kid) )
-        if( bs.test_recur(kid) )
-          bs0 = bs0.clear(kid);
+      if( alias!=0 && bs.test_recur(alias) )
+        bs0 = bs0.clear(alias);
     return bs0;
   }
-  // Two bitmaps overlap, including parent/child overlaps.
+  // Two bitmaps overlap, including parent/child overlaps.  Two bits share a
+  // kid only if one is a parent of the other.
   public boolean overlaps(Bits<B> bs) {
     if( this==bs ) return true;
-    for( int alias=init_bit(); alias!=-1; alias=next_bit(alias) )
-      for( int kid=alias; kid!=0; kid = tree().next_kid(alias,kid) )
-        if( bs.test_recur(kid) )
-          return true;
+    for( int alias : this ) if( alias!=0 && bs.test_recur(alias) ) return true;
+    for( int alias : bs   ) if( alias!=0 &&    test_recur(alias) ) return true;
     return false;
   }
 
@@ -435,35 +536,82 @@ public abstract class Bits<B extends Bits<B>> implements Iterable<Integer>, Comp
   public static class Tree<B extends Bits<B>> {
     int _cnt = 1; // Next available bit number
     // Invariants: _pars[kid]==parent && _kids[parent].contains(kid)
-    int[]   _pars = new int[2];  // Parent bit from child bit; _cnt is the in-use part
-    int[][] _kids = new int[2][];// List of kids from a parent; 1st element is in-use length
+    // Rows of kids are copy-on-write: writers hold the tree lock, copy a row
+    // and publish it through the volatile, so readers see a whole row without
+    // locking.  Parents of bits in use never change.
+    volatile int[]   _pars = new int[2];  // Parent bit from child bit; _cnt is the in-use part
+    volatile int[][] _kids = new int[2][];// List of kids from a parent; 1st element is in-use length
     int[] _init;                 // Used to reset _kids[X][0] for all X
+    // Open sessions drawing and freeing their own bits.  While any are open a
+    // compilation does not chop the tree back, as their bits are in use.
+    private int _shared;
+    // Preorder interval numbering for O(1) parent tests: bit b is at
+    // _ivls[2b] and its kids at [_ivls[2b],_ivls[2b+1]).  Bits never change
+    // parents, so a numbering stays good for the bits it covers; newer bits
+    // walk up to a numbered parent.  Renumbered by split, under the tree
+    // lock, once the unnumbered bits are a third of all bits; published
+    // through the volatile, so readers see a whole numbering without locking.
+    private volatile int[] _ivls = new int[0];
 
     int parent( int kid ) { return _pars[kid]; }
-    public boolean is_parent( int idx ) { return idx<_kids.length && _kids[idx]!=null &&_kids[idx][0]>1; }
-    // Return two kids at slots ary[1] and ary[2].
-    public int[] get_kids( int par ) { assert _kids[par][0]==3; return _kids[par]; }
+    public boolean is_parent( int idx ) {
+      int[][] kidss = _kids;
+      int[] kids;
+      return idx<kidss.length && (kids=kidss[idx])!=null && kids[0]>1;
+    }
+    // Return two kids at slots ary[1] and ary[2].  Do not modify.
+    public int[] get_kids( int par ) { int[] kids = _kids[par]; assert kids[0]==3; return kids; }
+    // Publish a new row of kids
+    private void set_kids( int par, int[] kids ) {
+      int[][] kidss = _kids;
+      kidss[par] = kids;
+      _kids = kidss;
+    }
     // True if kid is a child or equal to parent
     boolean is_parent( int par, int kid ) {
-      for( ; par <= kid; kid = parent(kid) )
-        if( par==kid ) return true;
-      return false;             // Kid will be a larger number
+      int[] ivls = _ivls;
+      for( ; par < kid && (kid<<1) >= ivls.length; kid = parent(kid) ) ;
+      if( par >= kid ) return par==kid; // Kid will be a larger number
+      int k = ivls[kid<<1];
+      return ivls[par<<1] <= k && k < ivls[(par<<1)+1];
+    }
+    // Number bits in preorder.  Parents have smaller numbers than kids, so
+    // subtree sizes sum up in reverse order and kids are placed in order.
+    // Caller holds the tree lock.
+    private void number() {
+      int cnt = _cnt;
+      int[] ivls = new int[cnt<<1], nxt = new int[cnt];
+      for( int b=cnt-1; b>=0; b-- ) {
+        ivls[(b<<1)+1] += 1;     // Size of subtree at b
+        if( b>0 ) ivls[(_pars[b]<<1)+1] += ivls[(b<<1)+1];
+      }
+      nxt[0] = 1;
+      for( int b=1; b<cnt; b++ ) {
+        int par = _pars[b];
+        ivls[b<<1] = nxt[par];   // Next free slot under parent
+        nxt[par] += ivls[(b<<1)+1];
+        nxt[b] = ivls[b<<1]+1;
+      }
+      for( int b=0; b<cnt; b++ ) ivls[(b<<1)+1] += ivls[b<<1];
+      _ivls = ivls;             // Publish
     }
 
     @Override public String toString() { return toString(new SB(),1).toString(); }
     private SB toString(SB sb,int i) {
       sb.i().p(i).nl();
       if( is_parent(i) ) {
+        int[] kids = _kids[i];
         sb.ii(1);
-        for( int j=1; j<_kids[i][0]; j++ )
-          toString(sb,_kids[i][j]);
+        for( int j=1; j<kids[0]; j++ )
+          toString(sb,kids[j]);
         sb.di(1);
       }
       return sb;
     }
 
-    // Split out a bit to form a new constant, from a prior a bit
-    int split(int par) {
+    // Split out a bit to form a new constant, from a prior a bit.  Locked, as
+    // many threads may split at once.
+    synchronized int split(int par) {
       // See if we have an existing bit
       if( par < _kids.length ) { // This parent has kids already
         int[] kids = _kids[par]; //
@@ -473,7 +621,9 @@ public abstract class Bits<B extends Bits<B>> implements Iterable<Integer>, Comp
             int bit = kids[klen];
             if( bit != 0 ) {            // Pre-allocated kid from prior test?
               assert _pars[bit] == par; // Then parent must already be preallocated
+              kids = kids.clone();
               kids[0] = klen+1;
+              set_kids(par,kids);
               return bit;
             }
           }
@@ -483,41 +633,65 @@ public abstract class Bits<B extends Bits<B>> implements Iterable<Integer>, Comp
       int bit = _cnt++; // Next available bit number
 
       // Make space in the parents array to hold the parent of 'bit'
-      while( bit >= _pars.length ) _pars = Arrays.copyOf(_pars,_pars.length<<1);
-      assert _pars[bit]==0;
-      _pars[bit] = par;
+      int[] pars = _pars;
+      while( bit >= pars.length ) pars = Arrays.copyOf(pars,pars.length<<1);
+      assert pars[bit]==0;
+      pars[bit] = par;
+      _pars = pars;             // Publish
       // Make space in the kids array to hold the children of 'par'
       while( par >= _kids.length ) _kids = Arrays.copyOf(_kids,_kids.length<<1);
       int[] kids = _kids[par];  // All the children of 'par'
-      if( kids==null ) _kids[par] = kids = new int[]{1};
+      if( kids==null ) kids = new int[]{1};
       int klen = kids[0];       // 1-based number of children.  '1' means 'no children'
-      if( klen == kids.length ) // Make space as needed
-        _kids[par] = kids = Arrays.copyOf(kids,klen<<1);
+      kids = Arrays.copyOf(kids,klen == kids.length ? klen<<1 : kids.length); // Copy, making space as needed
       kids[klen] = bit;         // Insert new child of parent
       kids[0] = klen+1;         // Bump count of children
+      set_kids(par,kids);
+      // Renumber once a third of the bits are unnumbered
+      int nums = _ivls.length>>1;
+      if( _cnt-nums > (nums>>1)+8 ) number();
       return bit;
     }
 
     // Record all starting types tree relationships.
-    void init0() {
+    synchronized void init0() {
       _init = new int[_kids.length];
       for( int i=0; i<_kids.length; i++ )
         _init[i] = _kids[i]==null ? 1 : _kids[i][0];
     }
     // Chop back alias tree to only those types recorded during 'init0'
-    void reset_to_init0() {
-      for( int i=0; i<_kids.length; i++ )
-        if( _kids[i] != null )
-          _kids[i][0] = i<_init.length ? _init[i] : 1;
+    synchronized void reset_to_init0() {
+      int[][] kidss = _kids;
+      for( int i=0; i<kidss.length; i++ ) {
+        int[] kids = kidss[i];
+        int cnt = i<_init.length ? _init[i] : 1;
+        if( kids != null && kids[0] != cnt ) {
+          kids = kids.clone();
+          kids[0] = cnt;
+          set_kids(i,kids);
+        }
+      }
     }
-    void free(int b) {
+    // Chop back, unless sessions have bits in use
+    synchronized boolean reset_unshared() {
+      if( _shared>0 ) return false;
+      reset_to_init0();
+      return true;
+    }
+    synchronized void share  () { _shared++; }
+    synchronized void unshare() { _shared--; }
+
+    synchronized void free(int b) {
       if( is_parent(b) ) return; // Too hard to compress
       int par = parent(b), idx=-1;
-      for( int i=1; i<_kids[par].length; i++ ) if( _kids[par][i]==b ) { idx=i; break; }
-      int cnt = _kids[par][0]-1; // Count on this line, minus the removed one
-      _kids[par][idx] = _kids[par][cnt]; // Shuffle last element over removed
-      _kids[par][cnt] = b;      // Put last bit at end, for reuse
-      _kids[par][0] = cnt;    // Lower count
+      int[] kids = _kids[par].clone();
+      int cnt = kids[0]-1;      // Count on this line, minus the removed one
+      for( int i=1; i<=cnt; i++ ) if( kids[i]==b ) { idx=i; break; }
+      if( idx == -1 ) return;   // Already free, chopped back by a reset
+      kids[idx] = kids[cnt];    // Shuffle last element over removed
+      kids[cnt] = b;            // Put last bit at end, for reuse
+      kids[0] = cnt;            // Lower count
+      set_kids(par,kids);
     }
 
     // Return next child of alias; repeated calls iterate over all the children
@@ -525,15 +699,17 @@ public abstract class Bits<B extends Bits<B>> implements Iterable<Integer>, Comp
     // for( int kid=alias; kid!=0; kid=BitsAlias.next_kid(alias,kid) ) {...kid... }
     public int next_kid( int alias, int kid ) {
       if( kid==0 ) return 0;
-      boolean is_par = is_parent(kid);
+      int[][] kidss = _kids;    // One snapshot for the walk
+      int[] kkids = kid<kidss.length ? kidss[kid] : null;
+      boolean is_par = kkids!=null && kkids[0]>1;
       if( kid==alias && !is_par ) return 0; // Singleton bit
       // Find kid in the alias-tree
       if( is_par ) {            // Go deeper
-        return _kids[kid][1];   // First child one layer deeper
+        return kkids[1];        // First child one layer deeper
       } else {                  // Leaf, unwind & find sibling
         while(kid!=alias) {
-          int par = _pars[kid];    // Parent
-          int[] kids = _kids[par]; // All the parents' children
+          int par = parent(kid);   // Parent
+          int[] kids = kidss[par]; // All the parents' children
           for( int i=1; i<kids[0]-1; i++ )
             if( kids[i]==kid )
               return kids[i+1]; // Return sibling
@@ -550,6 +726,7 @@ public abstract class Bits<B extends Bits<B>> implements Iterable<Integer>, Comp
   private class Iter implements Iterator<Integer> {
     int _i=-1;
     @Override public boolean hasNext() {
+      if( _elems!=null ) return ++_i < _elems.length;
       if( _bits==null )
         if( _i==-1 && _con!=0 ) { _i=0; return true; } else return false;
       int idx;
@@ -559,30 +736,10 @@ public abstract class Bits<B extends Bits<B>> implements Iterable<Integer>, Comp
       return false;
     }
     @Override public Integer next() {
+      if( _elems!=null ) return _elems[_i];
       if( _bits==null ) return Math.abs(_con);
       if( idx(_i) < _bits.length ) return _i;
       throw new java.util.NoSuchElementException();
     }
   }
-
-  // Iterate all bits in-order
-  // Usage: for( int i=init_bit(); i!=-1; i=next_bit(i) ) ...
-  int init_bit() {
-    if( _bits==null ) return _con==0 ? -1 : Math.abs(_con);
-    return next_bit(0);
-  }
-  int next_bit(int i) {
-    if( _bits==null ) return -1;
-    int x = idx(i+1);
-    int y = (i+1)&63;
-    while( true ) {
-      if( x >= _bits.length ) return -1; // past end
-      long l = _bits[x];
-      for( ; y<64; y++ )
-        if( (l&mask(y))!=0 )
-          return y;
-      x++;
-      y=0;
-    }
-  }
 }
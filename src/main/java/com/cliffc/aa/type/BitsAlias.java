@@ -1,5 +1,7 @@
 package com.cliffc.aa.type;
 
+import com.cliffc.aa.util.Ary;
+
 import java.util.HashMap;
 
 // Alias Bits supporting a lattice; immutable; hash-cons'd.
@@ -10,15 +12,22 @@ public class BitsAlias extends Bits<BitsAlias> {
   // return a new Bits.  Overridden in subclasses to make type-specific Bits.
   private static final HashMap<BitsAlias,BitsAlias> INTERN = new HashMap<>();
   private static BitsAlias FREE=null;
-  @Override BitsAlias make_impl(int con, long[] bits ) {
-    BitsAlias b1 = FREE;
-    if( b1 == null ) b1 = new BitsAlias();
-    else FREE = null;
-    b1.init(con,bits);
-    BitsAlias b2 = INTERN.get(b1);
-    if( b2 != null ) { FREE = b1; return b2; }
-    else { INTERN.put(b1,b1); return b1; }
+  // Locked, as many threads may make Bits at once
+  @Override BitsAlias make_impl(int con, long[] bits, int[] elems ) {
+    synchronized( BitsAlias.class ) {
+      BitsAlias b1 = FREE;
+      if( b1 == null ) b1 = new BitsAlias();
+      else FREE = null;
+      b1.init(con,bits,elems);
+      BitsAlias b2 = INTERN.get(b1);
+      if( b2 != null ) { FREE = b1; return b2; }
+      INTERN.put(b1,b1);
+      if( TREE._init!=null ) YOUNG.push(b1);
+      return b1;
+    }
   }
+  // Bits interned after init0, dropped by reclaim
+  private static final Ary<BitsAlias> YOUNG = new Ary<>(new BitsAlias[1],0);
 
   static final Bits.Tree<BitsAlias> TREE = new Bits.Tree<>();
   @Override public Tree<BitsAlias> tree() { return TREE; }
@@ -27,9 +36,9 @@ public class BitsAlias extends Bits<BitsAlias> {
   public static final int INTX = new_alias(ALLX); // Internal aliases
   public static final int STRX = new_alias(EXTX); // String alias
   // The All-Memory alias class
-  public  static final BitsAlias NALL = new BitsAlias().make_impl(ALLX,null); // All aliases, no nil
+  public  static final BitsAlias NALL = new BitsAlias().make_impl(ALLX,null,null); // All aliases, no nil
   public  static final BitsAlias NANY = NALL.dual();
-  private static final BitsAlias  ALL = NALL.make_impl(1,new long[]{0x3}); // All aliases
+  private static final BitsAlias  ALL = NALL.make_impl(1,new long[]{0x3},null); // All aliases
   private static final BitsAlias  ANY = ALL.dual();
 
   public static final BitsAlias EXT = make0(EXTX);
@@ -45,6 +54,15 @@ public class BitsAlias extends Bits<BitsAlias> {
   // Fast reset of parser state between calls to Exec
   public static void init0() { TREE.init0(); }
   public static void reset_to_init0() { TREE.reset_to_init0(); }
+  // Reset unless sessions are drawing their own bits; see Tree.share
+  public static boolean reset_unshared() { return TREE.reset_unshared(); }
+  public static void share  () { TREE.share  (); }
+  public static void unshare() { TREE.unshare(); }
+  // Drop young Bits; see Type.reclaim
+  static void reclaim() {
+    for( BitsAlias b : YOUNG ) INTERN.remove(b);
+    YOUNG.clear();
+  }
   // Iterate over children
   public static int next_kid( int alias, int kid ) { return TREE.next_kid(alias,kid); }
 
@@ -1,5 +1,7 @@
 package com.cliffc.aa.type;
 
+import com.cliffc.aa.util.Ary;
+
 import java.util.HashMap;
 
 // Function index Bits supporting a lattice; immutable; hash-cons'd.
@@ -9,15 +11,22 @@ public class BitsFun extends Bits<BitsFun> {
   // return a new Bits.  Overridden in subclasses to make type-specific Bits.
   private static final HashMap<BitsFun,BitsFun> INTERN = new HashMap<>();
   private static BitsFun FREE=null;
-  @Override BitsFun make_impl(int con, long[] bits ) {
-    BitsFun b1 = FREE;
-    if( b1 == null ) b1 = new BitsFun();
-    else FREE = null;
-    b1.init(con,bits);
-    BitsFun b2 = INTERN.get(b1);
-    if( b2 != null ) { FREE = b1; return b2; }
-    else { INTERN.put(b1,b1); return b1; }
+  // Locked, as many threads may make Bits at once
+  @Override BitsFun make_impl(int con, long[] bits, int[] elems ) {
+    synchronized( BitsFun.class ) {
+      BitsFun b1 = FREE;
+      if( b1 == null ) b1 = new BitsFun();
+      else FREE = null;
+      b1.init(con,bits,elems);
+      BitsFun b2 = INTERN.get(b1);
+      if( b2 != null ) { FREE = b1; return b2; }
+      INTERN.put(b1,b1);
+      if( TREE._init!=null ) YOUNG.push(b1);
+      return b1;
+    }
   }
+  // Bits interned after init0, dropped by reclaim
+  private static final Ary<BitsFun> YOUNG = new Ary<>(new BitsFun[1],0);
 
   private static final Bits.Tree<BitsFun> TREE = new Bits.Tree<>();
   @Override public Tree<BitsFun> tree() { return TREE; }
@@ -29,14 +38,23 @@ public class BitsFun extends Bits<BitsFun> {
   // Fast reset of parser state between calls0 to Exec
   public static void init0() { TREE.init0(); }
   public static void reset_to_init0() { TREE.reset_to_init0(); }
+  // Reset unless sessions are drawing their own bits; see Tree.share
+  public static boolean reset_unshared() { return TREE.reset_unshared(); }
+  public static void share  () { TREE.share  (); }
+  public static void unshare() { TREE.unshare(); }
+  // Drop young Bits; see Type.reclaim
+  static void reclaim() {
+    for( BitsFun b : YOUNG ) INTERN.remove(b);
+    YOUNG.clear();
+  }
 
   // Have to make a first BitsFun here; thereafter the v-call to make_impl
   // will make more on demand.  But need the first one to make a v-call.
 
   // Internal and external callers, not nil
-  public  static final BitsFun NALL = new BitsFun().make_impl(ALLX,null);
+  public  static final BitsFun NALL = new BitsFun().make_impl(ALLX,null,null);
   public  static final BitsFun NANY = NALL.dual();
-  public  static final BitsFun  ALL = NALL.make_impl(1,new long[]{0x3});
+  public  static final BitsFun  ALL = NALL.make_impl(1,new long[]{0x3},null);
   private static final BitsFun  ANY = ALL.dual();
 
   public static final BitsFun EXT = make0(EXTX);
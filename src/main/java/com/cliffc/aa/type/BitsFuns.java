@@ -11,8 +11,9 @@ public class BitsFuns extends AryI<BitsFun> {
   @Override BitsFun[] make_ary(int len) { return new BitsFun[len]; }
   @Override BitsFun[][] make_arys(int len) { return new BitsFun[len][]; }
   @Override int _compute_hash(BitsFun[] ts) {
-    for( BitsFun t : ts ) Util.add_hash( t._hash );
-    return (int)Util.get_hash();
+    Util.Hasher h = new Util.Hasher();
+    for( BitsFun t : ts ) h.add( t._hash );
+    return (int)h.get();
   }
   BitsFuns(int len) { super(len); }
   public static boolean interned(BitsFun[] ts) { return BITSFUNS._interned(ts); }
@@ -28,6 +29,8 @@ public class BitsFuns extends AryI<BitsFun> {
   }
 
   // Static forwards
+  static void init0() { BITSFUNS._init0(); }
+  static void reclaim() { BITSFUNS._reclaim(); }
   public static int compute_hash(BitsFun[] ts) { return BITSFUNS._compute_hash(ts); }
   public static BitsFun[] get(int len) { return BITSFUNS._get(len); }
   public static void free(BitsFun[] ts) { BITSFUNS._free(ts); }
@@ -10,15 +10,22 @@ public class BitsRPC extends Bits<BitsRPC> {
   // return a new Bits.  Overridden in subclasses to make type-specific Bits.
   private static HashMap<BitsRPC,BitsRPC> INTERN = new HashMap<>();
   private static BitsRPC FREE=null;
-  @Override BitsRPC make_impl(int con, long[] bits ) {
-    BitsRPC b1 = FREE;
-    if( b1 == null ) b1 = new BitsRPC();
-    else FREE = null;
-    b1.init(con,bits);
-    BitsRPC b2 = INTERN.get(b1);
-    if( b2 != null ) { FREE = b1; return b2; }
-    else { INTERN.put(b1,b1); return b1; }
+  // Locked, as many threads may make Bits at once
+  @Override BitsRPC make_impl(int con, long[] bits, int[] elems ) {
+    synchronized( BitsRPC.class ) {
+      BitsRPC b1 = FREE;
+      if( b1 == null ) b1 = new BitsRPC();
+      else FREE = null;
+      b1.init(con,bits,elems);
+      BitsRPC b2 = INTERN.get(b1);
+      if( b2 != null ) { FREE = b1; return b2; }
+      INTERN.put(b1,b1);
+      if( TREE._init!=null ) YOUNG.push(b1);
+      return b1;
+    }
   }
+  // Bits interned after init0, dropped by reclaim
+  private static final Ary<BitsRPC> YOUNG = new Ary<>(new BitsRPC[1],0);
 
   private static final Bits.Tree<BitsRPC> TREE = new Bits.Tree<>();
   @Override Tree<BitsRPC> tree() { return TREE; } 
@@ -27,12 +34,17 @@ public class BitsRPC extends Bits<BitsRPC> {
   // Fast reset of parser state between calls to Exec
   public static void init0() { TREE.init0(); }
   public static void reset_to_init0() { TREE.reset_to_init0(); }
+  // Drop young Bits; see Type.reclaim
+  static void reclaim() {
+    for( BitsRPC b : YOUNG ) INTERN.remove(b);
+    YOUNG.clear();
+  }
   
   // Have to make a first BitsRPC here; thereafter the v-call to make_impl
   // will make more on demand.  But need the first one to make a v-call.
-  public  static final BitsRPC NALL  = new BitsRPC().make_impl(ALLX,null);
+  public  static final BitsRPC NALL  = new BitsRPC().make_impl(ALLX,null,null);
   public  static final BitsRPC NANY = NALL.dual();
-  private static final BitsRPC  ALL = NALL.make_impl(1,new long[]{0x3}); // All RPCs
+  private static final BitsRPC  ALL = NALL.make_impl(1,new long[]{0x3},null); // All RPCs
   private static final BitsRPC  ANY = ALL.dual();
   public  static final BitsRPC EMPTY = NALL.make(); // No bits
   @Override public BitsRPC ALL() { return ALL ; }
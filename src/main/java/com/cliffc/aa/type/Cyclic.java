@@ -2,9 +2,9 @@ package com.cliffc.aa.type;
 
 import com.cliffc.aa.util.*;
 
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.Set;
-import java.util.function.IntSupplier;
 
 import static com.cliffc.aa.AA.unimpl;
 
@@ -20,11 +20,17 @@ public interface Cyclic {
   // Also takes a Map of Types, and updates them all.  I hate this, as it
   // breaks an otherwise very clean API.  Used by cyclic type parsing.
 
+  // The install works in the statics below, and publishes a whole cycle and
+  // its dual at once, so installs hold the Type.PUBLISH lock throughout.
+
   static <T extends Type> T install( T head ) { return install(head,null); }
 
   static <T extends Type> T install( T head, Map<String,Type> map ) {
+    TypeStruct.MEETS0.get().clear();
+    synchronized( Type.PUBLISH ) { return _install(head,map); }
+  }
+  private static <T extends Type> T _install( T head, Map<String,Type> map ) {
     long t0 = System.currentTimeMillis();
-    TypeStruct.MEETS0.clear();
     _reachable(head,true);      // Compute 1st-cut reachable
     // P.gather(); // Turn off detail profiling
     head = _dfa_min(head, map);
@@ -127,7 +133,7 @@ public interface Cyclic {
         t=old;                  // Use the old instead of new-just-hashed
       } else {
         // Keep the entire cycle.  xdual/rdual/hash/retern
-        Type.RECURSIVE_MEET++; // Stop xdual interning TypeFlds
+        Type.recursive_meet(1); // Stop xdual interning TypeFlds
         // Build the dual cycle, with dual leader
         for( Type c : ts ) if( !(c instanceof TypeStruct) ) { Type d = c._dual = c.xdual(); d._dual = c; }
         for( Type c : ts ) if( c._dual == null            ) { Type d = c._dual = c.xdual(); d._dual = c; }
@@ -142,7 +148,7 @@ public interface Cyclic {
         for( Type c : ts ) { c._dual._hash = c._dual.compute_hash(); }
         
         for( Type c : ts ) c.retern()._dual.retern();
-        Type.RECURSIVE_MEET--; // Allow xdual to intern TypeFlds
+        Type.recursive_meet(-1); // Allow xdual to intern TypeFlds
         for( Type c : ts )     // Now that all fields are interned, we can intern the TypeFld[]
           if( c instanceof TypeStruct tst ) {
             tst.remove_dups_hashcons();
@@ -208,218 +214,216 @@ public interface Cyclic {
 
   // --------------------------------------------------------------------------
   // This is a Type minimization algorithm done "top down" or optimistically.
-  // It is loosely based on Hopcroft DFA minimization or Click thesis.  Edges
-  // are labeled via Strings (struct labels) instead of being a small count so
-  // the inner loops are reordered to take advantage.
-
-  // Type Partitions based on Click thesis: groups of equivalent Types, that
-  // have equal static properties, and equivalent Type edges.
-  class Partition implements IntSupplier {
-    // Static NBMHL from Type.uid to Partitions
-    static final NonBlockingHashMapLong<Partition> TYPE2PART = new NonBlockingHashMapLong<>();
-    // All initial Partitions, in an iterable
-    static final Ary<Partition> PARTS = new Ary<>(Partition.class);
-
-    static Partition malloc() {
-      Partition P = PARTS.inc_len();
-      if( P==null ) PARTS.set(PARTS._len-1,P = new Partition());
-      return P;
-    }
-
-    // Reset for another round of minimization
-    static void clear() {
-      TYPE2PART.clear(true);
-      for( Partition P : PARTS )  P.clear0();
-      PARTS.clear();            // Does not delete any Parts
-    }
-
-    // Polite tracking for partitions
-    private static int CNT=1;
-    int _uid = CNT++;
-    @Override public int getAsInt() { return _uid; }
-    // All the Types in this partition
-    private final Ary<Type> _ts = new Ary<>(new Type[1],0);
-    // All the Type uids, touched in this pass
-    private final BitSetSparse _touched = new BitSetSparse();
-    // Number of new (not interned) types.
-    private int _numnew;
-
-    // All the edge labels
-    private final NonBlockingHashMap<String,String> _edges = new NonBlockingHashMap<>();
-    private void clear0() {
-      _ts.clear();
-      _numnew=0;
-      assert _touched.cardinality()==0;
-      _edges.clear(true);
-    }
-
-    // Number of Types in partition
-    int len() { return _ts._len; }
-    // Add type t to Partition, track the edge set
-    void add( Type t) {
-      if( t._hash==0 ) _numnew++;
-      _ts.add(t);
-      TYPE2PART.put(t._uid,this);
-      var edges = DefUse.edges(t);
-      if( edges != null )
-        for( String s : edges )
-          _edges.put(s,"");
-    }
-    // Delete and return the ith type.  Does not update the edges list, which
-    // may contain edge labels that no longer point to any member of the part.
-    Type del(int idx) {
-      Type t = _ts.at(idx);
-      if( t._hash==0 ) _numnew--;
-      TYPE2PART.remove(t._uid);
-      return _ts.del(idx);
+  // Types are the states of a partial DFA and the edges between them are
+  // labeled with small interned label ids.  Uses the Valmari-Lehtinen
+  // refinement, a Hopcroft variant for partial DFAs, which is O(m log n) in
+  // the edges and Types.  Types start in blocks of equal static properties
+  // (interned Types each get their own), then blocks are split until all
+  // members of a block have equivalent out-edges.  Blocks of Types and
+  // "cords" of same-label edges are refined with the same Refiner.  All the
+  // arrays are kept and reused across calls, so a steady-state install does
+  // not allocate.
+
+  // A partition of the ints [0,n) into sets.  Elements of a set are
+  // contiguous in _e, from _f[set] to _p[set].  Marked elements are swapped to
+  // the front of their set, and split() moves the smaller of the marked and
+  // unmarked parts to a new set.
+  final class Refiner {
+    int _z;                     // Number of sets
+    int[] _e = new int[1];      // Elements, grouped by set
+    int[] _l = new int[1];      // Location of each element in _e
+    int[] _s = new int[1];      // Set of each element
+    int[] _f = new int[1];      // First element index of each set
+    int[] _p = new int[1];      // Past-end element index of each set
+    int[] _m = new int[1];      // Count of marked elements in each set
+    int[] _w = new int[1];      // Sets with marked elements
+    int _wlen;
+    void init( int n ) {
+      if( _e.length < n ) {
+        int len = Math.max(n,_e.length<<1);
+        _e = new int[len];  _l = new int[len];  _s = new int[len];
+        _f = new int[len];  _p = new int[len];  _m = new int[len];  _w = new int[len];
+      }
+      _z = 0;
+      _wlen = 0;
+    }
+    void mark( int e ) {
+      int s = _s[e], i = _l[e], j = _f[s]+_m[s];
+      if( i < j ) return;       // Already marked
+      _e[i] = _e[j];  _l[_e[i]] = i;
+      _e[j] = e;      _l[e] = j;
+      if( _m[s]++ == 0 ) _w[_wlen++] = s;
+    }
+    void split() {
+      while( _wlen > 0 ) {
+        int s = _w[--_wlen], j = _f[s]+_m[s];
+        if( j == _p[s] ) { _m[s] = 0; continue; } // Marked all; no split
+        if( _m[s] <= _p[s]-j ) { _f[_z] = _f[s]; _p[_z] = _f[s] = j; } // Marked part is new set
+        else                   { _p[_z] = _p[s]; _f[_z] = _p[s] = j; } // Unmarked part is new set
+        for( int i=_f[_z]; i<_p[_z]; i++ ) _s[_e[i]] = _z;
+        _m[s] = _m[_z++] = 0;
+      }
     }
-    // Get head/slot-0 Type
-    Type head() { return _ts.at(0); }
-    void set_head(Type newhead, Type oldhead) {
-      _ts.del(newhead);         // Remove any newhead, if it exists
-      _ts.set(0,newhead);       // Set newhead as The Head
-      _ts.push(oldhead);        // Include oldhead in the list
+    // Fill from elements bucketed by a key in [0,nkeys); one set per key
+    void init_sets( int n, int[] key, int nkeys ) {
+      init(Math.max(n,nkeys)+1);
+      Arrays.fill(_f,0,nkeys+1,0);
+      for( int i=0; i<n; i++ ) _f[key[i]+1]++;
+      for( int k=0; k<nkeys; k++ ) _f[k+1] += _f[k];
+      for( int k=0; k<nkeys; k++ ) { _p[k] = _f[k]; _m[k] = 0; }
+      for( int i=0; i<n; i++ ) {
+        int k = key[i], j = _p[k]++;
+        _e[j] = i;  _l[i] = j;  _s[i] = k;
+      }
+      _z = nkeys;
     }
+  }
 
-    // Get the partition head value for type t, if it exists, or just t
-    static Type head(Type t) {
-      Partition P = TYPE2PART.get(t._uid);
-      return P==null ? t : P.head();
+  class DFA {
+    static final Refiner BLOCKS = new Refiner(), CORDS = new Refiner();
+    // Edge labels as Labels ids, and then as ids local to one minimize
+    static int[] LOCAL = new int[1], STAMP = new int[1];
+    static int EPOCH, NLABS;
+    static int label( int g ) {
+      if( g >= LOCAL.length ) {
+        LOCAL = Arrays.copyOf(LOCAL,Math.max(g+1,LOCAL.length<<1));
+        STAMP = Arrays.copyOf(STAMP,LOCAL.length);
+      }
+      if( STAMP[g]!=EPOCH ) { STAMP[g]=EPOCH; LOCAL[g]=NLABS++; }
+      return LOCAL[g];
+    }
+    // Type uid to REACHABLE index; open addressed, uid 0 is never used
+    static int[] UIDS = new int[2], IDXS = new int[2];
+    static int idx( Type t ) {
+      int mask = UIDS.length-1, i = t._uid&mask;
+      while( true ) {
+        int uid = UIDS[i];
+        if( uid==t._uid ) return IDXS[i];
+        if( uid==0 ) return -1;
+        i = (i+1)&mask;
+      }
     }
-
-
-    // Cause_Splits from Click thesis.
-    // Original loop ordering; need to have the set of edge labels
-    // Loops over all outgoing partition edges once per edge label.
-    //   for-all edge labels:
-    //     for-all Tx in P
-    //       for-all Ty of Tx.uses[edge]
-    //         assert Ty[edge]==Tx // Edge going from Y to X
-    //         Py = partition(Ty)
-    //         touched.set(Py);// track partitions Py
-    //         Py.touched.set(Py) // track types in Py that are touched
-    //   for-all Pz in touched
-    //     if Pz.touched!=Pz  // did not touch them all
-    //       Split(Pz,Pz.touched)
-    //     clear Pz.touched
-    //   touched.clear
-    private static final Work<Partition> TOUCHED = new Work<>();
-    void do_split() {
-      assert TOUCHED.isEmpty();
-      for( String edge : _edges.keySet() ) {
-        boolean edge_alive=false; // Lazily reduce the edge set
-        for( Type tdef : _ts ) {
-          Ary<Type> tuses = DefUse.uses(edge,tdef);
-          if( tuses!=null ) {
-            edge_alive=true;
-            for( Type tuse : tuses ) {
-              Partition Puse = TYPE2PART.get(tuse._uid);
-              if( Puse !=null && Puse.len() > 1 ) // Length-1 partitions cannot be split
-                TOUCHED.add(Puse)._touched.tset(tuse._uid);
-            }
-          }
-        }
-        if( !edge_alive )
-          _edges.remove(edge);
+    private static void put( int uid, int idx ) {
+      int mask = UIDS.length-1, i = uid&mask;
+      while( UIDS[i]!=0 ) i = (i+1)&mask;
+      UIDS[i] = uid;  IDXS[i] = idx;
+    }
+    // Edges; tail and head are REACHABLE indices
+    static int[] TAIL = new int[1], LAB = new int[1], HEAD = new int[1];
+    static int NEDGES;
+    private static void add_edge( int tail, String label, Type head ) {
+      if( NEDGES == TAIL.length ) {
+        TAIL = Arrays.copyOf(TAIL,NEDGES<<1);
+        LAB  = Arrays.copyOf(LAB ,NEDGES<<1);
+        HEAD = Arrays.copyOf(HEAD,NEDGES<<1);
       }
-
-      Partition Pz;
-      while( (Pz=TOUCHED.pop())!=null ) { // For all touched partitions
-        if( Pz._touched.cardinality() < Pz.len() ) { // Touched all members?
-          Partition P2 = Pz.split();
-          WORK.add(WORK.on(Pz) || Pz.len() > P2.len() ? P2 : Pz);
-          if( Pz.len()>1 && Pz._numnew == 0 ) WORK.add(Pz);
-          if( P2.len()>1 && P2._numnew == 0 ) WORK.add(P2);
+      TAIL[NEDGES] = tail;  LAB[NEDGES] = label(head instanceof TypeFld fld ? fld._id : Labels.id(label));  HEAD[NEDGES] = idx(head);
+      NEDGES++;
+    }
+    // Incoming edges by head, as [IN_X[h],IN_X[h+1]) ranges into IN
+    static int[] IN = new int[1], IN_X = new int[2];
+    // Initial block per Type, then later the head Type index per block
+    static int[] KEY = new int[1];
+
+    // Minimize REACHABLE; returns the block of each Type in BLOCKS._s
+    static void minimize() {
+      int n = REACHABLE._len;
+      // Map uids to indices
+      int cap = Integer.highestOneBit(Math.max(n,1)*2)<<1;
+      if( UIDS.length < cap ) { UIDS = new int[cap]; IDXS = new int[cap]; }
+      else Arrays.fill(UIDS,0);
+      for( int i=0; i<n; i++ ) put(REACHABLE.at(i)._uid,i);
+
+      // Gather edges.  Interned Types have no out-edges.
+      NEDGES = 0;
+      EPOCH++;  NLABS = 0;
+      for( int i=0; i<n; i++ ) {
+        Type t = REACHABLE.at(i);
+        assert (t._hash==0) == (t.dual()==null);  // Invariant: not-interned has no hash
+        if( !t.interned() && t instanceof Cyclic ) {
+          final int tail = i;
+          t.walk( (t2,label) -> add_edge(tail,label,t2) );
         }
-        Pz._touched.clear();
       }
-
-      // See if partition has only interned Types, and has more than one.
-      // Split it.
-      if( len() > 1 && _numnew==0 ) {
-        // Split this partition into 1-per-interned-element
-        while( len()>1 ) {
-          Partition P2 = malloc();
-          P2.add(del(0));
-          WORK.add(P2);
+      int m = NEDGES;
+
+      // Initial blocks: one per set of static properties, and one per
+      // interned Type.
+      if( KEY.length < n ) KEY = new int[Math.max(n,KEY.length<<1)];
+      int nkeys = 0;
+      for( int i=0; i<n; i++ ) {
+        Type t = REACHABLE.at(i);
+        int k = t.interned() ? nkeys : SType.init_part(t,nkeys);
+        if( k==nkeys ) nkeys++;
+        KEY[i] = k;
+      }
+      SType.clear();
+      BLOCKS.init_sets(n,KEY,nkeys);
+
+      // Initial cords: one per edge label
+      CORDS.init_sets(m,LAB,NLABS);
+
+      // Incoming edges by head
+      if( IN_X.length < n+1 ) IN_X = new int[Math.max(n+1,IN_X.length<<1)];
+      if( IN.length < m ) IN = new int[Math.max(m,IN.length<<1)];
+      Arrays.fill(IN_X,0,n+1,0);
+      for( int e=0; e<m; e++ ) IN_X[HEAD[e]]++;
+      for( int i=0, sum=0; i<=n; i++ ) { int c=IN_X[i]; IN_X[i]=sum; sum+=c; }
+      for( int e=0; e<m; e++ ) IN[IN_X[HEAD[e]]++] = e; // Leaves IN_X[h] as the end of h
+      for( int i=n; i>0; i-- ) IN_X[i] = IN_X[i-1];
+      IN_X[0] = 0;
+
+      // Split blocks by cords, and cords by new blocks.  Block 0 is never a
+      // splitter; the other blocks imply it.
+      int b = 1;
+      for( int c=0; c<CORDS._z; c++ ) {
+        for( int i=CORDS._f[c]; i<CORDS._p[c]; i++ )
+          BLOCKS.mark(TAIL[CORDS._e[i]]);
+        BLOCKS.split();
+        for( ; b<BLOCKS._z; b++ ) {
+          for( int i=BLOCKS._f[b]; i<BLOCKS._p[b]; i++ ) {
+            int h = BLOCKS._e[i];
+            for( int j=IN_X[h]; j<IN_X[h+1]; j++ )
+              CORDS.mark(IN[j]);
+          }
+          CORDS.split();
         }
       }
-    }
 
-    // Split a partition in two based on the _touched set.
-    Partition split() {
-      assert 1 <= _touched.cardinality() && _touched.cardinality() < _ts._len;
-      Partition P2 = malloc();
-      for( int i=0; i<_ts._len; i++ )
-        if( _touched.tset(_ts.at(i)._uid) ) // Touched; move element
-          P2.add(del(i--));                 // Delete from this, add to P2
-      assert len() >= 1 && P2.len() >= 1;
-      return P2;
+      // Head of each block is its earliest Type, so the input head is the
+      // head of its block.
+      Arrays.fill(KEY,0,BLOCKS._z,-1);
+      for( int i=0; i<n; i++ )
+        if( KEY[BLOCKS._s[i]] == -1 )
+          KEY[BLOCKS._s[i]] = i;
     }
 
-    @Override public String toString() { return str(new SB()).toString(); }
-    SB str(SB sb) {
-      sb.p('P').p(_uid).p(" #").p(len()).p(' ');
-      if( len()==0 ) return sb;
-      Type h = head();
-      _uid(sb,h).p(' ');
-      switch( h._type ) {
-      case Type.TSTRUCT -> {
-        sb.p("@{ ");
-        for( TypeFld fld : ((TypeStruct) h) )
-          _uid(sb.p(fld._fld).p(":"), fld).p(' ');
-        sb.unchar().p("}");
-      }
-      case Type.TFLD    -> _uid(sb.p('.').p(((TypeFld) h)._fld).p(": "), ((TypeFld) h)._t);
-      case Type.TMEMPTR -> _uid((((TypeMemPtr) h)._aliases.str(sb.p('*')).p(": ")), ((TypeMemPtr) h)._obj);
-      case Type.TFUNPTR -> {
-        TypeFunPtr tfp = (TypeFunPtr) h;
-        _uid(_uid(tfp.fidxs().str(sb).p("{ "), tfp.dsp()).p(" -> "), tfp._ret).p(" }");
-      }
-      case Type.TARY -> throw unimpl();
-      default -> h.str(sb, false, false);
-      }
-      return sb;
-    }
-    private SB _uid(SB sb, Type t) { return sb.p(t._hash==0 ? '_' : ' ').p(t._uid);  }
-
-    public static void print_parts() {
-      SB sb = new SB();
-      for( Partition P : PARTS ) P.str(sb).nl();
-      System.out.println(sb);
+    // Head Type for t, or t if not being minimized
+    static Type head( Type t ) {
+      int i = idx(t);
+      return i==-1 ? t : REACHABLE.at(KEY[BLOCKS._s[i]]);
     }
   }
 
-
   // Pick initial partitions for Types based on static Type properties.
   // This uses an alternative hash and equals functions.
   class SType {
-    static private final NonBlockingHashMap<SType,Partition> TYPE2INITPART = new NonBlockingHashMap<>();
+    static private final HashMap<SType,Integer> TYPE2INITPART = new HashMap<>();
     static private SType KEY = new SType();
 
-    // All types put in partitions based on static (no edges) properties:
-    // Private one for interned, one for each _type, _any, and _aliases,
-    // _fidxs or field names/_open/_use.  Put all partitions on worklist,
-    // then repeat cause_splits.
-    static Partition init_part(Type t) {
+    // All new types are put in initial blocks based on static (no edges)
+    // properties: _type, _any, and _aliases, _fidxs or field names/_open/_use.
+    // Returns the prior block, or 'nkeys' for a new one.
+    static int init_part(Type t, int nkeys) {
       KEY._t = t;             // Put Type in the prototype SType
-      Partition P = TYPE2INITPART.get(KEY);
-      if( P==null ) {         // No matching SType, so needs a new partition
-        P = Partition.malloc();
-        TYPE2INITPART.put(KEY,P); // Install SType to Partition
-        KEY = malloc();       // Return a new prototype SType for next lookup
-      }
-      return P;
+      Integer P = TYPE2INITPART.get(KEY);
+      if( P!=null ) return P;
+      TYPE2INITPART.put(KEY,nkeys); // Install SType to block
+      KEY = new SType();      // Return a new prototype SType for next lookup
+      return nkeys;
     }
 
-    static private SType malloc() { return new SType(); }
-    private void free() {}
-
-    static void clear() {
-      for( SType s : TYPE2INITPART.keySet() )
-        s.free();
-      TYPE2INITPART.clear();
-    }
+    static void clear() { TYPE2INITPART.clear(); }
 
     // Static hash
     private Type _t;          // A prototype Type, only looking at the static properties
@@ -437,121 +441,42 @@ public interface Cyclic {
     }
   }
 
-  // Worklist
-  Work<Partition> WORK = new Work<>();
-
-  // Def-Use edges.  Requires def-use edges which are not part of
-  // the normal types; requires a side-structure build in a pre-pass.
-  // Will be iterating over all (use,edge) pairs from a def.
-  class DefUse {
-    static private final NonBlockingHashMapLong<NonBlockingHashMap<String,Ary<Type>>> EDGES = new NonBlockingHashMapLong<>();
-    @SuppressWarnings("unchecked")
-    static private final Ary<NonBlockingHashMap<String,Ary<Type>>> FREES = new Ary(new NonBlockingHashMap[1],0);
-    @SuppressWarnings("unchecked")
-    static private final Ary<Ary<Type>> FREES0 = new Ary(new Ary[1],0);
-
-    // use[edge]-->>def;
-    static void add_def_use(Type use, String edge, Type def ) {
-      var edges = EDGES.get(def._uid);
-      if( edges==null )
-        EDGES.put(def._uid,edges = malloc());
-      var uses = edges.get(edge);
-      if( uses==null ) edges.put(edge,uses = malloc0());
-      uses.push(use);
-    }
-
-    // Get an iterator for all the uses of a def with edge e
-    static Ary<Type> uses( String e, Type def ) {
-      var edges = EDGES.get(def._uid);
-      return edges==null ? null : edges.get(e);
-    }
-
-    // Get the set of edge labels leading to a def
-    static Set<String> edges( Type def ) {
-      var edges = EDGES.get(def._uid);
-      return edges==null ? null : edges.keySet();
-    }
-
-    static private NonBlockingHashMap<String,Ary<Type>> malloc() {
-      return FREES.isEmpty() ? new NonBlockingHashMap<>() : FREES.pop();
-    }
-    static private Ary<Type> malloc0() {
-      return FREES0.isEmpty() ? new Ary<>(Type.class) : FREES0.pop();
-    }
-
-    // Free all use/def edge sets
-    static void clear() {
-      for( var edges : EDGES.values() ) {
-        for( var uses : edges.values() )
-          FREES0.push(uses).clear();
-        FREES.push(edges).clear();
-      }
-      EDGES.clear();
-    }
-  }
-
-
   @SuppressWarnings("unchecked")
   private static <T extends Type> T _dfa_min(T nt, Map<String,Type> map) {
-    // Walk the reachable set and all forward edges, building a reverse-edge set.
-    for( Type t : REACHABLE )  {
-      assert (t._hash==0) == (t.dual()==null);  // Invariant: not-interned has no hash
-      if( t instanceof Cyclic )
-        t.walk( (t2,label) -> DefUse.add_def_use(t,label,t2) );
-    }
-
-    // Pick initial Partitions for every reachable Type
-    for( Type t : REACHABLE )
-      SType.init_part(t).add(t);
+    DFA.minimize();
 
-    // Put all partitions on worklist
-    for( Partition P : Partition.PARTS )
-      WORK.add(P);
-
-    // Repeat until empty, partition splitting.
-    while( !WORK.isEmpty() )
-      WORK.pop().do_split();
-
-    // Walk through the Partitions, picking a head and mapping all edges from
-    // head to head.
-    for( Partition P : Partition.PARTS )
-      if( P.head() instanceof Cyclic )
-        P.head().walk_update(Partition::head);
+    // Map all edges from head to head.
+    int[] heads = DFA.KEY;
+    for( int b=0; b<DFA.BLOCKS._z; b++ ) {
+      Type h = REACHABLE.at(heads[b]);
+      if( !h.interned() && h instanceof Cyclic )
+        h.walk_update(DFA::head);
+    }
 
     // Update an unrelated mapping of types to their partition heads
     if( map!=null )
-      map.replaceAll((k,v) -> {
-          Partition P = Partition.TYPE2PART.get(v._uid);
-          return P==null ? v : P.head();
-        });
+      map.replaceAll((k,v) -> DFA.head(v));
 
     // Free all the Types declared as replicas
-    for( Partition P : Partition.PARTS )
-      for( int i=1; i<P.len(); i++ ) // Skip the head in slot 0
-        if( !P._ts.at(i).interned() )
-          P._ts.at(i).free(null);
+    for( int i=0; i<REACHABLE._len; i++ )
+      if( heads[DFA.BLOCKS._s[i]] != i && !REACHABLE.at(i).interned() )
+        REACHABLE.at(i).free(null);
 
     // Return the input types Partition head
-    // Reset statics for the next call.
-    T rez = (T)Partition.TYPE2PART.get(nt._uid).head();
-    Partition.clear();
-    SType.clear();
-    DefUse.clear();
-    assert WORK.isEmpty();
-    return rez;
+    return (T)REACHABLE.at(heads[DFA.BLOCKS._s[0]]);
   }
 
-  // Everything that is cycle-equals is in the same partition
+  // Everything that is cycle-equals is in the same block
   static boolean check() {
     int err=0;
     for( int i=0; i<REACHABLE._len; i++ ) {
       Type t1 = REACHABLE.at(i);
-      Partition p1 = Partition.TYPE2PART.get(t1._uid);
+      int b1 = DFA.BLOCKS._s[i];
       for( int j=i+1; j<REACHABLE._len; j++ ) {
         Type t2 = REACHABLE.at(j);
-        Partition p2 = Partition.TYPE2PART.get(t2._uid);
-        if( p1!=p2 && t1.cycle_equals(t2) )
-          System.err.println("Err "+(err++)+" T"+t1._uid+p1+" != T"+t2._uid+p2);
+        int b2 = DFA.BLOCKS._s[j];
+        if( b1!=b2 && !t1.interned() && !t2.interned() && t1.cycle_equals(t2) )
+          System.err.println("Err "+(err++)+" T"+t1._uid+" B"+b1+" != T"+t2._uid+" B"+b2);
       }
     }
     return err==0;
@@ -653,6 +578,8 @@ public interface Cyclic {
     }
   }
   Prof P = new Prof();
+  static long install_cnt() { return P.cnt; }
+  static long install_ms () { return P.time; }
 
 
 }
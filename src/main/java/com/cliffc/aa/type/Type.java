@@ -2,7 +2,9 @@ package com.cliffc.aa.type;
 
 import com.cliffc.aa.util.*;
 
+import java.lang.ref.Cleaner;
 import java.util.HashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BinaryOperator;
 import java.util.function.IntSupplier;
 
@@ -94,14 +96,14 @@ import static com.cliffc.aa.AA.unimpl;
 // (TypeMemPtr) or integer (TypeInt).
 
 public class Type<T extends Type<T>> implements Cloneable, IntSupplier {
-  static private int CNT=1;
+  static private final AtomicInteger CNT = new AtomicInteger(1);
   public int _uid;       // Unique ID, will have gaps, used to uniquely order Types
   public long _hash, _cyc_hash; // Hash for this Type; built recursively except around cycles
   public byte _type;            // Simple types use a simple enum
   private Type _cyclic;  // Type is cyclic, and this is the canonical cycle leader.
   T _dual; // All types support a dual notion, eagerly computed and cached here
 
-  private static int _uid() { return CNT++; }
+  private static int _uid() { return CNT.getAndIncrement(); }
   @Override public int getAsInt() { return _uid; }
   T init() { _cyclic=null; return (T)this; }
 
@@ -296,9 +298,12 @@ public class Type<T extends Type<T>> implements Cloneable, IntSupplier {
   // check, except during construction and intern'ing.
   //private static final ConcurrentHashMap<Type,Type> INTERN = new ConcurrentHashMap<>();
   private static final NonBlockingHashMap<Type,Type> INTERN = new NonBlockingHashMap<>();
-  public static int RECURSIVE_MEET;    // Count of recursive meet depth
+  // Many threads can make Types at once.  Lookups are lock-free, but
+  // publishing a new Type and its dual, and installing a cyclic Type, holds
+  // this lock.  A published Type always has its dual set.
+  static final Object PUBLISH = new Object();
   T hashcons() {
-    if( RECURSIVE_MEET>0 && this instanceof Cyclic )
+    if( recursive_meet()>0 && this instanceof Cyclic )
       return (T)this; // Might be a cycle, requiring Cyclic.install.  Fail now.
     _hash = _cyc_hash = compute_hash(); // Set hash
     T t2 = (T)intern_get();     // Lookup
@@ -308,21 +313,29 @@ public class Type<T extends Type<T>> implements Cloneable, IntSupplier {
       return t2;                // Return prior
     }
     // Not in type table
-    _dual = null;                // No dual yet
-    INTERN.put(this,this);       // Put in table without dual
-    //Util.hash_quality_check_per(INTERN,"INTERN");
     T d = xdual();               // Compute dual without requiring table lookup, and not setting name
     d._hash = d._cyc_hash = d.compute_hash();  // Set dual hash
-    _dual = d;
-    if( this==d ) return d;      // Self-symmetric?  Dual is self
-    assert !equals(d);           // Self-symmetric is handled by caller
-    assert d._dual==null;        // Else dual-dual not computed yet
-    assert d.intern_get()==null;
-    d._dual = (T)this;
-    INTERN.put(d,d);
+    synchronized( PUBLISH ) {
+      t2 = (T)intern_get();      // Recheck, another thread may have beaten us
+      if( t2!=null ) {
+        if( d!=this ) POOLS[d._type].free(d,null);
+        return t2;
+      }
+      _dual = d;
+      if( this==d ) { INTERN.put(this,this); return d; } // Self-symmetric?  Dual is self
+      assert !equals(d);         // Self-symmetric is handled by caller
+      assert d._dual==null;      // Else dual-dual not computed yet
+      assert d.intern_get()==null;
+      d._dual = (T)this;
+      INTERN.put(this,this);
+      INTERN.put(d,d);
+    }
+    //Util.hash_quality_check_per(INTERN,"INTERN");
     return (T)this;
   }
+  // Caller holds PUBLISH, and publishes the dual before letting go
   final T retern( ) {
+    assert Thread.holdsLock(PUBLISH);
     assert _dual._dual == this;
     assert _hash != 0;
     assert INTERN.get(this)==null;
@@ -332,6 +345,73 @@ public class Type<T extends Type<T>> implements Cloneable, IntSupplier {
     return (T)this;
   }
 
+  // Count of recursive meet depth, per-thread.  Types are not interned while
+  // a recursive meet builds a cycle.
+  private static final ThreadLocal<int[]> RECURSIVE_MEET = ThreadLocal.withInitial(() -> new int[1]);
+  public static int recursive_meet() { return RECURSIVE_MEET.get()[0]; }
+  public static int recursive_meet( int delta ) { return RECURSIVE_MEET.get()[0] += delta; }
+  public static void recursive_meet_reset() { RECURSIVE_MEET.get()[0] = 0; }
+
+  // Types made after init0 are young; primitive and startup types are
+  // permanent.  Young types are dropped from the intern tables in bulk by
+  // reclaim, between top-level compilations.
+  private static int INIT0_CNT;  // Zero until init0
+  // Young types allowed before a reclaim, as a multiple of the permanent
+  // types.  Keeping a few compilations' worth keeps the meet caches warm.
+  public static int RECLAIM_RATIO = 8;
+  public boolean is_young() { return INIT0_CNT>0 && _uid>=INIT0_CNT; }
+  public static int young_size() { return INIT0_CNT==0 ? 0 : CNT.get()-INIT0_CNT; }
+  public static void init0() {
+    ALL_TYPES();                // Test types are permanent
+    INIT0_CNT = CNT.get();
+    TypeFlds.init0();
+    Types   .init0();
+    BitsFuns.init0();
+  }
+
+  // Holders of young Types: open compilations and HM sessions, which make
+  // Types and read them until closed.  A holder is released by its close, or
+  // once it is collected.  New holders wait out a reclaim.
+  private static final Object HOLD = new Object();
+  private static int HOLDS;
+  private static final Cleaner CLEANER = Cleaner.create();
+  public static Cleaner.Cleanable hold( Object owner ) {
+    synchronized( HOLD ) { HOLDS++; }
+    return CLEANER.register(owner,Type::release);
+  }
+  private static void release() { synchronized( HOLD ) { HOLDS--; } }
+  public static int holds() { synchronized( HOLD ) { return HOLDS; } }
+
+  // Reclaim from a holder, only if it is the only holder: nothing else is
+  // making or reading young Types, and none can start until done.
+  public static boolean reclaim_held( boolean force ) {
+    synchronized( HOLD ) { return HOLDS==1 && reclaim(force); }
+  }
+
+  // Drop all young Types, if there are enough to bother.  Called at the start
+  // of a top-level compilation and not at Env.top_reset, so the prior result
+  // types stay valid until the next compilation begins.  No young Type may be
+  // used afterwards, and no other thread may be making Types: compilations go
+  // through reclaim_held.
+  public static boolean reclaim( boolean force ) {
+    if( INIT0_CNT==0 || (!force && young_size() < (long)INIT0_CNT*RECLAIM_RATIO) ) return false;
+    // Rebuild the table with just the permanent types.  Removing leaves
+    // tombstones behind, and churn makes the table grow without bound.
+    Ary<Type> olds = new Ary<>(new Type[INIT0_CNT],0);
+    for( Type t : INTERN.keySet() ) if( !t.is_young() ) olds.push(t);
+    INTERN.clear();
+    for( Type t : olds ) INTERN.put(t,t);
+    for( TypeCache tc : caches() ) tc.reclaim();
+    TypeFlds .reclaim();
+    Types    .reclaim();
+    BitsFuns .reclaim();
+    BitsAlias.reclaim();
+    BitsFun  .reclaim();
+    BitsRPC  .reclaim();
+    CNT.set(INIT0_CNT);         // Young uids are free for reuse
+    return true;
+  }
+
   // Fast, does not check the hash table, just the hash & dual
   boolean interned() { return _hash!=0 && _dual!=null; }
   // Slow, actually probes the hash table.
@@ -414,18 +494,21 @@ public class Type<T extends Type<T>> implements Cloneable, IntSupplier {
   // fields are forever more "final".
   static final Pool[] POOLS = new Pool[TLAST];
   static class Pool {
-    private int _malloc, _free, _pool;
+    private int _malloc, _free, _pool; // Stats only; racy between threads
     int _clone;                 // Allow TypeStruct a personal copy
-    private final Ary<Type> _frees;
+    // Free lists are per-thread, so concurrent compilations never share a
+    // recycled Type.
+    private static final int FREE_CAP = 1024;
+    private final ThreadLocal<Ary<Type>> _tfrees = ThreadLocal.withInitial(() -> new Ary<>(new Type[1],0));
     private final Type _gold;
     Pool(byte t, Type gold) {
       gold._type = t;
       _gold=gold;
-      _frees= new Ary<>(new Type[1],0);
       POOLS[t] = this;
     }
     <T extends Type> T malloc() {
       T t;
+      Ary<Type> _frees = _tfrees.get();
       if( _frees.isEmpty() ) {
         _malloc++;              // Make fresh
         try { t = (T)_gold.clone(); t._uid = _uid(); }
@@ -433,17 +516,24 @@ public class Type<T extends Type<T>> implements Cloneable, IntSupplier {
       } else {
         _pool++;                // Pull a from free pool
         t = (T)_frees.pop();
+        t._uid = _uid();        // Fresh uid; young-ness is by uid
       }
       t.init();
       return t;                 // Set breakpoints here to find a uid
     }
     <T extends Type> T free(T t1, T t2) {
-      assert _frees.isEmpty() || _frees.last()!= t1;
+      Ary<Type> _frees = _tfrees.get();
+      assert t1._uid != 0;       // Basically asserting we get Types from Pool.malloc and not by normal allocation
       t1._dual = null;   // Too easy to make mistakes, so zap now
       t1._hash = t1._cyc_hash = 0;      // Too easy to make mistakes, so zap now
-      _frees.push(t1);   // On the free list
+      // On the free list.  A large cyclic install can free many thousands at
+      // once; past a cap, leave them to the GC.
+      if( _frees._len < FREE_CAP ) {
+        assert _frees.find(t1) == -1; // No double free
+        _frees.push(t1);
+      }
+      assert _frees._len <= FREE_CAP;
       _free++;
-      assert _frees._len<1000; // Basically asserting we get Types from Pool.malloc and not by normal allocation
       return t2;
     }
   }
@@ -488,43 +578,25 @@ public class Type<T extends Type<T>> implements Cloneable, IntSupplier {
   void rdual() { assert _dual!=null; }
 
   // ----------------------------------------------------------
-  // Memoize meet results
-  private static class Key {
-    static Key K = new Key(null,null);
-    static NonBlockingHashMap<Key,Type> INTERN_MEET = new NonBlockingHashMap<>();
-    Key(Type a, Type b) { _a=a; _b=b; }
-    Type _a, _b;
-    @Override public int hashCode() {
-      long hash = (Util.rot(_a._hash,15)^_b._hash);
-      return (int)((hash>>32)^hash);
-    }
-    @Override public boolean equals(Object o) { return _a==((Key)o)._a && _b==((Key)o)._b; }
-    @Override public String toString() { return "("+_a+","+_b+")"; }
-    static Type get(Type a, Type b) {
-      K._a=a;
-      K._b=b;
-      //Util.reprobe_quality_check_per(INTERN_MEET,"INTERN_MEET");
-      return INTERN_MEET.get(K);
-    }
-    static void put(Type a, Type b, Type mt) {
-      INTERN_MEET.put(new Key(a,b),mt);
-      // Uncomment to check hash quality.
-      //Util.hash_quality_check_per(INTERN_MEET,"INTERN_MEET");
-    }
-  }
+  // Memoize meet, join and isa results in fixed-size caches.  Types are
+  // interned, so a repeated pair hits even across compilations.
+  public static final TypeCache MEETS = new TypeCache("meet",14);
+  public static final TypeCache JOINS = new TypeCache("join",12);
+  public static final TypeCache ISAS  = new TypeCache("isa" ,12);
+  public static TypeCache[] caches() { return new TypeCache[]{MEETS,JOINS,ISAS}; }
 
   // Compute the meet
   public final Type meet( Type t ) {
     // Shortcut for the self case
     if( t == this ) return this;
     // Short-cut for seeing this meet before
-    Type mt = Key.get(this,t);
+    Type mt = MEETS.get(this,t);
     if( mt != null ) return mt;
     // Compute meet without filtering
     mt = ymeet(t);
     // Record this meet, to short-cut next time
-    if( RECURSIVE_MEET == 0 )   // Only not mid-building recursive types;
-      Key.put(this,t,mt);
+    if( recursive_meet() == 0 ) // Only not mid-building recursive types;
+      MEETS.put(this,t,mt);
     return mt;
   }
 
@@ -594,11 +666,26 @@ public class Type<T extends Type<T>> implements Cloneable, IntSupplier {
     return false;
   }
 
-  public Type join( Type t ) { return dual().meet(t.dual()).dual(); }
+  public Type join( Type t ) {
+    if( t == this ) return this;
+    Type jt = JOINS.get(this,t);
+    if( jt != null ) return jt;
+    jt = dual().meet(t.dual()).dual();
+    if( recursive_meet() == 0 ) JOINS.put(this,t,jt);
+    return jt;
+  }
 
   // True if 'this' isa/subtypes 't'.  E.g. Int32-isa-Int64, but not vice-versa
   // E.g. ANY-isa-XSCALAR; XSCALAR-isa-Int(Any); Int(Any)-isa-Int(3)
-  public boolean isa( Type t ) { return meet(t)==t; }
+  public boolean isa( Type t ) {
+    if( t == this ) return true;
+    Type mt = ISAS.get(this,t);
+    if( mt == null ) {
+      mt = meet(t);
+      if( recursive_meet() == 0 ) ISAS.put(this,t,mt);
+    }
+    return mt==t;
+  }
 
   // Report OOB based on shallowest OOB component.
   public Type       oob( ) { return oob(ALL); }
@@ -756,11 +843,11 @@ public class Type<T extends Type<T>> implements Cloneable, IntSupplier {
   // Make from existing type, replacing TMPs with alias from the map
   public Type make_from(Type head, TypeMem map, VBitSet visit) { return this; }
 
-  static final VBitSet ARF = new VBitSet();
+  static final ThreadLocal<VBitSet> ARF = ThreadLocal.withInitial(VBitSet::new);
   public final BitsFun all_reaching_fidxs( TypeMem tmem) {
-    assert ARF.isEmpty();
+    assert ARF.get().isEmpty();
     BitsFun arf = _all_reaching_fidxs(tmem);
-    ARF.clear();
+    ARF.get().clear();
     return arf;
   }
   BitsFun _all_reaching_fidxs( TypeMem tmem ) { return BitsFun.EMPTY; }
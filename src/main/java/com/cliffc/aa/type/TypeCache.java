@@ -0,0 +1,123 @@
+package com.cliffc.aa.type;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+// Fixed-size memo of a binary Type operation, keyed by the pair of Types.
+//
+// Set-associative: a pair hashes by _uid to one set of WAYS entries.  On a
+// miss with a full set, a per-set CLOCK hand sweeps the set, clearing
+// reference bits, and evicts the first entry not referenced since the hand
+// last passed it.  Nothing is allocated after construction, so memory use is
+// fixed no matter how many programs are compiled.
+//
+// Keys are compared by reference, and so only interned Types should be
+// cached.
+//
+// Shared by all threads without locking.  Each entry has a sequence stamp,
+// odd while the entry is being written.  A writer claims an entry by moving
+// its stamp from even to odd, or gives up on the put if another writer has it.
+// A reader takes the stamp, reads the entry and re-checks the stamp, so it
+// sees a whole entry or misses.  Reference bits, hands and stats are racy,
+// which at worst evicts the wrong entry or miscounts.
+public class TypeCache {
+  static final int WAYS = 8;    // Power of 2
+  public final String _name;
+  private final Type[] _as, _bs, _rs; // Key pair and result, WAYS per set
+  private final int[] _seqs;          // Sequence stamp per entry; odd while writing
+  private final boolean[] _refs;      // Referenced since the hand passed
+  private final byte[] _hands;        // CLOCK hand per set
+  private final int _mask;            // Sets-1
+  public long _hits, _misses, _evicts;
+
+  private static final VarHandle SEQ = MethodHandles.arrayElementVarHandle(int[].class);
+
+  TypeCache( String name, int log2_sets ) {
+    _name = name;
+    int sets = 1<<log2_sets;
+    _as = new Type[sets*WAYS];
+    _bs = new Type[sets*WAYS];
+    _rs = new Type[sets*WAYS];
+    _seqs = new int[sets*WAYS];
+    _refs = new boolean[sets*WAYS];
+    _hands= new byte[sets];
+    _mask = sets-1;
+  }
+
+  private int set( Type a, Type b ) {
+    int h = a._uid*0x9E3779B1 ^ b._uid*0x85EBCA6B;
+    h ^= (h>>>15);  h *= 0x2C1B3C6D;  h ^= (h>>>12);
+    return h&_mask;
+  }
+
+  Type get( Type a, Type b ) {
+    int x = set(a,b)*WAYS;
+    for( int i=x; i<x+WAYS; i++ ) {
+      int seq = (int)SEQ.getAcquire(_seqs,i);
+      if( _as[i]==a && _bs[i]==b ) {
+        Type r = _rs[i];
+        VarHandle.acquireFence();
+        if( (seq&1)==0 && seq==(int)SEQ.getOpaque(_seqs,i) ) {
+          _refs[i] = true;
+          _hits++;
+          return r;
+        }
+      }
+    }
+    _misses++;
+    return null;
+  }
+
+  void put( Type a, Type b, Type r ) {
+    int s = set(a,b), x = s*WAYS, h = _hands[s]&(WAYS-1);
+    // Sweep for an empty or unreferenced entry.  Terminates in at most 2
+    // trips around the set, since the first trip clears all reference bits.
+    while( _as[x+h]!=null && _refs[x+h] ) {
+      _refs[x+h] = false;
+      h = (h+1)&(WAYS-1);
+    }
+    int i = x+h;
+    int seq = (int)SEQ.getOpaque(_seqs,i);
+    if( (seq&1)!=0 || !SEQ.compareAndSet(_seqs,i,seq,seq+1) )
+      return;                   // Another writer has it; skip this put
+    if( _as[i]!=null ) _evicts++;
+    _as[i] = a;  _bs[i] = b;  _rs[i] = r;  _refs[i] = false;
+    SEQ.setRelease(_seqs,i,seq+2);
+    _hands[s] = (byte)((h+1)&(WAYS-1));
+  }
+
+  public int capacity() { return _as.length; }
+  public int size() {
+    int sz=0;
+    for( Type a : _as ) if( a!=null ) sz++;
+    return sz;
+  }
+  public void clear() {
+    for( int i=0; i<_as.length; i++ ) zap(i);
+    Arrays.fill(_hands,(byte)0);
+  }
+  // Drop entries involving young Types
+  void reclaim() {
+    for( int i=0; i<_as.length; i++ ) {
+      Type a = _as[i], b = _bs[i], r = _rs[i];
+      if( a!=null && (a.is_young() || (b!=null && b.is_young()) || (r!=null && r.is_young())) )
+        zap(i);
+    }
+  }
+  // Empty one entry, waiting out any writer
+  private void zap( int i ) {
+    int seq;
+    while( ((seq=(int)SEQ.getOpaque(_seqs,i))&1)!=0 || !SEQ.compareAndSet(_seqs,i,seq,seq+1) )
+      Thread.onSpinWait();
+    _as[i] = _bs[i] = _rs[i] = null;
+    _refs[i] = false;
+    SEQ.setRelease(_seqs,i,seq+2);
+  }
+  public void reset_stats() { _hits = _misses = _evicts = 0; }
+  public double hit_rate() { long n = _hits+_misses; return n==0 ? 0 : (double)_hits/n; }
+  @Override public String toString() {
+    return String.format("%s: hits=%d misses=%d evicts=%d hit=%.2f%% size=%d/%d",
+                         _name,_hits,_misses,_evicts,100.0*hit_rate(),size(),capacity());
+  }
+}
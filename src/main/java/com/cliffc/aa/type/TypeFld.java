@@ -1,5 +1,6 @@
 package com.cliffc.aa.type;
 
+import com.cliffc.aa.util.Labels;
 import com.cliffc.aa.util.NonBlockingHashMapLong;
 import com.cliffc.aa.util.SB;
 import com.cliffc.aa.util.Util;
@@ -15,6 +16,7 @@ import java.util.function.BinaryOperator;
 public class TypeFld extends Type<TypeFld> implements Cyclic {
   // Field names are never null, and never zero-length.  Names can be fldTop or fldBot.
   public String _fld;           // The field name
+  public int _id;               // Label id of the field name; see Labels
   public Type _t;               // Field type.  Usually some type of Scalar, or ANY or ALL.
   public Access _access;        // Field access type: read/write, final, read/only
 
@@ -22,6 +24,7 @@ public class TypeFld extends Type<TypeFld> implements Cyclic {
     assert !(t instanceof TypeFld);
     super.init();
     _fld = fld;
+    _id = Labels.id(fld);
     _t = t;
     _access = access;
     return this;
@@ -44,7 +47,7 @@ public class TypeFld extends Type<TypeFld> implements Cyclic {
   // Returns 1 for definitely equals, 0 for definitely unequals and -1 for needing the circular test.
   int cmp(TypeFld t) {
     if( this==t ) return 1;
-    if( !Util.eq(_fld,t._fld) || _access!=t._access ) return 0; // Definitely not equals without recursion
+    if( _id!=t._id || _access!=t._access ) return 0; // Definitely not equals without recursion
     if( _t==t._t ) return 1;    // All fields bitwise equals.
     if( _t==null || t._t==null ) return 0; // Mid-construction (during cycle building), declare unequal
     if( _t._type!=t._t._type ) return 0; // Last chance to avoid cycle check; types have a chance of being equal
@@ -11,11 +11,14 @@ public class TypeFlds extends AryI<TypeFld> {
   @Override TypeFld[] make_ary(int len) { return new TypeFld[len]; }
   @Override TypeFld[][] make_arys(int len) { return new TypeFld[len][]; }
   @Override int _compute_hash(TypeFld[] ts) {
-    for( TypeFld t : ts ) Util.add_hash( t._hash );
-    return (int)Util.get_hash();
+    Util.Hasher h = new Util.Hasher();
+    for( TypeFld t : ts ) h.add( t._hash );
+    return (int)h.get();
   }
   TypeFlds(int len) { super(len); }
   // Static forwards
+  static void init0() { TYPEFLDS._init0(); }
+  static void reclaim() { TYPEFLDS._reclaim(); }
   public static TypeFld[] get(int len) { return TYPEFLDS._get(len); }
   public static boolean   interned (TypeFld[] ts) { return TYPEFLDS._interned (ts); }
   public static void free(TypeFld[] ts) { TYPEFLDS._free(ts); }
@@ -27,7 +30,7 @@ public class TypeFlds extends AryI<TypeFld> {
 
   public static TypeFld[] hash_cons(TypeFld[] ts) {
     // Delayed hash-consing during RECURSIVE_MEET install
-    if( Type.RECURSIVE_MEET > 0 ) {
+    if( Type.recursive_meet() > 0 ) {
       if( !check(ts) ) return ts; // Cannot intern yet
     } else assert check(ts);
     return TYPEFLDS._hash_cons(ts);
@@ -80,8 +80,8 @@ public final class TypeFunPtr extends TypeNil<TypeFunPtr> implements Cyclic {
     return cycle_equals(tf);
   }
 
-  private static final Ary<Type> CYCLES = new Ary<>(new Type[0]);
-  private Type find_other() {
+  private static final ThreadLocal<Ary<Type>> CYCLES = ThreadLocal.withInitial(() -> new Ary<>(new Type[0]));
+  private Type find_other(Ary<Type> CYCLES) {
     int idx = CYCLES.find(this);
     return idx != -1 ? CYCLES.at(idx^1) : null;
   }
@@ -95,9 +95,10 @@ public final class TypeFunPtr extends TypeNil<TypeFunPtr> implements Cyclic {
     if( _dsp!=tf._dsp && !_dsp.cycle_equals(tf._dsp) ) return false;
     if( _ret==tf._ret ) return true;
     if( _ret==null ) return false; // One if partially built, the other is fully built
-    Type t2 =    find_other();
+    Ary<Type> CYCLES = TypeFunPtr.CYCLES.get();
+    Type t2 =    find_other(CYCLES);
     if( t2 !=null ) return t2==tf  ; // Already in cycle report equals or not
-    Type t3 = tf.find_other();
+    Type t3 = tf.find_other(CYCLES);
     if( t3 !=null ) return t3==this; // Already in cycle report equals or not
 
     int len = CYCLES._len;
@@ -169,9 +170,10 @@ public final class TypeFunPtr extends TypeNil<TypeFunPtr> implements Cyclic {
   // wrap-and-approximate) is not monotonic.
 
 
-  private static final VBitSet CHK2 = new VBitSet();
+  private static final ThreadLocal<VBitSet> CHK2 = ThreadLocal.withInitial(VBitSet::new);
   private static boolean check2(TypeFunPtr tfp) {
     // Make sure a FIDX appears only once, up to an ending self-cycle.
+    VBitSet CHK2 = TypeFunPtr.CHK2.get();
     CHK2.clear();
     while( tfp._ret!=tfp ) {      // Break if self-cycle, which can have anything
       for( int fidx : tfp._fidxs ) if( CHK2.tset(fidx) ) return false;
@@ -198,7 +200,7 @@ public final class TypeFunPtr extends TypeNil<TypeFunPtr> implements Cyclic {
     assert !(ret instanceof TypeFunPtr rtfp) || check2(rtfp); // Assert old return-chain is valid
     // Make the TFP, but it may NOT pass the invariant
     TypeFunPtr tfp = malloc(any, nil, sub, fidxs, nargs,dsp,ret).hashcons_free();
-    CHK2.clear();
+    CHK2.get().clear();
     TypeFunPtr tfp2 = tfp._rule2(fidxs,true); // Approx
     assert check2(tfp2);         // Assert new return-chain is valid
     return tfp2;
@@ -271,15 +273,17 @@ public final class TypeFunPtr extends TypeNil<TypeFunPtr> implements Cyclic {
     assert dsp._hash!=0;        // Can be 'compute_hash'
     tfp._cyc_hash = tfp.static_hash(); // Cycle hash is the XOR of all static hashes
     tfp._hash = tfp.compute_hash();
-    TypeFunPtr old = (TypeFunPtr)tfp.intern_get(); // Intern check
-    if( old!=null )                                // Return prior hit
-      return POOLS[TFUNPTR].free(tfp,old);         // Return prior
-    TypeFunPtr tfpd = tfp._dual = tfp.xdual(); // Install dual in a self-cycle
-    tfpd._dual = tfp;
-    tfpd._ret = tfpd;
-    tfpd._cyc_hash = tfpd.static_hash(); // Cycle hash is the XOR of all static hashes
-    tfpd._hash = tfpd.compute_hash();
-    return tfp.retern()._dual.retern().dual(); // Install self-cycle
+    synchronized( PUBLISH ) {   // Check and install the cycle and its dual at once
+      TypeFunPtr old = (TypeFunPtr)tfp.intern_get(); // Intern check
+      if( old!=null )                                // Return prior hit
+        return POOLS[TFUNPTR].free(tfp,old);         // Return prior
+      TypeFunPtr tfpd = tfp._dual = tfp.xdual(); // Install dual in a self-cycle
+      tfpd._dual = tfp;
+      tfpd._ret = tfpd;
+      tfpd._cyc_hash = tfpd.static_hash(); // Cycle hash is the XOR of all static hashes
+      tfpd._hash = tfpd.compute_hash();
+      return tfp.retern()._dual.retern().dual(); // Install self-cycle
+    }
   }
 
   // Allocate and init
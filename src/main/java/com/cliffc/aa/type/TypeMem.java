@@ -5,6 +5,7 @@ import com.cliffc.aa.util.*;
 import java.util.Arrays;
 import java.util.BitSet;
 import java.util.HashMap;
+import java.util.function.UnaryOperator;
 
 import static com.cliffc.aa.AA.unimpl;
 import static com.cliffc.aa.type.TypeFld.Access;
@@ -38,8 +39,10 @@ import static com.cliffc.aa.type.TypeFld.Access;
    to the call (and are reachable from those) - but we need a convenient
    Bottom type.  Missing aliases default to TypeObj.
 
-   The representation is a collection of TypeObjs indexed by alias#.  Missing
-   aliases are always equal to their nearest present parent.  The root at
+   The representation is a collection of TypeObjs indexed by alias#, held in a
+   persistent trie (AliasTrie) so an update to one alias copies O(log aliases)
+   and shares the rest.  Missing aliases are always equal to their nearest
+   present parent.  The root at
    alias#1 is only either TypeObj.BOT or TOP.  Alias#0 is nil and is always
    missing.  The structure is canonicalized; if a child is a dup of a parent it
    is removed (since an ask will yield the correct value from the parent).
@@ -56,89 +59,74 @@ public class TypeMem extends Type<TypeMem> {
   // for memory liveness; TypeMem is never a nil.  Slot#1 is the Parent-Of-All
   // aliases and is the default value.  Default values are replaced with null
   // during canonicalization.
-  private TypeStruct[] _pubs;
+  private AliasTrie _pubs;
 
   // A cache of sharpened pointers.  Pointers get sharpened by looking up their
   // aliases in this memory (perhaps merging several aliases).  The process is
   // recursive and "deeply" sharpens pointers, and is somewhat expensive.
   // Maintain a cache of prior results.  Not related to the object's Type, so
-  // not part of the hash/equals checks.  Optional.  Lazily filled in.
-  private HashMap<BitsAlias,TypeMemPtr> _sharp_cache;
+  // not part of the hash/equals checks.  Optional.  Lazily filled in, and
+  // shared by all threads sharpening against this interned memory.
+  private volatile NonBlockingHashMap<BitsAlias,TypeMemPtr> _sharp_cache;
 
-  private TypeMem init(TypeStruct[] pubs) {
+  private TypeMem init(AliasTrie pubs) {
     super.init();
-    assert check(pubs);    // Caller has canonicalized arrays already
+    assert check(pubs);    // Caller has canonicalized already
     _pubs = pubs;
     return this;
   }
-  // False if not 'tight' (no trailing null pairs) or any matching pairs (should
-  // collapse to their parent) or any mixed parent/child.
-  private static boolean check(TypeStruct[] as) {
-    if( as.length == 1 ) return true;
-    if( as[1]!=TypeStruct.ISUSED && as[1]!=TypeStruct.UNUSED &&
-        as[1] != null )
+  // False if any matching pairs (should collapse to their parent) or any
+  // mixed parent/child.  The trie is always "tight".
+  private static boolean check(AliasTrie as) {
+    if( as._len == 1 ) return true;
+    TypeStruct as1 = as.get(1);
+    if( as1!=TypeStruct.ISUSED && as1!=TypeStruct.UNUSED )
       return false;             // Only 2 choices
-    if( as[0].above_center()!=as[1].above_center() ) return false;
-    if( as.length==2 ) return true; // Trivial all of memory
-    // "tight" - something in the last slot
-    if( as[as.length-1] == null ) return false;
+    if( as.get(0).above_center()!=as1.above_center() ) return false;
     // No dups of any parent
-    for( int i=2; i<as.length; i++ )
-      if( as[i] != null )
-        for( int par = BitsAlias.TREE.parent(i); par!=0; par = BitsAlias.TREE.parent(par) )
-          if( as[par] != null ) {
-            if( as[par] == as[i] ) return false; // Dup of a parent
-            break;
-          }
+    for( int i=as.next(2); i!=-1; i=as.next(i+1) )
+      if( as.get(i) == at(as,BitsAlias.TREE.parent(i)) )
+        return false;           // Dup of a parent
     return true;
   }
-  @Override public long static_hash( ) { return _pubs.length; }
+  @Override public long static_hash( ) { return _pubs._len; }
 
   // ----------
   @Override long compute_hash() {
-    Util.add_hash(super.static_hash() ^ ((long) _pubs.length <<2));
-    for( TypeStruct ts : _pubs )
-      if( ts!=null )
-        Util.add_hash(ts._hash);
-    return Util.get_hash();
+    return new Util.Hasher().add(super.static_hash() ^ ((long) _pubs._len <<2)).add(_pubs.hash()).get();
   }
 
+  // note '==' and NOT '.equals()' on the TypeStructs
   @Override public boolean equals( Object o ) {
     if( this==o ) return true;
     if( !(o instanceof TypeMem tf) ) return false;
-    if( _pubs .length != tf._pubs .length ) return false;
-    for( int i = 0; i< _pubs.length; i++ )
-      if( _pubs[i] != tf._pubs[i] ) // note '==' and NOT '.equals()'
-        return false;
-    return true;
+    return AliasTrie.eq(_pubs,tf._pubs);
   }
   // Never part of a cycle, so the normal check works
   @Override public boolean cycle_equals( Type o ) { return equals(o); }
 
   @Override public void _str_dups( VBitSet visit, NonBlockingHashMapLong<String> dups, UCnt ucnt ) {
-    for( TypeStruct ts : _pubs )
-      if( ts!=null )
-        ts._str_dups(visit,dups,ucnt);
+    for( int i=_pubs.next(0); i!=-1; i=_pubs.next(i+1) )
+      _pubs.get(i)._str_dups(visit,dups,ucnt);
   }
 
   @Override SB _str0( VBitSet visit, NonBlockingHashMapLong<String> dups, SB sb, boolean debug, boolean indent ) {
     if( this==ALLMEM  ) return sb.p("[[_all_]]");
     if( this==ANYMEM  ) return sb.p("[[_any_]]");
 
-    if( _pubs.length==1 )
-      return _pubs[0]._str(visit,dups, sb.p("[["), debug, indent).p("]]");
+    if( _pubs._len==1 )
+      return _pubs.get(0)._str(visit,dups, sb.p("[["), debug, indent).p("]]");
 
-    if( _pubs[0]==TypeStruct.UNUSED ) sb.p('!');
-    else _pubs[0]._str(visit,dups,sb,debug, indent);
+    if( _pubs.get(0)==TypeStruct.UNUSED ) sb.p('!');
+    else _pubs.get(0)._str(visit,dups,sb,debug, indent);
 
     sb.p("[[");
     if( indent ) sb.ii(1).nl(); // Indent memory
-    for( int i = 1; i< _pubs.length; i++ )
-      if( _pubs[i] != null ) {
-        if( indent ) sb.i();
-        _pubs[i]._str(visit,dups, sb.p(i).p(':'), debug, indent).p(",");
-        if( indent ) sb.nl();
-      }
+    for( int i=_pubs.next(1); i!=-1; i=_pubs.next(i+1) ) {
+      if( indent ) sb.i();
+      _pubs.get(i)._str(visit,dups, sb.p(i).p(':'), debug, indent).p(",");
+      if( indent ) sb.nl();
+    }
     if( indent ) sb.di(1).i();
     else sb.unchar();
     return sb.p("]]");
@@ -153,34 +141,42 @@ public class TypeMem extends Type<TypeMem> {
   
   // Alias-at.  Out of bounds or null uses the parent value.
   public TypeStruct at(int alias) { return at(_pubs ,alias); }
-  static TypeStruct at(TypeStruct[] tos, int alias) { return tos.length==1 ? tos[0].oob(TypeStruct.ISUSED): tos[at_idx(tos,alias)]; }
-  // Alias-at index
-  static int at_idx(TypeStruct[]tos, int alias) {
-    if( alias==0 ) return 1;    // Either base memory, or assert
+  static TypeStruct at(AliasTrie tos, int alias) {
+    if( tos._len==1 ) return tos.get(0).oob(TypeStruct.ISUSED);
+    if( alias==0 ) return tos.get(1); // Either base memory, or assert
     while( true ) {
-      if( alias < tos.length && tos[alias] != null )
-        return alias;
+      TypeStruct ts = tos.get(alias);
+      if( ts != null ) return ts;
       alias = BitsAlias.TREE.parent(alias);
       assert alias!=0;
     }
   }
-  //
-  public TypeStruct[] alias2objs() { return _pubs; }
-  public int len() { return _pubs.length; }
+  // True if the alias has its own entry, and is not defaulting to a parent
+  public boolean is_mapped(int alias) { return _pubs.get(alias)!=null; }
+  public int len() { return _pubs._len; }
 
   static { new Pool(TMEM,new TypeMem()); }
-  private static TypeMem make(TypeStruct[] pubs) {
+  private static TypeMem make(AliasTrie pubs) {
     Pool P = POOLS[TMEM];
     TypeMem t1 = P.malloc();
     return t1.init(pubs).hashcons_free();
   }
+  // Slot#0 follows slot#1, as in make0
+  private static TypeMem make0(AliasTrie tos) {
+    if( tos._len > 1 ) tos = tos.set(0,tos.get(1).oob(TypeStruct.ISUSED));
+    return make(tos);
+  }
 
   // Canonicalize memory before making.  Unless specified, the default memory is "do not care"
   public static TypeMem make0( TypeStruct[] as ) {
     assert as.length==1 || as[0]==null;
     if( as.length> 1 ) as[0] = as[1].oob(TypeStruct.ISUSED);
     TypeStruct[] tos = _make1(as);
-    return tos==null ? TypeMem.ALLMEM : make(tos);
+    if( tos==null ) return TypeMem.ALLMEM;
+    AliasTrie pubs = AliasTrie.EMPTY;
+    for( int i=0; i<tos.length; i++ )
+      pubs = pubs.set(i,tos[i]);
+    return make(pubs);
   }
 
   // Canonicalize memory before making.  Unless specified, the default memory is "do not care"
@@ -208,30 +204,48 @@ public class TypeMem extends Type<TypeMem> {
     return as;
   }
 
+  // Set 'alias' to 'obj' in a canonical trie, and return the new trie.  A
+  // value equal to its nearest parent is removed, and so are any of the
+  // alias's kids that now match their parent.  Kids have larger numbers than
+  // their parents, so one ascending pass over the mapped kids suffices.
+  // Costs O(log aliases) for a leaf alias.  Slot#0 is not updated.
+  private static AliasTrie put(AliasTrie tos, int alias, TypeStruct obj) {
+    if( tos._len==1 ) tos = tos.set(1,at(tos,1)); // Expand a short memory
+    tos = tos.set(alias, alias>1 && obj==at(tos,BitsAlias.TREE.parent(alias)) ? null : obj);
+    if( BitsAlias.TREE.is_parent(alias) )
+      for( int kid=tos.next(alias+1); kid!=-1; kid=tos.next(kid+1) )
+        if( BitsAlias.TREE.is_parent(alias,kid) && tos.get(kid)==at(tos,BitsAlias.TREE.parent(kid)) )
+          tos = tos.set(kid,null);
+    return tos;
+  }
+  // Remove every dup of a parent, after a bulk change
+  private static AliasTrie canon(AliasTrie tos) {
+    for( int i=tos.next(2); i!=-1; i=tos.next(i+1) )
+      if( tos.get(i)==at(tos,BitsAlias.TREE.parent(i)) )
+        tos = tos.set(i,null);
+    return tos;
+  }
+  // All aliases "do not care"
+  private static final AliasTrie UNUSED_PUBS = AliasTrie.EMPTY.set(1,TypeStruct.UNUSED);
+
   // Precise single alias.  Other aliases are "do not care".  Nil not allowed.
   // Both "do not care" and this alias are exact.
   public static TypeMem make(int alias, TypeStruct oop ) {
-    TypeStruct[] as = new TypeStruct[alias+1];
-    as[1] = TypeStruct.UNUSED;
-    as[alias] = oop;
-    return make0(as);
+    return make0(put(UNUSED_PUBS,alias,oop));
   }
   public static TypeMem make(BitsAlias aliases, TypeStruct oop ) {
-    TypeStruct[] as = new TypeStruct[aliases.max()+1];
-    as[1] = TypeStruct.UNUSED;
+    AliasTrie as = UNUSED_PUBS;
     for( int alias : aliases )
       if( alias != 0 )
-        as[alias] = oop;
+        as = put(as,alias,oop);
     return make0(as);
   }
   // Set 'alias' to 'oop', and all parent aliases to unused in this memory.
   public TypeMem make_from_unused(int alias, TypeStruct oop) {
-    TypeStruct[] as = Arrays.copyOf(_pubs,Math.max(_pubs.length,alias+1));
-    as[0] = null;
-    as[alias] = oop;
+    AliasTrie as = _pubs;
     for( int par = BitsAlias.TREE.parent(alias); par!=1; par = BitsAlias.TREE.parent(par) )
-      as[par] = TypeStruct.UNUSED;
-    return make0(as);
+      as = put(as,par,TypeStruct.UNUSED);
+    return make0(put(as,alias,oop));
   }
 
 
@@ -249,36 +263,47 @@ public class TypeMem extends Type<TypeMem> {
 
   // All mapped memories remain, but each memory flips internally.
   @Override protected TypeMem xdual() {
-    TypeStruct[] pubs = new TypeStruct[_pubs.length];
-    for( int i = 0; i< _pubs.length; i++ )
-      if( _pubs[i] != null )
-        pubs[i] = _pubs[i].dual();
-    return POOLS[TMEM].<TypeMem>malloc().init(pubs);
+    return POOLS[TMEM].<TypeMem>malloc().init(_pubs.map(TypeStruct::dual));
   }
   @Override protected Type xmeet( Type t ) {
     TypeMem tf = (TypeMem)t;
     // Meet of default values, meet of element-by-element.
-    TypeStruct[] as = _meet(_pubs,tf._pubs,false);
-    TypeStruct[] tos = _make1(as);
-    return tos==null ? ALLMEM : make(tos); // All things are dead, so dead
+    return make(_meet(_pubs,tf._pubs,false));
   }
 
-  private static TypeStruct[] _meet(TypeStruct[] as, TypeStruct[] bs, boolean is_loop) {
-    TypeStruct mt_live = (TypeStruct)as[0].meet(bs[0]);
-    int  len = Math.max(as.length,bs.length);
-    int mlen = Math.min(as.length,bs.length);
-    if( mlen==1 ) {             // At least 1 is short
+  private static AliasTrie _meet(AliasTrie as, AliasTrie bs, boolean is_loop) {
+    TypeStruct mt_live = (TypeStruct)as.get(0).meet(bs.get(0));
+    if( Math.min(as._len,bs._len)==1 ) { // At least 1 is short
       // Short & low "wins": result is short.
-      if( (!as[0].above_center() && as.length==1) ||
-          (!bs[0].above_center() && bs.length==1) )
-        return new TypeStruct[]{mt_live};
+      if( (!as.get(0).above_center() && as._len==1) ||
+          (!bs.get(0).above_center() && bs._len==1) )
+        return AliasTrie.EMPTY.set(0,mt_live);
     }
-    TypeStruct[] objs = new TypeStruct[len];
-    objs[0] = mt_live;
-    for( int i=1; i<len; i++ )
-      objs[i] = i<mlen && as[i]==null && bs[i]==null // Shortcut null-vs-null
-        ? null : _meet(at(as,i),at(bs,i),is_loop);   // meet element-by-element
-    return objs;
+    // Meet element-by-element, where either side has an entry; null-vs-null
+    // stays null.  An alias whose meet equals its parent's meet is a dup.
+    // A subtree shared by both sides meets to itself, unless some parent
+    // alias changes and so might now dup a shared kid.
+    AliasTrie objs = AliasTrie.merge(as,bs,parents_stable(as,bs), i -> {
+        if( i==0 ) return mt_live;
+        TypeStruct mt = _meet(at(as,i),at(bs,i),is_loop);
+        return i>1 && mt==_meet(at(as,BitsAlias.TREE.parent(i)),at(bs,BitsAlias.TREE.parent(i)),is_loop) ? null : mt;
+      });
+    return objs.set(0,mt_live);
+  }
+  // True if every parent alias meets to its value in 'as'.  An alias mapped
+  // in neither trie takes both values from its parent, so only the mapped
+  // aliases and the root alias need a check.
+  private static boolean parents_stable(AliasTrie as, AliasTrie bs) {
+    if( Math.max(as._len,bs._len)<=1 ) return true;
+    for( int par=1; par!=-1; par=next_key(as,bs,par+1) )
+      if( BitsAlias.TREE.is_parent(par) && _meet(at(as,par),at(bs,par),false)!=at(as,par) )
+        return false;
+    return true;
+  }
+  // Smallest key >= i mapped in either trie, or -1
+  private static int next_key(AliasTrie as, AliasTrie bs, int i) {
+    int a = as.next(i), b = bs.next(i);
+    return a==-1 ? b : (b==-1 ? a : Math.min(a,b));
   }
   private static TypeStruct _meet(TypeStruct a, TypeStruct b, boolean is_loop) {
     if( is_loop ) throw unimpl();
@@ -303,7 +328,7 @@ public class TypeMem extends Type<TypeMem> {
     if( this==ANYMEM ) return TypeStruct.UNUSED;
     return ld(_pubs,ptr._aliases);
   }
-  private static TypeStruct ld( TypeStruct[] tos, BitsAlias aliases ) {
+  private static TypeStruct ld( AliasTrie tos, BitsAlias aliases ) {
     boolean any = aliases.above_center();
     // Any alias, plus all of its children, are meet/joined.  This does a
     // tree-based scan on the inner loop.
@@ -357,21 +382,34 @@ public class TypeMem extends Type<TypeMem> {
   public TypeMem slice_reaching_aliases(BitsAlias aliases) {
     if( aliases==BitsAlias.NALL ) return this;
     if( aliases==BitsAlias.NANY ) return ANYMEM;
-    TypeStruct[] tos = new TypeStruct[Math.max(_pubs.length,aliases.max()+1)];
-    tos[1] = TypeStruct.UNUSED;
-    for( int i=2; i<tos.length; i++ )
-      tos[i] = aliases.test_recur(i) ? at(i) : null;
+    AliasTrie tos = UNUSED_PUBS;
+    for( int alias : aliases )
+      if( alias==1 ) {          // Every alias, but the default is unused
+        int len = Math.max(_pubs._len,aliases.max()+1);
+        for( int kid=2; kid<len; kid++ )
+          if( BitsAlias.TREE.parent(kid)==1 )
+            tos = put_tree(tos,kid,ts -> ts);
+      } else if( alias != 0 )
+        tos = put_tree(tos,alias,ts -> ts);
     return make0(tos);
   }
+  // Copy 'f' of this memory at 'alias' and all its kids into 'tos'.  Only
+  // the mapped kids need a copy; the rest default to them.
+  private AliasTrie put_tree(AliasTrie tos, int alias, UnaryOperator<TypeStruct> f) {
+    tos = put(tos,alias,f.apply(at(alias)));
+    if( BitsAlias.TREE.is_parent(alias) )
+      for( int kid=_pubs.next(alias+1); kid!=-1; kid=_pubs.next(kid+1) )
+        if( BitsAlias.TREE.is_parent(alias,kid) )
+          tos = put(tos,kid,f.apply(_pubs.get(kid)));
+    return tos;
+  }
 
   // --------------------------------------------------------------------------
   // Sharpen a dull pointer against this memory.
   public TypeMemPtr sharpen( TypeMemPtr dull ) {
     assert dull==dull.simple_ptr();
-    if( _sharp_cache != null ) { // Check the cache first
-      TypeMemPtr sharp = _sharp_cache.get(dull._aliases);
-      if( sharp != null ) return sharp;
-    }
+    TypeMemPtr sharp0 = sharp_get(dull._aliases); // Check the cache first
+    if( sharp0 != null ) return sharp0;
 
     // Build a (recursively) sharpened pointer from memory.  Alias sets can be
     // looked-up directly in a map from BitsAlias to TypeObjs.  This is useful
@@ -396,11 +434,18 @@ public class TypeMem extends Type<TypeMem> {
     sharp = dull.make_from(mt);
     return sharput(dull._aliases,sharp);
   }
-  TypeMemPtr sharp_get( BitsAlias aliases ) { return _sharp_cache==null ? null : _sharp_cache.get(aliases); }
+  TypeMemPtr sharp_get( BitsAlias aliases ) {
+    NonBlockingHashMap<BitsAlias,TypeMemPtr> sc = _sharp_cache;
+    return sc==null ? null : sc.get(aliases);
+  }
   TypeMemPtr sharput( BitsAlias aliases, TypeMemPtr sharp ) {
     assert sharp.interned();
-    if( _sharp_cache==null ) _sharp_cache = new HashMap<>();
-    _sharp_cache.put(aliases,sharp);
+    NonBlockingHashMap<BitsAlias,TypeMemPtr> sc = _sharp_cache;
+    if( sc==null )
+      synchronized( this ) {
+        if( (sc=_sharp_cache)==null ) _sharp_cache = sc = new NonBlockingHashMap<>();
+      }
+    sc.put(aliases,sharp);
     return sharp;               // return new not old
   }
   // Sharpen if a maybe-pointer
@@ -414,7 +459,7 @@ public class TypeMem extends Type<TypeMem> {
   //   If meet is sharp, put in sharp cache & return.
   //   Put dull ptr to dull meet in dull cache.
   //   Walk dull fields; for all dull TMPs, recurse.
-  private static final BitSetSparse DULLV = new BitSetSparse();
+  private static final ThreadLocal<BitSetSparse> DULLV = ThreadLocal.withInitial(BitSetSparse::new);
   void _dull( Type dull, final HashMap<BitsAlias,TypeMemPtr> dull_cache ) {
     if( !(dull instanceof Cyclic) ) return; // Nothing to sharpen
     // Check caches and return
@@ -430,7 +475,7 @@ public class TypeMem extends Type<TypeMem> {
           t = (TypeStruct)t.meet(at(kid));
       t = t.set_name(t._clz);
 
-      DULLV.clear();
+      DULLV.get().clear();
       if( _is_sharp(t)==null )       // If sharp, install and return
         { sharput(aliases, tmp.make_from(t)); return; }
       // Install in dull result in dull cache BEFORE recursing.  We might see
@@ -444,7 +489,7 @@ public class TypeMem extends Type<TypeMem> {
   }
   // Not-null if found a dull ptr, null if all ptrs sharp
   private static TypeMemPtr _is_sharp(Type t) {
-    if( DULLV.tset(t._uid) ) return null;
+    if( DULLV.get().tset(t._uid) ) return null;
     if( !(t instanceof Cyclic cyc) ) return null;
     if( t instanceof TypeMemPtr tmp && tmp._obj==TypeStruct.ISUSED ) return tmp;
     return t.walk((fld,ignore) -> _is_sharp(fld), (x,y)-> x==null ? y : x);
@@ -481,11 +526,7 @@ public class TypeMem extends Type<TypeMem> {
   // Whole object Set at an alias.
   public TypeMem set( int alias, TypeStruct obj ) {
     if( at(alias)==obj ) return this; // Shortcut
-    int max = Math.max(_pubs.length,alias+1);
-    TypeStruct[] tos = Arrays.copyOf(_pubs,max);
-    tos[0] = null;
-    tos[alias] = obj;
-    return make0(tos);
+    return make0(put(_pubs,alias,obj));
   }
 
 
@@ -497,34 +538,33 @@ public class TypeMem extends Type<TypeMem> {
     // If precise, just replace whole struct
     if( precise ) return set(aliases.getbit(),tvs);
     // Must do struct-by-struct updates
-    Ary<TypeStruct> ss = new Ary<>(_pubs.clone());
+    AliasTrie ss = _pubs;
     for( int alias : aliases )
       if( alias != 0 )
         for( int kid=alias; kid != 0; kid=BitsAlias.next_kid(alias,kid) )
-          ss.setX(kid,at(kid).update(tvs,precise));
-    return make(_make1(ss.asAry()));
+          ss = put(ss,kid,at(kid).update(tvs,precise));
+    return make(ss);
   }
 
 
   // Array store into a conservative set of aliases.
   public TypeMem update( BitsAlias aliases, TypeInt idx, Type val ) {
-    Ary<TypeStruct> pubs  = new Ary<>(_pubs .clone());
     for( int alias : aliases )
       if( alias != 0 )
         for( int kid=alias; kid != 0; kid=BitsAlias.next_kid(alias,kid) )
-          //pubs.setX(kid,at(_pubs,kid).update(idx,val)); // imprecise
+          //pubs = put(pubs,kid,at(_pubs,kid).update(idx,val)); // imprecise
           throw unimpl();
-    return make(_make1(pubs.asAry()));
+    return this;
   }
 
   // Everything in the 'escs' set is flattened to UNUSED.
   public TypeMem remove(BitsAlias escs) {
     if( escs==BitsAlias.EMPTY ) return this;
     if( escs==BitsAlias.NALL  ) throw com.cliffc.aa.AA.unimpl(); // Shortcut
-    TypeStruct[] tos = _pubs.clone();
-    for( int i = 1; i< _pubs.length; i++ )
-      if( escs.test(i) )
-        tos[i] = TypeStruct.UNUSED;
+    AliasTrie tos = _pubs;
+    for( int i : escs )
+      if( 1 <= i && i < _pubs._len )
+        tos = put(tos,i,TypeStruct.UNUSED);
     return make0(tos);
   }
 
@@ -542,28 +582,18 @@ public class TypeMem extends Type<TypeMem> {
 
   // For default Parm inputs, widen all non-final fields to final ALL.
   public TypeMem widen_mut_fields() {
-    TypeStruct to, tof=null;
-    int i; for( i=1; i< _pubs.length; i++ ) {
-      if( (to = _pubs[i]) != null && (tof = to.widen_mut_fields())!=to )
-        break;
-    }
-    if( i== _pubs.length ) return this;
-
-    TypeStruct[] tos = _pubs.clone();
-    tos[0] = null;
-    tos[i++] = tof;
-    for( ; i< _pubs.length; i++ )
-      if( tos[i] != null )
-        tos[i] = tos[i].widen_mut_fields();
-    return make0(tos);
+    if( _pubs._len==1 ) return this;
+    AliasTrie tos = _pubs.map(TypeStruct::widen_mut_fields);
+    return tos==_pubs ? this : make0(canon(tos));
   }
   
   // Everything NOT in the 'escs' is flattened to UNUSED.
   // Everything YES in the 'escs' is flattened for live.
   public TypeMem remove_no_escapes( BitsAlias escs ) {
-    TypeStruct[] tos = new TypeStruct[Math.max(_pubs.length,escs.max()+1)];
-    for( int i=1; i<tos.length; i++ )
-      tos[i] = escs.test_recur(i) ? at(i).flatten_live_fields() : TypeStruct.UNUSED;
+    AliasTrie tos = UNUSED_PUBS;
+    for( int alias : escs )
+      if( alias != 0 )
+        tos = put_tree(tos,alias,TypeStruct::flatten_live_fields);
     return make0(tos);
   }
 
@@ -571,22 +601,11 @@ public class TypeMem extends Type<TypeMem> {
   // For live-ness purposes, flatten all field contents.
   // Only need per-field ANY/ALL.
   public TypeMem flatten_live_fields() {
-    TypeStruct to, tof=null;
-    int i; for( i=1; i< _pubs.length; i++ ) {
-      if( (to = _pubs[i]) != null && (tof = to.flatten_live_fields())!=to )
-        break;
-    }
-    if( i== _pubs.length ) return this;
-
-    TypeStruct[] tos = _pubs.clone();
-    tos[0] = null;
-    tos[i++] = tof;
-    for( ; i< _pubs.length; i++ )
-      if( tos[i] != null )
-        tos[i] = tos[i].flatten_live_fields();
-    return make0(tos);
+    if( _pubs._len==1 ) return this;
+    AliasTrie tos = _pubs.map(TypeStruct::flatten_live_fields);
+    return tos==_pubs ? this : make0(canon(tos));
   }
 
-  @Override public boolean above_center() { return _pubs[0].above_center(); }
+  @Override public boolean above_center() { return _pubs.get(0).above_center(); }
   @Override public boolean is_con()       { return false;}
 }
@@ -139,9 +139,9 @@ public final class TypeMemPtr extends TypeNil<TypeMemPtr> implements Cyclic {
     // Install a (to be cyclic) DISPLAY.  Not cyclic during the install, since
     // we cannot build the cycle all at once.
     DISP_FLD = TypeFld.malloc("^",null,TypeFld.Access.Final);
-    TypeStruct.RECURSIVE_MEET++;
+    recursive_meet(1);
     TypeFld[] flds = TypeFlds.make(DISP_FLD);
-    TypeStruct.RECURSIVE_MEET--;
+    recursive_meet(-1);
     DISPLAY = TypeStruct.malloc(false,"",ALL,flds);
     DISPLAY_PTR = malloc(false,false,BitsAlias.NALL,DISPLAY);
     DISP_FLD.setX(DISPLAY_PTR);
@@ -261,10 +261,9 @@ public final class TypeMemPtr extends TypeNil<TypeMemPtr> implements Cyclic {
   // Make a Type, replacing all dull pointers from the matching types in mem.
   @Override public Type make_from(Type head, TypeMem mem, VBitSet visit) {
     if( this!=head ) {
-      TypeStruct[] pubs = mem.alias2objs();
       boolean mapped=true;
       for( int alias : _aliases )
-        if( pubs[alias]==null )
+        if( !mem.is_mapped(alias) )
           { mapped=false; break; }
       if( mapped ) {
         TypeStruct obj = mem.ld(this);
@@ -280,7 +279,7 @@ public final class TypeMemPtr extends TypeNil<TypeMemPtr> implements Cyclic {
   
   @Override BitsFun _all_reaching_fidxs( TypeMem tmem) {
     BitsFun fidxs = BitsFun.EMPTY;
-    if( Type.ARF.tset(_uid) || tmem==null ) return fidxs;
+    if( Type.ARF.get().tset(_uid) || tmem==null ) return fidxs;
     for( int alias : _aliases )
       if( alias!=0 )
         fidxs = fidxs.meet(tmem.at(alias)._all_reaching_fidxs(tmem));
@@ -41,7 +41,7 @@ import static com.cliffc.aa.type.TypeFld.Access;
  *  result - possibly returning a previous cycle.
  */
 public class TypeStruct extends TypeNil<TypeStruct> implements Cyclic, Iterable<TypeFld> {
-  static final HashMap<TPair,TypeStruct> MEETS0 = new HashMap<>();
+  static final ThreadLocal<HashMap<TPair,TypeStruct>> MEETS0 = ThreadLocal.withInitial(HashMap::new);
 
   // Roughly a tree-shaped clazz designation.  A colon-separated list of clazz
   // names, which may be empty.  Parent clazzes on the left, child on the
@@ -55,6 +55,8 @@ public class TypeStruct extends TypeNil<TypeStruct> implements Cyclic, Iterable<
   // Interned field array.  Alpha-sorted to canonicalize.  Otherwise, unordered
   // to support e.g. row polymorphism.
   private TypeFld[] _flds;
+  // Label id to field index, for wide structs.  Built on first lookup.
+  private volatile int[] _index;
 
   TypeStruct init( boolean any, boolean nil, boolean sub, String clz, Type def, TypeFld[] flds ) {
     super.init(any,nil,sub,BitsAlias.EMPTY,BitsFun.EMPTY);
@@ -69,6 +71,7 @@ public class TypeStruct extends TypeNil<TypeStruct> implements Cyclic, Iterable<
     _def  = def;
     _clz  = clz;
     _flds = flds;
+    _index = null;
     assert check(def,flds) && check_name(clz);
     return this;
   }
@@ -88,6 +91,7 @@ public class TypeStruct extends TypeNil<TypeStruct> implements Cyclic, Iterable<
     ts._clz = _clz;
     ts._def = _def;
     ts._flds = _flds;
+    ts._index = _index;
     return ts;
   }
 
@@ -117,12 +121,12 @@ public class TypeStruct extends TypeNil<TypeStruct> implements Cyclic, Iterable<
   // its parts, but the parts are not available during construction of a cyclic type.
   // We can count on the field names and accesses but not the type.
   @Override long static_hash() {
-    Util.add_hash(super.static_hash() ^ _clz.hashCode() ^ _def.hashCode());
+    Util.Hasher h = new Util.Hasher().add(super.static_hash() ^ _clz.hashCode() ^ _def.hashCode());
     for( TypeFld fld : _flds )
       // Can depend on the field name and access, but NOT the type - because recursion.
       // Fields must be ordered, so hash can depend on order, so alpha-sorted already.
-      Util.add_hash(fld._fld.hashCode() ^ fld._access.hashCode());
-    return Util.get_hash();
+      h.add(fld._fld.hashCode() ^ fld._access.hashCode());
+    return h.get();
   }
 
   // Returns 1 for definitely equals, 0 for definitely unequals, and -1 if
@@ -178,8 +182,8 @@ public class TypeStruct extends TypeNil<TypeStruct> implements Cyclic, Iterable<
     return cycle_equals(t);
   }
 
-  static private final Ary<TypeStruct> CYCLES = new Ary<>(new TypeStruct[0]);
-  private TypeStruct find_other() {
+  static private final ThreadLocal<Ary<TypeStruct>> CYCLES = ThreadLocal.withInitial(() -> new Ary<>(new TypeStruct[0]));
+  private TypeStruct find_other(Ary<TypeStruct> CYCLES) {
     int idx = CYCLES.find(this);
     return idx != -1 ? CYCLES.at(idx^1) : null;
   }
@@ -188,9 +192,10 @@ public class TypeStruct extends TypeNil<TypeStruct> implements Cyclic, Iterable<
     if( !(o instanceof TypeStruct t) ) return false;
     int x = cmp(t);             // Check static parts
     if( x != -1 ) return x == 1;// Definitely equals or unequals based on static parts
-    TypeStruct t2 = find_other();
+    Ary<TypeStruct> CYCLES = TypeStruct.CYCLES.get();
+    TypeStruct t2 = find_other(CYCLES);
     if( t2 !=null ) return t2==t   ; // Already in cycle report equals or not
-    TypeStruct t3 = t.find_other();
+    TypeStruct t3 = t.find_other(CYCLES);
     if( t3 !=null ) return t3==this; // Already in cycle report equals or not
 
     int len = CYCLES._len;
@@ -233,7 +238,7 @@ public class TypeStruct extends TypeNil<TypeStruct> implements Cyclic, Iterable<
   }
   public TypeStruct hashcons_free() {
     // All subparts already interned
-    if( RECURSIVE_MEET ==0 ) {
+    if( recursive_meet()==0 ) {
       for( TypeFld fld : _flds ) assert fld.interned();
       assert TypeFlds.interned(_flds);
     }
@@ -243,6 +248,7 @@ public class TypeStruct extends TypeNil<TypeStruct> implements Cyclic, Iterable<
     assert !TypeFlds.interned(_flds);
     TypeFlds.free(_flds);
     _flds=null;
+    _index=null;
   }
 
   // Generally purpose all-fields make
@@ -271,6 +277,7 @@ public class TypeStruct extends TypeNil<TypeStruct> implements Cyclic, Iterable<
     assert find(fld._fld)==-1 && !TypeFlds.interned(_flds);  // No accidental replacing, not interned
     TypeFld[] old = _flds;      // Keep the old
     _flds = TypeFlds.add_sort(_flds,fld);
+    _index = null;
     TypeFlds.free(old);         // Free the old
     return this;
   }
@@ -302,8 +309,8 @@ public class TypeStruct extends TypeNil<TypeStruct> implements Cyclic, Iterable<
     TypeFlds.free(flds);
     return fs;
   }
-  public void remove_dups() { _flds = remove_dups(_def,_flds); }
-  public void remove_dups_hashcons() { _flds = TypeFlds.hash_cons(remove_dups(_def,_flds)); }
+  public void remove_dups() { _flds = remove_dups(_def,_flds); _index = null; }
+  public void remove_dups_hashcons() { _flds = TypeFlds.hash_cons(remove_dups(_def,_flds)); _index = null; }
   // Replace _flds; flds is not interned
   public TypeStruct make_from(TypeFld[] flds) { return make(_any,_clz,_def,TypeFlds.hash_cons(remove_dups(_def,flds))); }
 
@@ -367,10 +374,10 @@ public class TypeStruct extends TypeNil<TypeStruct> implements Cyclic, Iterable<
   @Override protected TypeStruct xmeet( Type t ) {
     TypeStruct that = (TypeStruct)t;
     // INVARIANT: Both this and that are prior existing & interned.
-    assert RECURSIVE_MEET > 0 || (interned() && that.interned());
+    assert recursive_meet() > 0 || (interned() && that.interned());
     // INVARIANT: Both MEETS are empty at the start.  Nothing involved in a
     // potential cycle is interned until the Meet completes.
-    assert RECURSIVE_MEET > 0 || (MEETS0.isEmpty());
+    assert recursive_meet() > 0 || (MEETS0.get().isEmpty());
 
     // Common name prefix
     String clz = clz_meet(_clz,that._clz,_any,that._any);
@@ -387,7 +394,7 @@ public class TypeStruct extends TypeNil<TypeStruct> implements Cyclic, Iterable<
 
   // Meet all common fields, using defaults for the uncommon fields.
   // Remove dups, remove defaults, sort.
-  private static final Ary<TypeFld> FLDS = new Ary<>(new TypeFld[1],0);
+  private static final ThreadLocal<Ary<TypeFld>> FLDS = ThreadLocal.withInitial(() -> new Ary<>(new TypeFld[1],0));
   private TypeStruct flat_meet( TypeStruct that, String clz, Type def, boolean any ) {
     TypeFld[] flds2 = TypeFlds.get(this.len()+that.len());
     int i=0, j=0, k=0;    
@@ -395,7 +402,7 @@ public class TypeStruct extends TypeNil<TypeStruct> implements Cyclic, Iterable<
       TypeFld fld0 = this._flds[i], fld1 = that._flds[j];
       String    s0 = fld0._fld    ,   s1 = fld1._fld;
       if( fld0==fld1 )          { i++; j++; if( fld0._t!=def ) flds2[k++] = fld0; } // Fast-path shortcut
-      else if( Util.eq(s0,s1) ) { i++; j++; k = add_fld(flds2,k,s0,def,fld0._t.meet(fld1._t),fld0._access.meet(fld1._access)); }
+      else if( fld0._id==fld1._id ) { i++; j++; k = add_fld(flds2,k,s0,def,fld0._t.meet(fld1._t),fld0._access.meet(fld1._access)); }
       else if( sbefore(s0,s1) ) { i++;      k = add_fld(flds2,k,s0,def,fld0,that._def); }
       else                      {      j++; k = add_fld(flds2,k,s1,def,fld1,this._def); }
     }
@@ -421,8 +428,8 @@ public class TypeStruct extends TypeNil<TypeStruct> implements Cyclic, Iterable<
     return k;
   }
   
-  private static void add_fldc(TypeFld fld) { add_fldc(fld._fld,fld._access); }
-  private static void add_fldc(String fld, Access access) { FLDS.push(TypeFld.malloc(fld,null,access)); }
+  private static void add_fldc(Ary<TypeFld> FLDS, TypeFld fld) { add_fldc(FLDS,fld._fld,fld._access); }
+  private static void add_fldc(Ary<TypeFld> FLDS, String fld, Access access) { FLDS.push(TypeFld.malloc(fld,null,access)); }
 
   // Meet over clazz names.
   // TODO: will also need a unique lexical numbering, not just a name, to
@@ -454,8 +461,8 @@ public class TypeStruct extends TypeNil<TypeStruct> implements Cyclic, Iterable<
   // Called during class-init.
   private static class TPair {
     TypeStruct _ts0, _ts1;
-    private static final TPair KEY = new TPair(null,null);
-    static TPair set(TypeStruct ts0, TypeStruct ts1) {KEY._ts0=ts0; KEY._ts1=ts1; return KEY; }
+    private static final ThreadLocal<TPair> KEY = ThreadLocal.withInitial(() -> new TPair(null,null));
+    static TPair set(TypeStruct ts0, TypeStruct ts1) { TPair key = KEY.get(); key._ts0=ts0; key._ts1=ts1; return key; }
     TPair(TypeStruct ts0, TypeStruct ts1) { _ts0=ts0; _ts1=ts1; }
     @Override public int hashCode() { return (int)((Util.rot(_ts0.static_hash(),17)) ^ _ts1.static_hash()); }
     @Override public boolean equals(Object o) {
@@ -479,22 +486,24 @@ public class TypeStruct extends TypeNil<TypeStruct> implements Cyclic, Iterable<
 
     // See if we have worked on this unique pair before.  If so, the cycle has
     // been closed and just return that prior (unfinished) result.
+    HashMap<TPair,TypeStruct> MEETS0 = TypeStruct.MEETS0.get();
     TypeStruct mt = MEETS0.get(TPair.set(this,that));
     if( mt != null ) return mt; // Cycle has been closed
     // Do a shallow MEET: meet of field names and all things that can
     // be computed without the cycle.  Some fld._t not filled in yet.
+    Ary<TypeFld> FLDS = TypeStruct.FLDS.get();
     FLDS.clear();
     int i=0, j=0;
     while( i<this.len() && j<that.len() ) {
       TypeFld fld0 = this._flds[i], fld1 = that._flds[j];
       String    s0 = fld0._fld    ,   s1 = fld1._fld;
       if( fld0==fld1 )          { i++; j++; FLDS.push(fld0); } // Fast-path shortcut
-      else if( Util.eq(s0,s1) ) { i++; j++; add_fldc(s0,fld0._access.meet(fld1._access)); }
-      else if( sbefore(s0,s1) ) { i++;      add_fldc(fld0); }
-      else                      { j++;      add_fldc(fld1); }
+      else if( fld0._id==fld1._id ) { i++; j++; add_fldc(FLDS,s0,fld0._access.meet(fld1._access)); }
+      else if( sbefore(s0,s1) ) { i++;      add_fldc(FLDS,fld0); }
+      else                      { j++;      add_fldc(FLDS,fld1); }
     }
-    for( ; i<this.len(); i++ )  add_fldc(this._flds[i]);
-    for( ; j<that.len(); j++ )  add_fldc(that._flds[j]);
+    for( ; i<this.len(); i++ )  add_fldc(FLDS,this._flds[i]);
+    for( ; j<that.len(); j++ )  add_fldc(FLDS,that._flds[j]);
     TypeFld[] flds = TypeFlds.get(FLDS.len());
     System.arraycopy(FLDS._es,0,flds,0,FLDS.len()); // Bulk fill without filtering
     mt = malloc( any,
@@ -507,14 +516,15 @@ public class TypeStruct extends TypeNil<TypeStruct> implements Cyclic, Iterable<
     // pre-existence until the entire cycle is built.  We can't intern the
     // partially built parts, but we want to use the normal xmeet call - which
     // normally recursively interns.  Turn off interning with the global
-    // RECURSIVE_MEET flag.
-    RECURSIVE_MEET++;
+    // per-thread RECURSIVE_MEET count.
+    recursive_meet(1);
 
     // For-all fields do the Meet.  Some are not-recursive and mapped, some
     // are part of the cycle and mapped or not.
     for( TypeFld fld : mt ) {
-      TypeFld lff = this.get(fld._fld);
-      TypeFld rtf = that.get(fld._fld);
+      int li = this.find_id(fld._id), ri = that.find_id(fld._id);
+      TypeFld lff = li == -1 ? null : this._flds[li];
+      TypeFld rtf = ri == -1 ? null : that._flds[ri];
       Type lfi = lff == null ? this._def : lff._t;
       Type rti = rtf == null ? that._def : rtf._t;
       Type mti = lfi.meet(rti);
@@ -529,7 +539,7 @@ public class TypeStruct extends TypeNil<TypeStruct> implements Cyclic, Iterable<
 
     // Lower recursive-meet flag.  At this point the Meet 'mt' is still
     // speculative and not interned.
-    if( --RECURSIVE_MEET > 0 )
+    if( recursive_meet(-1) > 0 )
       return mt;                // And, if not yet done, just exit with it
     // Minimize and intern the cyclic result
     return Cyclic.install(mt);
@@ -552,11 +562,29 @@ public class TypeStruct extends TypeNil<TypeStruct> implements Cyclic, Iterable<
   public int len() { return _flds.length; } // Count of fields
   // Find index by name
   public int find( String name ) {
+    if( _flds.length > Labels.WIDE ) return find_id(Labels.find(name));
     for( int i=0; i<_flds.length; i++ )
       if( Util.eq(name,_flds[i]._fld) )
         return i;
     return -1;
   }
+  // Find index by label id
+  public int find_id( int id ) {
+    TypeFld[] flds = _flds;
+    if( flds.length <= Labels.WIDE ) {
+      for( int i=0; i<flds.length; i++ )
+        if( flds[i]._id==id )
+          return i;
+      return -1;
+    }
+    int[] idx = _index;
+    if( idx==null ) {
+      int[] ids = new int[flds.length];
+      for( int i=0; i<ids.length; i++ ) ids[i] = flds[i]._id;
+      _index = idx = Labels.index(ids,ids.length);
+    }
+    return Labels.find(idx,id);
+  }
   // Field by name.
   public boolean has( String name ) { return find(name)!=-1; }
   public TypeFld get( String name ) {
@@ -582,16 +610,22 @@ public class TypeStruct extends TypeNil<TypeStruct> implements Cyclic, Iterable<
   // exactly asserted for, so some leaks may happen.
   @Override public Iter iterator() { return Iter.get(this); }
   private static class Iter implements Iterator<TypeFld> {
-    private static final Ary<Iter> POOL = new Ary<>(Iter.class);
-    private static int CNT=0; // Number of Iters made, helps to track leaks
+    // Per-thread pools; an Iter returns to the pool it came from
+    private static class Pool {
+      final Ary<Iter> _frees = new Ary<>(Iter.class);
+      int _cnt;                 // Number of Iters made, helps to track leaks
+    }
+    private static final ThreadLocal<Pool> POOL = ThreadLocal.withInitial(Pool::new);
+    private Pool _pool;
     TypeFld[] _flds;
     boolean _has_hash;
     int _i;
     static Iter get(TypeStruct ts) {
-      if( POOL.isEmpty() ) { assert CNT<100; CNT++; new Iter().end(); }
-      return POOL.pop().init(ts);
+      Pool pool = POOL.get();
+      if( pool._frees.isEmpty() ) { assert pool._cnt<100; pool._cnt++; Iter i = new Iter(); i._pool=pool; i.end(); }
+      return pool._frees.pop().init(ts);
     }
-    boolean end() { _i=-99; _flds=null; POOL.push(this); return false; }
+    boolean end() { _i=-99; _flds=null; _pool._frees.push(this); return false; }
     private Iter init(TypeStruct ts) { assert _i==-99; _i=0; _flds=ts._flds; _has_hash = ts._hash!=0; return this; }
     @Override public boolean hasNext() {  assert _i>=0; return _i < _flds.length || end(); }
     @Override public TypeFld next() { return _flds[_i++]; }
@@ -824,6 +858,6 @@ public class TypeStruct extends TypeNil<TypeStruct> implements Cyclic, Iterable<
   }
 
   public static void init1() {
-    TypeStruct.RECURSIVE_MEET=0;
+    recursive_meet_reset();
   }
 }
@@ -25,10 +25,10 @@ public class TypeTuple extends Type<TypeTuple> {
   // If visit is not null, children need to be recursively visited.
   @Override public long static_hash( ) { return (_any?0:2047) ^ ((long) _ts.length <<2); }
   @Override long compute_hash() {
-    Util.add_hash(super.static_hash() ^ static_hash());
+    Util.Hasher h = new Util.Hasher().add(super.static_hash() ^ static_hash());
     for( Type t : _ts )
-      Util.add_hash(t._hash);
-    return Util.get_hash();
+      h.add(t._hash);
+    return h.get();
   }
 
   @Override public boolean equals( Object o ) {
@@ -11,11 +11,14 @@ public class Types extends AryI<Type> {
   @Override Type[] make_ary(int len) { return new Type[len]; }
   @Override Type[][] make_arys(int len) { return new Type[len][]; }
   @Override int _compute_hash(Type[] ts) {
-    for( Type t : ts ) Util.add_hash( t._hash );
-    return (int)Util.get_hash();
+    Util.Hasher h = new Util.Hasher();
+    for( Type t : ts ) h.add( t._hash );
+    return (int)h.get();
   }
   Types(int len) { super(len); }
   // Static forwards
+  static void init0() { TYPES._init0(); }
+  static void reclaim() { TYPES._reclaim(); }
   public static Type[] get(int len) { return TYPES._get(len); }
   public static Type[] hash_cons(Type[]ts) { return TYPES._hash_cons(ts); }
   public static Type[] ts(Type t0) { return TYPES._ts(t0); }
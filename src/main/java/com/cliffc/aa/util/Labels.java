@@ -0,0 +1,84 @@
+package com.cliffc.aa.util;
+
+// Global field-label table: dense int ids for (interned) field labels.  Ids
+// are handed out on first sight and never reclaimed; labels come from the
+// program text and a small set of internal names.
+//
+// Also open-addressed indices from label id to field position, for field
+// lists too wide to scan.  Index slots are pairs of [id+1,position]; a zero id
+// slot is empty.
+public abstract class Labels {
+  // Open-addressed label table, keyed by the (cached) String hash.  Readers
+  // take no lock; writers copy the table, so a published table never changes.
+  private static final class Table {
+    final String[] _keys;
+    final int[] _ids;
+    Table( int len ) { _keys = new String[len]; _ids = new int[len]; }
+  }
+  private static volatile Table TAB = new Table(64);
+  private static int CNT;
+
+  // Label id, making a new one as needed
+  public static int id( String s ) {
+    int id = find(s);
+    return id==-1 ? add(s) : id;
+  }
+  private static synchronized int add( String s ) {
+    int id = find(s);
+    if( id!=-1 ) return id;     // Lost the race
+    Table t = TAB;
+    int len = (CNT+1)*2 > t._keys.length ? t._keys.length<<1 : t._keys.length;
+    Table t2 = new Table(len);
+    for( int i=0; i<t._keys.length; i++ )
+      if( t._keys[i]!=null ) put(t2,t._keys[i],t._ids[i]);
+    put(t2,s,CNT);
+    TAB = t2;
+    return CNT++;
+  }
+  private static void put( Table t, String s, int id ) {
+    int mask = t._keys.length-1, i = s.hashCode()&mask;
+    while( t._keys[i]!=null ) i = (i+1)&mask;
+    t._keys[i] = s;
+    t._ids [i] = id;
+  }
+  // Label id, or -1 if never seen.  No field has a never-seen label.
+  public static int find( String s ) {
+    Table t = TAB;
+    String[] keys = t._keys;
+    int h = s.hashCode(), mask = keys.length-1;
+    for( int i = h&mask; ; i = (i+1)&mask ) {
+      String k = keys[i];
+      if( k==null ) return -1;
+      if( k==s || (k.hashCode()==h && k.equals(s)) ) return t._ids[i];
+    }
+  }
+
+  // Field lists up to this wide are scanned; wider ones are indexed.
+  public static final int WIDE = 8;
+
+  // Index over the first 'len' ids
+  public static int[] index( int[] ids, int len ) {
+    int cap = 4;
+    while( cap < len*2 ) cap<<=1;
+    int[] idx = new int[cap<<1];
+    for( int i=0; i<len; i++ ) {
+      int s = slot(ids[i],cap);
+      while( idx[s]!=0 ) s = (s+2)&((cap<<1)-1);
+      idx[s  ] = ids[i]+1;
+      idx[s+1] = i;
+    }
+    return idx;
+  }
+  // Position of 'id' or -1
+  public static int find( int[] idx, int id ) {
+    int cap = idx.length>>1;
+    for( int s = slot(id,cap); idx[s]!=0; s = (s+2)&(idx.length-1) )
+      if( idx[s]==id+1 )
+        return idx[s+1];
+    return -1;
+  }
+  private static int slot( int id, int cap ) {
+    int h = id*0x9E3779B9;
+    return ((h^(h>>>16))&(cap-1))<<1;
+  }
+}
@@ -1184,7 +1184,7 @@ public class NonBlockingHashMap<TypeK, TypeV>
       // transition in this copy.
       Object old_unboxed = ((Prime)oldval)._V;
       assert old_unboxed != TOMBSTONE;
-      putIfMatch(topmap, newkvs, key, old_unboxed, null);
+      boolean copied_into_new = (putIfMatch(topmap, newkvs, key, old_unboxed, null) == null);
 
       // ---
       // Finally, now that any old value is exposed in the new table, we can
@@ -1194,7 +1194,7 @@ public class NonBlockingHashMap<TypeK, TypeV>
       while( oldval != TOMBPRIME && !CAS_val(oldkvs,idx,oldval,TOMBPRIME) )
         oldval = val(oldkvs,idx);
 
-      return true;
+      return copied_into_new;
     } // end copy_slot
   } // End of CHM
 
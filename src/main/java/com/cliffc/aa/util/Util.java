@@ -80,73 +80,60 @@ public class Util {
 
 
   // Copied from http://burtleburtle.net/bob/c/lookup3.c
-  // Call add_hash as many times as you like, then get_hash at the end.
-  // Uses global statics, does not nest.
+  // Call add as many times as you like, then get at the end.  Each hash in
+  // progress has its own Hasher, so hashes can nest and run on many threads.
   public static long rot(long x, int k) { return (x<<k) | (x>>>(64-k)); }
-  private static long a,b,c;
-  private static int x;
-  static public void add_hash( long h ) {
-    switch( x ) {
-    case 0: a+=h; x++; return;
-    case 1: b+=h; x++; return;
-    case 2: c+=h;
-      a -= c;  a ^= rot(c, 4);  c += b;
-      b -= a;  b ^= rot(a, 6);  a += c;
-      c -= b;  c ^= rot(b, 8);  b += a;
-      a -= c;  a ^= rot(c,16);  c += b;
-      b -= a;  b ^= rot(a,19);  a += c;
-      c -= b;  c ^= rot(b, 4);  b += a;
-      x=0;
+  public static final class Hasher {
+    private long a,b,c;
+    private int x;
+    public Hasher add( long h ) {
+      switch( x ) {
+      case 0: a+=h; x++; return this;
+      case 1: b+=h; x++; return this;
+      case 2: c+=h;
+        a -= c;  a ^= rot(c, 4);  c += b;
+        b -= a;  b ^= rot(a, 6);  a += c;
+        c -= b;  c ^= rot(b, 8);  b += a;
+        a -= c;  a ^= rot(c,16);  c += b;
+        b -= a;  b ^= rot(a,19);  a += c;
+        c -= b;  c ^= rot(b, 4);  b += a;
+        x=0;
+      }
+      return this;
     }
-  }
-  // Return the resulting hash, which is never 0
-  static public long get_hash() {
-    if( x!=0 ) {
-      c ^= b; c -= rot(b,14);
-      a ^= c; a -= rot(c,11);
-      b ^= a; b -= rot(a,25);
-      c ^= b; c -= rot(b,16);
-      a ^= c; a -= rot(c, 4);
-      b ^= a; b -= rot(a,14);
-      c ^= b; c -= rot(b,24);
+    // Return the resulting hash, which is never 0
+    public long get() {
+      if( x!=0 ) {
+        c ^= b; c -= rot(b,14);
+        a ^= c; a -= rot(c,11);
+        b ^= a; b -= rot(a,25);
+        c ^= b; c -= rot(b,16);
+        a ^= c; a -= rot(c, 4);
+        b ^= a; b -= rot(a,14);
+        c ^= b; c -= rot(b,24);
+      }
+      long hash=c;
+      if( hash==0 ) hash=b;
+      if( hash==0 ) hash=a;
+      if( hash==0 ) hash=0xcafebabe;
+      return hash;
     }
-    long hash=c;
-    if( hash==0 ) hash=b;
-    if( hash==0 ) hash=a;
-    if( hash==0 ) hash=0xcafebabe;
-    a=b=c=x=0;
-    return hash;
   }
   // Single-use hash spreader
   static public long mix_hash(long h0) {
-    add_hash(h0);
-    return get_hash();
+    return new Hasher().add(h0).get();
   }
   static public long mix_hash( long h0, long h1 ) {
-    add_hash(h0);
-    add_hash(h1);
-    return get_hash();
+    return new Hasher().add(h0).add(h1).get();
   }
   static public long mix_hash( long h0, long h1, long h2 ) {
-    add_hash(h0);
-    add_hash(h1);
-    add_hash(h2);
-    return get_hash();
+    return new Hasher().add(h0).add(h1).add(h2).get();
   }
   static public long mix_hash( long h0, long h1, long h2, long h3 ) {
-    add_hash(h0);
-    add_hash(h1);
-    add_hash(h2);
-    add_hash(h3);
-    return get_hash();
+    return new Hasher().add(h0).add(h1).add(h2).add(h3).get();
   }
   static public long mix_hash( long h0, long h1, long h2, long h3, long h4 ) {
-    add_hash(h0);
-    add_hash(h1);
-    add_hash(h2);
-    add_hash(h3);
-    add_hash(h4);
-    return get_hash();
+    return new Hasher().add(h0).add(h1).add(h2).add(h3).add(h4).get();
   }
 
   static public int gcd(int x, int y) {
@@ -1,13 +1,17 @@
 package com.cliffc.aa.util;
 
+import java.util.Arrays;
 import java.util.function.IntSupplier;
 
 // Simple worklist.  Filters dups on a add.
 // Constant-time remove until empty.
 // Supports psuedo random pop.
+// Membership is a dense bitmap indexed by the element's getAsInt, which is
+// expected to be a small dense uid (Node, TV3, Type, Syntax).
 @SuppressWarnings("unchecked")
-public class Work<E extends IntSupplier> extends BitSetSparse {
+public class Work<E extends IntSupplier> {
   private final Ary<Object> _work = new Ary<>(new Object[1],0);
+  private long[] _bits = new long[1]; // Membership, one bit per uid
   private final int _rseed;     // Psuedo-random draw
   private int _idx;             // Next item to get
   public Work() { this(123); }  // Default seed
@@ -19,8 +23,12 @@ public class Work<E extends IntSupplier> extends BitSetSparse {
       _work.push(e);
     return e;
   }
-  @Override public Work clear() {
-    super.clear();
+  public Work clear() {
+    // Every set bit is on the worklist, so clear sparsely when short
+    if( _work._len < _bits.length )
+      for( int i=0; i<_work._len; i++ )
+        clr(((E)_work._es[i]).getAsInt());
+    else Arrays.fill(_bits,0);
     _work.clear();
     return this;
   }
@@ -47,4 +55,23 @@ public class Work<E extends IntSupplier> extends BitSetSparse {
   public E at(int idx) { return (E)_work.at(idx); }
   public void del(int idx) { clr(((E)_work.del(idx)).getAsInt()); }
   public String print_work() { return _work.toString(); }
+  @Override public String toString() {
+    if( _work._len==0 ) return "[]";
+    SB sb = new SB().p('[');
+    for( int i=0; i<_work._len; i++ )
+      sb.p(((E)_work._es[i]).getAsInt()).p(',');
+    return sb.unchar().p(']').toString();
+  }
+
+  // Membership bitmap; grows to the largest uid seen
+  private boolean tset(int i) {
+    int w = i>>6;
+    if( w >= _bits.length ) _bits = Arrays.copyOf(_bits,Math.max(w+1,_bits.length<<1));
+    long m = 1L<<i, b = _bits[w];
+    _bits[w] = b|m;
+    return (b&m)!=0;
+  }
+  private void clr(int i) { _bits[i>>6] &= ~(1L<<i); } // Only called on members
+  private boolean test(int i) { int w = i>>6; return w < _bits.length && (_bits[w]&(1L<<i))!=0; }
+
 }
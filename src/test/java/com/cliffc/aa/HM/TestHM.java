@@ -60,7 +60,7 @@ public class TestHM {
       BitsAlias aliases = esc_ptrs==null ? BitsAlias.EMPTY : ((TypeMemPtr)Type.valueOf(esc_ptrs2))._aliases;
       BitsFun   fidxs   = esc_funs==null ? BitsFun  .EMPTY : ((TypeFunPtr)Type.valueOf(esc_funs2)).fidxs() ;
       aliases = aliases.meet(TypeMemPtr.STRPTR._aliases); // Always string alias
-      for( HM.EXTLambda elam : Root.EXTS )  if( elam!=null )  fidxs = fidxs.set(elam._fidx); // Always the default escapes
+      for( HM.EXTLambda elam : HM.S()._exts )  if( elam!=null )  fidxs = fidxs.set(elam._fidx); // Always the default escapes
       if( aliases!=Root.ext_aliases() ) System.err.println("ALIAS "+aliases+" =!= "+Root.ext_aliases());
       if( fidxs  !=Root.ext_fidxs  () ) System.err.println("FIDX  "+fidxs  +" =!= "+Root.ext_fidxs  ());
       assertEquals(aliases,Root.ext_aliases());
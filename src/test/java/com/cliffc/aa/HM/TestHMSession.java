@@ -0,0 +1,126 @@
+package com.cliffc.aa.HM;
+
+import com.cliffc.aa.Exec;
+import com.cliffc.aa.HM.HM.Root;
+import com.cliffc.aa.type.Type;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+// Many programs and seeds typed at once, one session per task, get the same
+// answers as typing them in turn.  Alias and fidx numbers are drawn from the
+// shared lattice and differ between concurrent runs, so they are masked out.
+public class TestHMSession {
+  // The aa primitives must draw their fidxs before any HM session does, or
+  // later compilations in this JVM go wrong.
+  private static final String AA = "sq={x->x*x}; (sq(%d),sq(2.1))";
+  static { Exec.file("test",String.format(AA,5),0,true,true).close(); }
+
+  private static final String[] PROGS = new String[] {
+    "{ x -> (pair 3 x) }",
+    "id={x->x}; (pair (id 3) (id \"abc\"))",
+    "fact = { n -> (if (eq0 n) 1 (i* n (fact (dec n))))}; fact",
+    "map = { fun x -> (fun x)}; (map { a-> (pair a a)} 5)",
+    "x = { y -> (x (y y))}; x",
+    "{ f -> ({ x -> (f (x x))} { x -> (f (x x))})}",
+    "(+ \"abc\" 0)",
+    "@{ x = 1; y = { z -> (pair z z) } }",
+  };
+
+  private static String run( String prog, int rseed ) {
+    return run0(prog,rseed).replaceAll("\\[[0-9,]*\\]","[]");
+  }
+  private static String run0( String prog, int rseed ) {
+    try( HMSession ses = new HMSession() ) {
+      Root syn = ses.hm(prog,rseed,true,true);
+      return syn._hmt.p()+" ; "+syn.flow_type();
+    }
+  }
+
+  // A closed session returns its numbers, so typing again in turn draws the
+  // same ones.
+  @Test public void testReclaim() {
+    for( String prog : PROGS ) {
+      String rez = run0(prog,0);
+      for( int r=0; r<3; r++ )
+        assertEquals(prog,rez,run0(prog,0));
+    }
+  }
+
+  @Test public void testThreads() throws Exception {
+    final int SEEDS=4;
+    String[] rez0 = new String[PROGS.length*SEEDS];
+    for( int i=0; i<rez0.length; i++ ) rez0[i] = run(PROGS[i/SEEDS],i%SEEDS);
+
+    ExecutorService pool = Executors.newFixedThreadPool(4);
+    try {
+      for( int r=0; r<3; r++ ) {
+        ArrayList<Future<String>> rezs = new ArrayList<>();
+        for( int i=0; i<rez0.length; i++ ) {
+          final int fi=i;
+          rezs.add(pool.submit(() -> run(PROGS[fi/SEEDS],fi%SEEDS)));
+        }
+        for( int i=0; i<rez0.length; i++ )
+          assertEquals(PROGS[i/SEEDS],rez0[i],rezs.get(i).get());
+      }
+    } finally { pool.shutdown(); }
+  }
+
+  // A compilation while a session is open leaves the session's numbers
+  // drawn, so the session closes cleanly and types the same again.
+  @Test public void testCompileInSession() {
+    for( String prog : PROGS ) {
+      String rez0 = run0(prog,0);
+      try( HMSession ses = new HMSession() ) {
+        Root syn = ses.hm(prog,0,true,true);
+        Exec.file("test",String.format(AA,7),0,true,true).close();
+        assertEquals(prog,rez0,syn._hmt.p()+" ; "+syn.flow_type());
+      }
+      assertEquals(prog,rez0,run0(prog,0));
+    }
+  }
+
+  // Compilations on another thread, reclaiming at every chance, do not drop
+  // Types out from under an open session, and sessions typing alongside them
+  // get the same answers.
+  @Test public void testWithCompiles() throws Exception {
+    String[] rez0 = new String[PROGS.length];
+    for( int i=0; i<PROGS.length; i++ ) rez0[i] = run(PROGS[i],0);
+
+    int ratio = Type.RECLAIM_RATIO;
+    Type.RECLAIM_RATIO = 0;     // Reclaim at every chance
+    AtomicBoolean done = new AtomicBoolean();
+    AtomicInteger cnt = new AtomicInteger();
+    ExecutorService pool = Executors.newFixedThreadPool(3);
+    try {
+      Future<?> compiles = pool.submit(() -> {
+          while( !done.get() )
+            Exec.file("test",String.format(AA,cnt.incrementAndGet()*10+7),0,true,true).close();
+        });
+      // A young Type from an open session stays interned across compilations
+      try( HMSession ses = new HMSession() ) {
+        Type t = ses.hm("12345",0,true,true).flow_type();
+        assertTrue(t.is_young());
+        for( int n=cnt.get(); cnt.get()<n+2 && !compiles.isDone(); ) Thread.sleep(1);
+        assertSame(t,Type.valueOf(t.toString()));
+      }
+      for( int r=0; r<5; r++ ) {
+        ArrayList<Future<String>> rezs = new ArrayList<>();
+        for( String prog : PROGS ) rezs.add(pool.submit(() -> run(prog,0)));
+        for( int i=0; i<PROGS.length; i++ )
+          assertEquals(PROGS[i],rez0[i],rezs.get(i).get());
+      }
+      done.set(true);
+      compiles.get();
+    } finally {
+      done.set(true);
+      pool.shutdown();
+      Type.RECLAIM_RATIO = ratio;
+    }
+  }
+}
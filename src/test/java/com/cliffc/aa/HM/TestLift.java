@@ -28,7 +28,7 @@ public class TestLift {
     T2 frl = T2.make_fun(T2.make_leaf(),T2.make_leaf(),T2.make_leaf(),T2.make_leaf());
 
     // 289: *[3](^=any, _289$, _289$, _289$)
-    Type.RECURSIVE_MEET++;
+    Type.recursive_meet(1);
     TypeFld[] flds = TypeFlds.get(4);
     flds[0]=TypeFld.NO_DSP;
     TypeFld fld0 = flds[1] = TypeFld.malloc("0",null,Access.Final);
@@ -39,7 +39,7 @@ public class TestLift {
     fld0.setX(ret1);
     fld1.setX(ret1);
     fld2.setX(ret1);
-    Type.RECURSIVE_MEET--;
+    Type.recursive_meet(-1);
     ts = Cyclic.install(ts);
     ret1 = TypeMemPtr.make(false,B3,ts);
 
@@ -48,12 +48,12 @@ public class TestLift {
     flds2[0]=TypeFld.NO_DSP;
     TypeFld fld21 = flds2[2] = TypeFld.make_tup(TypeNil.SCALAR,ARG_IDX+1);
     TypeFld fld22 = flds2[3] = TypeFld.make_tup(TypeNil.SCALAR,ARG_IDX+2);
-    Type.RECURSIVE_MEET++;
+    Type.recursive_meet(1);
     TypeFld fld20 = flds2[1] = TypeFld.malloc("0",null,Access.Final);
     TypeStruct ts2 = TypeStruct.malloc(false,"",Type.ALL,flds2);
     TypeMemPtr ret2 = TypeMemPtr.make(false,B3,ts2);
     fld20.setX(ret2);
-    Type.RECURSIVE_MEET--;
+    Type.recursive_meet(-1);
     ts2 = Cyclic.install(ts2);
     ret2 = TypeMemPtr.make(false,B3,ts2);
 
@@ -76,11 +76,11 @@ public class TestLift {
     T2 x3_ = make_(x0_,x1_,x2_);
 
     // Call walk_types_out with ret1
-    T2.WDUPS.clear(true);
+    HM.S()._wdups.clear(true);
     Type lift1 = x3_.walk_types_out(ret1,apply,true);
 
     // Call walk_types_out with ret2
-    T2.WDUPS.clear(true);
+    HM.S()._wdups.clear(true);
     Type lift2 = x3_.walk_types_out(ret2,apply,true);
 
     // Check monotonic
@@ -118,12 +118,12 @@ public class TestLift {
     T2 frl = T2.make_fun(T2.make_leaf(),T2.make_leaf());
 
     // 289: *[3](^=any, _289$)
-    Type.RECURSIVE_MEET++;
+    Type.recursive_meet(1);
     TypeFld fld1 = TypeFld.malloc("0",null,Access.Final);
     TypeStruct ts1 = TypeStruct.malloc_test("",TypeFld.NO_DSP,fld1);
     TypeMemPtr ret1 = TypeMemPtr.make(false,B3,ts1);
     fld1.setX(ret1);
-    Type.RECURSIVE_MEET--;
+    Type.recursive_meet(-1);
     ts1 = Cyclic.install(ts1);
     ret1 = TypeMemPtr.make(false,B3,ts1);
 
@@ -136,11 +136,11 @@ public class TestLift {
     T2 x00 = T2.make_open_struct(FLDS1, new T2[]{frl.fresh()});
     
     // Call walk_types_out with ret1
-    T2.WDUPS.clear(true);
+    HM.S()._wdups.clear(true);
     Type lift1 = x00.walk_types_out(ret1,apply,true);
     
     // Call walk_types_out with ret2
-    T2.WDUPS.clear(true);
+    HM.S()._wdups.clear(true);
     Type lift2 = x00.walk_types_out(ret2,apply,true);
     
     // Check monotonic
@@ -0,0 +1,27 @@
+package com.cliffc.aa;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TestCompileStats {
+  // Stats from one compile add up
+  @Test public void testStats() {
+    long work = Combo.WORK_TOT;
+    try( TypeEnv te = Exec.file("stats","fact = { x -> x <= 1 ? x : x*fact(x-1) }; fact(3)",0,true,true) ) {
+      CompileStats stats = te._stats;
+      assertNotNull(stats);
+      assertEquals(Combo.WORK_TOT-work, stats._work[1]+stats._work[2]+stats._work[3]+stats._work[4]);
+      assertTrue(stats._work[1] > 0);
+      for( int i=0; i<stats._ns.length; i++ )
+        assertTrue(stats._ns[i] >= 0 && stats._bytes[i] >= 0);
+      assertTrue(stats._ns[CompileStats.PARSE] > 0);
+      assertTrue(stats._gvn_iter >= stats._gvn_noop);
+      assertTrue(stats._intern_size > 0 && stats._intern_size <= stats._intern_cap);
+      assertTrue(stats._body_miss > 0 && stats._body_hit >= 0);
+      String json = stats.toJSON();
+      assertTrue(json.startsWith("{") && json.endsWith("}"));
+      assertTrue(json.contains("\"combo1\"") && json.contains("\"Root\": 1") && json.contains("\"inline_body\""));
+    }
+  }
+}
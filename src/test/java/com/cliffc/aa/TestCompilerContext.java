@@ -0,0 +1,71 @@
+package com.cliffc.aa;
+
+import com.cliffc.aa.type.Type;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+// Many threads compiling, one at a time under the graph lock, get the same
+// answers as one thread.  Each result is read before its context closes.
+public class TestCompilerContext {
+  @Test public void testThreads() throws InterruptedException {
+    String[] progs = new String[] {
+      "fact = { x -> x <= 1 ? x : x*fact(x-1) }; (fact(3),fact(5))",
+      "x=3; y=x*2; (x,y)",
+      "id={x->x}; (id(1),id(2.3))",
+      "f={x->x*2}; f(1.2)+f(3)",
+    };
+    String[] rez0 = new String[progs.length];
+    for( int i=0; i<progs.length; i++ ) rez0[i] = run(progs[i]);
+
+    final int N=4, R=5;
+    String[][] rezs = new String[N][progs.length];
+    Throwable[] errs = new Throwable[1];
+    Thread[] thrs = new Thread[N];
+    for( int x=0; x<N; x++ ) {
+      final int fx=x;
+      thrs[x] = new Thread(() -> {
+          try {
+            for( int r=0; r<R; r++ )
+              for( int i=0; i<progs.length; i++ )
+                rezs[fx][(i+fx)%progs.length] = run(progs[(i+fx)%progs.length]);
+          } catch( Throwable e ) { errs[0]=e; }
+        });
+      thrs[x].start();
+    }
+    for( Thread thr : thrs ) thr.join();
+    if( errs[0]!=null ) throw new RuntimeException(errs[0]);
+    for( String[] rez : rezs )
+      for( int i=0; i<progs.length; i++ )
+        assertEquals(rez0[i],rez[i]);
+  }
+  // A result from Exec.file holds its context open, so a later compile does
+  // not reclaim its Types.
+  @Test public void testHeld() {
+    String prog = "fact = { x -> x <= 1 ? x : x*fact(x-1) }; (fact(3),fact(5))";
+    int ratio = Type.RECLAIM_RATIO;
+    Type.RECLAIM_RATIO = 0;     // Reclaim at every chance
+    try( TypeEnv te = Exec.file("test",prog,0,true,true) ) {
+      Type rez = te._tmem.sharptr(te._t);
+      assertTrue(rez.is_young());
+      Exec.file("test","x=3; y=x*2; (x,y)",0,true,true).close();
+      assertSame(rez,Type.valueOf(rez.toString()));
+    } finally {
+      Type.RECLAIM_RATIO = ratio;
+    }
+  }
+  // A result dropped without a close releases its context once collected.
+  @Test public void testDropped() throws InterruptedException {
+    int holds = Type.holds();
+    Exec.file("test","x=3; y=x*2; (x,y)",0,true,true); // Never closed
+    assertEquals(holds+1,Type.holds());
+    for( int i=0; i<200 && Type.holds()>holds; i++ ) { System.gc(); Thread.sleep(10); }
+    assertTrue(Type.holds()<=holds);
+  }
+  private static String run( String prog ) {
+    try( CompilerContext ctx = new CompilerContext(0,true,true) ) {
+      TypeEnv te = Exec.file(ctx,"test",prog);
+      return te._errs==null ? te._tmem.sharptr(te._t)+" : "+te._hmt.p() : te._errs.toString();
+    }
+  }
+}
@@ -0,0 +1,30 @@
+package com.cliffc.aa;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TestOptProf {
+  // Profile one compile; every opcode row has progress <= pops
+  @Test public void testProf() {
+    OptProf.reset();
+    OptProf.ON = true;
+    try {
+      Exec.file("prof","fact = { x -> x <= 1 ? x : x*fact(x-1) }; fact(3)",0,true,true).close();
+    } finally {
+      OptProf.ON = false;
+    }
+    String[] rows = OptProf.report().split(System.lineSeparator());
+    assertTrue(rows.length > 1);
+    assertTrue(rows[0].startsWith("op"));
+    boolean combo=false;
+    for( int i=1; i<rows.length; i++ ) {
+      String[] cols = rows[i].trim().split(" +");
+      assertTrue(Long.parseLong(cols[3]) <= Long.parseLong(cols[2]));
+      combo |= cols[1].startsWith("combo.");
+    }
+    assertTrue(combo);
+    OptProf.reset();
+    assertEquals(1,OptProf.report().split(System.lineSeparator()).length);
+  }
+}
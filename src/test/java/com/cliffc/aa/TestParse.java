@@ -979,6 +979,7 @@ HashTable = {@{
         assertTrue(te._errs.get(0).toString().startsWith(err2));
       }
     }
+    te.close();                 // Done with the result Types
   }
   private static String stripIndent(String s){ return s.replace("\n","").replace(" ",""); }
 
@@ -0,0 +1,54 @@
+package com.cliffc.aa;
+
+import com.cliffc.aa.type.Type;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+// Types made by a compilation are reclaimed between top-level compilations,
+// so a long-lived JVM compiling many programs does not leak lattice elements.
+public class TestReclaim {
+  @Test public void testReclaim() {
+    String prog = "fact = { x -> x <= 1 ? x : x*fact(x-1) }; (fact(3),fact(5))";
+    String rez0 = run(prog);
+    assertTrue(Type.young_size() > 0);
+    assertTrue(Type.reclaim(true));
+    assertEquals(0,Type.young_size());
+    // Same answer from a fresh set of types
+    assertEquals(rez0,run(prog));
+  }
+  private static String run( String prog ) {
+    try( TypeEnv te = Exec.file("test",prog,0,true,true) ) {
+      assertNull(te._errs);
+      return te._tmem.sharptr(te._t)+" : "+te._hmt.p();
+    }
+  }
+
+  // Compile a small corpus many times, with new constants each round, and
+  // check the young types stay bounded: reclaim cuts them back to a peak
+  // seen while warming up.  Without reclaim every compilation adds its types
+  // for good.
+  @Test public void testSoak() {
+    final String[] progs = new String[]{
+      "fact = { x -> x <= 1 ? x : x*fact(x-1) }; (fact(%d),fact(5))",
+      "x=%d; y=x*2; (x,y)",
+      "sq={x->x*x}; (sq(%d),sq(2.1))",
+      "x:=%d; x:=x+1; x",
+      "f={a b -> a<b ? a : b}; f(2,%d)",
+      "id={x->x}; (id(%d),id(\"str\"))",
+    };
+    final int N=40, WARM=10;
+    int ratio = Type.RECLAIM_RATIO, warm=0, max=0;
+    Type.RECLAIM_RATIO = 1;     // Reclaim every few rounds
+    try {
+      for( int i=0; i<N; i++ ) {
+        for( String prog : progs ) {
+          run(String.format(prog,i*1000+7));
+          if( i< WARM ) warm = Math.max(warm,Type.young_size());
+          else          max  = Math.max(max ,Type.young_size());
+        }
+      }
+    } finally { Type.RECLAIM_RATIO = ratio; }
+    assertTrue(max < warm*2);
+  }
+}
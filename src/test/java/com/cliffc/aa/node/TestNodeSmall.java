@@ -472,8 +472,13 @@ public class TestNodeSmall {
   // Code: "gen_ctr={cnt;{cnt++}}; ctrA=gen_ctr(); ctrB=gen_ctr(); ctrA(); ctrB(); ctrB()"
   //
   @Test public void testRecursiveDisplay() {
-    AA.LIFTING = true;
-
+    try( CompilerContext ctx = new CompilerContext(0,true,false) ) {
+      ctx.enter();
+      try { recursive_display(ctx); }
+      finally { Env.top_reset(); ctx.exit(); } // Hard reset
+    }
+  }
+  private static void recursive_display( CompilerContext ctx ) {
     // Build the graph for a simple recursive function display.
     // Struct (display); inputs are prior display and FunPtr
     // Fun (and Fun._tf) - Just default control and some other control
@@ -520,11 +525,9 @@ public class TestNodeSmall {
     }
 
     // Now run GCP to closure.  This is the key call being tested.
-    AA.LIFTING = false;
-    DO_GCP=true;
-    DO_HMT=false;
+    ctx._lifting = false;
     Combo.opto();
-    AA.LIFTING = true;
+    ctx._lifting = true;
 
     // Validate cyclic display/function type
     TypeFunPtr tfptr0 = (TypeFunPtr) bind._val;
@@ -539,10 +542,83 @@ public class TestNodeSmall {
     // Cleanup after test
     env.kill();
     dsp_file.pop();
-    Env.top_reset();                   // Hard reset
   }
 
 
+  // A Load finds its Store past a long run of Stores to another alias, and
+  // still finds a Store edited into the run.
+  @Test public void testLoadSkipsStores() {
+    ConNode mem = new ConNode<>(TypeMem.ANYMEM).init();
+    ConNode val = new ConNode<>(TypeInt.con(3)).init();
+    NewNode nn1 = new NewNode().init();
+    NewNode nn2 = new NewNode().init();
+    StoreNode st1 = new StoreNode(mem,nn1,val,null).init();
+    Node top = st1;
+    StoreNode[] sts = new StoreNode[2000];
+    for( int i=0; i<sts.length; i++ )
+      top = sts[i] = new StoreNode(top,nn2,val,null).init();
+    BitsAlias aliases = nn1._tptr._aliases;
+    assertEquals(st1,LoadNode.find_previous_struct(null,top,nn1,aliases));
+    assertEquals(st1,sts[1000].skip(aliases)); // Path compressed
+    assertEquals(st1,LoadNode.find_previous_struct(null,top,nn1,aliases));
+    // Edit a Store in the middle of the run to the Load's address
+    sts[1000].set_def(2,nn1);
+    assertEquals(sts[1000],LoadNode.find_previous_struct(null,top,nn1,aliases));
+    assertEquals(st1,LoadNode.find_previous_struct(null,sts[999],nn1,aliases));
+  }
+
+  // The inline body summary outlasts wiring a call, which edits only the
+  // caller paths into the Fun and its Parms, and the uses of the Ret.  Edits
+  // within the body walk drop it.
+  @Test public void testBodySummary() {
+    ConNode ctl = new ConNode<>(Type.CTRL).init();
+    ConNode mem = new ConNode<>(TypeMem.ANYMEM).init();
+    ConNode rpc = new ConNode<>(TypeRPC.ALL_CALL).init();
+    ConNode x   = new ConNode<>(TypeInt.con(3)).init();
+    FunNode fun = new FunNode("f",ARG_IDX+1).add_def(ctl).add_def(ctl).init();
+    ParmNode pmem = new ParmNode(MEM_IDX,fun,null,TypeMem.ALLMEM,mem).add_def(mem).init();
+    ParmNode px   = new ParmNode(ARG_IDX,fun,null,TypeInt.INT64,x).add_def(x).init();
+    RetNode ret = new RetNode(fun,pmem,px,rpc,fun).init();
+    fun.summarize(ret);
+    assertTrue(fun._body.find(px)!=-1);
+    // Wire a call
+    fun.add_def(ctl);
+    pmem.add_def(mem);
+    px.add_def(x);
+    new ProjNode(ret,REZ_IDX);
+    assertTrue(fun._body!=null);
+    // Return the constant
+    ret.set_def(REZ_IDX,x);
+    assertTrue(fun._body==null);
+    fun.summarize(ret);
+    assertTrue(fun._body.find(x)==-1);
+    // A new use of a Parm may join the body
+    new ProjNode(px,0);
+    assertTrue(fun._body==null);
+  }
+
+  // A Load stalled at a Call on escaped aliases is listed with Root once, and
+  // woken when a Root value change stops the overlap.
+  @Test public void testEscapeStall() {
+    ConNode mem = new ConNode<>(TypeMem.ANYMEM).init();
+    NewNode nn = new NewNode().init();
+    LoadNode ld = new LoadNode(mem,nn,null);
+    BitsAlias aliases = nn._tptr._aliases;
+    RootNode root = Env.ROOT;
+    Type rval = root._val;
+    try {
+      root._val = TypeTuple.make(Type.CTRL,TypeMem.ALLMEM,TypeNil.SCALAR,TypeNil.make(false,false,false,aliases,BitsFun.EMPTY));
+      root.alias_deps_add(ld,aliases);
+      root.alias_deps_add(ld,aliases);
+      assertEquals(1,root._stalled._len);
+      root.add_flow_uses();     // Still overlaps
+      assertEquals(aliases,ld._esc_stall);
+      root._val = TypeTuple.make(Type.CTRL,TypeMem.ALLMEM,TypeNil.SCALAR,TypeNil.make(false,false,false,BitsAlias.EMPTY,BitsFun.EMPTY));
+      root.add_flow_uses();     // No more overlap
+      assertTrue(ld._esc_stall==null && root._stalled._len==0);
+    } finally { root._val = rval; }
+  }
+
   // Memory checks args "just like" normal args, except it changes contents of
   // memory to match incoming args.
   //
@@ -0,0 +1,35 @@
+package com.cliffc.aa.tvar;
+
+import org.junit.Test;
+
+import static com.cliffc.aa.AA.ARG_IDX;
+import static org.junit.Assert.*;
+
+public class TestTV3 {
+  // Identity { A -> A }
+  private static TVLambda id() {
+    TVLeaf a = new TVLeaf();
+    TVLambda lam = new TVLambda(ARG_IDX+1,new TVLeaf(),a);
+    lam._args[ARG_IDX] = a;
+    return lam;
+  }
+
+  // Fresh-unify into a leaf makes a private copy, keeping sharing.  Repeated
+  // walks do not see each other's marks.
+  @Test public void testFreshUnify() {
+    TVLambda id = id();
+    TVLeaf r0 = new TVLeaf(), r1 = new TVLeaf();
+    assertTrue(id.fresh_unify(r0,null,false));
+    assertTrue(id.fresh_unify(r1,null,false));
+    TVLambda c0 = (TVLambda)r0.find(), c1 = (TVLambda)r1.find();
+    assertNotSame(id,c0);
+    assertNotSame(c0,c1);
+    assertSame(c0.ret(),c0.arg(ARG_IDX));
+    assertSame(c1.ret(),c1.arg(ARG_IDX));
+    assertNotSame(id.ret(),c0.ret());
+    assertNotSame(c0.ret(),c1.ret());
+    assertTrue(id.ret() instanceof TVLeaf);
+    // Same shape again: no progress
+    assertFalse(id.fresh_unify(c0,null,false));
+  }
+}
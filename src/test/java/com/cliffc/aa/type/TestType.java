@@ -4,8 +4,11 @@ import com.cliffc.aa.Env;
 import com.cliffc.aa.node.PrimNode;
 import com.cliffc.aa.util.Ary;
 import com.cliffc.aa.util.SB;
+import org.junit.Ignore;
 import org.junit.Test;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
 import static com.cliffc.aa.type.TypeMemPtr.NO_DISP;
 import static org.junit.Assert.*;
 
@@ -179,6 +182,140 @@ public class TestType {
     assertEquals(t12,mt);
   }
 
+  // Small sets over thousands of split aliases use a sorted-array encoding
+  // and an interval-numbered tree; check them against plain parent walks.
+  @Test public void testBitsMany() {
+    java.util.Random R = new java.util.Random(12345);
+    int N=3000;
+    int[] as = split_aliases(R,new int[N],0,N);
+    BitsAlias b0 = BitsAlias.make0(as[N-1],as[N-2]);
+    assertNotNull(b0._elems);
+    assertSame(b0,BitsAlias.make0(as[N-2],as[N-1]));
+    assertSame(b0,BitsAlias.make0(as[N-1]).meet(BitsAlias.make0(as[N-2])));
+    assertSame(BitsAlias.make0(as[N-1]),b0.clear(as[N-2]));
+
+    // Ancestor tests
+    for( int i=0; i<1000; i++ ) {
+      int kid = as[R.nextInt(N)], par = as[R.nextInt(N)];
+      assertEquals(walk_parent(par,kid),BitsAlias.TREE.is_parent(par,kid));
+      for( int p=kid; p!=0; p=BitsAlias.parent(p) )
+        assertTrue(BitsAlias.TREE.is_parent(p,kid));
+    }
+
+    BitsAlias[] bs = new BitsAlias[100];
+    for( int i=0; i<bs.length; i++ ) bs[i] = rnd_bits(R,as,N,1+R.nextInt(4));
+    for( BitsAlias x : bs ) {
+      for( int i=0; i<20; i++ ) {
+        int a = as[R.nextInt(N)];
+        boolean rec=false;
+        for( int e : x ) rec |= e!=0 && walk_parent(e,a);
+        assertEquals(rec,x.test_recur(a));
+      }
+      assertSame(x,x.dual().dual());
+      for( BitsAlias y : bs ) {
+        BitsAlias mt = x.meet(y);
+        assertSame(mt,y.meet(x));
+        assertTrue(x.isa(mt));
+        boolean ovr=false;
+        for( int a : x ) for( int b : y )
+          ovr |= a!=0 && b!=0 && (walk_parent(a,b) || walk_parent(b,a));
+        assertEquals(x==y || ovr,x.overlaps(y));
+      }
+    }
+    for( int i=0; i<20000; i++ ) {
+      BitsAlias x = bs[R.nextInt(bs.length)], y = bs[R.nextInt(bs.length)], z = bs[R.nextInt(bs.length)];
+      assertSame(x.meet(y).meet(z),x.meet(y.meet(z)));
+    }
+  }
+  // A reset leaves the tree alone while a session shares it, so the
+  // session's aliases are not drawn again.
+  @Test public void testBitsShared() {
+    int par = BitsAlias.new_alias(BitsAlias.INTX);
+    BitsAlias.share();
+    try {
+      int a = BitsAlias.new_alias(par);
+      assertFalse(BitsAlias.reset_unshared());
+      assertTrue(a != BitsAlias.new_alias(par));
+    } finally { BitsAlias.unshare(); }
+  }
+
+  // Readers walk the kids of a subtree without locking, while another
+  // thread splits and frees leaves under it.
+  @Test public void testBitsReaders() throws InterruptedException {
+    int par = BitsAlias.new_alias(BitsAlias.INTX);
+    int[] kids = new int[8];
+    for( int i=0; i<kids.length; i++ ) kids[i] = BitsAlias.new_alias(par);
+    AtomicBoolean done = new AtomicBoolean();
+    Throwable[] errs = new Throwable[1];
+    Thread reader = new Thread(() -> {
+        try {
+          while( !done.get() ) {
+            int cnt=0;
+            for( int kid=par; kid!=0; kid=BitsAlias.next_kid(par,kid) ) {
+              assertTrue(walk_parent(par,kid));
+              assertTrue(cnt++ < 1000);
+            }
+          }
+        } catch( Throwable e ) { errs[0]=e; }
+      });
+    reader.start();
+    java.util.Random R = new java.util.Random(1);
+    for( int i=0; i<20000; i++ ) {
+      int kid = kids[R.nextInt(kids.length)];
+      int a = BitsAlias.new_alias(kid), b = BitsAlias.new_alias(kid);
+      BitsAlias.free(b);
+      BitsAlias.free(a);
+    }
+    done.set(true);
+    reader.join();
+    if( errs[0]!=null ) throw new RuntimeException(errs[0]);
+  }
+
+  // Split n0..n aliases in a random tree under INTX
+  private static int[] split_aliases( java.util.Random R, int[] as, int n0, int n ) {
+    for( int i=n0; i<n; i++ )
+      as[i] = BitsAlias.new_alias(i<8 ? BitsAlias.INTX : as[R.nextInt(i)]);
+    return as;
+  }
+  // Random set of up to 'cnt' aliases; sometimes with nil, sometimes a join
+  private static BitsAlias rnd_bits( java.util.Random R, int[] as, int n, int cnt ) {
+    int[] xs = new int[cnt];
+    for( int j=0; j<cnt; j++ ) xs[j] = as[R.nextInt(n)];
+    BitsAlias b = BitsAlias.make0(xs);
+    if( R.nextInt(8)==0 ) b = b.meet_nil();
+    return R.nextBoolean() ? b : b.dual();
+  }
+  private static boolean walk_parent( int par, int kid ) {
+    for( ; kid!=0; kid = BitsAlias.parent(kid) )
+      if( kid==par ) return true;
+    return false;
+  }
+
+  // Wide structs find fields through a label-id index
+  @Test public void testWideStruct() {
+    int N=40;
+    TypeFld[] fs0 = TypeFlds.get(N), fs1 = TypeFlds.get(N);
+    for( int i=0; i<N; i++ ) {
+      String s = ("f"+i).intern();
+      fs0[i] = TypeFld.make(s,TypeInt.con(i));
+      fs1[i] = TypeFld.make(s,TypeInt.con(i+(i&1)));
+    }
+    TypeStruct ts0 = TypeStruct.make_flds("",Type.ALL,fs0);
+    TypeStruct ts1 = TypeStruct.make_flds("",Type.ALL,fs1);
+    for( int i=0; i<N; i++ ) {
+      String s = ("f"+i).intern();
+      int idx = ts0.find(s);
+      assertSame(s,ts0.get(idx)._fld);
+      assertEquals(idx,ts0.find_id(ts0.get(idx)._id));
+    }
+    assertEquals(-1,ts0.find("no_such_field_label"));
+    assertEquals(-1,ts0.find("x"));
+    TypeStruct mt = (TypeStruct)ts0.meet(ts1);
+    assertEquals(N,mt.len());
+    assertSame(TypeInt.con(4),mt.at("f4"));
+    assertSame(TypeInt.INT8,mt.at("f5").meet(TypeInt.INT8));
+  }
+
   @Test public void testNamesInts() {
 
     // Lattice around int8 and 0 is well-formed; exactly 3 edges, 3 nodes
@@ -437,22 +574,22 @@ public class TestType {
     // Anonymous recursive structs -
     // - struct with pointer to self
     TypeFld fldv = TypeFld.make("v",TypeInt.INT64);
-    Type.RECURSIVE_MEET++;
+    Type.recursive_meet(1);
     TypeFld fldn0 = TypeFld.malloc("n");
     TypeStruct ts0 = TypeStruct.malloc_test("",fldn0,fldv);
     final TypeMemPtr ts0ptr = TypeMemPtr.make(alias1,ts0);
     fldn0.setX(ts0ptr);
-    Type.RECURSIVE_MEET--;
+    Type.recursive_meet(-1);
     ts0 = Cyclic.install(ts0);
     TypeMem ts0mem = TypeMem.make(alias1,ts0); // {1:@{n:*[1],v:int} }
 
     // - struct with pointer to self or nil
-    Type.RECURSIVE_MEET++;
+    Type.recursive_meet(1);
     TypeFld fldn1 = TypeFld.malloc("n");
     TypeStruct ts1 = TypeStruct.malloc_test("",fldn1,fldv);
     final TypeMemPtr ts1ptr0 = TypeMemPtr.make_nil(alias1,ts1);
     fldn1.setX(ts1ptr0);
-    Type.RECURSIVE_MEET--;
+    Type.recursive_meet(-1);
     ts1 = Cyclic.install(ts1);
     TypeMem ts1mem = TypeMem.make(alias1,ts1); // {1:@{n:*[1],v:int} }
 
@@ -545,7 +682,7 @@ public class TestType {
 
     TypeFld fldvi = TypeFld.make("v",TypeInt.INT64);
     TypeFld fldvf = TypeFld.make("v",TypeFlt.FLT64);
-    Type.RECURSIVE_MEET++;
+    Type.recursive_meet(1);
     TypeFld fldn1 = TypeFld.malloc("n");
     TypeFld fldn4 = TypeFld.malloc("n");
     TypeStruct as1 = TypeStruct.malloc_test("A:",fldn1,fldvi);
@@ -554,7 +691,7 @@ public class TestType {
     TypeMemPtr bp2 = TypeMemPtr.make(alias,bs4);
     fldn1.setX(bp2);
     fldn4.setX(ap5);
-    Type.RECURSIVE_MEET--;
+    Type.recursive_meet(-1);
     as1 = Cyclic.install(as1);
     bp2 = (TypeMemPtr)as1.at("n");
     bs4 =             bp2._obj;
@@ -634,4 +771,133 @@ public class TestType {
     assertTrue(Type.check_startup());
   }
 
+  // Meet cache is bounded, evicts, and never returns a stale pair
+  @Test public void testTypeCache() {
+    TypeCache tc = new TypeCache("test",1); // 2 sets
+    int N=100;
+    for( int i=0; i<N; i++ ) {
+      TypeInt a = TypeInt.con(i), b = TypeInt.con(i+1);
+      assertNull(tc.get(a,b));
+      tc.put(a,b,a.meet(b));
+    }
+    assertEquals(N,tc._misses);
+    assertTrue(tc.size() <= tc.capacity());
+    assertEquals(N-tc.size(),tc._evicts);
+    // The most recent pair is always present
+    TypeInt a = TypeInt.con(N-1), b = TypeInt.con(N);
+    assertSame(a.meet(b),tc.get(a,b));
+    for( int i=0; i<N; i++ ) {
+      Type mt = tc.get(TypeInt.con(i),TypeInt.con(i+1));
+      assertTrue(mt==null || mt==TypeInt.con(i).meet(TypeInt.con(i+1)));
+    }
+  }
+
+  // Many threads meeting and making (cyclic) types at once all get the same
+  // interned results as a single thread.
+  @Test public void testConcurrent() throws InterruptedException {
+    Type[] ts = Type.ALL_TYPES().asAry();
+    String[] cycs = new String[] {
+      "PA:*[7]@{_; add=[23]{any,4 -> PA }; i=int64}",
+      "PA:*[18]@{_; n1=*[17]@{_; n1=PA; FB:v1=7}; FB}",
+    };
+    int N=4;
+    Type[][] rezs = new Type[N][];
+    Thread[] thrs = new Thread[N];
+    Throwable[] errs = new Throwable[1];
+    Type.MEETS.clear();  Type.JOINS.clear();  Type.ISAS.clear(); // Race to fill the caches
+    for( int x=0; x<N; x++ ) {
+      final int fx=x;
+      thrs[x] = new Thread(() -> {
+          try { rezs[fx] = meets(ts,cycs); }
+          catch( Throwable e ) { errs[0]=e; }
+        });
+      thrs[x].start();
+    }
+    for( Thread thr : thrs ) thr.join();
+    if( errs[0]!=null ) throw new RuntimeException(errs[0]);
+    Type.MEETS.clear();  Type.JOINS.clear();  Type.ISAS.clear();
+    Type[] rez = meets(ts,cycs);
+    for( Type[] rez0 : rezs )
+      for( int i=0; i<rez.length; i++ )
+        assertSame(rez[i],rez0[i]);
+  }
+  private static Type[] meets( Type[] ts, String[] cycs ) {
+    Type[] rez = new Type[ts.length*ts.length+cycs.length];
+    for( int i=0; i<ts.length; i++ )
+      for( int j=0; j<ts.length; j++ )
+        rez[i*ts.length+j] = ts[i].meet(ts[j]);
+    for( int i=0; i<cycs.length; i++ )
+      rez[ts.length*ts.length+i] = Type.valueOf(cycs[i]);
+    return rez;
+  }
+
+  // Memories over many aliases.  The same contents built in any order are
+  // the same interned memory, and a store only changes its own alias.
+  @Test public void testMemMany() {
+    int N=2000;
+    int[] as = new int[N];
+    for( int i=0; i<N; i++ ) as[i] = BitsAlias.new_alias();
+    TypeMem fwd = TypeMem.make(as[0],TypeStruct.POINT), rev = TypeMem.make(as[N-1],TypeStruct.NAMEPT);
+    for( int i=1; i<N; i++ ) fwd = fwd.set(as[i],(i&1)==0 ? TypeStruct.POINT : TypeStruct.NAMEPT);
+    for( int i=N-2; i>=0; i-- ) rev = rev.set(as[i],(i&1)==0 ? TypeStruct.POINT : TypeStruct.NAMEPT);
+    assertSame(fwd,rev);
+    assertEquals(as[N-1]+1,fwd.len());
+
+    TypeMem mem = fwd.set(as[5],TypeStruct.ISUSED);
+    assertSame(TypeStruct.ISUSED,mem.at(as[5]));
+    assertSame(TypeStruct.NAMEPT,mem.at(as[7]));
+    assertSame(TypeStruct.UNUSED,mem.at(BitsAlias.INTX));
+    // Meet only changes the one differing alias
+    TypeMem mt = (TypeMem)fwd.meet(mem);
+    assertSame(mem,mt);
+    // Setting back to the parent's value removes the entry, so the memory
+    // shrinks back down.
+    TypeMem sml = TypeMem.make(as[0],TypeStruct.POINT);
+    assertSame(sml,TypeMem.make(as[0],TypeStruct.POINT).set(as[N-1],TypeStruct.POINT).set(as[N-1],TypeStruct.UNUSED));
+    assertEquals(as[0]+1,sml.len());
+  }
+
+  // A meet changing a parent alias does not reuse a shared trie subtree
+  // holding its kid: the kid may now dup the parent.
+  @Test public void testMemMeetParent() {
+    int par = BitsAlias.new_alias();
+    for( int i=0; i<64; i++ ) BitsAlias.new_alias(); // Kid in another trie leaf
+    int kid = BitsAlias.new_alias(par);
+    TypeStruct s1 = TypeStruct.make(TypeFld.make("x",TypeInt.con(1)));
+    TypeStruct s2 = TypeStruct.make(TypeFld.make("x",TypeInt.con(2)));
+    TypeStruct v = (TypeStruct)s1.meet(s2);
+    assertTrue(v!=s1 && v!=s2);
+    TypeMem a = TypeMem.make(par,s1).set(kid,v);
+    TypeMem b = a.set(par,s2);
+    assertSame(v,b.at(kid));
+    assertSame(TypeMem.make(par,v),a.meet(b));
+  }
+
+  // A ring of N structs, with values repeating every P, minimizes to a ring
+  // of P structs.
+  @Test public void testCyclicMin() {
+    Object dummy0 = TypeMemPtr.DISPLAY_PTR; // Must <clinit> out of RECURSIVE_MEET
+    int alias = BitsAlias.new_alias(BitsAlias.ALLX);
+    TypeStruct r4 = Cyclic.install(ring(alias,4,4));
+    assertSame(r4,Cyclic.install(ring(alias,20,4)));
+    TypeStruct r2 = Cyclic.install(ring(alias,4,2));
+    assertSame(r2,Cyclic.install(ring(alias,2,2)));
+    assertTrue(r2!=r4);
+    TypeStruct r1 = Cyclic.install(ring(alias,1,1));
+    assertSame(r1,Cyclic.install(ring(alias,10,1)));
+    assertTrue(r1!=r4);
+  }
+  // Struct i is @{n=*[alias]->struct i+1; v=i%p}, and the last points to the first
+  private static TypeStruct ring( int alias, int n, int p ) {
+    Type.recursive_meet(1);
+    TypeFld[] nxts = new TypeFld[n];
+    TypeStruct[] ts = new TypeStruct[n];
+    for( int i=0; i<n; i++ )
+      ts[i] = TypeStruct.malloc_test("",nxts[i] = TypeFld.malloc("n"),TypeFld.make("v",TypeInt.con(i%p)));
+    for( int i=0; i<n; i++ )
+      nxts[i].setX(TypeMemPtr.make(alias,ts[(i+1)%n]));
+    Type.recursive_meet(-1);
+    return ts[0];
+  }
+
 }
@@ -0,0 +1,46 @@
+package com.cliffc.aa.util;
+
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.function.IntSupplier;
+
+import static org.junit.Assert.*;
+
+public class TestWork {
+  private record X(int _uid) implements IntSupplier { public int getAsInt() { return _uid; } }
+  private static X[] xs(int n) { X[] xs = new X[n]; for( int i=0; i<n; i++ ) xs[i] = new X(i); return xs; }
+
+  // Dup filtering, membership, and every pop flavor against a reference set
+  @Test public void testWork() {
+    X[] xs = xs(100000);
+    Random R = new Random(123);
+    Work<X> work = new Work<>(7);
+    HashSet<X> ref = new HashSet<>();
+    for( int i=0; i<200000; i++ ) {
+      X x = xs[R.nextInt(xs.length)];
+      switch( R.nextInt(4) ) {
+      case 0, 1 -> { work.add(x); ref.add(x); }
+      case 2 -> { X y = work.pop     (); assertEquals(y!=null, ref.remove(y)); }
+      case 3 -> { X y = work.pop_last(); assertEquals(y!=null, ref.remove(y)); }
+      }
+      assertEquals(ref.contains(x),work.on(x));
+      assertEquals(ref.size(),work.len());
+    }
+    work.clear();
+    for( X x : xs ) assertFalse(work.on(x));
+    assertNull(work.pop());
+  }
+
+  // Same seed, same pop order
+  @Test public void testSeeded() {
+    X[] xs = xs(1000);
+    Work<X> w0 = new Work<>(17), w1 = new Work<>(17);
+    w0.add(xs);  w1.add(xs);
+    X x;
+    while( (x=w0.pop())!=null )
+      assertSame(x,w1.pop());
+    assertTrue(w1.isEmpty());
+  }
+}